@@ -31,13 +31,16 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.service.HashedWheelTimer;
 import com.microsoft.frameworklauncher.common.service.StopStatus;
 import com.microsoft.frameworklauncher.common.service.SystemTaskQueue;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
 import com.microsoft.frameworklauncher.hdfsstore.HdfsStore;
+import com.microsoft.frameworklauncher.localstore.LocalStore;
 import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.hadoop.yarn.api.ApplicationConstants;
 import org.apache.hadoop.yarn.api.protocolrecords.RegisterApplicationMasterResponse;
@@ -55,6 +58,7 @@
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 // Maintains the life cycle for one Framework owned by this AM.
 // It is the engine to transition Status to satisfy Request eventually.
@@ -71,7 +75,7 @@ public class ApplicationMaster extends AbstractService {
   /**
    * REGION SubServices
    */
-  protected ZookeeperStore zkStore;
+  protected LauncherStore zkStore;
   protected HdfsStore hdfsStore;
   protected YarnClient yarnClient;
   protected LauncherClient launcherClient;
@@ -96,6 +100,11 @@ public class ApplicationMaster extends AbstractService {
   //  to expire. So the only impact is longer time to launchContainersTogether.
   // ContainerId -> Container
   private Map<String, Container> allocatedContainers = new HashMap<>();
+  // TaskStatusLocator -> The pending delayed SystemTask to retry or timeout the ContainerRequest of the Task.
+  // It is cancelled once the ContainerRequest is removed, so that the timeouts of the already
+  // satisfied or removed ContainerRequests do not pile up in the transitionTaskStateQueue,
+  // and it is also untracked once it fires, so that the fired ones do not pile up here.
+  private Map<TaskStatusLocator, HashedWheelTimer.Timeout> containerRequestTimeouts = new HashMap<>();
   // ContainerId -> ContainerConnectionExceedCount
   private Map<String, Integer> containerConnectionExceedCount = new HashMap<>();
 
@@ -134,7 +143,7 @@ protected Boolean handleException(Exception e) {
   @Override
   protected void initialize() throws Exception {
     super.initialize();
-    transitionTaskStateQueue = new SystemTaskQueue(this::handleException);
+    transitionTaskStateQueue = new SystemTaskQueue("TransitionTaskStateQueue", this::handleException);
 
     // Initialize AM NoDependenceConfig
     conf.initializeNoDependenceConfig();
@@ -160,7 +169,16 @@ protected void initialize() throws Exception {
     conf.initializeDependOnYarnClientConfig(yarnClient);
 
     // Initialize Launcher Store
-    zkStore = new ZookeeperStore(conf.getZkConnectString(), conf.getZkRootDir(), conf.getZkCompressionEnable());
+    if (conf.getLauncherStoreType() == LauncherStoreType.LOCAL) {
+      zkStore = new LocalStore(
+          conf.getLocalStoreDir(), conf.getZkSerializationType(),
+          conf.getLocalStoreMaxLogMB(), conf.getLocalStoreSyncEnable());
+    } else {
+      zkStore = new ZookeeperStore(
+          conf.getZkConnectString(), conf.getZkRootDir(),
+          conf.getZkCompressionEnable(), conf.getZkCompressionType(),
+          conf.getZkCompressionLevel(), conf.getZkSerializationType());
+    }
     conf.initializeDependOnZKStoreConfig(zkStore);
     hdfsStore = new HdfsStore(conf.getLauncherConfig().getHdfsRootDir());
     hdfsStore.makeFrameworkRootDir(conf.getFrameworkName());
@@ -574,9 +592,16 @@ private ContainerLaunchContext setupContainerLaunchContext(TaskStatus taskStatus
     localEnvs.put(GlobalConstants.ENV_VAR_TASK_INDEX, taskIndex.toString());
     localEnvs.put(GlobalConstants.ENV_VAR_SERVICE_VERSION, serviceVersion.toString());
 
+    localEnvs.put(GlobalConstants.ENV_VAR_LAUNCHER_STORE_TYPE, conf.getLauncherStoreType().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_DIR, conf.getLocalStoreDir());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_MAX_LOG_MB, conf.getLocalStoreMaxLogMB().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_SYNC_ENABLE, conf.getLocalStoreSyncEnable().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_CONNECT_STRING, conf.getZkConnectString());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_ROOT_DIR, conf.getZkRootDir());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_ENABLE, conf.getZkCompressionEnable().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_TYPE, conf.getZkCompressionType().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_LEVEL, conf.getZkCompressionLevel().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_SERIALIZATION_TYPE, conf.getZkSerializationType().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_AM_VERSION, conf.getAmVersion().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_APP_ID, conf.getApplicationId());
     localEnvs.put(GlobalConstants.ENV_VAR_ATTEMPT_ID, conf.getAttemptId());
@@ -663,12 +688,12 @@ private void recoverTransitionTaskStateQueue() {
         CommonExts.toString(TaskStateDefinition.QUEUE_CORRUPTED_AFTER_RESTART_STATES));
 
     // There may be a lot of corrupted SystemTasks, so we queue them as one SystemTask per State
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.recoverTransitionTaskStateQueue", () -> {
       addContainerRequest();
     });
     LOGGER.logInfo("All the previous TASK_WAITING Tasks have been driven");
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.recoverTransitionTaskStateQueue", () -> {
       attemptToRetry();
     });
     LOGGER.logInfo("All the previous CONTAINER_COMPLETED Tasks have been driven");
@@ -696,7 +721,7 @@ private void addContainerRequest(TaskStatus taskStatus) throws Exception {
           setupContainerRequestRetryIntervalSec);
 
       TaskStatus taskStatusSnapshot = YamlUtils.deepCopy(taskStatus, TaskStatus.class);
-      transitionTaskStateQueue.queueSystemTaskDelayed(() -> {
+      queueContainerRequestTimeout(taskLocator, () -> {
         if (statusManager.containsTask(taskStatusSnapshot)) {
           addContainerRequest(taskStatusSnapshot);
         } else {
@@ -720,7 +745,7 @@ private void addContainerRequest(TaskStatus taskStatus) throws Exception {
     statusManager.transitionTaskState(taskLocator, TaskState.CONTAINER_REQUESTED,
         new TaskEvent().setContainerRequest(request));
 
-    transitionTaskStateQueue.queueSystemTaskDelayed(() -> {
+    queueContainerRequestTimeout(taskLocator, () -> {
       if (statusManager.containsTask(request.getPriority())) {
         LOGGER.logWarning(logPrefix +
                 "ContainerRequest cannot be satisfied within timeout %ss. " +
@@ -734,6 +759,32 @@ private void addContainerRequest(TaskStatus taskStatus) throws Exception {
     }, containerRequestTimeoutSec * 1000);
   }
 
+  // The fired Timeout is untracked before its task runs, even if the task finds the Task is removed
+  private void queueContainerRequestTimeout(
+      TaskStatusLocator taskLocator, CommonExts.VoidCallable task, long milliseconds) {
+    AtomicReference<HashedWheelTimer.Timeout> timeoutRef = new AtomicReference<>();
+    timeoutRef.set(transitionTaskStateQueue.queueSystemTaskDelayed(
+        "ApplicationMaster.addContainerRequest", () -> {
+      containerRequestTimeouts.remove(taskLocator, timeoutRef.get());
+      task.call();
+    }, milliseconds));
+    putContainerRequestTimeout(taskLocator, timeoutRef.get());
+  }
+
+  private void putContainerRequestTimeout(TaskStatusLocator taskLocator, HashedWheelTimer.Timeout timeout) {
+    HashedWheelTimer.Timeout previousTimeout = containerRequestTimeouts.put(taskLocator, timeout);
+    if (previousTimeout != null) {
+      previousTimeout.cancel();
+    }
+  }
+
+  private void cancelContainerRequestTimeout(TaskStatusLocator taskLocator) {
+    HashedWheelTimer.Timeout timeout = containerRequestTimeouts.remove(taskLocator);
+    if (timeout != null && timeout.cancel()) {
+      LOGGER.logDebug("%s: Cancelled the pending ContainerRequest timeout", taskLocator);
+    }
+  }
+
   private void addContainerRequest() throws Exception {
     List<TaskStatus> taskStatuses = statusManager.getTaskStatus(
         new HashSet<>(Collections.singletonList(TaskState.TASK_WAITING)));
@@ -1022,6 +1073,7 @@ private Set<String> resyncTasksWithLiveContainers(HashSet<String> liveContainerI
 
   private void removeContainerRequest(TaskStatus taskStatus) {
     TaskStatusLocator taskLocator = new TaskStatusLocator(taskStatus.getTaskRoleName(), taskStatus.getTaskIndex());
+    cancelContainerRequestTimeout(taskLocator);
     if (!statusManager.containsTask(taskLocator)) {
       return;
     }
@@ -1255,7 +1307,7 @@ public void onTaskNumbersUpdated(Map<String, Integer> taskNumbers) {
     LOGGER.logInfo("onTaskNumbersUpdated: TaskNumbers: %s", CommonExts.toString(taskNumbers));
 
     // In case TaskNumbers Increased
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.onTaskNumbersUpdated", () -> {
       statusManager.updateTaskNumbers(taskNumbers);
       addContainerRequest();
     });
@@ -1291,7 +1343,7 @@ public void onMigrateTaskRequested(String containerId, MigrateTaskRequest migrat
         "OnMigrateTask: ContainerId: %s MigrateTaskRequest:\n%s",
         containerId, WebCommon.toJson(migrateTaskRequest));
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.onMigrateTaskRequested", () -> {
       completeContainer(
           containerId,
           ExitStatusKey.CONTAINER_MIGRATE_TASK_REQUESTED.toInt(),
@@ -1303,7 +1355,7 @@ public void onMigrateTaskRequested(String containerId, MigrateTaskRequest migrat
 
   // Callbacks from RMResyncHandler
   public void queueResyncWithRM(int delaySec) {
-    transitionTaskStateQueue.queueSystemTaskDelayed(() -> {
+    transitionTaskStateQueue.queueSystemTaskDelayed("ApplicationMaster.queueResyncWithRM", () -> {
       rmResyncHandler.resyncWithRM();
     }, delaySec * 1000);
   }
@@ -1358,7 +1410,7 @@ public void onNodesUpdated(List<NodeReport> nodeReports) {
     }
     LOGGER.logDebug("onNodesUpdated: nodeReports: %s", nodeReports.size());
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.onNodesUpdated", () -> {
       updateNodeReports(nodeReports);
     });
   }
@@ -1372,7 +1424,7 @@ public void onContainersAllocated(List<Container> containers) {
         "onContainersAllocated: Allocated Containers: %s.",
         containers.size());
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.onContainersAllocated", () -> {
       allocateContainers(containers);
     });
   }
@@ -1386,7 +1438,7 @@ public void onContainersCompleted(List<ContainerStatus> containerStatuses) {
         "onContainersCompleted: Completed Containers: %s.",
         containerStatuses.size());
 
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.onContainersCompleted", () -> {
       completeContainers(containerStatuses);
     });
   }
@@ -1398,13 +1450,13 @@ public void onPreemptionMessage(PreemptionMessage message) {
 
   // Callbacks from NMClient
   public void onContainerStarted(ContainerId containerId, Map<String, ByteBuffer> allServiceResponse) {
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.onContainerStarted", () -> {
       onContainerStartSucceeded(containerId.toString());
     });
   }
 
   public void onStartContainerError(ContainerId containerId, Throwable e) {
-    transitionTaskStateQueue.queueSystemTask(() -> {
+    transitionTaskStateQueue.queueSystemTask("ApplicationMaster.onStartContainerError", () -> {
       onContainerStartFailed(containerId.toString(), e);
     });
   }
@@ -18,12 +18,15 @@
 package com.microsoft.frameworklauncher.applicationmaster;
 
 import com.microsoft.frameworklauncher.common.GlobalConstants;
+import com.microsoft.frameworklauncher.common.model.CompressionType;
 import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
 import com.microsoft.frameworklauncher.common.model.LauncherStatus;
+import com.microsoft.frameworklauncher.common.model.LauncherStoreType;
 import com.microsoft.frameworklauncher.common.model.ResourceDescriptor;
+import com.microsoft.frameworklauncher.common.model.SerializationType;
 import com.microsoft.frameworklauncher.common.model.UserDescriptor;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.hadoop.yarn.api.protocolrecords.RegisterApplicationMasterResponse;
 import org.apache.hadoop.yarn.api.records.ApplicationAttemptId;
 import org.apache.hadoop.yarn.client.api.YarnClient;
@@ -35,9 +38,16 @@ public class Configuration {
   private YarnConfiguration yarnConfig;
   private String frameworkName;
   private Integer frameworkVersion;
+  private LauncherStoreType launcherStoreType;
+  private String localStoreDir;
+  private Integer localStoreMaxLogMB;
+  private Boolean localStoreSyncEnable;
   private String zkConnectString;
   private String zkRootDir;
   private Boolean zkCompressionEnable;
+  private CompressionType zkCompressionType;
+  private Integer zkCompressionLevel;
+  private SerializationType zkSerializationType;
   private Integer amVersion;
   private Integer amRmHeartbeatIntervalSec;
   private String amHostName;
@@ -66,9 +76,22 @@ public void initializeNoDependenceConfig() throws Exception {
     // This can avoid multiple AM of one Framework running at the same time eventually,
     // by comparing these versions with the corresponding ones on the ZK.
     frameworkVersion = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_FRAMEWORK_VERSION));
+    launcherStoreType = LauncherStoreType.valueOf(CommonUtils.getEnvironmentVariable(
+        GlobalConstants.ENV_VAR_LAUNCHER_STORE_TYPE, LauncherStoreType.ZOOKEEPER.toString()));
+    localStoreDir = CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_LOCAL_STORE_DIR, "");
+    localStoreMaxLogMB = Integer.parseInt(CommonUtils.getEnvironmentVariable(
+        GlobalConstants.ENV_VAR_LOCAL_STORE_MAX_LOG_MB, "64"));
+    localStoreSyncEnable = Boolean.parseBoolean(CommonUtils.getEnvironmentVariable(
+        GlobalConstants.ENV_VAR_LOCAL_STORE_SYNC_ENABLE, "true"));
     zkConnectString = CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_CONNECT_STRING);
     zkRootDir = CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_ROOT_DIR);
     zkCompressionEnable = Boolean.parseBoolean(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_COMPRESSION_ENABLE));
+    zkCompressionType = CompressionType.valueOf(CommonUtils.getEnvironmentVariable(
+        GlobalConstants.ENV_VAR_ZK_COMPRESSION_TYPE, CompressionType.GZIP.toString()));
+    zkCompressionLevel = Integer.parseInt(CommonUtils.getEnvironmentVariable(
+        GlobalConstants.ENV_VAR_ZK_COMPRESSION_LEVEL, "-1"));
+    zkSerializationType = SerializationType.valueOf(CommonUtils.getEnvironmentVariable(
+        GlobalConstants.ENV_VAR_ZK_SERIALIZATION_TYPE, SerializationType.YAML.toString()));
     amVersion = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_AM_VERSION));
     amRmHeartbeatIntervalSec = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_AM_RM_HEARTBEAT_INTERVAL_SEC));
     amHostName = GlobalConstants.LOCAL_HOST_NAME;
@@ -82,7 +105,7 @@ public void initializeNoDependenceConfig() throws Exception {
     amContainerId = CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_CONTAINER_ID);
   }
 
-  public void initializeDependOnZKStoreConfig(ZookeeperStore zkStore) throws Exception {
+  public void initializeDependOnZKStoreConfig(LauncherStore zkStore) throws Exception {
     // ConverterUtils depends on the JVM inited by ZooKeeperClient
     ApplicationAttemptId attemptId = ConverterUtils.toContainerId(getAmContainerId()).getApplicationAttemptId();
     this.attemptId = attemptId.toString();
@@ -114,6 +137,22 @@ protected Integer getFrameworkVersion() {
     return frameworkVersion;
   }
 
+  public LauncherStoreType getLauncherStoreType() {
+    return launcherStoreType;
+  }
+
+  protected String getLocalStoreDir() {
+    return localStoreDir;
+  }
+
+  public Integer getLocalStoreMaxLogMB() {
+    return localStoreMaxLogMB;
+  }
+
+  public Boolean getLocalStoreSyncEnable() {
+    return localStoreSyncEnable;
+  }
+
   protected String getZkConnectString() {
     return zkConnectString;
   }
@@ -126,6 +165,18 @@ public Boolean getZkCompressionEnable() {
     return zkCompressionEnable;
   }
 
+  public CompressionType getZkCompressionType() {
+    return zkCompressionType;
+  }
+
+  public Integer getZkCompressionLevel() {
+    return zkCompressionLevel;
+  }
+
+  public SerializationType getZkSerializationType() {
+    return zkSerializationType;
+  }
+
   protected Integer getAmVersion() {
     return amVersion;
   }
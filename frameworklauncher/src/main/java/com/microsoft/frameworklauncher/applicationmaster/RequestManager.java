@@ -24,9 +24,10 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.store.ChangeNotifier;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.log4j.Level;
 import org.apache.zookeeper.KeeperException.NoNodeException;
 
@@ -44,7 +45,7 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
 
   private final ApplicationMaster am;
   private final Configuration conf;
-  private final ZookeeperStore zkStore;
+  private final LauncherStore zkStore;
   private final LauncherClient launcherClient;
 
 
@@ -87,11 +88,14 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
   /**
    * REGION AbstractService
    */
-  public RequestManager(ApplicationMaster am, Configuration conf, ZookeeperStore zkStore, LauncherClient launcherClient) {
+  public RequestManager(ApplicationMaster am, Configuration conf, LauncherStore zkStore, LauncherClient launcherClient) {
     super(RequestManager.class.getName());
     this.am = am;
     this.conf = conf;
-    this.zkStore = zkStore;
+    // The pulled Requests are modified in place, such as flattenFrameworkDescriptor, so the cached ones cannot be shared
+    this.zkStore = zkStore.withReadCache(
+        conf.getLauncherConfig().getZkReadCacheMaxEntries(),
+        conf.getLauncherConfig().getZkReadCacheExpirySec(), false);
     this.launcherClient = launcherClient;
   }
 
@@ -115,6 +119,11 @@ protected Boolean handleException(Exception e) {
   protected void run() throws Exception {
     super.run();
 
+    // Watch before the first pull, so that any change after the pull will be notified.
+    // The AggregatedFrameworkRequest is small, so always pull all once any change is notified.
+    ChangeNotifier changeNotifier = zkStore.newAggregatedFrameworkRequestChangeNotifier(
+        conf.getFrameworkName(), conf.getLauncherConfig().getZkChangeNotificationEnable());
+
     new Thread(() -> {
       while (true) {
         try {
@@ -125,8 +134,8 @@ protected void run() throws Exception {
           handleException(e);
         } finally {
           try {
-            Thread.sleep(conf.getLauncherConfig().getAmRequestPullIntervalSec() * 1000);
-          } catch (InterruptedException e) {
+            changeNotifier.waitChanges(conf.getLauncherConfig().getAmRequestPullIntervalSec() * 1000);
+          } catch (Exception e) {
             handleException(e);
           }
         }
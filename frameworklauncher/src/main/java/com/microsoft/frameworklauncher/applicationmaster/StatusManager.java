@@ -25,11 +25,11 @@
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
 import com.microsoft.frameworklauncher.common.service.StopStatus;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.DnsUtils;
 import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.hadoop.yarn.api.records.Container;
 import org.apache.hadoop.yarn.api.records.Priority;
 import org.apache.hadoop.yarn.client.api.AMRMClient.ContainerRequest;
@@ -45,7 +45,7 @@ public class StatusManager extends AbstractService {  // THREAD SAFE
 
   private final ApplicationMaster am;
   private final Configuration conf;
-  private final ZookeeperStore zkStore;
+  private final LauncherStore zkStore;
 
   /**
    * REGION BaseStatus
@@ -77,6 +77,9 @@ public class StatusManager extends AbstractService {  // THREAD SAFE
   private Map<String, Boolean> taskRoleStatusesChanged = new HashMap<>();
   // TaskRoleName -> TaskStatusesChanged
   private Map<String, Boolean> taskStatusesesChanged = new HashMap<>();
+  // Which Tasks are changed since previous zkStore update, null means all Tasks may be changed
+  // TaskRoleName -> TaskIndexes
+  private Map<String, Set<Integer>> changedTaskIndexes = new HashMap<>();
 
   // No need to persistent ContainerRequest since it is only valid within one application attempt.
   // Used to generate an unique Priority for each ContainerRequest in current application attempt.
@@ -93,7 +96,7 @@ public class StatusManager extends AbstractService {  // THREAD SAFE
   /**
    * REGION AbstractService
    */
-  public StatusManager(ApplicationMaster am, Configuration conf, ZookeeperStore zkStore) {
+  public StatusManager(ApplicationMaster am, Configuration conf, LauncherStore zkStore) {
     super(StatusManager.class.getName());
     this.am = am;
     this.conf = conf;
@@ -182,6 +185,7 @@ protected void recover() throws Exception {
 
         taskRoleStatusesChanged.put(taskRoleName, false);
         taskStatusesesChanged.put(taskRoleName, false);
+        changedTaskIndexes.put(taskRoleName, new HashSet<>());
 
         List<TaskStatus> taskStatusArray = taskStatuses.getTaskStatusArray();
         for (int taskIndex = 0; taskIndex < taskStatusArray.size(); taskIndex++) {
@@ -283,8 +287,10 @@ private synchronized void pushStatus() throws Exception {
       if (taskStatusesesChanged.get(taskRoleName)) {
         LOGGER.logInfo("[%s]: Pushing TaskStatuses", taskRoleName);
 
-        zkStore.setTaskStatuses(conf.getFrameworkName(), taskRoleName, taskStatuseses.get(taskRoleName));
+        zkStore.setTaskStatuses(conf.getFrameworkName(), taskRoleName, taskStatuseses.get(taskRoleName),
+            conf.getLauncherConfig().getZkTaskStatusesShardSize(), changedTaskIndexes.get(taskRoleName));
         taskStatusesesChanged.put(taskRoleName, false);
+        changedTaskIndexes.put(taskRoleName, new HashSet<>());
         logTaskStateCounters(taskRoleName);
 
         LOGGER.logInfo("[%s]: Pushed TaskStatuses", taskRoleName);
@@ -307,7 +313,7 @@ private void associateTaskWithContainer(TaskStatusLocator locator, Container con
     taskStatus.setContainerGpus(
         ResourceDescriptor.fromResource(container.getResource()).getGpuAttribute());
 
-    taskStatusesesChanged.put(locator.getTaskRoleName(), true);
+    markTaskStatusChanged(locator);
   }
 
   private void disassociateTaskWithContainer(TaskStatusLocator locator) {
@@ -326,7 +332,7 @@ private void disassociateTaskWithContainer(TaskStatusLocator locator) {
     taskStatus.setContainerExitType(null);
     taskStatus.setContainerGpus(null);
 
-    taskStatusesesChanged.put(locator.getTaskRoleName(), true);
+    markTaskStatusChanged(locator);
   }
 
   private void updateExtensionTaskStatusWithContainerLiveness(TaskStatusLocator locator, Boolean isLive) {
@@ -372,6 +378,7 @@ private void decreaseTaskNumber(String taskRoleName, int newTaskNumber) {
 
       // To ensure other Task's TaskIndex unchanged, we have to remove the Task at tail
       taskStatusArray.remove(taskIndex);
+      markTaskStatusChanged(locator);
     }
 
     taskStatusesesChanged.put(taskRoleName, true);
@@ -422,7 +429,9 @@ private void increaseTaskNumber(String taskRoleName, int newTaskNumber) {
       taskStatusArray.add(taskStatus);
 
       // Update ExtensionStatus
-      addExtensionTaskStatus(new TaskStatusLocator(taskRoleName, taskIndex));
+      TaskStatusLocator locator = new TaskStatusLocator(taskRoleName, taskIndex);
+      addExtensionTaskStatus(locator);
+      markTaskStatusChanged(locator);
     }
 
     taskStatusesesChanged.put(taskRoleName, true);
@@ -448,7 +457,18 @@ private void setContainerConnectionLostCount(String containerId, int count) {
     TaskStatus taskStatus = getTaskStatusWithLiveAssociatedContainerId(containerId);
     if (taskStatus.getContainerConnectionLostCount() != count) {
       taskStatus.setContainerConnectionLostCount(count);
-      taskStatusesesChanged.put(taskStatus.getTaskRoleName(), true);
+      markTaskStatusChanged(new TaskStatusLocator(taskStatus.getTaskRoleName(), taskStatus.getTaskIndex()));
+    }
+  }
+
+  private void markTaskStatusChanged(TaskStatusLocator locator) {
+    String taskRoleName = locator.getTaskRoleName();
+    taskStatusesesChanged.put(taskRoleName, true);
+
+    // Null means all Tasks are changed, such as the TaskStatuses has never been pushed
+    Set<Integer> taskIndexes = changedTaskIndexes.get(taskRoleName);
+    if (taskIndexes != null) {
+      taskIndexes.add(locator.getTaskIndex());
     }
   }
 
@@ -744,7 +764,7 @@ public synchronized void transitionTaskState(
     taskStatus.setTaskState(dstState);
 
     // Mark as changed
-    taskStatusesesChanged.put(locator.getTaskRoleName(), true);
+    markTaskStatusChanged(locator);
     LOGGER.logInfo("Transitioned Task %s from [%s] to [%s]", locator, srcState, dstState);
   }
 
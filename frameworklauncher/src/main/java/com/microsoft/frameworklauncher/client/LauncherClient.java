@@ -24,6 +24,7 @@
 import com.microsoft.frameworklauncher.common.web.WebClientOutput;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
 import com.microsoft.frameworklauncher.common.web.WebStructure;
+import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpStatus;
 import org.apache.http.entity.ContentType;
 
@@ -39,7 +40,15 @@ public class LauncherClient {
 
   public LauncherClient(String launcherAddress, int maxRetryCount, int retryIntervalSec,
       LaunchClientType launchClientType, String userName) {
-    this.webClient = new WebClient(launcherAddress, launchClientType, userName);
+    this(launcherAddress, maxRetryCount, retryIntervalSec, launchClientType, userName,
+        WebClient.DEFAULT_MAX_CACHED_RESPONSE_BYTES);
+  }
+
+  // The GET Responses up to maxCachedResponseBytes in total are cached to be revalidated,
+  // and zero means not to cache.
+  public LauncherClient(String launcherAddress, int maxRetryCount, int retryIntervalSec,
+      LaunchClientType launchClientType, String userName, long maxCachedResponseBytes) {
+    this.webClient = new WebClient(launcherAddress, launchClientType, userName, maxCachedResponseBytes);
     this.maxRetryCount = maxRetryCount;
     this.retryIntervalSec = retryIntervalSec;
   }
@@ -70,6 +79,89 @@ public SummarizedFrameworkInfos getFrameworks(LaunchClientType launchClientType,
     }, SummarizedFrameworkInfos.class);
   }
 
+  // Get a page of the Frameworks matching the filter, the next page can be got by the same
+  // GetFrameworksRequest with the ContinuationToken returned by the previous page.
+  public SummarizedFrameworkInfos getFrameworks(GetFrameworksRequest getFrameworksRequest) throws Exception {
+    return executeWithRetry(() -> {
+      CommonValidation.validate(getFrameworksRequest);
+      Map<String, String> parameters = new HashMap<>();
+      if (getFrameworksRequest.getLaunchClientType() != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_LAUNCH_CLIENT_TYPE,
+            getFrameworksRequest.getLaunchClientType().toString());
+      }
+      if (getFrameworksRequest.getUserName() != null) {
+        CommonValidation.validate(getFrameworksRequest.getUserName());
+        parameters.put(WebStructure.REQUEST_PARAM_USER_NAME, getFrameworksRequest.getUserName());
+      }
+      if (getFrameworksRequest.getQueue() != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_QUEUE, getFrameworksRequest.getQueue());
+      }
+      if (getFrameworksRequest.getFrameworkStates() != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_FRAMEWORK_STATE,
+            StringUtils.join(getFrameworksRequest.getFrameworkStates(), WebStructure.REQUEST_PARAM_VALUE_SEPARATOR));
+      }
+      if (getFrameworksRequest.getSortBy() != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_SORT_BY, getFrameworksRequest.getSortBy().toString());
+      }
+      if (getFrameworksRequest.getDescending() != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_DESCENDING, getFrameworksRequest.getDescending().toString());
+      }
+      if (getFrameworksRequest.getPageSize() != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_PAGE_SIZE, getFrameworksRequest.getPageSize().toString());
+      }
+      if (getFrameworksRequest.getContinuationToken() != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_CONTINUATION_TOKEN, getFrameworksRequest.getContinuationToken());
+      }
+      // The ContinuationToken is changed with each page, so the continued page is one-shot
+      return webClient.get(WebStructure.FRAMEWORK_ROOT_PATH, parameters,
+          getFrameworksRequest.getContinuationToken() == null);
+    }, SummarizedFrameworkInfos.class);
+  }
+
+  // Long poll the changes of the Frameworks matching the filter after the given ResourceVersion.
+  // Null ResourceVersion means to get the full list immediately, and null filter means not filtered.
+  public SummarizedFrameworkInfoChanges watchFrameworks(
+      Long resourceVersion, String frameworkName,
+      LaunchClientType launchClientType, String userName) throws Exception {
+    return executeWithRetry(() -> {
+      Map<String, String> parameters = new HashMap<>();
+      if (resourceVersion != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_RESOURCE_VERSION, resourceVersion.toString());
+      }
+      if (frameworkName != null) {
+        CommonValidation.validate(frameworkName);
+        parameters.put(WebStructure.REQUEST_PARAM_FRAMEWORK_NAME, frameworkName);
+      }
+      if (launchClientType != null) {
+        parameters.put(WebStructure.REQUEST_PARAM_LAUNCH_CLIENT_TYPE, launchClientType.toString());
+      }
+      if (userName != null) {
+        CommonValidation.validate(userName);
+        parameters.put(WebStructure.REQUEST_PARAM_USER_NAME, userName);
+      }
+      // The ResourceVersion is changed with each watch, so the watch is one-shot
+      return webClient.get(WebStructure.WATCH_FRAMEWORKS_PATH, parameters, false);
+    }, SummarizedFrameworkInfoChanges.class);
+  }
+
+  // Continuously watch the Frameworks matching the filter, and stream the changes to the handler,
+  // starting from the full list, until the handler returns false.
+  // The handler is also called if no change happened within the WebServer watch timeout, so that
+  // it still has chance to stop watching.
+  public void watchFrameworks(
+      String frameworkName, LaunchClientType launchClientType, String userName,
+      Predicate<SummarizedFrameworkInfoChanges> handler) throws Exception {
+    Long resourceVersion = null;
+    while (true) {
+      SummarizedFrameworkInfoChanges changes =
+          watchFrameworks(resourceVersion, frameworkName, launchClientType, userName);
+      if (!handler.test(changes)) {
+        return;
+      }
+      resourceVersion = changes.getResourceVersion();
+    }
+  }
+
   public void putFramework(String frameworkName, String frameworkDescriptor) throws Exception {
     putFramework(frameworkName, WebCommon.toObject(frameworkDescriptor, FrameworkDescriptor.class));
   }
@@ -85,6 +177,18 @@ public void putFramework(String frameworkName, FrameworkDescriptor frameworkDesc
     });
   }
 
+  // Put the Frameworks in one request, and return the result of each Framework.
+  // The batch is retried as a whole, which is safe since Put the same FrameworkDescriptor again is idempotent.
+  public FrameworkOperationResults putFrameworks(PutFrameworksRequest putFrameworksRequest) throws Exception {
+    return executeWithRetry(() -> {
+      CommonValidation.validate(putFrameworksRequest);
+      return webClient.post(
+          WebStructure.PUT_FRAMEWORKS_PATH,
+          ContentType.APPLICATION_JSON,
+          WebCommon.toJson(putFrameworksRequest));
+    }, FrameworkOperationResults.class);
+  }
+
   public void putTaskNumber(String frameworkName, String taskRoleName, UpdateTaskNumberRequest updateTaskNumberRequest) throws Exception {
     executeWithRetry(() -> {
       CommonValidation.validate(frameworkName);
@@ -125,6 +229,17 @@ public void deleteFramework(String frameworkName) throws Exception {
     });
   }
 
+  // Delete the Frameworks in one request, and return the result of each Framework.
+  public FrameworkOperationResults deleteFrameworks(DeleteFrameworksRequest deleteFrameworksRequest) throws Exception {
+    return executeWithRetry(() -> {
+      CommonValidation.validate(deleteFrameworksRequest);
+      return webClient.post(
+          WebStructure.DELETE_FRAMEWORKS_PATH,
+          ContentType.APPLICATION_JSON,
+          WebCommon.toJson(deleteFrameworksRequest));
+    }, FrameworkOperationResults.class);
+  }
+
   public void deleteMigrateTask(String frameworkName, String containerId) throws Exception {
     executeWithRetry(() -> webClient.delete(WebStructure.getMigrateTaskPath(frameworkName, containerId)));
   }
@@ -239,7 +354,7 @@ private <T> T executeWithRetry(Callable<WebClientOutput> action, Class<T> classR
           return null;
         }
         try {
-          return WebCommon.toObject(output.getContent(), classRef);
+          return WebCommon.toObject(output.getContentBytes(), classRef);
         } catch (Exception e) {
           // This can only happen when Client use an incompatible model with Server
           output = new WebClientOutput(HttpStatus.SC_BAD_REQUEST, output.getContent(), false, e);
@@ -26,6 +26,8 @@ public class GlobalConstants {
   public static final int USING_UNLIMITED_VALUE = -1;
   public static final int USING_DEFAULT_VALUE = -2;
   public static final String LAUNCHER_APPLICATION_TYPE = "LAUNCHER";
+  // The YARN queue of the Frameworks which do not specify it
+  public static final String DEFAULT_APPLICATION_QUEUE = "default";
   public static final String PACKAGE_APPLICATION_MASTER_FILE = "frameworklauncher-1.0-SNAPSHOT-jar-with-dependencies.jar";
   public static final String PACKAGE_AGENT_FILE = "frameworklauncher-1.0-SNAPSHOT-jar-with-dependencies.jar";
   public static final String MAIN_CLASS_APPLICATION_MASTER = "com.microsoft.frameworklauncher.applicationmaster.Bootstrap";
@@ -34,9 +36,16 @@ public class GlobalConstants {
   public static final String ENV_VAR_HADOOP_USER_NAME = "HADOOP_USER_NAME";
   public static final String ENV_VAR_FRAMEWORK_NAME = "FRAMEWORK_NAME";
   public static final String ENV_VAR_FRAMEWORK_VERSION = "FRAMEWORK_VERSION";
+  public static final String ENV_VAR_LAUNCHER_STORE_TYPE = "LAUNCHER_STORE_TYPE";
+  public static final String ENV_VAR_LOCAL_STORE_DIR = "LOCAL_STORE_DIR";
+  public static final String ENV_VAR_LOCAL_STORE_MAX_LOG_MB = "LOCAL_STORE_MAX_LOG_MB";
+  public static final String ENV_VAR_LOCAL_STORE_SYNC_ENABLE = "LOCAL_STORE_SYNC_ENABLE";
   public static final String ENV_VAR_ZK_CONNECT_STRING = "ZK_CONNECT_STRING";
   public static final String ENV_VAR_ZK_ROOT_DIR = "ZK_ROOT_DIR";
   public static final String ENV_VAR_ZK_COMPRESSION_ENABLE = "ZK_COMPRESSION_ENABLE";
+  public static final String ENV_VAR_ZK_COMPRESSION_TYPE = "ZK_COMPRESSION_TYPE";
+  public static final String ENV_VAR_ZK_COMPRESSION_LEVEL = "ZK_COMPRESSION_LEVEL";
+  public static final String ENV_VAR_ZK_SERIALIZATION_TYPE = "ZK_SERIALIZATION_TYPE";
   public static final String ENV_VAR_AM_VERSION = "AM_VERSION";
   public static final String ENV_VAR_AM_RM_HEARTBEAT_INTERVAL_SEC = "AM_RM_HEARTBEAT_INTERVAL_SEC";
   public static final String ENV_VAR_TASK_ROLE_NAME = "TASK_ROLE_NAME";
@@ -0,0 +1,129 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.Map;
+
+public class AdmissionControllerMetrics implements Serializable {
+  private String controllerName;
+  // Non-positive means no limit
+  private Integer maxRatePerSec;
+  private Integer burstSize;
+  // Non-positive means no limit
+  private Integer maxInFlightCount;
+  private Integer availableTokens;
+  // Admitted items which are still in flight, as last reported by the caller
+  private Integer inFlightCount;
+  private Integer waitingCount;
+  // QueueName -> WaitingCount
+  private Map<String, Integer> waitingCountPerQueue;
+  private Long admittedCount;
+  // Admissions which are throttled by the rate limit
+  private Long rateThrottledCount;
+  // Admissions which are throttled by the concurrency limit
+  private Long inFlightThrottledCount;
+
+  public String getControllerName() {
+    return controllerName;
+  }
+
+  public void setControllerName(String controllerName) {
+    this.controllerName = controllerName;
+  }
+
+  public Integer getMaxRatePerSec() {
+    return maxRatePerSec;
+  }
+
+  public void setMaxRatePerSec(Integer maxRatePerSec) {
+    this.maxRatePerSec = maxRatePerSec;
+  }
+
+  public Integer getBurstSize() {
+    return burstSize;
+  }
+
+  public void setBurstSize(Integer burstSize) {
+    this.burstSize = burstSize;
+  }
+
+  public Integer getMaxInFlightCount() {
+    return maxInFlightCount;
+  }
+
+  public void setMaxInFlightCount(Integer maxInFlightCount) {
+    this.maxInFlightCount = maxInFlightCount;
+  }
+
+  public Integer getAvailableTokens() {
+    return availableTokens;
+  }
+
+  public void setAvailableTokens(Integer availableTokens) {
+    this.availableTokens = availableTokens;
+  }
+
+  public Integer getInFlightCount() {
+    return inFlightCount;
+  }
+
+  public void setInFlightCount(Integer inFlightCount) {
+    this.inFlightCount = inFlightCount;
+  }
+
+  public Integer getWaitingCount() {
+    return waitingCount;
+  }
+
+  public void setWaitingCount(Integer waitingCount) {
+    this.waitingCount = waitingCount;
+  }
+
+  public Map<String, Integer> getWaitingCountPerQueue() {
+    return waitingCountPerQueue;
+  }
+
+  public void setWaitingCountPerQueue(Map<String, Integer> waitingCountPerQueue) {
+    this.waitingCountPerQueue = waitingCountPerQueue;
+  }
+
+  public Long getAdmittedCount() {
+    return admittedCount;
+  }
+
+  public void setAdmittedCount(Long admittedCount) {
+    this.admittedCount = admittedCount;
+  }
+
+  public Long getRateThrottledCount() {
+    return rateThrottledCount;
+  }
+
+  public void setRateThrottledCount(Long rateThrottledCount) {
+    this.rateThrottledCount = rateThrottledCount;
+  }
+
+  public Long getInFlightThrottledCount() {
+    return inFlightThrottledCount;
+  }
+
+  public void setInFlightThrottledCount(Long inFlightThrottledCount) {
+    this.inFlightThrottledCount = inFlightThrottledCount;
+  }
+}
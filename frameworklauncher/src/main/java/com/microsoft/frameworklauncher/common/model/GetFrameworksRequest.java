@@ -0,0 +1,107 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.Serializable;
+import java.util.Set;
+
+// The filter, sorting and paging of getFrameworks, null means not specified.
+public class GetFrameworksRequest implements Serializable {
+  // Filter
+  private LaunchClientType launchClientType;
+  private String userName;
+  private String queue;
+  private Set<FrameworkState> frameworkStates;
+
+  // Sorting, default to ascending FRAMEWORK_NAME if paged
+  private FrameworkSortKey sortBy;
+  private Boolean descending;
+
+  // Paging, default to return all the Frameworks in one page
+  @Min(1)
+  @Max(10000)
+  private Integer pageSize;
+  // The opaque token returned by the previous page, to get the next page
+  private String continuationToken;
+
+  public LaunchClientType getLaunchClientType() {
+    return launchClientType;
+  }
+
+  public void setLaunchClientType(LaunchClientType launchClientType) {
+    this.launchClientType = launchClientType;
+  }
+
+  public String getUserName() {
+    return userName;
+  }
+
+  public void setUserName(String userName) {
+    this.userName = userName;
+  }
+
+  public String getQueue() {
+    return queue;
+  }
+
+  public void setQueue(String queue) {
+    this.queue = queue;
+  }
+
+  public Set<FrameworkState> getFrameworkStates() {
+    return frameworkStates;
+  }
+
+  public void setFrameworkStates(Set<FrameworkState> frameworkStates) {
+    this.frameworkStates = frameworkStates;
+  }
+
+  public FrameworkSortKey getSortBy() {
+    return sortBy;
+  }
+
+  public void setSortBy(FrameworkSortKey sortBy) {
+    this.sortBy = sortBy;
+  }
+
+  public Boolean getDescending() {
+    return descending;
+  }
+
+  public void setDescending(Boolean descending) {
+    this.descending = descending;
+  }
+
+  public Integer getPageSize() {
+    return pageSize;
+  }
+
+  public void setPageSize(Integer pageSize) {
+    this.pageSize = pageSize;
+  }
+
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  public void setContinuationToken(String continuationToken) {
+    this.continuationToken = continuationToken;
+  }
+}
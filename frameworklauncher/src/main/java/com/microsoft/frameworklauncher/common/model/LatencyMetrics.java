@@ -0,0 +1,62 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class LatencyMetrics implements Serializable {
+  private Long count;
+  private Long totalMs;
+  private Long maxMs;
+  // Count of the latencies in each bucket:
+  // bucket 0 is [0, 1)ms, bucket i is [2^(i-1), 2^i)ms, and the last bucket also includes longer latencies
+  private List<Long> histogram;
+
+  public Long getCount() {
+    return count;
+  }
+
+  public void setCount(Long count) {
+    this.count = count;
+  }
+
+  public Long getTotalMs() {
+    return totalMs;
+  }
+
+  public void setTotalMs(Long totalMs) {
+    this.totalMs = totalMs;
+  }
+
+  public Long getMaxMs() {
+    return maxMs;
+  }
+
+  public void setMaxMs(Long maxMs) {
+    this.maxMs = maxMs;
+  }
+
+  public List<Long> getHistogram() {
+    return histogram;
+  }
+
+  public void setHistogram(List<Long> histogram) {
+    this.histogram = histogram;
+  }
+}
@@ -24,15 +24,76 @@
 
 public class LauncherConfiguration implements Serializable {
   // Common Setup
+  // The LauncherStore to persist all Requests and Statuses. The zk* settings which are not specific
+  // to ZK, such as zkSerializationType and zkChangeNotificationEnable, also take effect on the LOCAL one.
+  private LauncherStoreType launcherStoreType = LauncherStoreType.ZOOKEEPER;
+  // The LOCAL LauncherStore directory, which should be accessible by all AMs, i.e. on the same machine.
+  private String localStoreDir = "LocalStore";
+  // The LOCAL LauncherStore Log is compacted into a Snapshot once it exceeds both this and the Snapshot size.
+  private Integer localStoreMaxLogMB = 64;
+  // Sync each write to the LOCAL LauncherStore to disk, so no write is lost even if the machine crashed.
+  // Otherwise, the writes are only kept if the process crashed.
+  private Boolean localStoreSyncEnable = true;
   private String zkConnectString = "127.0.0.1:2181";
   private String zkRootDir = "/Launcher";
   private Boolean zkCompressionEnable = true;
+  // Any CompressionType is readable, so the configured one only takes effect on ZK write.
+  // To rolling upgrade to a new CompressionType, make sure all Service and AM instances
+  // have been upgraded to the version which supports it, before change it here.
+  private CompressionType zkCompressionType = CompressionType.GZIP;
+  // The Deflater compression level of the DEFLATE* CompressionTypes, i.e. 0-9 or -1 for the default level
+  private Integer zkCompressionLevel = -1;
+  // Any SerializationType is readable, so the configured one only takes effect on ZK write.
+  // To rolling upgrade to a new SerializationType, make sure all Service and AM instances
+  // have been upgraded to the version which supports it, before change it here.
+  private SerializationType zkSerializationType = SerializationType.YAML;
+  // TaskStatuses is stored in shards of zkTaskStatusesShardSize Tasks, so that only the changed
+  // shards need to be rewritten. Non-positive value means storing TaskStatuses as a whole.
+  // Both layouts can be read, but only by the Service and AM instances which support the sharded one.
+  private Integer zkTaskStatusesShardSize = 1000;
+  // Wake up the Request and Status pullers by ZK watches once the pulled nodes changed.
+  // The *PullIntervalSec is still the max interval to pull, in case any change notification is lost.
+  private Boolean zkChangeNotificationEnable = true;
+  // Max number of Frameworks read concurrently from ZK when read the whole Launcher state tree,
+  // such as during the Service and WebServer recovery. Value not greater than 1 means sequential read.
+  private Integer zkRecoveryParallelism = 16;
+  // Max number of objects cached by the WebServer and AM when they pull from ZK, so that the unchanged
+  // nodes are validated by their versions instead of being read again. Value not greater than 0 means no cache.
+  private Integer zkReadCacheMaxEntries = 100000;
+  // The cached objects are always read again after the expiry.
+  private Integer zkReadCacheExpirySec = 3600;
   private String hdfsRootDir = "/Launcher";
   private Set<UserDescriptor> rootAdminUsers = new HashSet<>();
 
   // Service Setup
   private Integer serviceRMResyncIntervalSec = 60;
+  // Resync all Applications with RM every serviceRMFullResyncFrequency times of RMResync.
+  // The other RMResyncs are incremental, i.e. they only get the not completed Applications and
+  // skip the ApplicationReports which are not changed since last RMResync.
+  // The RMResync is always full if it is not greater than 1.
+  private Integer serviceRMFullResyncFrequency = 10;
   private Integer serviceRequestPullIntervalSec = 30;
+  // Max number of Framework level SystemTasks run concurrently, such as launchApplication of different
+  // Frameworks. The SystemTasks of the same Framework are still run in order.
+  private Integer serviceSystemTaskParallelism = 8;
+  // Max number of Applications which are being setup or waiting to be submitted concurrently
+  private Integer serviceApplicationLaunchParallelism = 16;
+  // Max number of Applications submitted to RM per second. Value not greater than 0 means no limit.
+  // The FRAMEWORK_WAITING Frameworks, including the ones to retry, are admitted to create Applications
+  // by a token bucket which is refilled by serviceApplicationSubmitMaxRatePerSec tokens per second and holds
+  // at most serviceApplicationAdmitBurstSize tokens.
+  // The not admitted Frameworks keep FRAMEWORK_WAITING, and the queues of them are admitted in round robin.
+  private Integer serviceApplicationSubmitMaxRatePerSec = 50;
+  private Integer serviceApplicationAdmitBurstSize = 200;
+  // Max number of Frameworks in APPLICATION_CREATED or APPLICATION_LAUNCHED, i.e. the Applications which
+  // are being submitted or not yet accepted by RM. Value not greater than 0 means no limit.
+  private Integer serviceApplicationAdmitMaxInFlightCount = 1000;
+  // The changed FrameworkStatuses are group committed to ZK at this interval, so that multiple changes
+  // of the same Framework are coalesced and the changes of different Frameworks are Set in batches.
+  // Value not greater than 0 means Set each change to ZK synchronously.
+  private Integer serviceStatusGroupCommitIntervalMs = 100;
+  // The changed FrameworkStatuses are committed immediately once there are so many of them.
+  private Integer serviceStatusGroupCommitMaxBatchSize = 1000;
 
   // Application Setup
   private Integer applicationRetrieveDiagnosticsRetryIntervalSec = 60;
@@ -101,6 +162,46 @@ public class LauncherConfiguration implements Serializable {
   private String webServerAddress = "http://localhost:9086";
   private Integer webServerStatusPullIntervalSec = 30;
   private Boolean webServerAclEnable = false;
+  // A Watch Request is blocked at most webServerWatchTimeoutSec until any watched Framework changed.
+  // At most webServerWatchMaxConcurrency Watch Requests can be blocked concurrently, since each of them
+  // occupies a WebServer thread, and the exceeded ones will be throttled.
+  private Integer webServerWatchTimeoutSec = 60;
+  private Integer webServerWatchMaxConcurrency = 100;
+  // The serialized getFrameworks Responses of at most webServerResponseCacheMaxEntries recent queries
+  // are cached until any Framework changed.
+  private Integer webServerResponseCacheMaxEntries = 1000;
+
+  public LauncherStoreType getLauncherStoreType() {
+    return launcherStoreType;
+  }
+
+  public void setLauncherStoreType(LauncherStoreType launcherStoreType) {
+    this.launcherStoreType = launcherStoreType;
+  }
+
+  public String getLocalStoreDir() {
+    return localStoreDir;
+  }
+
+  public void setLocalStoreDir(String localStoreDir) {
+    this.localStoreDir = localStoreDir;
+  }
+
+  public Integer getLocalStoreMaxLogMB() {
+    return localStoreMaxLogMB;
+  }
+
+  public void setLocalStoreMaxLogMB(Integer localStoreMaxLogMB) {
+    this.localStoreMaxLogMB = localStoreMaxLogMB;
+  }
+
+  public Boolean getLocalStoreSyncEnable() {
+    return localStoreSyncEnable;
+  }
+
+  public void setLocalStoreSyncEnable(Boolean localStoreSyncEnable) {
+    this.localStoreSyncEnable = localStoreSyncEnable;
+  }
 
   public String getZkConnectString() {
     return zkConnectString;
@@ -126,6 +227,70 @@ public void setZkCompressionEnable(Boolean zkCompressionEnable) {
     this.zkCompressionEnable = zkCompressionEnable;
   }
 
+  public CompressionType getZkCompressionType() {
+    return zkCompressionType;
+  }
+
+  public void setZkCompressionType(CompressionType zkCompressionType) {
+    this.zkCompressionType = zkCompressionType;
+  }
+
+  public Integer getZkCompressionLevel() {
+    return zkCompressionLevel;
+  }
+
+  public void setZkCompressionLevel(Integer zkCompressionLevel) {
+    this.zkCompressionLevel = zkCompressionLevel;
+  }
+
+  public SerializationType getZkSerializationType() {
+    return zkSerializationType;
+  }
+
+  public void setZkSerializationType(SerializationType zkSerializationType) {
+    this.zkSerializationType = zkSerializationType;
+  }
+
+  public Integer getZkTaskStatusesShardSize() {
+    return zkTaskStatusesShardSize;
+  }
+
+  public void setZkTaskStatusesShardSize(Integer zkTaskStatusesShardSize) {
+    this.zkTaskStatusesShardSize = zkTaskStatusesShardSize;
+  }
+
+  public Boolean getZkChangeNotificationEnable() {
+    return zkChangeNotificationEnable;
+  }
+
+  public void setZkChangeNotificationEnable(Boolean zkChangeNotificationEnable) {
+    this.zkChangeNotificationEnable = zkChangeNotificationEnable;
+  }
+
+  public Integer getZkRecoveryParallelism() {
+    return zkRecoveryParallelism;
+  }
+
+  public void setZkRecoveryParallelism(Integer zkRecoveryParallelism) {
+    this.zkRecoveryParallelism = zkRecoveryParallelism;
+  }
+
+  public Integer getZkReadCacheMaxEntries() {
+    return zkReadCacheMaxEntries;
+  }
+
+  public void setZkReadCacheMaxEntries(Integer zkReadCacheMaxEntries) {
+    this.zkReadCacheMaxEntries = zkReadCacheMaxEntries;
+  }
+
+  public Integer getZkReadCacheExpirySec() {
+    return zkReadCacheExpirySec;
+  }
+
+  public void setZkReadCacheExpirySec(Integer zkReadCacheExpirySec) {
+    this.zkReadCacheExpirySec = zkReadCacheExpirySec;
+  }
+
   public String getHdfsRootDir() {
     return hdfsRootDir;
   }
@@ -150,6 +315,14 @@ public void setServiceRMResyncIntervalSec(Integer serviceRMResyncIntervalSec) {
     this.serviceRMResyncIntervalSec = serviceRMResyncIntervalSec;
   }
 
+  public Integer getServiceRMFullResyncFrequency() {
+    return serviceRMFullResyncFrequency;
+  }
+
+  public void setServiceRMFullResyncFrequency(Integer serviceRMFullResyncFrequency) {
+    this.serviceRMFullResyncFrequency = serviceRMFullResyncFrequency;
+  }
+
   public Integer getServiceRequestPullIntervalSec() {
     return serviceRequestPullIntervalSec;
   }
@@ -158,6 +331,62 @@ public void setServiceRequestPullIntervalSec(Integer serviceRequestPullIntervalS
     this.serviceRequestPullIntervalSec = serviceRequestPullIntervalSec;
   }
 
+  public Integer getServiceSystemTaskParallelism() {
+    return serviceSystemTaskParallelism;
+  }
+
+  public void setServiceSystemTaskParallelism(Integer serviceSystemTaskParallelism) {
+    this.serviceSystemTaskParallelism = serviceSystemTaskParallelism;
+  }
+
+  public Integer getServiceApplicationLaunchParallelism() {
+    return serviceApplicationLaunchParallelism;
+  }
+
+  public void setServiceApplicationLaunchParallelism(Integer serviceApplicationLaunchParallelism) {
+    this.serviceApplicationLaunchParallelism = serviceApplicationLaunchParallelism;
+  }
+
+  public Integer getServiceApplicationSubmitMaxRatePerSec() {
+    return serviceApplicationSubmitMaxRatePerSec;
+  }
+
+  public void setServiceApplicationSubmitMaxRatePerSec(Integer serviceApplicationSubmitMaxRatePerSec) {
+    this.serviceApplicationSubmitMaxRatePerSec = serviceApplicationSubmitMaxRatePerSec;
+  }
+
+  public Integer getServiceApplicationAdmitBurstSize() {
+    return serviceApplicationAdmitBurstSize;
+  }
+
+  public void setServiceApplicationAdmitBurstSize(Integer serviceApplicationAdmitBurstSize) {
+    this.serviceApplicationAdmitBurstSize = serviceApplicationAdmitBurstSize;
+  }
+
+  public Integer getServiceApplicationAdmitMaxInFlightCount() {
+    return serviceApplicationAdmitMaxInFlightCount;
+  }
+
+  public void setServiceApplicationAdmitMaxInFlightCount(Integer serviceApplicationAdmitMaxInFlightCount) {
+    this.serviceApplicationAdmitMaxInFlightCount = serviceApplicationAdmitMaxInFlightCount;
+  }
+
+  public Integer getServiceStatusGroupCommitIntervalMs() {
+    return serviceStatusGroupCommitIntervalMs;
+  }
+
+  public void setServiceStatusGroupCommitIntervalMs(Integer serviceStatusGroupCommitIntervalMs) {
+    this.serviceStatusGroupCommitIntervalMs = serviceStatusGroupCommitIntervalMs;
+  }
+
+  public Integer getServiceStatusGroupCommitMaxBatchSize() {
+    return serviceStatusGroupCommitMaxBatchSize;
+  }
+
+  public void setServiceStatusGroupCommitMaxBatchSize(Integer serviceStatusGroupCommitMaxBatchSize) {
+    this.serviceStatusGroupCommitMaxBatchSize = serviceStatusGroupCommitMaxBatchSize;
+  }
+
   public Integer getApplicationRetrieveDiagnosticsRetryIntervalSec() {
     return applicationRetrieveDiagnosticsRetryIntervalSec;
   }
@@ -365,4 +594,28 @@ public Boolean getWebServerAclEnable() {
   public void setWebServerAclEnable(Boolean webServerAclEnable) {
     this.webServerAclEnable = webServerAclEnable;
   }
+
+  public Integer getWebServerWatchTimeoutSec() {
+    return webServerWatchTimeoutSec;
+  }
+
+  public void setWebServerWatchTimeoutSec(Integer webServerWatchTimeoutSec) {
+    this.webServerWatchTimeoutSec = webServerWatchTimeoutSec;
+  }
+
+  public Integer getWebServerWatchMaxConcurrency() {
+    return webServerWatchMaxConcurrency;
+  }
+
+  public void setWebServerWatchMaxConcurrency(Integer webServerWatchMaxConcurrency) {
+    this.webServerWatchMaxConcurrency = webServerWatchMaxConcurrency;
+  }
+
+  public Integer getWebServerResponseCacheMaxEntries() {
+    return webServerResponseCacheMaxEntries;
+  }
+
+  public void setWebServerResponseCacheMaxEntries(Integer webServerResponseCacheMaxEntries) {
+    this.webServerResponseCacheMaxEntries = webServerResponseCacheMaxEntries;
+  }
 }
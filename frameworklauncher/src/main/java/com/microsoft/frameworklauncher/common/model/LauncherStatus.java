@@ -22,6 +22,11 @@
 public class LauncherStatus implements Serializable {
   private LauncherConfiguration launcherConfiguration;
   private UserDescriptor loggedInUser;
+  // The latest Service recovery of all the Statuses from ZK, and the completed timestamp is null if
+  // the recovery is still ongoing.
+  private Long serviceRecoveryStartedTimestamp;
+  private Long serviceRecoveryCompletedTimestamp;
+  private Integer serviceRecoveredFrameworkCount;
 
   public LauncherConfiguration getLauncherConfiguration() {
     return launcherConfiguration;
@@ -38,4 +43,28 @@ public UserDescriptor getLoggedInUser() {
   public void setLoggedInUser(UserDescriptor loggedInUser) {
     this.loggedInUser = loggedInUser;
   }
+
+  public Long getServiceRecoveryStartedTimestamp() {
+    return serviceRecoveryStartedTimestamp;
+  }
+
+  public void setServiceRecoveryStartedTimestamp(Long serviceRecoveryStartedTimestamp) {
+    this.serviceRecoveryStartedTimestamp = serviceRecoveryStartedTimestamp;
+  }
+
+  public Long getServiceRecoveryCompletedTimestamp() {
+    return serviceRecoveryCompletedTimestamp;
+  }
+
+  public void setServiceRecoveryCompletedTimestamp(Long serviceRecoveryCompletedTimestamp) {
+    this.serviceRecoveryCompletedTimestamp = serviceRecoveryCompletedTimestamp;
+  }
+
+  public Integer getServiceRecoveredFrameworkCount() {
+    return serviceRecoveredFrameworkCount;
+  }
+
+  public void setServiceRecoveredFrameworkCount(Integer serviceRecoveredFrameworkCount) {
+    this.serviceRecoveredFrameworkCount = serviceRecoveredFrameworkCount;
+  }
 }
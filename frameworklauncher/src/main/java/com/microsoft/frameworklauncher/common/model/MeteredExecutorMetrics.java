@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.Map;
+
+public class MeteredExecutorMetrics implements Serializable {
+  private String executorName;
+  private Integer parallelism;
+  private Integer queuedTaskCount;
+  private Integer runningTaskCount;
+  private Long completedTaskCount;
+  // Completed tasks which threw an Exception
+  private Long failedTaskCount;
+  // From the task is queued to it is started
+  private LatencyMetrics queueWaitMetrics;
+  private LatencyMetrics executionMetrics;
+  // LatencyName -> LatencyMetrics, for the latencies recorded by the tasks, such as the end to end
+  // latency of an operation which is only partially run in the MeteredExecutor
+  private Map<String, LatencyMetrics> latencyMetrics;
+
+  public String getExecutorName() {
+    return executorName;
+  }
+
+  public void setExecutorName(String executorName) {
+    this.executorName = executorName;
+  }
+
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(Integer parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public Integer getQueuedTaskCount() {
+    return queuedTaskCount;
+  }
+
+  public void setQueuedTaskCount(Integer queuedTaskCount) {
+    this.queuedTaskCount = queuedTaskCount;
+  }
+
+  public Integer getRunningTaskCount() {
+    return runningTaskCount;
+  }
+
+  public void setRunningTaskCount(Integer runningTaskCount) {
+    this.runningTaskCount = runningTaskCount;
+  }
+
+  public Long getCompletedTaskCount() {
+    return completedTaskCount;
+  }
+
+  public void setCompletedTaskCount(Long completedTaskCount) {
+    this.completedTaskCount = completedTaskCount;
+  }
+
+  public Long getFailedTaskCount() {
+    return failedTaskCount;
+  }
+
+  public void setFailedTaskCount(Long failedTaskCount) {
+    this.failedTaskCount = failedTaskCount;
+  }
+
+  public LatencyMetrics getQueueWaitMetrics() {
+    return queueWaitMetrics;
+  }
+
+  public void setQueueWaitMetrics(LatencyMetrics queueWaitMetrics) {
+    this.queueWaitMetrics = queueWaitMetrics;
+  }
+
+  public LatencyMetrics getExecutionMetrics() {
+    return executionMetrics;
+  }
+
+  public void setExecutionMetrics(LatencyMetrics executionMetrics) {
+    this.executionMetrics = executionMetrics;
+  }
+
+  public Map<String, LatencyMetrics> getLatencyMetrics() {
+    return latencyMetrics;
+  }
+
+  public void setLatencyMetrics(Map<String, LatencyMetrics> latencyMetrics) {
+    this.latencyMetrics = latencyMetrics;
+  }
+}
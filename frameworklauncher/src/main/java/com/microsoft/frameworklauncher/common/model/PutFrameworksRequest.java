@@ -0,0 +1,39 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.util.Map;
+
+public class PutFrameworksRequest implements Serializable {
+  // FrameworkName -> FrameworkDescriptor
+  // Each Framework is validated individually, so an invalid one will not fail the whole batch.
+  @NotNull
+  @Size(max = 10000)
+  private Map<String, FrameworkDescriptor> frameworkDescriptors;
+
+  public Map<String, FrameworkDescriptor> getFrameworkDescriptors() {
+    return frameworkDescriptors;
+  }
+
+  public void setFrameworkDescriptors(Map<String, FrameworkDescriptor> frameworkDescriptors) {
+    this.frameworkDescriptors = frameworkDescriptors;
+  }
+}
@@ -0,0 +1,66 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+// The changes of the watched Frameworks after the ResourceVersion of the Watch Request
+public class SummarizedFrameworkInfoChanges implements Serializable {
+  // All changes until the ResourceVersion are included, so it should be used by the next Watch Request
+  private Long resourceVersion;
+  // If true, the summarizedFrameworkInfos is the full list of the watched Frameworks, so the
+  // Client should replace its cached list with it, instead of merge it to the cached list
+  private Boolean fullList;
+  // The current SummarizedFrameworkInfos of the changed Frameworks
+  private List<SummarizedFrameworkInfo> summarizedFrameworkInfos;
+  // The Frameworks which are deleted, only provided if not fullList
+  private List<String> deletedFrameworkNames;
+
+  public Long getResourceVersion() {
+    return resourceVersion;
+  }
+
+  public void setResourceVersion(Long resourceVersion) {
+    this.resourceVersion = resourceVersion;
+  }
+
+  public Boolean getFullList() {
+    return fullList;
+  }
+
+  public void setFullList(Boolean fullList) {
+    this.fullList = fullList;
+  }
+
+  public List<SummarizedFrameworkInfo> getSummarizedFrameworkInfos() {
+    return summarizedFrameworkInfos;
+  }
+
+  public void setSummarizedFrameworkInfos(List<SummarizedFrameworkInfo> summarizedFrameworkInfos) {
+    this.summarizedFrameworkInfos = summarizedFrameworkInfos;
+  }
+
+  public List<String> getDeletedFrameworkNames() {
+    return deletedFrameworkNames;
+  }
+
+  public void setDeletedFrameworkNames(List<String> deletedFrameworkNames) {
+    this.deletedFrameworkNames = deletedFrameworkNames;
+  }
+}
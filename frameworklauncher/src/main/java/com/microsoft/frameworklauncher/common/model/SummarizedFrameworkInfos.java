@@ -22,6 +22,8 @@
 
 public class SummarizedFrameworkInfos implements Serializable {
   private List<SummarizedFrameworkInfo> summarizedFrameworkInfos;
+  // The token to get the next page, null means it is the last page
+  private String continuationToken;
 
   public List<SummarizedFrameworkInfo> getSummarizedFrameworkInfos() {
     return summarizedFrameworkInfos;
@@ -30,4 +32,12 @@ public List<SummarizedFrameworkInfo> getSummarizedFrameworkInfos() {
   public void setSummarizedFrameworkInfos(List<SummarizedFrameworkInfo> summarizedFrameworkInfos) {
     this.summarizedFrameworkInfos = summarizedFrameworkInfos;
   }
+
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  public void setContinuationToken(String continuationToken) {
+    this.continuationToken = continuationToken;
+  }
 }
@@ -0,0 +1,101 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.Map;
+
+public class SystemTaskQueueMetrics implements Serializable {
+  private String queueName;
+  private Integer parallelism;
+  // SystemTasks which are ready to run but not yet started
+  private Integer queuedTaskCount;
+  // Delayed SystemTasks which are not yet due
+  private Integer delayedTaskCount;
+  private Integer runningTaskCount;
+  // The longest running SystemTask among the running ones, null if none is running
+  private String longestRunningTaskType;
+  private Long longestRunningTaskElapsedMs;
+  // TaskType -> Metrics of the SystemTasks of the TaskType since the queue is created.
+  // TaskType is given when the SystemTask is queued, such as ApplicationMaster.onContainersAllocated
+  private Map<String, SystemTaskTypeMetrics> taskTypeMetrics;
+
+  public String getQueueName() {
+    return queueName;
+  }
+
+  public void setQueueName(String queueName) {
+    this.queueName = queueName;
+  }
+
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(Integer parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public Integer getQueuedTaskCount() {
+    return queuedTaskCount;
+  }
+
+  public void setQueuedTaskCount(Integer queuedTaskCount) {
+    this.queuedTaskCount = queuedTaskCount;
+  }
+
+  public Integer getDelayedTaskCount() {
+    return delayedTaskCount;
+  }
+
+  public void setDelayedTaskCount(Integer delayedTaskCount) {
+    this.delayedTaskCount = delayedTaskCount;
+  }
+
+  public Integer getRunningTaskCount() {
+    return runningTaskCount;
+  }
+
+  public void setRunningTaskCount(Integer runningTaskCount) {
+    this.runningTaskCount = runningTaskCount;
+  }
+
+  public String getLongestRunningTaskType() {
+    return longestRunningTaskType;
+  }
+
+  public void setLongestRunningTaskType(String longestRunningTaskType) {
+    this.longestRunningTaskType = longestRunningTaskType;
+  }
+
+  public Long getLongestRunningTaskElapsedMs() {
+    return longestRunningTaskElapsedMs;
+  }
+
+  public void setLongestRunningTaskElapsedMs(Long longestRunningTaskElapsedMs) {
+    this.longestRunningTaskElapsedMs = longestRunningTaskElapsedMs;
+  }
+
+  public Map<String, SystemTaskTypeMetrics> getTaskTypeMetrics() {
+    return taskTypeMetrics;
+  }
+
+  public void setTaskTypeMetrics(Map<String, SystemTaskTypeMetrics> taskTypeMetrics) {
+    this.taskTypeMetrics = taskTypeMetrics;
+  }
+}
@@ -0,0 +1,119 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class SystemTaskTypeMetrics implements Serializable {
+  private Long queuedCount;
+  // Delayed SystemTasks which are cancelled before they are due
+  private Long cancelledCount;
+  private Long completedCount;
+  // Completed SystemTasks which threw an Exception
+  private Long failedCount;
+  // From the SystemTask is ready to run to it is started
+  private Long totalQueueWaitMs;
+  private Long maxQueueWaitMs;
+  private Long totalExecutionMs;
+  private Long maxExecutionMs;
+  // Count of the SystemTasks whose duration is in each bucket:
+  // bucket 0 is [0, 1)ms, bucket i is [2^(i-1), 2^i)ms, and the last bucket also includes longer durations
+  private List<Long> queueWaitMsHistogram;
+  private List<Long> executionMsHistogram;
+
+  public Long getQueuedCount() {
+    return queuedCount;
+  }
+
+  public void setQueuedCount(Long queuedCount) {
+    this.queuedCount = queuedCount;
+  }
+
+  public Long getCancelledCount() {
+    return cancelledCount;
+  }
+
+  public void setCancelledCount(Long cancelledCount) {
+    this.cancelledCount = cancelledCount;
+  }
+
+  public Long getCompletedCount() {
+    return completedCount;
+  }
+
+  public void setCompletedCount(Long completedCount) {
+    this.completedCount = completedCount;
+  }
+
+  public Long getFailedCount() {
+    return failedCount;
+  }
+
+  public void setFailedCount(Long failedCount) {
+    this.failedCount = failedCount;
+  }
+
+  public Long getTotalQueueWaitMs() {
+    return totalQueueWaitMs;
+  }
+
+  public void setTotalQueueWaitMs(Long totalQueueWaitMs) {
+    this.totalQueueWaitMs = totalQueueWaitMs;
+  }
+
+  public Long getMaxQueueWaitMs() {
+    return maxQueueWaitMs;
+  }
+
+  public void setMaxQueueWaitMs(Long maxQueueWaitMs) {
+    this.maxQueueWaitMs = maxQueueWaitMs;
+  }
+
+  public Long getTotalExecutionMs() {
+    return totalExecutionMs;
+  }
+
+  public void setTotalExecutionMs(Long totalExecutionMs) {
+    this.totalExecutionMs = totalExecutionMs;
+  }
+
+  public Long getMaxExecutionMs() {
+    return maxExecutionMs;
+  }
+
+  public void setMaxExecutionMs(Long maxExecutionMs) {
+    this.maxExecutionMs = maxExecutionMs;
+  }
+
+  public List<Long> getQueueWaitMsHistogram() {
+    return queueWaitMsHistogram;
+  }
+
+  public void setQueueWaitMsHistogram(List<Long> queueWaitMsHistogram) {
+    this.queueWaitMsHistogram = queueWaitMsHistogram;
+  }
+
+  public List<Long> getExecutionMsHistogram() {
+    return executionMsHistogram;
+  }
+
+  public void setExecutionMsHistogram(List<Long> executionMsHistogram) {
+    this.executionMsHistogram = executionMsHistogram;
+  }
+}
@@ -0,0 +1,53 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+// The TaskStatuses in TaskIndex range [beginTaskIndex, endTaskIndex) of a TaskRole,
+// whose Payload is stored in the immutable PayloadParts.
+public class TaskStatusesShard implements Serializable {
+  private Integer beginTaskIndex;
+  private Integer endTaskIndex;
+  private List<String> payloadPartNames;
+
+  public Integer getBeginTaskIndex() {
+    return beginTaskIndex;
+  }
+
+  public void setBeginTaskIndex(Integer beginTaskIndex) {
+    this.beginTaskIndex = beginTaskIndex;
+  }
+
+  public Integer getEndTaskIndex() {
+    return endTaskIndex;
+  }
+
+  public void setEndTaskIndex(Integer endTaskIndex) {
+    this.endTaskIndex = endTaskIndex;
+  }
+
+  public List<String> getPayloadPartNames() {
+    return payloadPartNames;
+  }
+
+  public void setPayloadPartNames(List<String> payloadPartNames) {
+    this.payloadPartNames = payloadPartNames;
+  }
+}
@@ -0,0 +1,80 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.model;
+
+import java.io.Serializable;
+
+public class YarnClientPoolMetrics implements Serializable {
+  private Integer pooledClientCount;
+  private Long hitCount;
+  // The calls which created a new YarnClient
+  private Long missCount;
+  // The YarnClients stopped since they are idle
+  private Long evictedCount;
+  // The YarnClients discarded since they are unhealthy
+  private Long invalidatedCount;
+  private LatencyMetrics creationMetrics;
+
+  public Integer getPooledClientCount() {
+    return pooledClientCount;
+  }
+
+  public void setPooledClientCount(Integer pooledClientCount) {
+    this.pooledClientCount = pooledClientCount;
+  }
+
+  public Long getHitCount() {
+    return hitCount;
+  }
+
+  public void setHitCount(Long hitCount) {
+    this.hitCount = hitCount;
+  }
+
+  public Long getMissCount() {
+    return missCount;
+  }
+
+  public void setMissCount(Long missCount) {
+    this.missCount = missCount;
+  }
+
+  public Long getEvictedCount() {
+    return evictedCount;
+  }
+
+  public void setEvictedCount(Long evictedCount) {
+    this.evictedCount = evictedCount;
+  }
+
+  public Long getInvalidatedCount() {
+    return invalidatedCount;
+  }
+
+  public void setInvalidatedCount(Long invalidatedCount) {
+    this.invalidatedCount = invalidatedCount;
+  }
+
+  public LatencyMetrics getCreationMetrics() {
+    return creationMetrics;
+  }
+
+  public void setCreationMetrics(LatencyMetrics creationMetrics) {
+    this.creationMetrics = creationMetrics;
+  }
+}
@@ -0,0 +1,241 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.AdmissionControllerMetrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Admit the waiting items one by one under the limits, such as the Frameworks waiting to submit
+// Applications, so that a burst of items does not overwhelm the external system:
+//  1. Rate: The items are admitted by the tokens of a token bucket, which is refilled by
+//     maxRatePerSec tokens per second and holds at most burstSize tokens.
+//  2. Concurrency: The admission stops once the caller reports maxInFlightCount admitted items
+//     are still in flight.
+// For fairness, the queues of waiting items are admitted in round robin, and within a queue,
+// the item with smaller rank is admitted first, then the item enqueued earlier.
+// The stale items, such as the removed Frameworks, are dropped during the admission without taking
+// any token or concurrency.
+public class AdmissionController { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(AdmissionController.class);
+
+  // The delay to admit again if it is throttled by the concurrency,
+  // since the in flight items are completed outside of the AdmissionController
+  private static final long IN_FLIGHT_THROTTLED_ADMIT_DELAY_MS = 1000;
+
+  // ControllerName -> AdmissionController, for all not stopped AdmissionControllers in this process
+  private static final Map<String, AdmissionController> CONTROLLERS = new ConcurrentSkipListMap<>();
+
+  private final String name;
+  private final int maxRatePerSec;
+  private final int burstSize;
+  private final int maxInFlightCount;
+
+  // Below are protected by this
+  // Key -> WaitingItem
+  private final Map<String, WaitingItem> waitingItems = new HashMap<>();
+  // QueueName -> WaitingItems in admission order, and the queues are in round robin order
+  private final LinkedHashMap<String, TreeSet<WaitingItem>> waitingQueues = new LinkedHashMap<>();
+  private long nextSequence = 0;
+  private double availableTokens;
+  private long lastRefillNanos = System.nanoTime();
+  private int inFlightCount = 0;
+  private long admittedCount = 0;
+  private long rateThrottledCount = 0;
+  private long inFlightThrottledCount = 0;
+
+  private static class WaitingItem implements Comparable<WaitingItem> {
+    private final String key;
+    private final String queueName;
+    private final long rank;
+    private final long sequence;
+
+    private WaitingItem(String key, String queueName, long rank, long sequence) {
+      this.key = key;
+      this.queueName = queueName;
+      this.rank = rank;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(WaitingItem other) {
+      if (rank != other.rank) {
+        return Long.compare(rank, other.rank);
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  // Non-positive maxRatePerSec means no rate limit, and non-positive maxInFlightCount means no concurrency limit
+  public AdmissionController(String name, int maxRatePerSec, int burstSize, int maxInFlightCount) {
+    this.name = name;
+    this.maxRatePerSec = maxRatePerSec;
+    this.burstSize = Math.max(burstSize, 1);
+    this.maxInFlightCount = maxInFlightCount;
+    this.availableTokens = this.burstSize;
+
+    CONTROLLERS.put(name, this);
+    LOGGER.logInfo("Started %s with MaxRatePerSec %s, BurstSize %s and MaxInFlightCount %s",
+        name, maxRatePerSec, this.burstSize, maxInFlightCount);
+  }
+
+  // Enqueue the item to wait for the admission.
+  // If the item is already waiting, its place is kept unless its queue or rank is changed.
+  public synchronized void enqueue(String key, String queueName, long rank) {
+    WaitingItem item = waitingItems.get(key);
+    if (item != null) {
+      if (item.queueName.equals(queueName) && item.rank == rank) {
+        return;
+      }
+      remove(key);
+    }
+
+    item = new WaitingItem(key, queueName, rank, nextSequence++);
+    waitingItems.put(key, item);
+    waitingQueues.computeIfAbsent(queueName, k -> new TreeSet<>()).add(item);
+  }
+
+  // Return true if the item was waiting
+  public synchronized boolean remove(String key) {
+    WaitingItem item = waitingItems.remove(key);
+    if (item == null) {
+      return false;
+    }
+
+    TreeSet<WaitingItem> queue = waitingQueues.get(item.queueName);
+    queue.remove(item);
+    if (queue.isEmpty()) {
+      waitingQueues.remove(item.queueName);
+    }
+    return true;
+  }
+
+  public synchronized int getWaitingCount() {
+    return waitingItems.size();
+  }
+
+  // Admit the next waiting item which is still admissible and return its key, or return null if there
+  // is no such waiting item or it is throttled. The not admissible items are dropped before throttling.
+  // The inFlightCount is reported by the caller, and it should include the items admitted before.
+  public synchronized String admit(int inFlightCount, Predicate<String> isAdmissible) {
+    this.inFlightCount = inFlightCount;
+    if (waitingItems.isEmpty()) {
+      return null;
+    }
+
+    if (maxInFlightCount > 0 && inFlightCount >= maxInFlightCount) {
+      inFlightThrottledCount++;
+      return null;
+    }
+
+    refillTokens();
+    while (!waitingItems.isEmpty()) {
+      WaitingItem item = waitingQueues.values().iterator().next().first();
+      if (!isAdmissible.test(item.key)) {
+        remove(item.key);
+        continue;
+      }
+
+      if (maxRatePerSec > 0 && availableTokens < 1) {
+        rateThrottledCount++;
+        return null;
+      }
+
+      // Poll the head queue and move it to the tail
+      remove(item.key);
+      TreeSet<WaitingItem> queue = waitingQueues.remove(item.queueName);
+      if (queue != null) {
+        waitingQueues.put(item.queueName, queue);
+      }
+
+      if (maxRatePerSec > 0) {
+        availableTokens--;
+      }
+      admittedCount++;
+      return item.key;
+    }
+    return null;
+  }
+
+  // The delay after which admit may succeed again, if there are waiting items
+  public synchronized long getAdmitDelayMs() {
+    if (maxInFlightCount > 0 && inFlightCount >= maxInFlightCount) {
+      return IN_FLIGHT_THROTTLED_ADMIT_DELAY_MS;
+    }
+
+    refillTokens();
+    if (maxRatePerSec > 0 && availableTokens < 1) {
+      return Math.max((long) Math.ceil((1 - availableTokens) * 1000 / maxRatePerSec), 1);
+    }
+    return 0;
+  }
+
+  // Stop exposing the metrics of this AdmissionController, and it should not be used afterwards
+  public void stop() {
+    CONTROLLERS.remove(name, this);
+    LOGGER.logInfo("Stopped %s", name);
+  }
+
+  private void refillTokens() {
+    long now = System.nanoTime();
+    if (maxRatePerSec > 0) {
+      double refilledTokens = (double) (now - lastRefillNanos) * maxRatePerSec / TimeUnit.SECONDS.toNanos(1);
+      availableTokens = Math.min(availableTokens + refilledTokens, burstSize);
+    }
+    lastRefillNanos = now;
+  }
+
+  /**
+   * REGION Metrics
+   */
+  public synchronized AdmissionControllerMetrics getMetrics() {
+    refillTokens();
+
+    Map<String, Integer> waitingCountPerQueue = new TreeMap<>();
+    for (Map.Entry<String, TreeSet<WaitingItem>> queue : waitingQueues.entrySet()) {
+      waitingCountPerQueue.put(queue.getKey(), queue.getValue().size());
+    }
+
+    AdmissionControllerMetrics metrics = new AdmissionControllerMetrics();
+    metrics.setControllerName(name);
+    metrics.setMaxRatePerSec(maxRatePerSec);
+    metrics.setBurstSize(burstSize);
+    metrics.setMaxInFlightCount(maxInFlightCount);
+    metrics.setAvailableTokens((int) availableTokens);
+    metrics.setInFlightCount(inFlightCount);
+    metrics.setWaitingCount(waitingItems.size());
+    metrics.setWaitingCountPerQueue(waitingCountPerQueue);
+    metrics.setAdmittedCount(admittedCount);
+    metrics.setRateThrottledCount(rateThrottledCount);
+    metrics.setInFlightThrottledCount(inFlightThrottledCount);
+    return metrics;
+  }
+
+  // Metrics of all AdmissionControllers in this process
+  public static List<AdmissionControllerMetrics> getAllMetrics() {
+    List<AdmissionControllerMetrics> allMetrics = new ArrayList<>();
+    for (AdmissionController controller : CONTROLLERS.values()) {
+      allMetrics.add(controller.getMetrics());
+    }
+    return allMetrics;
+  }
+}
@@ -0,0 +1,254 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A timer which puts each Timeout into a bucket of the wheel according to its deadline, so that both
+// scheduling and cancelling a Timeout are O(1), and a single worker thread expires the Timeouts in the
+// current bucket on each tick.
+// It fits a large number of coarse timeouts which are mostly cancelled before expired, such as the
+// ContainerRequest timeouts. A Timeout is expired at most one tick late.
+public class HashedWheelTimer { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(HashedWheelTimer.class);
+  // Max number of new Timeouts moved into the wheel per tick, so that the expiration is not starved
+  private static final int MAX_NEW_TIMEOUTS_PER_TICK = 100000;
+
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final long startNanos;
+  // Timeouts are added into and removed from the wheel only by the worker thread
+  private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingTimeoutCount = new AtomicInteger(0);
+  // The number of the ticks passed, only accessed by the worker thread
+  private long tick = 0;
+
+  public HashedWheelTimer(String name, long tickMs, int wheelSize) {
+    if (Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("WheelSize must be a power of 2: " + wheelSize);
+    }
+
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+    this.wheel = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      wheel[i] = new Bucket();
+    }
+    this.mask = wheelSize - 1;
+    this.startNanos = System.nanoTime();
+
+    Thread workerThread = new Thread(this::work, name);
+    workerThread.setDaemon(true);
+    workerThread.start();
+  }
+
+  // Run the task in the worker thread once the delay is passed, so the task should be quick
+  public Timeout newTimeout(Runnable task, long delayMs) {
+    return newTimeout(task, null, delayMs);
+  }
+
+  // Besides, run the cancelledTask in the cancelling thread once the Timeout is cancelled
+  public Timeout newTimeout(Runnable task, Runnable cancelledTask, long delayMs) {
+    long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delayMs, 0)) - startNanos;
+    Timeout timeout = new Timeout(this, task, cancelledTask, deadlineNanos);
+    pendingTimeoutCount.incrementAndGet();
+    newTimeouts.add(timeout);
+    return timeout;
+  }
+
+  // The number of Timeouts which are neither expired nor cancelled
+  public int getPendingTimeoutCount() {
+    return pendingTimeoutCount.get();
+  }
+
+  private void work() {
+    while (true) {
+      try {
+        waitForNextTick();
+        removeCancelledTimeouts();
+        transferNewTimeouts();
+        wheel[(int) (tick & mask)].expireTimeouts();
+        tick++;
+      } catch (InterruptedException e) {
+        LOGGER.logInfo("HashedWheelTimer is interrupted, stop it");
+        return;
+      } catch (Throwable e) {
+        LOGGER.logError(e, "HashedWheelTimer failed on tick %s, continue on next tick", tick);
+        tick++;
+      }
+    }
+  }
+
+  private void waitForNextTick() throws InterruptedException {
+    long tickDeadlineNanos = tickNanos * (tick + 1);
+    while (true) {
+      long sleepNanos = tickDeadlineNanos - (System.nanoTime() - startNanos);
+      if (sleepNanos <= 0) {
+        return;
+      }
+      TimeUnit.NANOSECONDS.sleep(sleepNanos);
+    }
+  }
+
+  private void removeCancelledTimeouts() {
+    Timeout timeout;
+    while ((timeout = cancelledTimeouts.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void transferNewTimeouts() {
+    for (int i = 0; i < MAX_NEW_TIMEOUTS_PER_TICK; i++) {
+      Timeout timeout = newTimeouts.poll();
+      if (timeout == null) {
+        return;
+      }
+      if (timeout.state.get() != Timeout.STATE_INIT) {
+        continue;
+      }
+
+      long deadlineTick = timeout.deadlineNanos / tickNanos;
+      timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+      // The deadline may be already passed, then put it into the current bucket
+      wheel[(int) (Math.max(deadlineTick, tick) & mask)].add(timeout);
+    }
+  }
+
+  public static class Timeout {
+    private static final int STATE_INIT = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final HashedWheelTimer timer;
+    private final long deadlineNanos;
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+    // Released once cancelled, so that the objects referred by the task can be collected immediately
+    private volatile Runnable task;
+    private volatile Runnable cancelledTask;
+
+    // Below are only accessed by the worker thread
+    private long remainingRounds;
+    private Bucket bucket;
+    private Timeout prev;
+    private Timeout next;
+
+    private Timeout(HashedWheelTimer timer, Runnable task, Runnable cancelledTask, long deadlineNanos) {
+      this.timer = timer;
+      this.task = task;
+      this.cancelledTask = cancelledTask;
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    // Returns false if it is already expired or cancelled
+    public boolean cancel() {
+      if (!state.compareAndSet(STATE_INIT, STATE_CANCELLED)) {
+        return false;
+      }
+      Runnable cancelled = cancelledTask;
+      task = null;
+      cancelledTask = null;
+      timer.pendingTimeoutCount.decrementAndGet();
+      timer.cancelledTimeouts.add(this);
+
+      if (cancelled != null) {
+        cancelled.run();
+      }
+      return true;
+    }
+
+    public boolean isCancelled() {
+      return state.get() == STATE_CANCELLED;
+    }
+
+    public boolean isExpired() {
+      return state.get() == STATE_EXPIRED;
+    }
+
+    private void expire() {
+      Runnable expiredTask = task;
+      if (!state.compareAndSet(STATE_INIT, STATE_EXPIRED)) {
+        return;
+      }
+      task = null;
+      cancelledTask = null;
+      timer.pendingTimeoutCount.decrementAndGet();
+
+      try {
+        expiredTask.run();
+      } catch (Throwable e) {
+        LOGGER.logError(e, "Failed to run the expired Timeout");
+      }
+    }
+  }
+
+  // Doubly linked list of the Timeouts, only accessed by the worker thread
+  private static class Bucket {
+    private Timeout head;
+    private Timeout tail;
+
+    private void add(Timeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    private void remove(Timeout timeout) {
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      } else {
+        tail = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+
+    private void expireTimeouts() {
+      Timeout timeout = head;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        if (timeout.remainingRounds <= 0) {
+          // Its deadline must be within the current tick, since it is put into the bucket by the deadline
+          remove(timeout);
+          timeout.expire();
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.LatencyMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Record the latencies without lock, so it is cheap enough to be always enabled
+public class LatencyRecorder { // THREAD SAFE
+  // See LatencyMetrics for the buckets
+  private static final int HISTOGRAM_BUCKET_COUNT = 21;
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalMs = new LongAdder();
+  private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+  private final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKET_COUNT];
+
+  public LatencyRecorder() {
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] = new LongAdder();
+    }
+  }
+
+  public void record(long latencyMs) {
+    count.increment();
+    totalMs.add(latencyMs);
+    maxMs.accumulate(latencyMs);
+    int bucket = 64 - Long.numberOfLeadingZeros(Math.max(latencyMs, 0));
+    histogram[Math.min(bucket, histogram.length - 1)].increment();
+  }
+
+  public long getTotalMs() {
+    return totalMs.sum();
+  }
+
+  public long getMaxMs() {
+    return maxMs.get();
+  }
+
+  public List<Long> getHistogram() {
+    List<Long> list = new ArrayList<>(histogram.length);
+    for (LongAdder bucket : histogram) {
+      list.add(bucket.sum());
+    }
+    return list;
+  }
+
+  public LatencyMetrics getMetrics() {
+    LatencyMetrics metrics = new LatencyMetrics();
+    metrics.setCount(count.sum());
+    metrics.setTotalMs(getTotalMs());
+    metrics.setMaxMs(getMaxMs());
+    metrics.setHistogram(getHistogram());
+    return metrics;
+  }
+}
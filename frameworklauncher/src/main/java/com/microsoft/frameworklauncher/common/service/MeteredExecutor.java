@@ -0,0 +1,122 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.exts.CommonExts;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.LatencyMetrics;
+import com.microsoft.frameworklauncher.common.model.MeteredExecutorMetrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Run the tasks by at most parallelism threads, and meter them.
+public class MeteredExecutor { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(MeteredExecutor.class);
+
+  // ExecutorName -> MeteredExecutor, for all MeteredExecutors in this process
+  private static final Map<String, MeteredExecutor> EXECUTORS = new ConcurrentSkipListMap<>();
+
+  private final Function<Exception, Boolean> exceptionHandler;
+  private final String name;
+  private final int parallelism;
+  private final ExecutorService workerService;
+  private final AtomicInteger queuedTaskCount = new AtomicInteger(0);
+  private final AtomicInteger runningTaskCount = new AtomicInteger(0);
+  private final LongAdder completedTaskCount = new LongAdder();
+  private final LongAdder failedTaskCount = new LongAdder();
+  private final LatencyRecorder queueWaitRecorder = new LatencyRecorder();
+  private final LatencyRecorder executionRecorder = new LatencyRecorder();
+  // LatencyName -> Recorder, for the latencies recorded by the tasks
+  private final Map<String, LatencyRecorder> latencyRecorders = new ConcurrentHashMap<>();
+
+  public MeteredExecutor(String name, Function<Exception, Boolean> handler, int parallelism) {
+    this.name = name;
+    this.exceptionHandler = handler;
+    this.parallelism = parallelism;
+
+    AtomicInteger threadIndex = new AtomicInteger(0);
+    this.workerService = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + threadIndex.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+    EXECUTORS.put(name, this);
+    LOGGER.logInfo("Started %s with Parallelism %s", name, parallelism);
+  }
+
+  public void execute(CommonExts.VoidCallable task) {
+    long queuedNanos = System.nanoTime();
+    queuedTaskCount.incrementAndGet();
+    workerService.execute(() -> {
+      long startedNanos = System.nanoTime();
+      queuedTaskCount.decrementAndGet();
+      runningTaskCount.incrementAndGet();
+      queueWaitRecorder.record(TimeUnit.NANOSECONDS.toMillis(startedNanos - queuedNanos));
+
+      try {
+        task.call();
+      } catch (Exception e) {
+        failedTaskCount.increment();
+        exceptionHandler.apply(e);
+      } finally {
+        runningTaskCount.decrementAndGet();
+        completedTaskCount.increment();
+        executionRecorder.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+      }
+    });
+  }
+
+  public void recordLatency(String latencyName, long latencyMs) {
+    latencyRecorders.computeIfAbsent(latencyName, key -> new LatencyRecorder()).record(latencyMs);
+  }
+
+  /**
+   * REGION Metrics
+   */
+  public MeteredExecutorMetrics getMetrics() {
+    MeteredExecutorMetrics metrics = new MeteredExecutorMetrics();
+    metrics.setExecutorName(name);
+    metrics.setParallelism(parallelism);
+    metrics.setQueuedTaskCount(queuedTaskCount.get());
+    metrics.setRunningTaskCount(runningTaskCount.get());
+    metrics.setCompletedTaskCount(completedTaskCount.sum());
+    metrics.setFailedTaskCount(failedTaskCount.sum());
+    metrics.setQueueWaitMetrics(queueWaitRecorder.getMetrics());
+    metrics.setExecutionMetrics(executionRecorder.getMetrics());
+
+    Map<String, LatencyMetrics> latencyMetrics = new TreeMap<>();
+    for (Map.Entry<String, LatencyRecorder> recorder : latencyRecorders.entrySet()) {
+      latencyMetrics.put(recorder.getKey(), recorder.getValue().getMetrics());
+    }
+    metrics.setLatencyMetrics(latencyMetrics);
+    return metrics;
+  }
+
+  // Metrics of all MeteredExecutors in this process
+  public static List<MeteredExecutorMetrics> getAllMetrics() {
+    List<MeteredExecutorMetrics> allMetrics = new ArrayList<>();
+    for (MeteredExecutor executor : EXECUTORS.values()) {
+      allMetrics.add(executor.getMetrics());
+    }
+    return allMetrics;
+  }
+}
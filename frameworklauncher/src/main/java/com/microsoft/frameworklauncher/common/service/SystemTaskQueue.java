@@ -19,79 +19,306 @@
 
 import com.microsoft.frameworklauncher.common.exts.CommonExts;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.SystemTaskQueueMetrics;
+import com.microsoft.frameworklauncher.common.model.SystemTaskTypeMetrics;
+import com.microsoft.frameworklauncher.common.web.WebCommon;
+import org.apache.log4j.Level;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
-public class SystemTaskQueue {
+// Run the queued SystemTasks in order:
+//  1. A keyed SystemTask runs after all previously queued SystemTasks of the same key and all previously
+//  queued Barrier SystemTasks, so the SystemTasks of different keys can run in parallel.
+//  2. A Barrier SystemTask (without key) runs alone, after all previously queued SystemTasks and before
+//  all later queued SystemTasks, so it sees everything.
+// With parallelism 1, all SystemTasks run in the single thread.
+public class SystemTaskQueue { // THREAD SAFE
   private static final DefaultLogger LOGGER = new DefaultLogger(SystemTaskQueue.class);
   private static final int QUEUE_LENGTH_WARNING_THRESHOLD = 5000;
+  private static final long METRICS_LOG_INTERVAL_MS = 5 * 60 * 1000;
+  private static final long DELAY_TIMER_TICK_MS = 100;
+  private static final int DELAY_TIMER_WHEEL_SIZE = 512;
+
+  // QueueName -> SystemTaskQueue, for all SystemTaskQueues in this process
+  private static final Map<String, SystemTaskQueue> QUEUES = new ConcurrentSkipListMap<>();
 
   public Function<Exception, Boolean> exceptionHandler;
-  private ScheduledExecutorService executorService;
-  private Lock lock = new ReentrantLock();
-  private Condition condition = lock.newCondition();
+  private final String name;
+  private final int parallelism;
+  private final ExecutorService workerService;
+  // Queue the delayed SystemTasks once they are due
+  private final HashedWheelTimer delayTimer;
+  private final AtomicLong lastMetricsLogNanos = new AtomicLong(System.nanoTime());
+  // TaskType -> Recorder
+  private final Map<String, SystemTaskTypeRecorder> taskTypeRecorders = new ConcurrentHashMap<>();
+  private final Set<QueuedTask> runningTasks = ConcurrentHashMap.newKeySet();
 
-  public SystemTaskQueue(Function<Exception, Boolean> handler) {
-    executorService = Executors.newScheduledThreadPool(1);
-    exceptionHandler = handler;
-    executorService.submit(this::waitToStart);
+  // Below are protected by this
+  private boolean started = false;
+  // Queued SystemTasks which are split into TaskBatches by the Barrier SystemTasks,
+  // only the SystemTasks in the head TaskBatch can run.
+  private final LinkedList<TaskBatch> taskBatches = new LinkedList<>();
+  private int queuedTaskCount = 0;
+  private int runningTaskCount = 0;
+
+  private static class QueuedTask {
+    private final CommonExts.VoidCallable task;
+    private final String taskType;
+    private final SystemTaskTypeRecorder recorder;
+    // When the SystemTask is ready to run, i.e. it is queued or it is due
+    private volatile long readyNanos;
+    private volatile long startedNanos;
+
+    private QueuedTask(CommonExts.VoidCallable task, String taskType, SystemTaskTypeRecorder recorder) {
+      this.task = task;
+      this.taskType = taskType;
+      this.recorder = recorder;
+    }
   }
 
-  private void waitToStart() {
-    lock.lock();
-    LOGGER.logInfo("Waiting to start SystemTaskQueue");
-    try {
-      condition.awaitUninterruptibly();
-    } finally {
-      lock.unlock();
+  private static class TaskBatch {
+    // The Barrier SystemTask if the TaskBatch is a Barrier, otherwise null
+    private final QueuedTask barrierTask;
+    private boolean barrierStarted = false;
+    // Key -> Queued SystemTasks of the key, in queued order.
+    // The key is removed after its last SystemTask is completed.
+    private final Map<String, Queue<QueuedTask>> keyTasks = new HashMap<>();
+    // Keys which have queued SystemTasks and have no running SystemTask
+    private final Queue<String> readyKeys = new ArrayDeque<>();
+
+    private TaskBatch(QueuedTask barrierTask) {
+      this.barrierTask = barrierTask;
+    }
+
+    private boolean isBarrier() {
+      return barrierTask != null;
     }
   }
 
+  public SystemTaskQueue(String name, Function<Exception, Boolean> handler) {
+    this(name, handler, 1);
+  }
+
+  public SystemTaskQueue(String name, Function<Exception, Boolean> handler, int parallelism) {
+    this.name = name;
+    this.parallelism = parallelism;
+    workerService = Executors.newFixedThreadPool(parallelism);
+    delayTimer = new HashedWheelTimer(name + "-DelayTimer", DELAY_TIMER_TICK_MS, DELAY_TIMER_WHEEL_SIZE);
+    exceptionHandler = handler;
+    QUEUES.put(name, this);
+    LOGGER.logInfo("Waiting to start %s with Parallelism %s", name, parallelism);
+  }
+
   public void start() {
-    lock.lock();
-    try {
-      condition.signal();
-    } finally {
-      lock.unlock();
+    synchronized (this) {
+      started = true;
+      dispatchTasks();
     }
-    LOGGER.logInfo("Running SystemTaskQueue. Current Queue Length %s.", length());
+    LOGGER.logInfo("Running %s. Current Queue Length %s.", name, length());
   }
 
+  // The number of SystemTasks which are queued but not yet started, including the delayed ones
   public int length() {
-    return ((ThreadPoolExecutor) executorService).getQueue().size() + 1;
+    synchronized (this) {
+      return queuedTaskCount + delayTimer.getPendingTimeoutCount();
+    }
   }
 
   private void checkTaskQueueHealthy() {
     int len = length();
     if (len > QUEUE_LENGTH_WARNING_THRESHOLD) {
-      LOGGER.logWarning("Too many Tasks in Queue. Current Queue Length %s.", len);
+      LOGGER.logWarning("Too many Tasks in %s. Current Queue Length %s.", name, len);
+    }
+
+    long lastNanos = lastMetricsLogNanos.get();
+    long now = System.nanoTime();
+    if (TimeUnit.NANOSECONDS.toMillis(now - lastNanos) >= METRICS_LOG_INTERVAL_MS &&
+        lastMetricsLogNanos.compareAndSet(lastNanos, now)) {
+      logMetrics();
     }
   }
 
-  private Runnable setupTaskExceptionHandler(CommonExts.VoidCallable task) {
-    return () -> {
-      try {
-        task.call();
-      } catch (Exception e) {
-        exceptionHandler.apply(e);
-      }
-    };
+  // Queue a Barrier SystemTask
+  // The taskType names the SystemTask in the metrics, such as ApplicationMaster.onContainersAllocated
+  public void queueSystemTask(String taskType, CommonExts.VoidCallable task) {
+    queueSystemTask(taskType, null, task);
   }
 
-  public void queueSystemTask(CommonExts.VoidCallable task) {
-    executorService.submit(setupTaskExceptionHandler(task));
+  // Queue a keyed SystemTask, or a Barrier SystemTask if the key is null
+  public void queueSystemTask(String taskType, String key, CommonExts.VoidCallable task) {
+    enqueueTask(key, newQueuedTask(taskType, task));
     checkTaskQueueHealthy();
   }
 
-  public void queueSystemTaskDelayed(CommonExts.VoidCallable task, long milliseconds) {
-    executorService.schedule(setupTaskExceptionHandler(task), milliseconds, TimeUnit.MILLISECONDS);
+  public HashedWheelTimer.Timeout queueSystemTaskDelayed(
+      String taskType, CommonExts.VoidCallable task, long milliseconds) {
+    return queueSystemTaskDelayed(taskType, null, task, milliseconds);
+  }
+
+  // The delayed SystemTask is queued once it is due, so it runs after the SystemTasks queued before it is due.
+  // It is due at most one DELAY_TIMER_TICK_MS late.
+  // Cancel the returned Timeout to drop the SystemTask if it is not yet due, such as a timeout which
+  // is no longer needed. A cancelled SystemTask is released immediately.
+  public HashedWheelTimer.Timeout queueSystemTaskDelayed(
+      String taskType, String key, CommonExts.VoidCallable task, long milliseconds) {
+    QueuedTask queuedTask = newQueuedTask(taskType, task);
+    HashedWheelTimer.Timeout timeout = delayTimer.newTimeout(
+        () -> enqueueTask(key, queuedTask), queuedTask.recorder::recordCancelled, milliseconds);
     checkTaskQueueHealthy();
+    return timeout;
+  }
+
+  private QueuedTask newQueuedTask(String taskType, CommonExts.VoidCallable task) {
+    SystemTaskTypeRecorder recorder = taskTypeRecorders.computeIfAbsent(
+        taskType, key -> new SystemTaskTypeRecorder());
+    recorder.recordQueued();
+    return new QueuedTask(task, taskType, recorder);
+  }
+
+  private synchronized void enqueueTask(String key, QueuedTask task) {
+    task.readyNanos = System.nanoTime();
+    if (key == null) {
+      taskBatches.addLast(new TaskBatch(task));
+    } else {
+      TaskBatch batch = taskBatches.peekLast();
+      if (batch == null || batch.isBarrier()) {
+        batch = new TaskBatch(null);
+        taskBatches.addLast(batch);
+      }
+
+      Queue<QueuedTask> tasks = batch.keyTasks.get(key);
+      if (tasks == null) {
+        tasks = new ArrayDeque<>();
+        batch.keyTasks.put(key, tasks);
+        batch.readyKeys.add(key);
+      }
+      tasks.add(task);
+    }
+
+    queuedTaskCount++;
+    dispatchTasks();
+  }
+
+  // Start the runnable SystemTasks of the head TaskBatch, and remove it once all its SystemTasks completed
+  private synchronized void dispatchTasks() {
+    if (!started) {
+      return;
+    }
+
+    while (!taskBatches.isEmpty()) {
+      TaskBatch batch = taskBatches.peekFirst();
+      if (batch.isBarrier()) {
+        if (!batch.barrierStarted && runningTaskCount == 0) {
+          batch.barrierStarted = true;
+          startTask(batch, null, batch.barrierTask);
+        }
+        return;
+      }
+
+      while (runningTaskCount < parallelism && !batch.readyKeys.isEmpty()) {
+        String key = batch.readyKeys.poll();
+        startTask(batch, key, batch.keyTasks.get(key).poll());
+      }
+
+      if (!batch.keyTasks.isEmpty()) {
+        return;
+      }
+      taskBatches.removeFirst();
+    }
+  }
+
+  private void startTask(TaskBatch batch, String key, QueuedTask task) {
+    queuedTaskCount--;
+    runningTaskCount++;
+    workerService.execute(() -> {
+      try {
+        runTask(task);
+      } finally {
+        onTaskCompleted(batch, key);
+      }
+    });
+  }
+
+  private void runTask(QueuedTask task) {
+    task.startedNanos = System.nanoTime();
+    task.recorder.recordStarted(TimeUnit.NANOSECONDS.toMillis(task.startedNanos - task.readyNanos));
+    runningTasks.add(task);
+
+    boolean failed = false;
+    try {
+      task.task.call();
+    } catch (Exception e) {
+      failed = true;
+      exceptionHandler.apply(e);
+    } finally {
+      runningTasks.remove(task);
+      task.recorder.recordCompleted(
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - task.startedNanos), failed);
+    }
+  }
+
+  private synchronized void onTaskCompleted(TaskBatch batch, String key) {
+    runningTaskCount--;
+    if (batch.isBarrier()) {
+      taskBatches.removeFirst();
+    } else {
+      if (batch.keyTasks.get(key).isEmpty()) {
+        batch.keyTasks.remove(key);
+      } else {
+        batch.readyKeys.add(key);
+      }
+    }
+    dispatchTasks();
+  }
+
+  /**
+   * REGION Metrics
+   */
+  public SystemTaskQueueMetrics getMetrics() {
+    SystemTaskQueueMetrics metrics = new SystemTaskQueueMetrics();
+    metrics.setQueueName(name);
+    metrics.setParallelism(parallelism);
+    synchronized (this) {
+      metrics.setQueuedTaskCount(queuedTaskCount);
+      metrics.setRunningTaskCount(runningTaskCount);
+    }
+    metrics.setDelayedTaskCount(delayTimer.getPendingTimeoutCount());
+
+    long now = System.nanoTime();
+    for (QueuedTask task : runningTasks) {
+      long elapsedMs = TimeUnit.NANOSECONDS.toMillis(now - task.startedNanos);
+      if (metrics.getLongestRunningTaskElapsedMs() == null ||
+          elapsedMs > metrics.getLongestRunningTaskElapsedMs()) {
+        metrics.setLongestRunningTaskType(task.taskType);
+        metrics.setLongestRunningTaskElapsedMs(elapsedMs);
+      }
+    }
+
+    Map<String, SystemTaskTypeMetrics> taskTypeMetrics = new TreeMap<>();
+    for (Map.Entry<String, SystemTaskTypeRecorder> recorder : taskTypeRecorders.entrySet()) {
+      taskTypeMetrics.put(recorder.getKey(), recorder.getValue().getMetrics());
+    }
+    metrics.setTaskTypeMetrics(taskTypeMetrics);
+    return metrics;
+  }
+
+  // Metrics of all SystemTaskQueues in this process
+  public static List<SystemTaskQueueMetrics> getAllMetrics() {
+    List<SystemTaskQueueMetrics> allMetrics = new ArrayList<>();
+    for (SystemTaskQueue queue : QUEUES.values()) {
+      allMetrics.add(queue.getMetrics());
+    }
+    return allMetrics;
+  }
+
+  private void logMetrics() {
+    try {
+      LOGGER.logSplittedLines(Level.INFO, "%s Metrics:\n%s", name, WebCommon.toJson(getMetrics()));
+    } catch (Exception e) {
+      LOGGER.logWarning(e, "Failed to log %s Metrics", name);
+    }
   }
 }
@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.SystemTaskTypeMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Record the SystemTasks of a TaskType without lock, so it is cheap enough to be always enabled
+class SystemTaskTypeRecorder { // THREAD SAFE
+  private final LongAdder queuedCount = new LongAdder();
+  private final LongAdder cancelledCount = new LongAdder();
+  private final LongAdder completedCount = new LongAdder();
+  private final LongAdder failedCount = new LongAdder();
+  private final LatencyRecorder queueWaitRecorder = new LatencyRecorder();
+  private final LatencyRecorder executionRecorder = new LatencyRecorder();
+
+  public void recordQueued() {
+    queuedCount.increment();
+  }
+
+  public void recordCancelled() {
+    cancelledCount.increment();
+  }
+
+  public void recordStarted(long queueWaitMs) {
+    queueWaitRecorder.record(queueWaitMs);
+  }
+
+  public void recordCompleted(long executionMs, boolean failed) {
+    completedCount.increment();
+    if (failed) {
+      failedCount.increment();
+    }
+    executionRecorder.record(executionMs);
+  }
+
+  public SystemTaskTypeMetrics getMetrics() {
+    SystemTaskTypeMetrics metrics = new SystemTaskTypeMetrics();
+    metrics.setQueuedCount(queuedCount.sum());
+    metrics.setCancelledCount(cancelledCount.sum());
+    metrics.setCompletedCount(completedCount.sum());
+    metrics.setFailedCount(failedCount.sum());
+    metrics.setTotalQueueWaitMs(queueWaitRecorder.getTotalMs());
+    metrics.setMaxQueueWaitMs(queueWaitRecorder.getMaxMs());
+    metrics.setTotalExecutionMs(executionRecorder.getTotalMs());
+    metrics.setMaxExecutionMs(executionRecorder.getMaxMs());
+    metrics.setQueueWaitMsHistogram(queueWaitRecorder.getHistogram());
+    metrics.setExecutionMsHistogram(executionRecorder.getHistogram());
+    return metrics;
+  }
+}
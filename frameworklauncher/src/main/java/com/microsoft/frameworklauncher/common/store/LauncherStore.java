@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.store;
+
+import com.microsoft.frameworklauncher.common.model.*;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// The persistent store of all the Launcher Requests and Statuses, which is shared by the Service,
+// WebServer and AM.
+// All the methods are DISTRIBUTED THREAD SAFE, and each single object is Set/Get atomically.
+// KeeperException.NoNodeException is thrown if the object to Get does not exist.
+public interface LauncherStore {
+  // Return a view of this LauncherStore which caches the objects it read, see ZookeeperStore.
+  // Return this LauncherStore itself if the cache is disabled or not supported.
+  LauncherStore withReadCache(Integer maxEntries, Integer expirySec, Boolean shareObjects);
+
+  // Requests
+  LauncherRequest getLauncherRequest() throws Exception;
+
+  void setLauncherRequest(LauncherRequest launcherRequest) throws Exception;
+
+  FrameworkRequest getFrameworkRequest(String frameworkName) throws Exception;
+
+  void setFrameworkRequest(String frameworkName, FrameworkRequest frameworkRequest) throws Exception;
+
+  // Set the FrameworkRequests in batches, which is much cheaper than setting them one by one.
+  // Each FrameworkRequest is still Set atomically, but they may be partially Set if failed.
+  void setFrameworkRequests(Map<String, FrameworkRequest> frameworkRequests) throws Exception;
+
+  void deleteFrameworkRequest(String frameworkName) throws Exception;
+
+  // Only delete the Requests under the FrameworkRequest if childrenOnly
+  void deleteFrameworkRequest(String frameworkName, Boolean childrenOnly) throws Exception;
+
+  // Delete the FrameworkRequests in batches, no matter they exist or not.
+  // Each FrameworkRequest is still deleted atomically, but they may be partially deleted if failed.
+  void deleteFrameworkRequests(Collection<String> frameworkNames) throws Exception;
+
+  OverrideApplicationProgressRequest getOverrideApplicationProgressRequest(String frameworkName) throws Exception;
+
+  void setOverrideApplicationProgressRequest(String frameworkName, OverrideApplicationProgressRequest overrideApplicationProgressRequest) throws Exception;
+
+  MigrateTaskRequest getMigrateTaskRequest(String frameworkName, String containerId) throws Exception;
+
+  void setMigrateTaskRequest(String frameworkName, String containerId, MigrateTaskRequest migrateTaskRequest) throws Exception;
+
+  void deleteMigrateTaskRequest(String frameworkName, String containerId) throws Exception;
+
+  // Statuses
+  LauncherStatus getLauncherStatus() throws Exception;
+
+  void setLauncherStatus(LauncherStatus launcherStatus) throws Exception;
+
+  FrameworkStatus getFrameworkStatus(String frameworkName) throws Exception;
+
+  void setFrameworkStatus(String frameworkName, FrameworkStatus frameworkStatus) throws Exception;
+
+  // Set the FrameworkStatuses in batches, which is much cheaper than setting them one by one.
+  // Each FrameworkStatus is still Set atomically, but they may be partially Set if failed.
+  void setFrameworkStatuses(Map<String, FrameworkStatus> frameworkStatuses) throws Exception;
+
+  void deleteFrameworkStatus(String frameworkName) throws Exception;
+
+  // Only delete the Statuses under the FrameworkStatus if childrenOnly
+  void deleteFrameworkStatus(String frameworkName, Boolean childrenOnly) throws Exception;
+
+  TaskRoleStatus getTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception;
+
+  void setTaskRoleStatus(String frameworkName, String taskRoleName, TaskRoleStatus taskRoleStatus) throws Exception;
+
+  TaskStatuses getTaskStatuses(String frameworkName, String taskRoleName) throws Exception;
+
+  // Set TaskStatuses as a whole
+  void setTaskStatuses(String frameworkName, String taskRoleName, TaskStatuses taskStatuses) throws Exception;
+
+  // Set TaskStatuses with the hint that only the changedTaskIndexes are changed, so the store may
+  // only rewrite the changed part in shards of shardSize Tasks.
+  // Null changedTaskIndexes means all Tasks are changed, and non-positive shardSize means set as a whole.
+  void setTaskStatuses(
+      String frameworkName, String taskRoleName, TaskStatuses taskStatuses,
+      Integer shardSize, Set<Integer> changedTaskIndexes) throws Exception;
+
+  // AggregatedRequests
+  AggregatedFrameworkRequest getAggregatedFrameworkRequest(String frameworkName) throws Exception;
+
+  AggregatedLauncherRequest getAggregatedLauncherRequest() throws Exception;
+
+  HashMap<String, FrameworkRequest> getAllFrameworkRequests() throws Exception;
+
+  // AggregatedStatuses
+  AggregatedTaskRoleStatus getAggregatedTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception;
+
+  AggregatedFrameworkStatus getAggregatedFrameworkStatus(String frameworkName) throws Exception;
+
+  AggregatedLauncherStatus getAggregatedLauncherStatus() throws Exception;
+
+  // Get the AggregatedFrameworkStatuses of the given Frameworks into the given map.
+  // The non-existent AggregatedFrameworkStatus is removed from the map, and the corrupted one is put as null.
+  void getAggregatedFrameworkStatuses(
+      Collection<String> frameworkNames, Map<String, AggregatedFrameworkStatus> aggregatedFrameworkStatuses)
+      throws Exception;
+
+  HashMap<String, FrameworkStatus> getAllFrameworkStatuses() throws Exception;
+
+  // ChangeNotifiers
+  // If watch is not enabled, the returned ChangeNotifier never notifies any change,
+  // so the consumer always fallback to polling.
+  // Notify the changes of LauncherRequest and all FrameworkRequests
+  ChangeNotifier newLauncherRequestChangeNotifier(Boolean watchEnable) throws Exception;
+
+  // Notify the changes of LauncherRequest, LauncherStatus and the AggregatedFrameworkRequest
+  ChangeNotifier newAggregatedFrameworkRequestChangeNotifier(String frameworkName, Boolean watchEnable) throws Exception;
+
+  // Notify the changes of AggregatedLauncherStatus
+  ChangeNotifier newAggregatedLauncherStatusChangeNotifier(Boolean watchEnable) throws Exception;
+
+  // Get the FrameworkNames whose FrameworkRequest may be changed according to the changedPaths,
+  // null means the LauncherRequest or the set of FrameworkRequests may be changed
+  Set<String> getChangedRequestFrameworkNames(Set<String> changedPaths);
+
+  // Get the FrameworkNames whose AggregatedFrameworkStatus may be changed according to the changedPaths,
+  // null means the LauncherStatus or the set of AggregatedFrameworkStatuses may be changed
+  Set<String> getChangedStatusFrameworkNames(Set<String> changedPaths);
+}
@@ -0,0 +1,521 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.utils.ModelUtils.BeanClass;
+import com.microsoft.frameworklauncher.common.utils.ModelUtils.BeanProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A compact binary serialization for the model objects, which is much faster and smaller than YAML.
+ *
+ * Like YAML, it only serializes the JavaBean properties which have both getter and setter (see ModelUtils),
+ * and it is self-describing, so it can tolerate the model class adding or removing properties:
+ *  Removed properties are skipped and added properties keep their default values when deserialize.
+ *
+ * Format:
+ *  Payload: BINARY_MAGIC(2 bytes) FORMAT_VERSION(1 byte) Value
+ *  Value:   Tag(1 byte) [Content]
+ *  Object:  TAG_OBJECT PropertyCount(VarInt) {Name Value}*
+ *  Name:    NameId + 1 (VarInt) for a name already occurred in the payload, otherwise
+ *           0 (VarInt) followed by the name String which will be assigned with next NameId.
+ * Property names and enum names are interned within one payload, so that the names will not
+ * be repeated for each element of a large List, such as TaskStatuses.
+ */
+public class BinaryUtils {
+  // It can be distinguished from serialized YAML string and GZIP compressed bytes, since
+  // 0xFE is never a valid UTF-8 byte and GZIP_MAGIC(0x8b1f) starts with 0x1f.
+  public static final int BINARY_MAGIC = 0x4cfe;
+  // Increase it when the format is changed incompatibly
+  public static final byte FORMAT_VERSION = 1;
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_TRUE = 1;
+  private static final byte TAG_FALSE = 2;
+  private static final byte TAG_INTEGER = 3;
+  private static final byte TAG_LONG = 4;
+  private static final byte TAG_FLOAT = 5;
+  private static final byte TAG_DOUBLE = 6;
+  private static final byte TAG_STRING = 7;
+  private static final byte TAG_BIG_DECIMAL = 8;
+  private static final byte TAG_ENUM = 9;
+  private static final byte TAG_LIST = 10;
+  private static final byte TAG_SET = 11;
+  private static final byte TAG_MAP = 12;
+  private static final byte TAG_OBJECT = 13;
+
+  // Bytes <-> Binary
+  public static <T> T toObject(byte[] bytes, Class<T> classRef) throws IOException {
+    if (!isBinary(bytes)) {
+      throw new StreamCorruptedException("Bytes are not in the binary serialization format");
+    }
+    if (bytes[2] != FORMAT_VERSION) {
+      throw new StreamCorruptedException(String.format(
+          "Unsupported binary serialization format version %s, expected %s", bytes[2], FORMAT_VERSION));
+    }
+
+    return readPayload(new Reader(bytes, 3), classRef);
+  }
+
+  // Deserialize from the stream directly, so that the large payload does not need to be
+  // assembled into a single byte array.
+  public static <T> T toObject(InputStream inputStream, Class<T> classRef) throws IOException {
+    Reader reader = new Reader(inputStream);
+    byte[] header = new byte[3];
+    try {
+      for (int i = 0; i < header.length; i++) {
+        header[i] = reader.readByte();
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new StreamCorruptedException("Stream is not in the binary serialization format");
+    }
+    if (!isBinary(header)) {
+      throw new StreamCorruptedException("Stream is not in the binary serialization format");
+    }
+    if (header[2] != FORMAT_VERSION) {
+      throw new StreamCorruptedException(String.format(
+          "Unsupported binary serialization format version %s, expected %s", header[2], FORMAT_VERSION));
+    }
+
+    return readPayload(reader, classRef);
+  }
+
+  private static <T> T readPayload(Reader reader, Class<T> classRef) throws IOException {
+    try {
+      return classRef.cast(reader.readValue(classRef));
+    } catch (IndexOutOfBoundsException e) {
+      throw new StreamCorruptedException("Unexpected end of the binary serialization bytes");
+    }
+  }
+
+  public static <T> byte[] toBytes(T obj) throws IOException {
+    Writer writer = new Writer();
+    writer.writeByte(BINARY_MAGIC & 0xFF);
+    writer.writeByte((BINARY_MAGIC >> 8) & 0xFF);
+    writer.writeByte(FORMAT_VERSION);
+    writer.writeValue(obj);
+    return writer.toByteArray();
+  }
+
+  public static boolean isBinary(byte[] bytes) {
+    return bytes != null && bytes.length >= 3 && CommonUtils.bytesToShort(bytes) == BINARY_MAGIC;
+  }
+
+  private static BeanClass getBeanClass(Class<?> classRef) throws IOException {
+    try {
+      return ModelUtils.getBeanClass(classRef);
+    } catch (IllegalArgumentException e) {
+      throw new NotSerializableException(e.getMessage());
+    }
+  }
+
+  private static Class<?> getRawClass(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    } else if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    } else {
+      return null;
+    }
+  }
+
+  private static Type getTypeArgument(Type type, int index) {
+    if (type instanceof ParameterizedType) {
+      return ((ParameterizedType) type).getActualTypeArguments()[index];
+    } else {
+      return null;
+    }
+  }
+
+  private static class Writer {
+    private byte[] buffer = new byte[256];
+    private int position = 0;
+    // Name -> NameId
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    private void ensureCapacity(int bytes) {
+      if (position + bytes > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+      }
+    }
+
+    private void writeByte(int b) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) b;
+    }
+
+    private void writeVarLong(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[position++] = (byte) value;
+    }
+
+    private void writeZigZagLong(long value) {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeFixedLong(long value, int bytes) {
+      ensureCapacity(bytes);
+      for (int i = 0; i < bytes; i++) {
+        buffer[position++] = (byte) (value >>> (i * 8));
+      }
+    }
+
+    private void writeString(String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    private void writeName(String name) {
+      Integer nameId = nameIds.get(name);
+      if (nameId != null) {
+        writeVarLong(nameId + 1);
+      } else {
+        nameIds.put(name, nameIds.size());
+        writeVarLong(0);
+        writeString(name);
+      }
+    }
+
+    private void writeValue(Object value) throws IOException {
+      if (value == null) {
+        writeByte(TAG_NULL);
+      } else if (value instanceof String) {
+        writeByte(TAG_STRING);
+        writeString((String) value);
+      } else if (value instanceof Integer) {
+        writeByte(TAG_INTEGER);
+        writeZigZagLong((Integer) value);
+      } else if (value instanceof Long) {
+        writeByte(TAG_LONG);
+        writeZigZagLong((Long) value);
+      } else if (value instanceof Boolean) {
+        writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+      } else if (value instanceof Enum) {
+        writeByte(TAG_ENUM);
+        writeName(((Enum<?>) value).name());
+      } else if (value instanceof Float) {
+        writeByte(TAG_FLOAT);
+        writeFixedLong(Float.floatToIntBits((Float) value), 4);
+      } else if (value instanceof Double) {
+        writeByte(TAG_DOUBLE);
+        writeFixedLong(Double.doubleToLongBits((Double) value), 8);
+      } else if (value instanceof BigDecimal) {
+        writeByte(TAG_BIG_DECIMAL);
+        writeString(value.toString());
+      } else if (value instanceof Collection) {
+        Collection<?> collection = (Collection<?>) value;
+        writeByte(value instanceof Set ? TAG_SET : TAG_LIST);
+        writeVarLong(collection.size());
+        for (Object element : collection) {
+          writeValue(element);
+        }
+      } else if (value instanceof Map) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        writeByte(TAG_MAP);
+        writeVarLong(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          writeValue(entry.getKey());
+          writeValue(entry.getValue());
+        }
+      } else if (value.getClass().isArray() || value.getClass().getName().startsWith("java.")) {
+        throw new NotSerializableException(value.getClass().getName());
+      } else {
+        BeanClass beanClass = getBeanClass(value.getClass());
+        writeByte(TAG_OBJECT);
+        writeVarLong(beanClass.properties.length);
+        for (BeanProperty property : beanClass.properties) {
+          writeName(property.name);
+          try {
+            writeValue(property.get(value));
+          } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e.getCause());
+          }
+        }
+      }
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+  }
+
+  // Read from the whole bytes, or from the stream through the buffer which is refilled on demand.
+  private static class Reader {
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+    // Null if all the bytes are already in the buffer
+    private final InputStream inputStream;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    // NameId -> Name
+    private final List<String> names = new ArrayList<>();
+
+    private Reader(byte[] buffer, int position) {
+      this.inputStream = null;
+      this.buffer = buffer;
+      this.position = position;
+      this.limit = buffer.length;
+    }
+
+    private Reader(InputStream inputStream) {
+      this.inputStream = inputStream;
+      this.buffer = new byte[STREAM_BUFFER_BYTES];
+      this.position = 0;
+      this.limit = 0;
+    }
+
+    // Ensure at least one byte is available in the buffer
+    private void fill() throws IOException {
+      if (position < limit) {
+        return;
+      }
+
+      int readBytes = (inputStream == null ? -1 : 0);
+      while (readBytes == 0) {
+        readBytes = inputStream.read(buffer, 0, buffer.length);
+      }
+      if (readBytes < 0) {
+        throw new IndexOutOfBoundsException();
+      }
+      position = 0;
+      limit = readBytes;
+    }
+
+    private byte readByte() throws IOException {
+      fill();
+      return buffer[position++];
+    }
+
+    private long readVarLong() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          break;
+        }
+      }
+      return value;
+    }
+
+    // The remaining bytes are unknown for the stream, so the length is only bounded by the
+    // stream end, and the caller should not preallocate by it.
+    private int readLength() throws IOException {
+      long length = readVarLong();
+      if (length < 0 || length > Integer.MAX_VALUE ||
+          (inputStream == null && length > limit - position)) {
+        throw new StreamCorruptedException(String.format("Invalid length %s", length));
+      }
+      return (int) length;
+    }
+
+    private int getInitialCapacity(int length) {
+      return (inputStream == null ? length : Math.min(length, STREAM_BUFFER_BYTES));
+    }
+
+    private long readZigZagLong() throws IOException {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readFixedLong(int bytes) throws IOException {
+      long value = 0;
+      for (int i = 0; i < bytes; i++) {
+        value |= (long) (readByte() & 0xFF) << (i * 8);
+      }
+      return value;
+    }
+
+    private String readString() throws IOException {
+      int length = readLength();
+      if (length <= limit - position) {
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+      }
+
+      // The String spans the buffer boundary
+      byte[] bytes = new byte[getInitialCapacity(length)];
+      int readBytes = 0;
+      while (readBytes < length) {
+        fill();
+        if (readBytes == bytes.length) {
+          bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+        }
+        int copyBytes = Math.min(limit - position, bytes.length - readBytes);
+        System.arraycopy(buffer, position, bytes, readBytes, copyBytes);
+        position += copyBytes;
+        readBytes += copyBytes;
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readName() throws IOException {
+      long nameRef = readVarLong();
+      if (nameRef == 0) {
+        String name = readString();
+        names.add(name);
+        return name;
+      } else if (nameRef <= names.size()) {
+        return names.get((int) nameRef - 1);
+      } else {
+        throw new StreamCorruptedException(String.format("Invalid name reference %s", nameRef));
+      }
+    }
+
+    // The expected type is only a hint to construct the value, and null means unknown,
+    // such as the value of a removed property which will be dropped later.
+    @SuppressWarnings("unchecked")
+    private Object readValue(Type type) throws IOException {
+      Class<?> rawClass = getRawClass(type);
+      byte tag = readByte();
+      switch (tag) {
+        case TAG_NULL:
+          return null;
+        case TAG_TRUE:
+          return true;
+        case TAG_FALSE:
+          return false;
+        case TAG_INTEGER:
+        case TAG_LONG:
+          return toNumber(readZigZagLong(), rawClass);
+        case TAG_FLOAT:
+          return toNumber(Float.intBitsToFloat((int) readFixedLong(4)), rawClass);
+        case TAG_DOUBLE:
+          return toNumber(Double.longBitsToDouble(readFixedLong(8)), rawClass);
+        case TAG_STRING:
+          return readString();
+        case TAG_BIG_DECIMAL:
+          return new BigDecimal(readString());
+        case TAG_ENUM:
+          String enumName = readName();
+          if (rawClass != null && rawClass.isEnum()) {
+            return Enum.valueOf(rawClass.asSubclass(Enum.class), enumName);
+          }
+          return enumName;
+        case TAG_LIST:
+        case TAG_SET: {
+          int size = readLength();
+          Collection<Object> collection = (tag == TAG_SET ?
+              new LinkedHashSet<>() : new ArrayList<>(getInitialCapacity(size)));
+          Type elementType = getTypeArgument(type, 0);
+          for (int i = 0; i < size; i++) {
+            collection.add(readValue(elementType));
+          }
+          return collection;
+        }
+        case TAG_MAP: {
+          int size = readLength();
+          Map<Object, Object> map = new LinkedHashMap<>();
+          Type keyType = getTypeArgument(type, 0);
+          Type valueType = getTypeArgument(type, 1);
+          for (int i = 0; i < size; i++) {
+            Object key = readValue(keyType);
+            map.put(key, readValue(valueType));
+          }
+          return map;
+        }
+        case TAG_OBJECT:
+          return readObject(rawClass);
+        default:
+          throw new StreamCorruptedException(String.format("Invalid tag %s", tag));
+      }
+    }
+
+    private Object readObject(Class<?> classRef) throws IOException {
+      int propertyCount = readLength();
+      if (classRef == null || classRef == Object.class) {
+        // Skip the Object whose class is unknown
+        for (int i = 0; i < propertyCount; i++) {
+          readName();
+          readValue(null);
+        }
+        return null;
+      }
+
+      BeanClass beanClass = getBeanClass(classRef);
+      Object obj;
+      try {
+        obj = beanClass.newInstance();
+      } catch (IllegalStateException e) {
+        throw new IOException(e.getMessage(), e.getCause());
+      }
+      for (int i = 0; i < propertyCount; i++) {
+        String name = readName();
+        BeanProperty property = beanClass.propertyIndex.get(name);
+        Object value = readValue(property == null ? null : property.type);
+        if (property == null) {
+          // The property has been removed from the class
+          continue;
+        }
+
+        try {
+          property.set(obj, value);
+        } catch (IllegalStateException | IllegalArgumentException e) {
+          throw new IOException(String.format(
+              "Failed to set property %s of %s", name, classRef.getName()), e);
+        }
+      }
+      return obj;
+    }
+
+    // Convert the number to the expected type, so that a property can be widened compatibly,
+    // such as from Integer to Long.
+    private static Object toNumber(long value, Class<?> classRef) {
+      if (classRef == Long.class || classRef == long.class) {
+        return value;
+      } else if (classRef == Float.class || classRef == float.class) {
+        return (float) value;
+      } else if (classRef == Double.class || classRef == double.class) {
+        return (double) value;
+      } else if (classRef == BigDecimal.class) {
+        return BigDecimal.valueOf(value);
+      } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+        return (int) value;
+      } else {
+        return value;
+      }
+    }
+
+    private static Object toNumber(double value, Class<?> classRef) {
+      if (classRef == Float.class || classRef == float.class) {
+        return (float) value;
+      } else if (classRef == BigDecimal.class) {
+        return BigDecimal.valueOf(value);
+      } else {
+        return value;
+      }
+    }
+  }
+}
@@ -24,9 +24,8 @@
 import org.apache.hadoop.util.Shell;
 import org.apache.hadoop.util.StringUtils;
 
-import java.io.File;
-import java.util.Arrays;
-import java.util.Random;
+import java.io.*;
+import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 
@@ -141,6 +140,31 @@ public static byte[] concatArrays(byte[] arrayHead, byte[] arrayTail) {
     return result;
   }
 
+  // Chain the arrays into a single stream without copying them
+  public static InputStream concatArraysToStream(List<byte[]> arrays) {
+    List<InputStream> streams = new ArrayList<>(arrays.size());
+    for (byte[] array : arrays) {
+      streams.add(new ByteArrayInputStream(array));
+    }
+    return new SequenceInputStream(Collections.enumeration(streams));
+  }
+
+  // Read at most maxLength bytes without consuming them, the unread size of the
+  // pushbackStream should be at least maxLength.
+  public static byte[] peek(PushbackInputStream pushbackStream, int maxLength) throws IOException {
+    byte[] bytes = new byte[maxLength];
+    int length = 0;
+    while (length < maxLength) {
+      int readBytes = pushbackStream.read(bytes, length, maxLength - length);
+      if (readBytes < 0) {
+        break;
+      }
+      length += readBytes;
+    }
+    pushbackStream.unread(bytes, 0, length);
+    return Arrays.copyOf(bytes, length);
+  }
+
   public static int bytesToShort(byte[] bytes) {
     int low = bytes[0] & 0xFF;
     int high = bytes[1] & 0xFF;
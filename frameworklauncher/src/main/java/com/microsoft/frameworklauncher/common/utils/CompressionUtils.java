@@ -14,35 +14,145 @@
 // NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
 // DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
 // OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
-
 package com.microsoft.frameworklauncher.common.utils;
 
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.CompressionType;
 import org.apache.commons.io.IOUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 
+// Compress bytes by the given CompressionType, and decompress bytes by its detected CompressionType,
+// so that the bytes compressed by any CompressionType are always readable, such as during the
+// rolling upgrade of the CompressionType.
+//
+// DEFLATE format:
+//  [DEFLATE_MAGIC: 2 bytes][FORMAT_VERSION: 1 byte][Decompressed length: 4 bytes, big-endian][ZLIB stream]
+// The ZLIB stream contains the Adler-32 of its preset dictionary if any, so the dictionary to
+// decompress is detected by it, and any dictionary can never be changed once it is released.
 public class CompressionUtils {
   private static final DefaultLogger LOGGER = new DefaultLogger(CompressionUtils.class);
 
+  // 0xFD is never a valid UTF-8 byte, and it does not equal to the first byte of GZIP_MAGIC(0x8b1f)
+  // or BinaryUtils.BINARY_MAGIC(0x4cfe).
+  private static final int DEFLATE_MAGIC = 0x4cfd;
+  private static final byte FORMAT_VERSION = 1;
+  private static final int DEFLATE_HEADER_BYTES = 7;
+  private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+
+  // Max number of idle Deflaters/Inflaters kept to be reused
+  private static final int MAX_POOLED_CODERS = Runtime.getRuntime().availableProcessors() * 2;
+  private static final BlockingQueue<Deflater> DEFLATER_POOL = new ArrayBlockingQueue<>(MAX_POOLED_CODERS);
+  private static final BlockingQueue<Inflater> INFLATER_POOL = new ArrayBlockingQueue<>(MAX_POOLED_CODERS);
+
+  // The preset dictionary for DEFLATE_DICTIONARY, it is concatenated from the frequent content
+  // of the Launcher model payloads, and the more frequent content is put closer to the end.
+  private static final byte[] DICTIONARY_V1 = (
+      "!!com.microsoft.frameworklauncher.common.model.FrameworkStatus " +
+          "{applicationCompletedTimestamp: null, applicationExitCode: null, applicationExitDiagnostics: null, " +
+          "applicationExitType: null, applicationId: application_, applicationLaunchedTimestamp: null, " +
+          "applicationProgress: null, applicationTrackingUrl: null, frameworkCompletedTimestamp: null, " +
+          "frameworkCreatedTimestamp: null, frameworkName: null, frameworkRetryPolicyState: null, " +
+          "frameworkState: null, frameworkVersion: null}\n" +
+          "FRAMEWORK_WAITING APPLICATION_CREATED APPLICATION_LAUNCHED APPLICATION_WAITING " +
+          "APPLICATION_RUNNING APPLICATION_RETRIEVING_DIAGNOSTICS APPLICATION_COMPLETED FRAMEWORK_COMPLETED\n" +
+          "!!com.microsoft.frameworklauncher.common.model.TaskRoleStatus\n" +
+          "taskRoleRolloutStatus: {currentRolloutEndTimestamp: null, currentRolloutScaleUnit: null,\n" +
+          "  currentRolloutStartTimestamp: null, currentRolloutStatus: UNKNOWN, currentRolloutTaskIndexes: null,\n" +
+          "  overallRolloutEndTimestamp: null, overallRolloutServiceVersion: null, overallRolloutStartTimestamp: null,\n" +
+          "  overallRolloutStatus: UNKNOWN}\n" +
+          "SUCCEEDED TRANSIENT_NORMAL TRANSIENT_CONFLICT NON_TRANSIENT UNKNOWN\n" +
+          "TASK_WAITING CONTAINER_REQUESTED CONTAINER_ALLOCATED CONTAINER_LAUNCHED CONTAINER_COMPLETED TASK_COMPLETED\n" +
+          "!!com.microsoft.frameworklauncher.common.model.TaskStatuses\n" +
+          "frameworkVersion: 0\n" +
+          "taskRoleName: \n" +
+          "taskStatusArray:\n" +
+          "- containerCompletedTimestamp: null\n" +
+          "  containerConnectionLostCount: 0\n" +
+          "  containerExitCode: null\n" +
+          "  containerExitDiagnostics: null\n" +
+          "  containerExitType: null\n" +
+          "  containerGpus: 0\n" +
+          "  containerHost: \n" +
+          "  containerId: container_e\n" +
+          "  containerIp: 10.\n" +
+          "  containerIsDecommissioning: false\n" +
+          "  containerLaunchedTimestamp: 1\n" +
+          "  containerLogHttpAddress: http://:8042/node/containerlogs/container_e\n" +
+          "  taskCompletedTimestamp: null\n" +
+          "  taskCreatedTimestamp: 1\n" +
+          "  taskIndex: \n" +
+          "  taskRetryPolicyState: {nonTransientRetriedCount: 0, retriedCount: 0, transientConflictRetriedCount: 0,\n" +
+          "    transientNormalRetriedCount: 0, unKnownRetriedCount: 0}\n" +
+          "  taskRoleName: \n" +
+          "  taskServiceStatus: {serviceVersion: 0}\n" +
+          "  taskState: CONTAINER_RUNNING\n").getBytes(StandardCharsets.UTF_8);
+
+  // Dictionary Adler-32 -> Dictionary
+  private static final Map<Integer, byte[]> DICTIONARIES = new HashMap<>();
+
+  static {
+    addDictionary(DICTIONARY_V1);
+  }
+
+  private static void addDictionary(byte[] dictionary) {
+    Inflater inflater = new Inflater();
+    Deflater deflater = new Deflater();
+    try {
+      deflater.setDictionary(dictionary);
+      deflater.setInput(new byte[0]);
+      deflater.finish();
+      byte[] stream = new byte[64];
+      int streamBytes = deflater.deflate(stream);
+
+      inflater.setInput(stream, 0, streamBytes);
+      inflater.inflate(new byte[1]);
+      DICTIONARIES.put(inflater.getAdler(), dictionary);
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Failed to compute the Adler-32 of the dictionary", e);
+    } finally {
+      deflater.end();
+      inflater.end();
+    }
+  }
+
   public static byte[] compress(byte[] bytes) throws IOException {
-    long start = System.currentTimeMillis();
+    return compress(bytes, CompressionType.GZIP, Deflater.DEFAULT_COMPRESSION);
+  }
 
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      try (GZIPOutputStream zos = new GZIPOutputStream(bos)) {
-        zos.write(bytes);
-      }
-      byte[] compressedBytes = bos.toByteArray();
+  // The level is the Deflater compression level, i.e. 0-9 or -1 for the default level
+  public static byte[] compress(byte[] bytes, CompressionType compressionType, int level) throws IOException {
+    long start = System.currentTimeMillis();
 
-      long end = System.currentTimeMillis();
-      LOGGER.logDebug("Compressed from %s bytes to %s bytes in %sms.",
-          bytes.length, compressedBytes.length, end - start);
-      return compressedBytes;
+    byte[] compressedBytes;
+    if (compressionType == CompressionType.DEFLATE) {
+      compressedBytes = deflate(bytes, level, null);
+    } else if (compressionType == CompressionType.DEFLATE_DICTIONARY) {
+      compressedBytes = deflate(bytes, level, DICTIONARY_V1);
+    } else {
+      compressedBytes = gzip(bytes);
     }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("Compressed by %s from %s bytes to %s bytes in %sms.",
+        compressionType, bytes.length, compressedBytes.length, end - start);
+    return compressedBytes;
   }
 
   // Works for both decompressed and compressed bytes
@@ -54,21 +164,257 @@ public static byte[] decompress(byte[] bytes) throws IOException {
 
     long start = System.currentTimeMillis();
 
+    byte[] decompressedBytes;
+    if (isDeflated(bytes)) {
+      decompressedBytes = inflate(bytes);
+    } else {
+      decompressedBytes = gunzip(bytes);
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("Decompressed from %s bytes to %s bytes in %sms.",
+        bytes.length, decompressedBytes.length, end - start);
+    return decompressedBytes;
+  }
+
+  // Works for both decompressed and compressed stream, and the returned stream should be closed
+  // to release its decompressor.
+  public static InputStream decompress(InputStream inputStream) throws IOException {
+    PushbackInputStream pushbackStream = new PushbackInputStream(inputStream, DEFLATE_HEADER_BYTES);
+    byte[] header = CommonUtils.peek(pushbackStream, DEFLATE_HEADER_BYTES);
+    if (header.length < 2 || !isCompressed(header)) {
+      return pushbackStream;
+    }
+
+    if (isDeflated(header)) {
+      IOUtils.skipFully(pushbackStream, DEFLATE_HEADER_BYTES);
+      return new InflaterStream(pushbackStream, getDecompressedLength(header));
+    } else {
+      return new GZIPInputStream(pushbackStream, STREAM_BUFFER_BYTES);
+    }
+  }
+
+  public static boolean isCompressed(byte[] bytes) {
+    // It can judge serialized YAML string correctly, since the YARM string
+    // header !!(0x2121) always does not equal to GZIP_MAGIC(0x8b1f) or DEFLATE_MAGIC.
+    return (CommonUtils.bytesToShort(bytes) == GZIPInputStream.GZIP_MAGIC || isDeflated(bytes));
+  }
+
+  private static boolean isDeflated(byte[] bytes) {
+    return (bytes.length >= DEFLATE_HEADER_BYTES && CommonUtils.bytesToShort(bytes) == DEFLATE_MAGIC);
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+      try (GZIPOutputStream zos = new GZIPOutputStream(bos)) {
+        zos.write(bytes);
+      }
+      return bos.toByteArray();
+    }
+  }
+
+  private static byte[] gunzip(byte[] bytes) throws IOException {
     try (ByteArrayInputStream bis = new ByteArrayInputStream(bytes)) {
       try (GZIPInputStream gis = new GZIPInputStream(bis)) {
-        byte[] decompressedBytes = IOUtils.toByteArray(gis);
+        return IOUtils.toByteArray(gis);
+      }
+    }
+  }
 
-        long end = System.currentTimeMillis();
-        LOGGER.logDebug("Decompressed from %s bytes to %s bytes in %sms.",
-            bytes.length, decompressedBytes.length, end - start);
-        return decompressedBytes;
+  private static byte[] deflate(byte[] bytes, int level, byte[] dictionary) {
+    Deflater deflater = DEFLATER_POOL.poll();
+    if (deflater == null) {
+      deflater = new Deflater();
+    }
+
+    try {
+      deflater.setLevel(level);
+      if (dictionary != null) {
+        deflater.setDictionary(dictionary);
+      }
+      deflater.setInput(bytes);
+      deflater.finish();
+
+      // Repetitive payloads are usually compressed to much less than half
+      byte[] buffer = new byte[Math.max(64, DEFLATE_HEADER_BYTES + bytes.length / 4)];
+      int length = DEFLATE_HEADER_BYTES;
+      while (!deflater.finished()) {
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        length += deflater.deflate(buffer, length, buffer.length - length);
+      }
+
+      buffer[0] = (byte) (DEFLATE_MAGIC & 0xFF);
+      buffer[1] = (byte) ((DEFLATE_MAGIC >> 8) & 0xFF);
+      buffer[2] = FORMAT_VERSION;
+      buffer[3] = (byte) (bytes.length >>> 24);
+      buffer[4] = (byte) (bytes.length >>> 16);
+      buffer[5] = (byte) (bytes.length >>> 8);
+      buffer[6] = (byte) bytes.length;
+      return Arrays.copyOf(buffer, length);
+    } finally {
+      deflater.reset();
+      if (!DEFLATER_POOL.offer(deflater)) {
+        deflater.end();
       }
     }
   }
 
-  public static boolean isCompressed(byte[] bytes) {
-    // It can judge serialized YAML string correctly, since the YARM string
-    // header !!(0x2121) always does not equal to GZIP_MAGIC(0x8b1f).
-    return CommonUtils.bytesToShort(bytes) == GZIPInputStream.GZIP_MAGIC;
+  private static int getDecompressedLength(byte[] header) throws IOException {
+    if (header[2] != FORMAT_VERSION) {
+      throw new StreamCorruptedException(String.format(
+          "Unsupported DEFLATE format version %s, expect %s", header[2], FORMAT_VERSION));
+    }
+
+    int decompressedLength = ((header[3] & 0xFF) << 24) | ((header[4] & 0xFF) << 16) |
+        ((header[5] & 0xFF) << 8) | (header[6] & 0xFF);
+    if (decompressedLength < 0) {
+      throw new StreamCorruptedException("Corrupt DEFLATE decompressed length " + decompressedLength);
+    }
+    return decompressedLength;
+  }
+
+  private static Inflater borrowInflater() {
+    Inflater inflater = INFLATER_POOL.poll();
+    return (inflater == null ? new Inflater() : inflater);
+  }
+
+  private static void returnInflater(Inflater inflater) {
+    inflater.reset();
+    if (!INFLATER_POOL.offer(inflater)) {
+      inflater.end();
+    }
+  }
+
+  private static void setDictionary(Inflater inflater) throws IOException {
+    byte[] dictionary = DICTIONARIES.get(inflater.getAdler());
+    if (dictionary == null) {
+      throw new StreamCorruptedException(String.format(
+          "Unknown DEFLATE dictionary with Adler-32 %s", inflater.getAdler()));
+    }
+    inflater.setDictionary(dictionary);
+  }
+
+  private static byte[] inflate(byte[] bytes) throws IOException {
+    int decompressedLength = getDecompressedLength(bytes);
+    Inflater inflater = borrowInflater();
+    try {
+      byte[] decompressedBytes = new byte[decompressedLength];
+      inflater.setInput(bytes, DEFLATE_HEADER_BYTES, bytes.length - DEFLATE_HEADER_BYTES);
+
+      // Once the decompressedBytes is full, inflate the remaining stream into the overflowBytes,
+      // so that the stream can be finished and verified.
+      byte[] overflowBytes = new byte[1];
+      int length = 0;
+      while (!inflater.finished()) {
+        int inflatedBytes;
+        if (length < decompressedLength) {
+          inflatedBytes = inflater.inflate(decompressedBytes, length, decompressedLength - length);
+          length += inflatedBytes;
+        } else {
+          inflatedBytes = inflater.inflate(overflowBytes);
+          if (inflatedBytes > 0) {
+            throw new StreamCorruptedException(String.format(
+                "Corrupt DEFLATE stream, inflated more than %s bytes", decompressedLength));
+          }
+        }
+
+        if (inflatedBytes == 0 && !inflater.finished()) {
+          if (inflater.needsDictionary()) {
+            setDictionary(inflater);
+          } else if (inflater.needsInput()) {
+            throw new StreamCorruptedException(String.format(
+                "Truncated DEFLATE stream, inflated %s bytes of %s bytes", length, decompressedLength));
+          }
+        }
+      }
+
+      if (length != decompressedLength) {
+        throw new StreamCorruptedException(String.format(
+            "Corrupt DEFLATE stream, inflated %s bytes of %s bytes", length, decompressedLength));
+      }
+      return decompressedBytes;
+    } catch (DataFormatException e) {
+      throw new StreamCorruptedException("Corrupt DEFLATE stream: " + e.getMessage());
+    } finally {
+      returnInflater(inflater);
+    }
+  }
+
+  // Inflate the DEFLATE stream after its header, with a pooled Inflater which is returned on close
+  private static class InflaterStream extends InputStream {
+    private final InputStream inputStream;
+    private final int decompressedLength;
+    private final byte[] inputBuffer = new byte[STREAM_BUFFER_BYTES];
+    private final byte[] singleByte = new byte[1];
+    private Inflater inflater = borrowInflater();
+    private int inflatedLength = 0;
+
+    private InflaterStream(InputStream inputStream, int decompressedLength) {
+      this.inputStream = inputStream;
+      this.decompressedLength = decompressedLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return (read(singleByte, 0, 1) < 0 ? -1 : singleByte[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (inflater == null) {
+        throw new IOException("Stream closed");
+      }
+      if (len == 0) {
+        return 0;
+      }
+
+      try {
+        while (true) {
+          if (inflater.finished()) {
+            if (inflatedLength != decompressedLength) {
+              throw new StreamCorruptedException(String.format(
+                  "Corrupt DEFLATE stream, inflated %s bytes of %s bytes", inflatedLength, decompressedLength));
+            }
+            return -1;
+          }
+
+          int inflatedBytes = inflater.inflate(b, off, len);
+          if (inflatedBytes > 0) {
+            inflatedLength += inflatedBytes;
+            if (inflatedLength > decompressedLength) {
+              throw new StreamCorruptedException(String.format(
+                  "Corrupt DEFLATE stream, inflated more than %s bytes", decompressedLength));
+            }
+            return inflatedBytes;
+          }
+
+          if (inflater.finished()) {
+            continue;
+          } else if (inflater.needsDictionary()) {
+            setDictionary(inflater);
+          } else if (inflater.needsInput()) {
+            int readBytes = inputStream.read(inputBuffer, 0, inputBuffer.length);
+            if (readBytes < 0) {
+              throw new StreamCorruptedException(String.format(
+                  "Truncated DEFLATE stream, inflated %s bytes of %s bytes", inflatedLength, decompressedLength));
+            }
+            inflater.setInput(inputBuffer, 0, readBytes);
+          }
+        }
+      } catch (DataFormatException e) {
+        throw new StreamCorruptedException("Corrupt DEFLATE stream: " + e.getMessage());
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (inflater != null) {
+        returnInflater(inflater);
+        inflater = null;
+      }
+      inputStream.close();
+    }
   }
-}
\ No newline at end of file
+}
@@ -21,23 +21,20 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.ResourceDescriptor;
 import com.microsoft.frameworklauncher.common.model.UserDescriptor;
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
-import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.util.Shell;
 import org.apache.hadoop.yarn.api.records.*;
 import org.apache.hadoop.yarn.client.api.AMRMClient.ContainerRequest;
-import org.apache.hadoop.yarn.client.api.YarnClient;
 import org.apache.hadoop.yarn.conf.YarnConfiguration;
 import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
 import org.apache.hadoop.yarn.nodelabels.CommonNodeLabelsManager;
 import org.apache.hadoop.yarn.util.ConverterUtils;
 
 import java.io.FileNotFoundException;
-import java.lang.reflect.UndeclaredThrowableException;
-import java.security.PrivilegedExceptionAction;
 import java.util.*;
 
 public class HadoopUtils {
@@ -49,6 +46,9 @@ public class HadoopUtils {
   // Cache for HDFS ResourceAbsolutePath -> ResourceFileStatus
   private static final Map<String, FileStatus> resourceFileStatusCache = new HashMap<>();
 
+  // Shared by all the RM-facing calls
+  private static final YarnClientPool yarnClientPool = new YarnClientPool(conf);
+
   // Node can be file or directory
   public static String getHdfsNodePath(String parentNodePath, String nodeName) {
     return (StringUtils.stripEnd(parentNodePath, HDFS_PATH_SEPARATOR) +
@@ -134,6 +134,10 @@ private static FileStatus getFileStatusInHdfsInternal(String hdfsPath) throws Ex
     }
   }
 
+  public static YarnClientPoolMetrics getYarnClientPoolMetrics() {
+    return yarnClientPool.getMetrics();
+  }
+
   public static FileStatus getFileStatusInHdfs(String hdfsPath) throws Exception {
     synchronized (resourceFileStatusCache) {
       if (!resourceFileStatusCache.containsKey(hdfsPath)) {
@@ -146,12 +150,11 @@ public static FileStatus getFileStatusInHdfs(String hdfsPath) throws Exception {
   // Should always success
   public static void killApplication(String applicationId) throws Exception {
     try {
-      YarnClient yarnClient = YarnClient.createYarnClient();
-      yarnClient.init(conf);
-      yarnClient.start();
-      LOGGER.logInfo("[yarn application -kill %s]", applicationId);
-      yarnClient.killApplication(ConverterUtils.toApplicationId(applicationId));
-      yarnClient.stop();
+      yarnClientPool.call(null, yarnClient -> {
+        LOGGER.logInfo("[yarn application -kill %s]", applicationId);
+        yarnClient.killApplication(ConverterUtils.toApplicationId(applicationId));
+        return null;
+      });
     } catch (ApplicationNotFoundException ignored) {
     } catch (Exception e) {
       if (e.getMessage().toLowerCase().contains("invalid applicationid")) {
@@ -163,33 +166,18 @@ public static void killApplication(String applicationId) throws Exception {
   }
 
   public static void submitApplication(
-      ApplicationSubmissionContext appContext, UserDescriptor user) throws Throwable {
-    UserGroupInformation ugi =
-        UserGroupInformation.createRemoteUser(user.getName());
-    // Need to start a new YarnClient for a new UGI, since its internal Hadoop RPC
-    // reuse the UGI after YarnClient.start().
-    try {
-      ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
-        YarnClient yarnClient = YarnClient.createYarnClient();
-        yarnClient.init(conf);
-        yarnClient.start();
-        yarnClient.submitApplication(appContext);
-        yarnClient.stop();
-        return null;
-      });
-    } catch (UndeclaredThrowableException e) {
-      throw e.getCause();
-    }
+      ApplicationSubmissionContext appContext, UserDescriptor user) throws Exception {
+    yarnClientPool.call(user.getName(), yarnClient -> {
+      yarnClient.submitApplication(appContext);
+      return null;
+    });
   }
 
   public static HashSet<String> getLiveContainerIdsFromRM(String attemptId, String amContainerId) throws Exception {
     HashSet<String> containerIds = new HashSet<>();
 
-    YarnClient yarnClient = YarnClient.createYarnClient();
-    yarnClient.init(conf);
-    yarnClient.start();
-    List<ContainerReport> containerReports = yarnClient.getContainers(ConverterUtils.toApplicationAttemptId(attemptId));
-    yarnClient.stop();
+    List<ContainerReport> containerReports = yarnClientPool.call(null, yarnClient ->
+        yarnClient.getContainers(ConverterUtils.toApplicationAttemptId(attemptId)));
 
     // Since we at least has AM container, so we check whether the containerReports is reliable
     if (containerReports == null) {
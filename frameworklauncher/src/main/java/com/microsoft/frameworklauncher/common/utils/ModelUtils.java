@@ -0,0 +1,306 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import java.beans.BeanInfo;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Structural equals, hashCode and copy for the model objects, without serializing them.
+ *
+ * Like YAML, a model object is treated as the JavaBean properties which have both getter and setter,
+ * so the result is consistent with comparing or round-tripping their YAML.
+ * The exception is that Map and Set are compared regardless of their iteration order.
+ */
+public class ModelUtils {
+  // Class -> BeanClass
+  // THREAD SAFE
+  private static final Map<Class<?>, BeanClass> beanClasses = new ConcurrentHashMap<>();
+
+  public static <T> boolean deepEquals(T obj, T otherObj) {
+    if (obj == otherObj) {
+      return true;
+    }
+    if (obj == null || otherObj == null) {
+      return false;
+    }
+
+    Class<?> classRef = obj.getClass();
+    if (isValue(obj)) {
+      return obj.equals(otherObj);
+    } else if (obj instanceof List) {
+      if (!(otherObj instanceof List)) {
+        return false;
+      }
+      List<?> list = (List<?>) obj;
+      List<?> otherList = (List<?>) otherObj;
+      if (list.size() != otherList.size()) {
+        return false;
+      }
+      Iterator<?> iterator = list.iterator();
+      Iterator<?> otherIterator = otherList.iterator();
+      while (iterator.hasNext()) {
+        if (!deepEquals(iterator.next(), otherIterator.next())) {
+          return false;
+        }
+      }
+      return true;
+    } else if (obj instanceof Set) {
+      return otherObj instanceof Set && deepEqualsSet((Set<?>) obj, (Set<?>) otherObj);
+    } else if (obj instanceof Map) {
+      return otherObj instanceof Map && deepEqualsMap((Map<?, ?>) obj, (Map<?, ?>) otherObj);
+    } else if (classRef.isArray()) {
+      return otherObj.getClass().isArray() &&
+          Arrays.deepEquals(new Object[]{obj}, new Object[]{otherObj});
+    } else {
+      if (classRef != otherObj.getClass()) {
+        return false;
+      }
+      for (BeanProperty property : getBeanClass(classRef).properties) {
+        if (!deepEquals(property.get(obj), property.get(otherObj))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  public static int deepHashCode(Object obj) {
+    if (obj == null) {
+      return 0;
+    } else if (isValue(obj)) {
+      return obj.hashCode();
+    } else if (obj instanceof List) {
+      int hashCode = 1;
+      for (Object element : (List<?>) obj) {
+        hashCode = 31 * hashCode + deepHashCode(element);
+      }
+      return hashCode;
+    } else if (obj instanceof Set) {
+      int hashCode = 0;
+      for (Object element : (Set<?>) obj) {
+        hashCode += deepHashCode(element);
+      }
+      return hashCode;
+    } else if (obj instanceof Map) {
+      int hashCode = 0;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+        hashCode += deepHashCode(entry.getKey()) ^ deepHashCode(entry.getValue());
+      }
+      return hashCode;
+    } else if (obj.getClass().isArray()) {
+      return Arrays.deepHashCode(new Object[]{obj});
+    } else {
+      int hashCode = obj.getClass().hashCode();
+      for (BeanProperty property : getBeanClass(obj.getClass()).properties) {
+        hashCode = 31 * hashCode + deepHashCode(property.get(obj));
+      }
+      return hashCode;
+    }
+  }
+
+  // The copied List, Set and Map are ArrayList, LinkedHashSet and LinkedHashMap which
+  // keep the iteration order of the original ones, the same as the YAML round trip.
+  @SuppressWarnings("unchecked")
+  public static <T> T deepCopy(T obj) {
+    if (obj == null || isValue(obj)) {
+      return obj;
+    } else if (obj instanceof List) {
+      List<?> list = (List<?>) obj;
+      List<Object> copiedList = new ArrayList<>(list.size());
+      for (Object element : list) {
+        copiedList.add(deepCopy(element));
+      }
+      return (T) copiedList;
+    } else if (obj instanceof Set) {
+      Set<?> set = (Set<?>) obj;
+      Set<Object> copiedSet = new LinkedHashSet<>(Math.max(16, set.size() * 4 / 3 + 1));
+      for (Object element : set) {
+        copiedSet.add(deepCopy(element));
+      }
+      return (T) copiedSet;
+    } else if (obj instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) obj;
+      Map<Object, Object> copiedMap = new LinkedHashMap<>(Math.max(16, map.size() * 4 / 3 + 1));
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        copiedMap.put(deepCopy(entry.getKey()), deepCopy(entry.getValue()));
+      }
+      return (T) copiedMap;
+    } else if (obj.getClass().isArray()) {
+      throw new IllegalArgumentException(String.format(
+          "Array %s is not supported to deepCopy", obj.getClass().getName()));
+    } else {
+      BeanClass beanClass = getBeanClass(obj.getClass());
+      Object copiedObj = beanClass.newInstance();
+      for (BeanProperty property : beanClass.properties) {
+        property.set(copiedObj, deepCopy(property.get(obj)));
+      }
+      return (T) copiedObj;
+    }
+  }
+
+  // Immutable objects which are compared by their own equals
+  private static boolean isValue(Object obj) {
+    return obj instanceof String ||
+        obj instanceof Number && (obj.getClass().getName().startsWith("java.lang.") || obj instanceof BigDecimal) ||
+        obj instanceof Boolean ||
+        obj instanceof Character ||
+        obj instanceof Enum;
+  }
+
+  private static boolean deepEqualsSet(Set<?> set, Set<?> otherSet) {
+    if (set.size() != otherSet.size()) {
+      return false;
+    }
+
+    // Fast path for the same iteration order, which is the most common case
+    Iterator<?> iterator = set.iterator();
+    Iterator<?> otherIterator = otherSet.iterator();
+    boolean sameOrder = true;
+    while (iterator.hasNext()) {
+      if (!deepEquals(iterator.next(), otherIterator.next())) {
+        sameOrder = false;
+        break;
+      }
+    }
+    if (sameOrder) {
+      return true;
+    }
+
+    for (Object element : set) {
+      if (otherSet.contains(element)) {
+        continue;
+      }
+      boolean found = false;
+      for (Object otherElement : otherSet) {
+        if (deepEquals(element, otherElement)) {
+          found = true;
+          break;
+        }
+      }
+      if (!found) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean deepEqualsMap(Map<?, ?> map, Map<?, ?> otherMap) {
+    if (map.size() != otherMap.size()) {
+      return false;
+    }
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      Object key = entry.getKey();
+      if (!otherMap.containsKey(key)) {
+        return false;
+      }
+      if (!deepEquals(entry.getValue(), otherMap.get(key))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static BeanClass getBeanClass(Class<?> classRef) {
+    BeanClass beanClass = beanClasses.get(classRef);
+    if (beanClass == null) {
+      beanClass = new BeanClass(classRef);
+      beanClasses.put(classRef, beanClass);
+    }
+    return beanClass;
+  }
+
+  static class BeanProperty {
+    final String name;
+    final Type type;
+    private final Method getter;
+    private final Method setter;
+
+    private BeanProperty(PropertyDescriptor descriptor) {
+      name = descriptor.getName();
+      getter = descriptor.getReadMethod();
+      setter = descriptor.getWriteMethod();
+      type = getter.getGenericReturnType();
+      getter.setAccessible(true);
+      setter.setAccessible(true);
+    }
+
+    Object get(Object obj) {
+      try {
+        return getter.invoke(obj);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new IllegalStateException(String.format(
+            "Failed to get property %s of %s", name, obj.getClass().getName()), e);
+      }
+    }
+
+    void set(Object obj, Object value) {
+      try {
+        setter.invoke(obj, value);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new IllegalStateException(String.format(
+            "Failed to set property %s of %s", name, obj.getClass().getName()), e);
+      }
+    }
+  }
+
+  static class BeanClass {
+    private final Constructor<?> constructor;
+    final BeanProperty[] properties;
+    // PropertyName -> BeanProperty
+    final Map<String, BeanProperty> propertyIndex = new HashMap<>();
+
+    private BeanClass(Class<?> classRef) {
+      try {
+        constructor = classRef.getDeclaredConstructor();
+        constructor.setAccessible(true);
+
+        BeanInfo beanInfo = Introspector.getBeanInfo(classRef, Object.class);
+        List<BeanProperty> propertyList = new ArrayList<>();
+        for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+          if (descriptor.getReadMethod() != null && descriptor.getWriteMethod() != null) {
+            BeanProperty property = new BeanProperty(descriptor);
+            propertyList.add(property);
+            propertyIndex.put(property.name, property);
+          }
+        }
+        properties = propertyList.toArray(new BeanProperty[0]);
+      } catch (Exception e) {
+        throw new IllegalArgumentException(String.format(
+            "%s is not a JavaBean: %s", classRef.getName(), e.getMessage()), e);
+      }
+    }
+
+    Object newInstance() {
+      try {
+        return constructor.newInstance();
+      } catch (Exception e) {
+        throw new IllegalStateException(String.format(
+            "Failed to instantiate %s", constructor.getDeclaringClass().getName()), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.SerializationType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+// Serialize object by the given SerializationType, and deserialize bytes by its
+// detected SerializationType, so that the bytes serialized by any SerializationType
+// are always readable, such as during the rolling upgrade of the SerializationType.
+public class SerializationUtils {
+  private static final DefaultLogger LOGGER = new DefaultLogger(SerializationUtils.class);
+
+  public static <T> byte[] toBytes(T obj, SerializationType serializationType) throws IOException {
+    long start = System.currentTimeMillis();
+
+    byte[] bytes;
+    if (serializationType == SerializationType.BINARY) {
+      bytes = BinaryUtils.toBytes(obj);
+    } else {
+      bytes = YamlUtils.toBytes(obj);
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("Serialized to %s bytes by %s in %sms.",
+        bytes.length, serializationType, end - start);
+    return bytes;
+  }
+
+  // Works for bytes serialized by any SerializationType
+  public static <T> T toObject(byte[] bytes, Class<T> classRef) throws IOException {
+    SerializationType serializationType = getSerializationType(bytes);
+
+    long start = System.currentTimeMillis();
+
+    T obj;
+    if (serializationType == SerializationType.BINARY) {
+      obj = BinaryUtils.toObject(bytes, classRef);
+    } else {
+      obj = YamlUtils.toObject(bytes, classRef);
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("Deserialized from %s bytes by %s in %sms.",
+        bytes.length, serializationType, end - start);
+    return obj;
+  }
+
+  // Works for stream serialized by any SerializationType
+  public static <T> T toObject(InputStream inputStream, Class<T> classRef) throws IOException {
+    PushbackInputStream pushbackStream = new PushbackInputStream(inputStream, 3);
+    SerializationType serializationType = getSerializationType(CommonUtils.peek(pushbackStream, 3));
+
+    long start = System.currentTimeMillis();
+
+    T obj;
+    if (serializationType == SerializationType.BINARY) {
+      obj = BinaryUtils.toObject(pushbackStream, classRef);
+    } else {
+      obj = YamlUtils.toObject(pushbackStream, classRef);
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("Deserialized from stream by %s in %sms.",
+        serializationType, end - start);
+    return obj;
+  }
+
+  public static SerializationType getSerializationType(byte[] bytes) {
+    // It can judge serialized YAML string correctly, since the YAML string
+    // is always valid UTF-8 which does not contain the BINARY_MAGIC.
+    if (BinaryUtils.isBinary(bytes)) {
+      return SerializationType.BINARY;
+    } else {
+      return SerializationType.YAML;
+    }
+  }
+}
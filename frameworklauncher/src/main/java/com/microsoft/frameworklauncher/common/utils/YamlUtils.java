@@ -25,7 +25,8 @@
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.Map;
 
 public class YamlUtils {
@@ -37,6 +38,13 @@ public static <T> T toObject(byte[] bytes, Class<T> classRef) {
     return yaml.loadAs(new String(bytes), classRef);
   }
 
+  public static <T> T toObject(InputStream inputStream, Class<T> classRef) {
+    Representer representer = new Representer();
+    representer.getPropertyUtils().setSkipMissingProperties(true);
+    Yaml yaml = new Yaml(new Constructor(classRef), representer);
+    return yaml.loadAs(new InputStreamReader(inputStream), classRef);
+  }
+
   public static <T> T toObject(String fileName, Class<T> classRef) throws FileNotFoundException {
     Representer representer = new Representer();
     representer.getPropertyUtils().setSkipMissingProperties(true);
@@ -54,42 +62,18 @@ public static <T> void toFile(T obj, String fileName) throws IOException {
     yaml.dump(obj, new FileWriter(fileName));
   }
 
+  // DeepCopy and DeepEquals are structurally consistent with the YAML round trip,
+  // but no longer serialize the object, see ModelUtils.
   public static <T> T deepCopy(T obj, Class<T> classRef) {
-    return toObject(toBytes(obj), classRef);
+    return classRef.cast(ModelUtils.deepCopy(obj));
   }
 
   public static <T> Boolean deepEquals(T obj, T otherObj) {
-    if (obj == null && otherObj == null) {
-      return true;
-    }
-    if (obj == null || otherObj == null) {
-      return false;
-    }
-    return Arrays.equals(toBytes(obj), toBytes(otherObj));
+    return ModelUtils.deepEquals(obj, otherObj);
   }
 
   public static <TKey, TValue> Boolean deepEquals(
       Map<TKey, TValue> yamlDict, Map<TKey, TValue> otherYamlDict) {
-    if (yamlDict == otherYamlDict) {
-      return true;
-    }
-    if (yamlDict == null || otherYamlDict == null) {
-      return false;
-    }
-    if (yamlDict.size() != otherYamlDict.size()) {
-      return false;
-    }
-
-    for (Map.Entry<TKey, TValue> kvp : yamlDict.entrySet()) {
-      TValue Value = kvp.getValue();
-      if (!otherYamlDict.containsKey(kvp.getKey())) {
-        return false;
-      }
-      TValue otherValue = otherYamlDict.get(kvp.getKey());
-      if (!deepEquals(Value, otherValue)) {
-        return false;
-      }
-    }
-    return true;
+    return ModelUtils.deepEquals(yamlDict, otherYamlDict);
   }
 }
@@ -0,0 +1,235 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
+import com.microsoft.frameworklauncher.common.service.LatencyRecorder;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.service.Service;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Keep a long-lived started YarnClient for each user, so that the RM-facing calls do not setup
+// the RPC proxy and its threads again and again.
+// A YarnClient is shared by all calls of its user, since it is THREAD SAFE. It is discarded once it
+// is not started or it failed on RPC, and it is stopped once it is idle for IDLE_TIMEOUT_MS.
+public class YarnClientPool { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(YarnClientPool.class);
+  private static final long IDLE_TIMEOUT_MS = 10 * 60 * 1000;
+  private static final long EVICTION_INTERVAL_MS = 60 * 1000;
+  // The key of the YarnClient which runs as the current process user
+  private static final String LOGIN_USER_KEY = "";
+
+  private final Configuration conf;
+  private final long idleTimeoutMs;
+  private final long evictionIntervalMs;
+  // UserName -> PooledYarnClient
+  private final Map<String, PooledYarnClient> pooledClients = new ConcurrentHashMap<>();
+  // A PooledYarnClient is got and touched under the read lock, and evicted under the write lock,
+  // so that the one just got is never considered as idle and stopped.
+  private final ReadWriteLock evictionLock = new ReentrantReadWriteLock();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictedCount = new LongAdder();
+  private final LongAdder invalidatedCount = new LongAdder();
+  private final LatencyRecorder creationRecorder = new LatencyRecorder();
+  private volatile long lastEvictionNanos = System.nanoTime();
+
+  private static class PooledYarnClient {
+    private final YarnClient yarnClient;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    private PooledYarnClient(YarnClient yarnClient) {
+      this.yarnClient = yarnClient;
+    }
+  }
+
+  @FunctionalInterface
+  public interface YarnClientCallable<T> {
+    T call(YarnClient yarnClient) throws Exception;
+  }
+
+  public YarnClientPool(Configuration conf) {
+    this(conf, IDLE_TIMEOUT_MS, EVICTION_INTERVAL_MS);
+  }
+
+  YarnClientPool(Configuration conf, long idleTimeoutMs, long evictionIntervalMs) {
+    this.conf = conf;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.evictionIntervalMs = evictionIntervalMs;
+  }
+
+  // Call with the YarnClient of the user, or of the current process user if userName is null.
+  // The YarnClient is discarded if the call throws IOException, since its RPC may be broken.
+  public <T> T call(String userName, YarnClientCallable<T> callable) throws Exception {
+    String key = (userName == null ? LOGIN_USER_KEY : userName);
+    YarnClient yarnClient = get(key);
+    try {
+      return callable.call(yarnClient);
+    } catch (IOException e) {
+      invalidate(key, yarnClient);
+      throw e;
+    }
+  }
+
+  private YarnClient get(String key) throws Exception {
+    evictIdleClients();
+
+    YarnClient pooledYarnClient = getPooledYarnClient(key);
+    if (pooledYarnClient != null) {
+      return pooledYarnClient;
+    }
+
+    synchronized (this) {
+      pooledYarnClient = getPooledYarnClient(key);
+      if (pooledYarnClient != null) {
+        return pooledYarnClient;
+      }
+
+      PooledYarnClient pooledClient = pooledClients.get(key);
+      if (pooledClient != null) {
+        invalidate(key, pooledClient.yarnClient);
+      }
+
+      missCount.increment();
+      long start = System.nanoTime();
+      YarnClient yarnClient = createYarnClient(key);
+      creationRecorder.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      LOGGER.logInfo("Started YarnClient for User [%s] in %sms",
+          key, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+      pooledClients.put(key, new PooledYarnClient(yarnClient));
+      return yarnClient;
+    }
+  }
+
+  // Get and touch the pooled YarnClient if it is started, otherwise null
+  private YarnClient getPooledYarnClient(String key) {
+    evictionLock.readLock().lock();
+    try {
+      PooledYarnClient pooledClient = pooledClients.get(key);
+      if (pooledClient == null || !pooledClient.yarnClient.isInState(Service.STATE.STARTED)) {
+        return null;
+      }
+      pooledClient.lastUsedNanos = System.nanoTime();
+      hitCount.increment();
+      return pooledClient.yarnClient;
+    } finally {
+      evictionLock.readLock().unlock();
+    }
+  }
+
+  private YarnClient createYarnClient(String key) throws Exception {
+    if (key.equals(LOGIN_USER_KEY)) {
+      return startYarnClient();
+    }
+
+    UserGroupInformation ugi = UserGroupInformation.createRemoteUser(key);
+    // Need to start a new YarnClient for a new UGI, since its internal Hadoop RPC
+    // reuse the UGI after YarnClient.start().
+    try {
+      return ugi.doAs((PrivilegedExceptionAction<YarnClient>) this::startYarnClient);
+    } catch (UndeclaredThrowableException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private YarnClient startYarnClient() {
+    YarnClient yarnClient = YarnClient.createYarnClient();
+    yarnClient.init(conf);
+    yarnClient.start();
+    return yarnClient;
+  }
+
+  private void invalidate(String key, YarnClient yarnClient) {
+    PooledYarnClient pooledClient = pooledClients.get(key);
+    if (pooledClient != null && pooledClient.yarnClient == yarnClient &&
+        pooledClients.remove(key, pooledClient)) {
+      invalidatedCount.increment();
+      LOGGER.logWarning("Discard the unhealthy YarnClient for User [%s]", key);
+      stopYarnClient(yarnClient);
+    }
+  }
+
+  private void evictIdleClients() {
+    if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastEvictionNanos) < evictionIntervalMs) {
+      return;
+    }
+
+    // The lastUsedNanos is rechecked under the lock, and the evicted ones are stopped out of it
+    List<Map.Entry<String, PooledYarnClient>> evictedClients = new ArrayList<>();
+    evictionLock.writeLock().lock();
+    try {
+      long now = System.nanoTime();
+      lastEvictionNanos = now;
+      Iterator<Map.Entry<String, PooledYarnClient>> iterator = pooledClients.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, PooledYarnClient> entry = iterator.next();
+        PooledYarnClient pooledClient = entry.getValue();
+        if (TimeUnit.NANOSECONDS.toMillis(now - pooledClient.lastUsedNanos) >= idleTimeoutMs &&
+            pooledClients.remove(entry.getKey(), pooledClient)) {
+          evictedClients.add(entry);
+        }
+      }
+    } finally {
+      evictionLock.writeLock().unlock();
+    }
+
+    for (Map.Entry<String, PooledYarnClient> evictedClient : evictedClients) {
+      evictedCount.increment();
+      LOGGER.logInfo("Stop the idle YarnClient for User [%s]", evictedClient.getKey());
+      stopYarnClient(evictedClient.getValue().yarnClient);
+    }
+  }
+
+  private static void stopYarnClient(YarnClient yarnClient) {
+    try {
+      yarnClient.stop();
+    } catch (Exception e) {
+      LOGGER.logWarning(e, "Failed to stop YarnClient");
+    }
+  }
+
+  public YarnClientPoolMetrics getMetrics() {
+    YarnClientPoolMetrics metrics = new YarnClientPoolMetrics();
+    metrics.setPooledClientCount(pooledClients.size());
+    metrics.setHitCount(hitCount.sum());
+    metrics.setMissCount(missCount.sum());
+    metrics.setEvictedCount(evictedCount.sum());
+    metrics.setInvalidatedCount(invalidatedCount.sum());
+    metrics.setCreationMetrics(creationRecorder.getMetrics());
+    return metrics;
+  }
+}
@@ -18,21 +18,31 @@
 package com.microsoft.frameworklauncher.common.web;
 
 import com.microsoft.frameworklauncher.common.model.LaunchClientType;
+import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.BasicResponseHandler;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.SocketException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -43,13 +53,44 @@ public class WebClient {
   private CloseableHttpClient httpClient;
   private String baseURI;
 
+  // The GET Responses with ETag are cached, so that they can be revalidated by the conditional Requests,
+  // instead of transferring the whole unchanged Responses again.
+  private static final int MAX_CACHED_RESPONSES = 100;
+  // The cache is held by each instance, so it is small by default, and the Response larger than it,
+  // such as the AggregatedFrameworkStatus of a large Framework, is not cached.
+  public static final long DEFAULT_MAX_CACHED_RESPONSE_BYTES = 16 * 1024 * 1024;
+  // Zero means the cache is disabled
+  private final long maxCachedResponseBytes;
+  // URI -> CachedResponse, in access order
+  private final LinkedHashMap<String, CachedResponse> cachedResponses =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long cachedResponseBytes = 0;
+
+  private static class CachedResponse {
+    private final String eTag;
+    private final byte[] contentBytes;
+
+    private CachedResponse(String eTag, byte[] contentBytes) {
+      this.eTag = eTag;
+      this.contentBytes = contentBytes;
+    }
+  }
+
   public WebClient(String baseURI, LaunchClientType launchClientType, String userName) {
+    this(baseURI, launchClientType, userName, DEFAULT_MAX_CACHED_RESPONSE_BYTES);
+  }
+
+  public WebClient(String baseURI, LaunchClientType launchClientType, String userName,
+      long maxCachedResponseBytes) {
     this.baseURI = baseURI;
+    this.maxCachedResponseBytes = Math.max(maxCachedResponseBytes, 0);
 
     List<Header> headers = new ArrayList<>();
     headers.add(new BasicHeader(WebCommon.REQUEST_HEADER_LAUNCH_CLIENT_TYPE, launchClientType.toString()));
     headers.add(new BasicHeader(WebCommon.REQUEST_HEADER_USER_NAME, userName));
 
+    // By default, the HttpClient requests the Responses to be GZIP compressed by Accept-Encoding,
+    // and decompresses them transparently.
     this.httpClient = HttpClients.custom().setDefaultHeaders(headers).build();
   }
 
@@ -59,6 +100,12 @@ public WebClientOutput put(String relativeURI, ContentType contentType, String b
     return execute(() -> httpClient.execute(request));
   }
 
+  public WebClientOutput post(String relativeURI, ContentType contentType, String body) {
+    HttpPost request = new HttpPost(WebCommon.getURI(baseURI, relativeURI));
+    request.setEntity(new StringEntity(body, contentType));
+    return execute(() -> httpClient.execute(request));
+  }
+
   public WebClientOutput delete(String relativeURI) {
     HttpDelete request = new HttpDelete(WebCommon.getURI(baseURI, relativeURI));
     return execute(() -> httpClient.execute(request));
@@ -69,16 +116,117 @@ public WebClientOutput get(String relativeURI) {
   }
 
   public WebClientOutput get(String relativeURI, Map<String, String> parameters) {
-    HttpGet request = new HttpGet(WebCommon.getURI(baseURI, relativeURI, parameters));
-    return execute(() -> httpClient.execute(request));
+    return get(relativeURI, parameters, true);
+  }
+
+  // Not cacheable means the Response is neither revalidated nor cached, such as for the one-shot
+  // GET whose URI will not be got again, so that it does not evict the ones which will be.
+  public WebClientOutput get(String relativeURI, Map<String, String> parameters, boolean cacheable) {
+    String uri = WebCommon.getURI(baseURI, relativeURI, parameters);
+    HttpGet request = new HttpGet(uri);
+    if (!cacheable || maxCachedResponseBytes == 0) {
+      return execute(() -> httpClient.execute(request));
+    }
+
+    CachedResponse cachedResponse = getCachedResponse(uri);
+    if (cachedResponse != null) {
+      request.setHeader(HttpHeaders.IF_NONE_MATCH, cachedResponse.eTag);
+    }
+
+    return executeAndHandle(() -> {
+      HttpResponse response = httpClient.execute(request);
+      if (cachedResponse != null &&
+          response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+        EntityUtils.consume(response.getEntity());
+        return new WebClientOutput(HttpStatus.SC_OK, cachedResponse.contentBytes, true);
+      }
+
+      Header eTagHeader = response.getFirstHeader(HttpHeaders.ETAG);
+      WebClientOutput output = handle(response);
+      if (eTagHeader != null && output.getContentBytes() != null) {
+        putCachedResponse(uri, new CachedResponse(eTagHeader.getValue(), output.getContentBytes()));
+      } else if (cachedResponse != null) {
+        removeCachedResponse(uri);
+      }
+      return output;
+    });
+  }
+
+  private synchronized CachedResponse getCachedResponse(String uri) {
+    return cachedResponses.get(uri);
+  }
+
+  private synchronized void putCachedResponse(String uri, CachedResponse cachedResponse) {
+    removeCachedResponse(uri);
+    if (cachedResponse.contentBytes.length > maxCachedResponseBytes) {
+      return;
+    }
+
+    cachedResponses.put(uri, cachedResponse);
+    cachedResponseBytes += cachedResponse.contentBytes.length;
+
+    Iterator<CachedResponse> eldestIterator = cachedResponses.values().iterator();
+    while (cachedResponses.size() > MAX_CACHED_RESPONSES ||
+        cachedResponseBytes > maxCachedResponseBytes) {
+      cachedResponseBytes -= eldestIterator.next().contentBytes.length;
+      eldestIterator.remove();
+    }
+  }
+
+  private synchronized void removeCachedResponse(String uri) {
+    CachedResponse cachedResponse = cachedResponses.remove(uri);
+    if (cachedResponse != null) {
+      cachedResponseBytes -= cachedResponse.contentBytes.length;
+    }
+  }
+
+  synchronized int getCachedResponseCount() {
+    return cachedResponses.size();
+  }
+
+  synchronized long getCachedResponseBytes() {
+    return cachedResponseBytes;
   }
 
   private static WebClientOutput execute(Callable<HttpResponse> action) {
+    return executeAndHandle(() -> handle(action.call()));
+  }
+
+  // Only the success Response can be handled, otherwise HttpResponseException is thrown
+  private static WebClientOutput handle(HttpResponse response) throws IOException {
+    StatusLine statusLine = response.getStatusLine();
+    HttpEntity entity = response.getEntity();
+    if (statusLine.getStatusCode() >= 300) {
+      EntityUtils.consume(entity);
+      throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+    }
+
+    // The content is read as bytes instead of String, so that it is not buffered as chars
+    // and then copied, and it can be deserialized without decoding.
+    byte[] contentBytes = (entity == null ? null : readContentBytes(entity));
+    int statusCode = statusLine.getStatusCode();
+    return new WebClientOutput(statusCode, contentBytes, statusCode >= 200 && statusCode <= 299);
+  }
+
+  private static byte[] readContentBytes(HttpEntity entity) throws IOException {
+    try (InputStream inputStream = entity.getContent()) {
+      if (inputStream == null) {
+        return null;
+      }
+
+      // ContentLength is unknown for the chunked or compressed content
+      long contentLength = entity.getContentLength();
+      if (contentLength >= 0) {
+        return IOUtils.toByteArray(inputStream, contentLength);
+      } else {
+        return IOUtils.toByteArray(inputStream);
+      }
+    }
+  }
+
+  private static WebClientOutput executeAndHandle(Callable<WebClientOutput> action) {
     try {
-      HttpResponse response = action.call();
-      String content = new BasicResponseHandler().handleResponse(response);
-      int statusCode = response.getStatusLine().getStatusCode();
-      return new WebClientOutput(statusCode, content, statusCode >= 200 && statusCode <= 299);
+      return action.call();
     } catch (Exception e) {
       if (isNetworkError(e)) {
         return new WebClientOutput(HttpStatus.SC_REQUEST_TIMEOUT, e.toString(), false, e);
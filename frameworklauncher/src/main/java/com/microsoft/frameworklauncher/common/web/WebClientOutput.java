@@ -17,9 +17,14 @@
 
 package com.microsoft.frameworklauncher.common.web;
 
+import java.nio.charset.StandardCharsets;
+
 public class WebClientOutput {
   private final int statusCode;
-  private final String content;
+  // The large content is usually deserialized from its bytes directly,
+  // so it is only decoded to String on demand.
+  private final byte[] contentBytes;
+  private volatile String content;
   private final Boolean isSuccessStatusCode;
   private final Exception clientSideException;
 
@@ -29,19 +34,40 @@ public WebClientOutput(int statusCode, String content, Boolean isSuccessStatusCo
 
   public WebClientOutput(int statusCode, String content, Boolean isSuccessStatusCode, Exception clientSideException) {
     this.statusCode = statusCode;
+    this.contentBytes = null;
     this.content = content;
     this.isSuccessStatusCode = isSuccessStatusCode;
     this.clientSideException = clientSideException;
   }
 
+  // contentBytes is the UTF-8 encoded content
+  public WebClientOutput(int statusCode, byte[] contentBytes, Boolean isSuccessStatusCode) {
+    this.statusCode = statusCode;
+    this.contentBytes = contentBytes;
+    this.content = null;
+    this.isSuccessStatusCode = isSuccessStatusCode;
+    this.clientSideException = null;
+  }
+
   public int getStatusCode() {
     return statusCode;
   }
 
   public String getContent() {
+    if (content == null && contentBytes != null) {
+      content = new String(contentBytes, StandardCharsets.UTF_8);
+    }
     return content;
   }
 
+  // The returned bytes may be shared, so they should not be modified
+  public byte[] getContentBytes() {
+    if (contentBytes == null && content != null) {
+      return content.getBytes(StandardCharsets.UTF_8);
+    }
+    return contentBytes;
+  }
+
   public Boolean isSuccessStatusCode() {
     return isSuccessStatusCode;
   }
@@ -58,6 +84,6 @@ public Exception getClientSideException() {
   public String toString() {
     return String.format(
         "HttpStatusCode: %2$s%1$sContent: %3$s%1$sIsSuccessStatusCode: %4$s%1$sClientSideException: %5$s",
-        "\n", statusCode, content, isSuccessStatusCode, clientSideException);
+        "\n", statusCode, getContent(), isSuccessStatusCode, clientSideException);
   }
 }
@@ -73,6 +73,13 @@ public static <T> T toObject(String json, Class<T> targetType) throws Exception
     return om.readValue(json, targetType);
   }
 
+  // json is UTF-8 encoded
+  public static <T> T toObject(byte[] json, Class<T> targetType) throws Exception {
+    ObjectMapper om = new ObjectMapper();
+    om.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    return om.readValue(json, targetType);
+  }
+
   // Internal utils
   private static String toFormatedJson(String json) {
     final String indentStr = "  ";
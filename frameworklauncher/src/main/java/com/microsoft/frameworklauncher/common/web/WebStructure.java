@@ -34,6 +34,7 @@ public class WebStructure {
   public static final String ROOT_PATH = "/";
   public static final String VERSION_PATH = ROOT_PATH + "v1";
   public static final String LAUNCHER_STATUS_PATH = VERSION_PATH + PATH_SEPARATOR + "LauncherStatus";
+  public static final String METRICS_PATH = VERSION_PATH + PATH_SEPARATOR + "Metrics";
   public static final String LAUNCHER_REQUEST_PATH = VERSION_PATH + PATH_SEPARATOR + "LauncherRequest";
   public static final String DATA_DEPLOYMENT_VERSION_PATH = LAUNCHER_REQUEST_PATH + PATH_SEPARATOR + "DataDeploymentVersion";
   public static final String CLUSTER_CONFIGURATION_PATH = LAUNCHER_REQUEST_PATH + PATH_SEPARATOR + "ClusterConfiguration";
@@ -48,9 +49,23 @@ public class WebStructure {
   public static final String APPLICATION_PROGRESS_PATH = FRAMEWORK_PATH + PATH_SEPARATOR + "ApplicationProgress";
   public static final String AGGREGATED_FRAMEWORK_REQUEST_PATH = FRAMEWORK_PATH + PATH_SEPARATOR + "AggregatedFrameworkRequest";
   public static final String FRAMEWORK_REQUEST_PATH = FRAMEWORK_PATH + PATH_SEPARATOR + "FrameworkRequest";
+  public static final String BATCH_REQUEST_PATH = VERSION_PATH + PATH_SEPARATOR + "BatchRequests";
+  public static final String PUT_FRAMEWORKS_PATH = BATCH_REQUEST_PATH + PATH_SEPARATOR + "PutFrameworks";
+  public static final String DELETE_FRAMEWORKS_PATH = BATCH_REQUEST_PATH + PATH_SEPARATOR + "DeleteFrameworks";
+  public static final String WATCH_PATH = VERSION_PATH + PATH_SEPARATOR + "Watch";
+  public static final String WATCH_FRAMEWORKS_PATH = WATCH_PATH + PATH_SEPARATOR + "Frameworks";
 
   public final static String REQUEST_PARAM_LAUNCH_CLIENT_TYPE = WebCommon.REQUEST_HEADER_LAUNCH_CLIENT_TYPE;
   public final static String REQUEST_PARAM_USER_NAME = WebCommon.REQUEST_HEADER_USER_NAME;
+  public final static String REQUEST_PARAM_FRAMEWORK_NAME = FRAMEWORK_NAME_PATH_PARAM;
+  public final static String REQUEST_PARAM_RESOURCE_VERSION = "ResourceVersion";
+  public final static String REQUEST_PARAM_QUEUE = "Queue";
+  public final static String REQUEST_PARAM_FRAMEWORK_STATE = "FrameworkState";
+  public final static String REQUEST_PARAM_SORT_BY = "SortBy";
+  public final static String REQUEST_PARAM_DESCENDING = "Descending";
+  public final static String REQUEST_PARAM_PAGE_SIZE = "PageSize";
+  public final static String REQUEST_PARAM_CONTINUATION_TOKEN = "ContinuationToken";
+  public final static String REQUEST_PARAM_VALUE_SEPARATOR = ",";
 
   public static String getNodePath(String parentNodePath, String nodeName) {
     return (StringUtils.stripEnd(parentNodePath, PATH_SEPARATOR) +
@@ -0,0 +1,113 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.localstore;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.store.ChangeNotifier;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStoreStructure;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Notify the changed nodes under the watched subtrees of the LocalStoreLog, with the same changed
+// paths as the ZookeeperChangeNotifier, i.e. the changed node itself, and also its parent if it is
+// created or deleted.
+// The changes made by this process are notified immediately, and the changes made by other processes
+// are notified once they are replayed, which is triggered at least every CATCH_UP_INTERVAL_MS.
+public class LocalChangeNotifier implements ChangeNotifier, LocalStoreLog.ChangeListener { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(LocalChangeNotifier.class);
+  private static final long CATCH_UP_INTERVAL_MS = 1000;
+
+  private final LocalStoreLog storeLog;
+  // Watched subtree RootPath -> Max depth of the watched nodes under the RootPath
+  private final Map<String, Integer> rootPathDepths;
+
+  // Changed paths which are notified but not yet returned to the consumer
+  private final Set<String> changedPaths = new HashSet<>();
+  // Whether some changes may be missed, such as the Log is reloaded from a newer Snapshot
+  private Boolean changesMissed = false;
+
+  public LocalChangeNotifier(LocalStoreLog storeLog, Map<String, Integer> rootPathDepths) {
+    this.storeLog = storeLog;
+    this.rootPathDepths = new HashMap<>(rootPathDepths);
+
+    if (!this.rootPathDepths.isEmpty()) {
+      storeLog.addChangeListener(this);
+    }
+  }
+
+  @Override
+  public synchronized void onNodeChanged(String path, Boolean structureChanged) {
+    if (path == null) {
+      changesMissed = true;
+      notifyAll();
+      return;
+    }
+
+    Boolean changed = false;
+    // Like the data watch on each watched node
+    if (ZookeeperStoreStructure.getRemainingDepth(rootPathDepths, path) != null) {
+      changedPaths.add(path);
+      changed = true;
+    }
+
+    // Like the child watch on each watched node whose children are also watched
+    if (structureChanged) {
+      String parentPath = StringUtils.substringBeforeLast(path, "/");
+      Integer parentRemainingDepth = ZookeeperStoreStructure.getRemainingDepth(rootPathDepths, parentPath);
+      if (parentRemainingDepth != null && parentRemainingDepth > 0) {
+        changedPaths.add(parentPath);
+        changed = true;
+      }
+    }
+
+    if (changed) {
+      notifyAll();
+    }
+  }
+
+  @Override
+  public Set<String> waitChanges(long timeoutMs) throws Exception {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    while (true) {
+      synchronized (this) {
+        long remainingMs = deadline - System.currentTimeMillis();
+        if (!changedPaths.isEmpty() || changesMissed || remainingMs <= 0) {
+          Set<String> paths = new HashSet<>(changedPaths);
+          Boolean missed = changesMissed;
+          changedPaths.clear();
+          changesMissed = false;
+
+          if (missed || paths.isEmpty()) {
+            return null;
+          }
+
+          LOGGER.logDebug("Notified %s changed paths", paths.size());
+          return paths;
+        }
+        wait(Math.min(remainingMs, CATCH_UP_INTERVAL_MS));
+      }
+
+      // Replay the changes made by other processes, and notify them to this
+      storeLog.catchUp();
+    }
+  }
+}
@@ -0,0 +1,388 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.localstore;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.store.ChangeNotifier;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
+import com.microsoft.frameworklauncher.common.utils.SerializationUtils;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStoreStructure;
+import org.apache.zookeeper.KeeperException;
+
+import java.util.*;
+
+// LauncherStore embedded in the local directory, for the single node deployment and the tests which
+// do not have a ZK ensemble.
+// It has the same structure as the ZookeeperStore, but each object is always Set as a whole by a single
+// record of the LocalStoreLog, which is atomic like the ZookeeperStore LargeObject, so no need to shard.
+public class LocalStore implements LauncherStore {
+  private static final DefaultLogger LOGGER = new DefaultLogger(LocalStore.class);
+
+  private final LocalStoreLog storeLog;
+  private final ZookeeperStoreStructure struct;
+  private final SerializationType serializationType;
+
+  public LocalStore(
+      String storeDir, SerializationType serializationType,
+      Integer maxLogMB, Boolean syncEnable) throws Exception {
+    LOGGER.logInfo(
+        "Initializing LocalStore: [StoreDir] = [%s], [SerializationType] = [%s], " +
+            "[MaxLogMB] = [%s], [SyncEnable] = [%s]",
+        storeDir, serializationType, maxLogMB, syncEnable);
+
+    this.storeLog = new LocalStoreLog(storeDir, maxLogMB * 1024L * 1024L, syncEnable);
+    this.struct = new ZookeeperStoreStructure("/");
+    this.serializationType = serializationType;
+  }
+
+  public void close() throws Exception {
+    storeLog.close();
+  }
+
+  private <T> T getObject(String path, Class<T> classRef) throws Exception {
+    return SerializationUtils.toObject(storeLog.getData(path), classRef);
+  }
+
+  private <T> void setObject(String path, T obj) throws Exception {
+    storeLog.setData(path, SerializationUtils.toBytes(obj, serializationType));
+  }
+
+  // All objects are already in memory, so no need to cache
+  @Override
+  public LocalStore withReadCache(Integer maxEntries, Integer expirySec, Boolean shareObjects) {
+    return this;
+  }
+
+  // Requests
+  @Override
+  public LauncherRequest getLauncherRequest() throws Exception {
+    return getObject(struct.getLauncherRequestPath(), LauncherRequest.class);
+  }
+
+  @Override
+  public void setLauncherRequest(LauncherRequest launcherRequest) throws Exception {
+    setObject(struct.getLauncherRequestPath(), launcherRequest);
+  }
+
+  @Override
+  public FrameworkRequest getFrameworkRequest(String frameworkName) throws Exception {
+    return getObject(struct.getFrameworkRequestPath(frameworkName), FrameworkRequest.class);
+  }
+
+  @Override
+  public void setFrameworkRequest(String frameworkName, FrameworkRequest frameworkRequest) throws Exception {
+    setObject(struct.getFrameworkRequestPath(frameworkName), frameworkRequest);
+
+    // Also prepare the dummy request node for its future child nodes
+    storeLog.createPath(struct.getMigrateTaskRequestsPath(frameworkName));
+  }
+
+  @Override
+  public void setFrameworkRequests(Map<String, FrameworkRequest> frameworkRequests) throws Exception {
+    Map<String, byte[]> pathDatas = new LinkedHashMap<>();
+    for (Map.Entry<String, FrameworkRequest> frameworkRequest : frameworkRequests.entrySet()) {
+      pathDatas.put(
+          struct.getFrameworkRequestPath(frameworkRequest.getKey()),
+          SerializationUtils.toBytes(frameworkRequest.getValue(), serializationType));
+      pathDatas.put(struct.getMigrateTaskRequestsPath(frameworkRequest.getKey()), null);
+    }
+    storeLog.setDatas(pathDatas);
+  }
+
+  @Override
+  public void deleteFrameworkRequest(String frameworkName) throws Exception {
+    deleteFrameworkRequest(frameworkName, false);
+  }
+
+  @Override
+  public void deleteFrameworkRequest(String frameworkName, Boolean childrenOnly) throws Exception {
+    storeLog.deleteRecursively(struct.getFrameworkRequestPath(frameworkName), childrenOnly);
+  }
+
+  @Override
+  public void deleteFrameworkRequests(Collection<String> frameworkNames) throws Exception {
+    List<String> paths = new ArrayList<>();
+    for (String frameworkName : frameworkNames) {
+      paths.add(struct.getFrameworkRequestPath(frameworkName));
+    }
+    storeLog.deleteRecursively(paths);
+  }
+
+  @Override
+  public OverrideApplicationProgressRequest getOverrideApplicationProgressRequest(String frameworkName) throws Exception {
+    return getObject(struct.getOverrideApplicationProgressRequestPath(frameworkName), OverrideApplicationProgressRequest.class);
+  }
+
+  @Override
+  public void setOverrideApplicationProgressRequest(String frameworkName, OverrideApplicationProgressRequest overrideApplicationProgressRequest) throws Exception {
+    setObject(struct.getOverrideApplicationProgressRequestPath(frameworkName), overrideApplicationProgressRequest);
+  }
+
+  @Override
+  public MigrateTaskRequest getMigrateTaskRequest(String frameworkName, String containerId) throws Exception {
+    return getObject(struct.getMigrateTaskRequestPath(frameworkName, containerId), MigrateTaskRequest.class);
+  }
+
+  @Override
+  public void setMigrateTaskRequest(String frameworkName, String containerId, MigrateTaskRequest migrateTaskRequest) throws Exception {
+    setObject(struct.getMigrateTaskRequestPath(frameworkName, containerId), migrateTaskRequest);
+  }
+
+  @Override
+  public void deleteMigrateTaskRequest(String frameworkName, String containerId) throws Exception {
+    storeLog.deleteRecursively(struct.getMigrateTaskRequestPath(frameworkName, containerId), false);
+  }
+
+  // Statuses
+  @Override
+  public LauncherStatus getLauncherStatus() throws Exception {
+    return getObject(struct.getLauncherStatusPath(), LauncherStatus.class);
+  }
+
+  @Override
+  public void setLauncherStatus(LauncherStatus launcherStatus) throws Exception {
+    setObject(struct.getLauncherStatusPath(), launcherStatus);
+  }
+
+  @Override
+  public FrameworkStatus getFrameworkStatus(String frameworkName) throws Exception {
+    return getObject(struct.getFrameworkStatusPath(frameworkName), FrameworkStatus.class);
+  }
+
+  @Override
+  public void setFrameworkStatus(String frameworkName, FrameworkStatus frameworkStatus) throws Exception {
+    setObject(struct.getFrameworkStatusPath(frameworkName), frameworkStatus);
+  }
+
+  @Override
+  public void setFrameworkStatuses(Map<String, FrameworkStatus> frameworkStatuses) throws Exception {
+    Map<String, byte[]> pathDatas = new LinkedHashMap<>();
+    for (Map.Entry<String, FrameworkStatus> frameworkStatus : frameworkStatuses.entrySet()) {
+      pathDatas.put(
+          struct.getFrameworkStatusPath(frameworkStatus.getKey()),
+          SerializationUtils.toBytes(frameworkStatus.getValue(), serializationType));
+    }
+    storeLog.setDatas(pathDatas);
+  }
+
+  @Override
+  public void deleteFrameworkStatus(String frameworkName) throws Exception {
+    deleteFrameworkStatus(frameworkName, false);
+  }
+
+  @Override
+  public void deleteFrameworkStatus(String frameworkName, Boolean childrenOnly) throws Exception {
+    storeLog.deleteRecursively(struct.getFrameworkStatusPath(frameworkName), childrenOnly);
+  }
+
+  @Override
+  public TaskRoleStatus getTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception {
+    return getObject(struct.getTaskRoleStatusPath(frameworkName, taskRoleName), TaskRoleStatus.class);
+  }
+
+  @Override
+  public void setTaskRoleStatus(String frameworkName, String taskRoleName, TaskRoleStatus taskRoleStatus) throws Exception {
+    setObject(struct.getTaskRoleStatusPath(frameworkName, taskRoleName), taskRoleStatus);
+  }
+
+  @Override
+  public TaskStatuses getTaskStatuses(String frameworkName, String taskRoleName) throws Exception {
+    return getObject(struct.getTaskStatusesPath(frameworkName, taskRoleName), TaskStatuses.class);
+  }
+
+  @Override
+  public void setTaskStatuses(String frameworkName, String taskRoleName, TaskStatuses taskStatuses) throws Exception {
+    setObject(struct.getTaskStatusesPath(frameworkName, taskRoleName), taskStatuses);
+  }
+
+  @Override
+  public void setTaskStatuses(
+      String frameworkName, String taskRoleName, TaskStatuses taskStatuses,
+      Integer shardSize, Set<Integer> changedTaskIndexes) throws Exception {
+    setTaskStatuses(frameworkName, taskRoleName, taskStatuses);
+  }
+
+  // AggregatedRequests
+  @Override
+  public AggregatedFrameworkRequest getAggregatedFrameworkRequest(String frameworkName) throws Exception {
+    AggregatedFrameworkRequest aggregatedFrameworkRequest = new AggregatedFrameworkRequest();
+
+    aggregatedFrameworkRequest.setFrameworkRequest(getFrameworkRequest(frameworkName));
+
+    try {
+      aggregatedFrameworkRequest.setOverrideApplicationProgressRequest(getOverrideApplicationProgressRequest(frameworkName));
+    } catch (KeeperException.NoNodeException e) {
+      aggregatedFrameworkRequest.setOverrideApplicationProgressRequest(null);
+    }
+
+    try {
+      aggregatedFrameworkRequest.setMigrateTaskRequests(new HashMap<>());
+      for (String containerId : storeLog.getChildren(struct.getMigrateTaskRequestsPath(frameworkName))) {
+        try {
+          aggregatedFrameworkRequest.getMigrateTaskRequests().put(containerId, getMigrateTaskRequest(frameworkName, containerId));
+        } catch (KeeperException.NoNodeException ignored) {
+        }
+      }
+    } catch (KeeperException.NoNodeException e) {
+      aggregatedFrameworkRequest.setMigrateTaskRequests(null);
+    }
+
+    return aggregatedFrameworkRequest;
+  }
+
+  @Override
+  public AggregatedLauncherRequest getAggregatedLauncherRequest() throws Exception {
+    AggregatedLauncherRequest aggregatedLauncherRequest = new AggregatedLauncherRequest();
+    aggregatedLauncherRequest.setLauncherRequest(getLauncherRequest());
+    aggregatedLauncherRequest.setAggregatedFrameworkRequests(new HashMap<>());
+    for (String frameworkName : storeLog.getChildren(struct.getLauncherRequestPath())) {
+      try {
+        aggregatedLauncherRequest.getAggregatedFrameworkRequests().put(frameworkName, getAggregatedFrameworkRequest(frameworkName));
+      } catch (KeeperException.NoNodeException ignored) {
+      }
+    }
+    return aggregatedLauncherRequest;
+  }
+
+  @Override
+  public HashMap<String, FrameworkRequest> getAllFrameworkRequests() throws Exception {
+    HashMap<String, FrameworkRequest> allFrameworkRequests = new HashMap<>();
+    for (String frameworkName : storeLog.getChildren(struct.getLauncherRequestPath())) {
+      try {
+        allFrameworkRequests.put(frameworkName, getFrameworkRequest(frameworkName));
+      } catch (KeeperException.NoNodeException ignored) {
+      }
+    }
+    return allFrameworkRequests;
+  }
+
+  // AggregatedStatuses
+  @Override
+  public AggregatedTaskRoleStatus getAggregatedTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception {
+    AggregatedTaskRoleStatus aggregatedTaskRoleStatus = new AggregatedTaskRoleStatus();
+    aggregatedTaskRoleStatus.setTaskRoleStatus(getTaskRoleStatus(frameworkName, taskRoleName));
+    aggregatedTaskRoleStatus.setTaskStatuses(getTaskStatuses(frameworkName, taskRoleName));
+    return aggregatedTaskRoleStatus;
+  }
+
+  @Override
+  public AggregatedFrameworkStatus getAggregatedFrameworkStatus(String frameworkName) throws Exception {
+    AggregatedFrameworkStatus aggregatedFrameworkStatus = new AggregatedFrameworkStatus();
+    aggregatedFrameworkStatus.setFrameworkStatus(getFrameworkStatus(frameworkName));
+
+    aggregatedFrameworkStatus.setAggregatedTaskRoleStatuses(new HashMap<>());
+    for (String taskRoleName : storeLog.getChildren(struct.getFrameworkStatusPath(frameworkName))) {
+      try {
+        aggregatedFrameworkStatus.getAggregatedTaskRoleStatuses().put(taskRoleName, getAggregatedTaskRoleStatus(frameworkName, taskRoleName));
+      } catch (KeeperException.NoNodeException ignored) {
+      }
+    }
+    return aggregatedFrameworkStatus;
+  }
+
+  @Override
+  public AggregatedLauncherStatus getAggregatedLauncherStatus() throws Exception {
+    AggregatedLauncherStatus aggregatedLauncherStatus = new AggregatedLauncherStatus();
+    aggregatedLauncherStatus.setLauncherStatus(getLauncherStatus());
+    aggregatedLauncherStatus.setAggregatedFrameworkStatuses(new HashMap<>());
+    getAggregatedFrameworkStatuses(
+        storeLog.getChildren(struct.getLauncherStatusPath()),
+        aggregatedLauncherStatus.getAggregatedFrameworkStatuses());
+    return aggregatedLauncherStatus;
+  }
+
+  @Override
+  public void getAggregatedFrameworkStatuses(
+      Collection<String> frameworkNames, Map<String, AggregatedFrameworkStatus> aggregatedFrameworkStatuses)
+      throws Exception {
+    for (String frameworkName : frameworkNames) {
+      try {
+        aggregatedFrameworkStatuses.put(frameworkName, getAggregatedFrameworkStatus(frameworkName));
+      } catch (KeeperException.NoNodeException ignored) {
+        aggregatedFrameworkStatuses.remove(frameworkName);
+      } catch (Exception e) {
+        LOGGER.logWarning(e,
+            "[%s]: getAggregatedFrameworkStatuses: Got corrupted data",
+            frameworkName);
+        aggregatedFrameworkStatuses.put(frameworkName, null);
+      }
+    }
+  }
+
+  @Override
+  public HashMap<String, FrameworkStatus> getAllFrameworkStatuses() throws Exception {
+    HashMap<String, FrameworkStatus> allFrameworkStatuses = new HashMap<>();
+    for (String frameworkName : storeLog.getChildren(struct.getLauncherStatusPath())) {
+      try {
+        allFrameworkStatuses.put(frameworkName, getFrameworkStatus(frameworkName));
+      } catch (KeeperException.NoNodeException ignored) {
+      } catch (Exception e) {
+        LOGGER.logWarning(e,
+            "[%s]: getAllFrameworkStatuses: Got corrupted data",
+            frameworkName);
+        allFrameworkStatuses.put(frameworkName, null);
+      }
+    }
+    return allFrameworkStatuses;
+  }
+
+  // ChangeNotifiers
+  @Override
+  public LocalChangeNotifier newLauncherRequestChangeNotifier(Boolean watchEnable) throws Exception {
+    Map<String, Integer> rootPathDepths = new HashMap<>();
+    if (watchEnable) {
+      // Requests/{FrameworkName}
+      rootPathDepths.put(struct.getLauncherRequestPath(), 1);
+    }
+    return new LocalChangeNotifier(storeLog, rootPathDepths);
+  }
+
+  @Override
+  public LocalChangeNotifier newAggregatedFrameworkRequestChangeNotifier(
+      String frameworkName, Boolean watchEnable) throws Exception {
+    Map<String, Integer> rootPathDepths = new HashMap<>();
+    if (watchEnable) {
+      rootPathDepths.put(struct.getLauncherRequestPath(), 0);
+      rootPathDepths.put(struct.getLauncherStatusPath(), 0);
+      // Requests/{FrameworkName}/MigrateTaskRequests/{ContainerId}
+      rootPathDepths.put(struct.getFrameworkRequestPath(frameworkName), 2);
+    }
+    return new LocalChangeNotifier(storeLog, rootPathDepths);
+  }
+
+  @Override
+  public LocalChangeNotifier newAggregatedLauncherStatusChangeNotifier(Boolean watchEnable) throws Exception {
+    Map<String, Integer> rootPathDepths = new HashMap<>();
+    if (watchEnable) {
+      // Statuses/{FrameworkName}/{TaskRoleName}/TaskStatuses
+      rootPathDepths.put(struct.getLauncherStatusPath(), 3);
+    }
+    return new LocalChangeNotifier(storeLog, rootPathDepths);
+  }
+
+  @Override
+  public Set<String> getChangedRequestFrameworkNames(Set<String> changedPaths) {
+    return ZookeeperStoreStructure.getChangedChildNames(struct.getLauncherRequestPath(), changedPaths);
+  }
+
+  @Override
+  public Set<String> getChangedStatusFrameworkNames(Set<String> changedPaths) {
+    return ZookeeperStoreStructure.getChangedChildNames(struct.getLauncherStatusPath(), changedPaths);
+  }
+}
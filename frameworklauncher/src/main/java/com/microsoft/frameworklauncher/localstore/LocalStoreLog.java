@@ -0,0 +1,637 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.localstore;
+
+import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStoreStructure;
+import org.apache.zookeeper.KeeperException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// A crash safe tree of nodes persisted in a local directory, which can be shared by the processes
+// on the same machine, such as the Service and the AMs of a single node deployment.
+// All nodes are kept in memory, and each change is appended to the Log as a checksummed record
+// before it is applied, so a node is always Set atomically, and a torn record written by a crashed
+// process is ignored by the readers and truncated by the next writer.
+// Once the Log exceeds maxLogBytes, it is compacted into the Snapshot and the empty Log of the next
+// generation, then the old Log is sealed and the old files are deleted.
+// Layout of the storeDir:
+//  CURRENT: The current generation
+//  snapshot-{Generation}: All nodes at the beginning of the generation, which is memory-mapped to load
+//  log-{Generation}: All changes after the snapshot
+//  LOCK: Locked by the writer, so the writes from all processes are serialized
+public class LocalStoreLog { // DISTRIBUTED THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(LocalStoreLog.class);
+
+  private static final int LOG_MAGIC = 0x4c534c47;
+  private static final int SNAPSHOT_MAGIC = 0x4c535350;
+  private static final int FORMAT_VERSION = 1;
+  // Magic, FormatVersion and Generation
+  private static final int FILE_HEADER_BYTES = 16;
+  // BodyLength and BodyChecksum
+  private static final int RECORD_HEADER_BYTES = 8;
+  private static final int MAX_RECORD_BODY_BYTES = 256 * 1024 * 1024;
+  private static final byte RECORD_TYPE_SET = 1;
+  private static final byte RECORD_TYPE_DELETE = 2;
+  private static final byte RECORD_TYPE_DELETE_CHILDREN = 3;
+  private static final byte RECORD_TYPE_SEAL = 4;
+  // The data of the node which is only a path to its children
+  private static final byte[] NO_DATA = new byte[0];
+  private static final String ROOT_PATH = "/";
+  // The file lock is held by the whole process, so the writers in the same process on the same
+  // storeDir are serialized by the process lock before acquiring it.
+  private static final ConcurrentHashMap<String, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+  public interface ChangeListener {
+    // The node of the path is changed, and created or deleted if structureChanged.
+    // Null path means any node may be changed.
+    void onNodeChanged(String path, Boolean structureChanged);
+  }
+
+  private final File storeDir;
+  private final long maxLogBytes;
+  private final Boolean syncEnable;
+  private final Object processLock;
+  private final FileChannel lockChannel;
+  private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+  // Path -> Data, in path order, so the subtree of a node is contiguous
+  private TreeMap<String, byte[]> nodes = new TreeMap<>();
+  private long generation;
+  // Bytes of the Snapshot of the current generation, the Log is compacted only if it is also
+  // larger than the Snapshot, so that the compaction cost is amortized by the writes.
+  private long snapshotBytes = 0;
+  private FileChannel logChannel;
+  // The offset of the next record to replay in the current Log
+  private long logOffset;
+
+  public LocalStoreLog(String storeDir, long maxLogBytes, Boolean syncEnable) throws Exception {
+    LOGGER.logInfo(
+        "Initializing LocalStoreLog: [StoreDir] = [%s], [MaxLogBytes] = [%s], [SyncEnable] = [%s]",
+        storeDir, maxLogBytes, syncEnable);
+
+    this.storeDir = new File(storeDir);
+    this.maxLogBytes = maxLogBytes;
+    this.syncEnable = syncEnable;
+    if (!this.storeDir.isDirectory() && !this.storeDir.mkdirs()) {
+      throw new IOException("Failed to create LocalStore directory " + storeDir);
+    }
+    processLock = PROCESS_LOCKS.computeIfAbsent(this.storeDir.getCanonicalPath(), key -> new Object());
+    lockChannel = FileChannel.open(getFile("LOCK").toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+    synchronized (this) {
+      synchronized (processLock) {
+        try (FileLock ignored = lockChannel.lock()) {
+          Long currentGeneration = readCurrentGeneration();
+          if (currentGeneration == null) {
+            // Initialize an empty store
+            generation = 0;
+            startGeneration(1);
+          } else {
+            load(currentGeneration);
+          }
+          catchUp(true);
+        }
+      }
+    }
+  }
+
+  public void addChangeListener(ChangeListener changeListener) {
+    changeListeners.add(changeListener);
+  }
+
+  /**
+   * REGION Read
+   */
+  // Get the data of the node, throw NoNodeException if it does not exist or it has no data
+  public synchronized byte[] getData(String path) throws Exception {
+    catchUp(false);
+    byte[] data = nodes.get(path);
+    if (data == null || data == NO_DATA) {
+      throw new KeeperException.NoNodeException(path);
+    }
+    return data;
+  }
+
+  public synchronized Boolean exists(String path) throws Exception {
+    catchUp(false);
+    return nodes.containsKey(path);
+  }
+
+  public synchronized List<String> getChildren(String path) throws Exception {
+    catchUp(false);
+    if (!nodes.containsKey(path)) {
+      throw new KeeperException.NoNodeException(path);
+    }
+
+    String childPathPrefix = getChildPathPrefix(path);
+    List<String> children = new ArrayList<>();
+    String childPath = nodes.higherKey(childPathPrefix);
+    while (childPath != null && childPath.startsWith(childPathPrefix)) {
+      String child = childPath.substring(childPathPrefix.length());
+      int separatorIndex = child.indexOf('/');
+      if (separatorIndex < 0) {
+        children.add(child);
+        childPath = nodes.higherKey(childPath);
+      } else {
+        // Skip the subtree of the child, i.e. all paths in [child/, child0)
+        childPath = nodes.ceilingKey(childPathPrefix + child.substring(0, separatorIndex) + "0");
+      }
+    }
+    return children;
+  }
+
+  // Replay the changes appended by other processes
+  public synchronized void catchUp() throws Exception {
+    catchUp(false);
+  }
+
+  /**
+   * REGION Write
+   */
+  // Set the data of the node and create its missing ancestors
+  public void setData(String path, byte[] data) throws Exception {
+    write(RECORD_TYPE_SET, path, data);
+  }
+
+  // Set the data of the nodes and create their missing ancestors, with only one sync of the Log.
+  // Each node is still Set atomically, but they may be partially Set if crashed.
+  // A null data means only to create the node if it does not exist, see createPath.
+  public void setDatas(Map<String, byte[]> pathDatas) throws Exception {
+    writeAll(RECORD_TYPE_SET, pathDatas);
+  }
+
+  // Create the node with no data and its missing ancestors, if it does not exist
+  public void createPath(String path) throws Exception {
+    write(RECORD_TYPE_SET, path, null);
+  }
+
+  // Delete the node and all its descendants, no matter it exists or not
+  public void deleteRecursively(String path, Boolean childrenOnly) throws Exception {
+    write(childrenOnly ? RECORD_TYPE_DELETE_CHILDREN : RECORD_TYPE_DELETE, path, null);
+  }
+
+  // Delete the nodes and all their descendants, with only one sync of the Log.
+  // Each node is still deleted atomically, but they may be partially deleted if crashed.
+  public void deleteRecursively(Collection<String> paths) throws Exception {
+    Map<String, byte[]> pathDatas = new LinkedHashMap<>();
+    for (String path : paths) {
+      pathDatas.put(path, null);
+    }
+    writeAll(RECORD_TYPE_DELETE, pathDatas);
+  }
+
+  private synchronized void writeAll(byte type, Map<String, byte[]> pathDatas) throws Exception {
+    List<ByteBuffer> records = new ArrayList<>(pathDatas.size());
+    for (Map.Entry<String, byte[]> pathData : pathDatas.entrySet()) {
+      records.add(encodeRecord(type, pathData.getKey(), pathData.getValue()));
+    }
+
+    synchronized (processLock) {
+      try (FileLock ignored = lockChannel.lock()) {
+        catchUp(true);
+        appendRecords(records);
+        for (Map.Entry<String, byte[]> pathData : pathDatas.entrySet()) {
+          apply(type, pathData.getKey(), pathData.getValue());
+        }
+        if (logOffset > Math.max(maxLogBytes, snapshotBytes)) {
+          compact();
+        }
+      }
+    }
+  }
+
+  private synchronized void write(byte type, String path, byte[] data) throws Exception {
+    ByteBuffer record = encodeRecord(type, path, data);
+    synchronized (processLock) {
+      try (FileLock ignored = lockChannel.lock()) {
+        catchUp(true);
+        if (type == RECORD_TYPE_SET && data == null && nodes.containsKey(path)) {
+          return;
+        }
+
+        appendRecord(record);
+        apply(type, path, data);
+        if (logOffset > Math.max(maxLogBytes, snapshotBytes)) {
+          compact();
+        }
+      }
+    }
+  }
+
+  public synchronized void close() throws IOException {
+    logChannel.close();
+    lockChannel.close();
+  }
+
+  /**
+   * REGION InternalUtils
+   */
+  private File getFile(String name) {
+    return new File(storeDir, name);
+  }
+
+  private File getLogFile(long generation) {
+    return getFile("log-" + generation);
+  }
+
+  private File getSnapshotFile(long generation) {
+    return getFile("snapshot-" + generation);
+  }
+
+  private static String getChildPathPrefix(String path) {
+    return ZookeeperStoreStructure.getNodePath(path, "");
+  }
+
+  private static String getParentPath(String path) {
+    int separatorIndex = path.lastIndexOf('/');
+    return (separatorIndex <= 0 ? ROOT_PATH : path.substring(0, separatorIndex));
+  }
+
+  private Long readCurrentGeneration() throws IOException {
+    File currentFile = getFile("CURRENT");
+    if (!currentFile.exists()) {
+      return null;
+    }
+    return Long.parseLong(new String(Files.readAllBytes(currentFile.toPath()), StandardCharsets.UTF_8).trim());
+  }
+
+  // Load the Snapshot of the generation, and prepare to replay its Log.
+  // The current state is unchanged if failed, such as the files are already deleted by a newer compaction.
+  private void load(long newGeneration) throws Exception {
+    long start = System.currentTimeMillis();
+
+    TreeMap<String, byte[]> newNodes = new TreeMap<>();
+    newNodes.put(ROOT_PATH, NO_DATA);
+    long newSnapshotBytes = 0;
+    File snapshotFile = getSnapshotFile(newGeneration);
+    // The first generation starts from empty, so it has no Snapshot
+    if (newGeneration > 1) {
+      try (FileChannel snapshotChannel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+        newSnapshotBytes = snapshotChannel.size();
+        loadSnapshot(snapshotFile, newGeneration,
+            snapshotChannel.map(FileChannel.MapMode.READ_ONLY, 0, newSnapshotBytes), newNodes);
+      }
+    }
+
+    File logFile = getLogFile(newGeneration);
+    FileChannel newLogChannel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+      readFully(newLogChannel, header, 0);
+      checkFileHeader(header, LOG_MAGIC, newGeneration, logFile);
+    } catch (Exception e) {
+      newLogChannel.close();
+      throw e;
+    }
+
+    if (logChannel != null) {
+      logChannel.close();
+    }
+    nodes = newNodes;
+    snapshotBytes = newSnapshotBytes;
+    logChannel = newLogChannel;
+    logOffset = FILE_HEADER_BYTES;
+    generation = newGeneration;
+
+    long end = System.currentTimeMillis();
+    LOGGER.logInfo("Loaded generation %s with %s nodes from %s in %sms.",
+        generation, nodes.size(), storeDir, end - start);
+  }
+
+  private static void loadSnapshot(
+      File snapshotFile, long newGeneration, MappedByteBuffer snapshot,
+      TreeMap<String, byte[]> newNodes) throws Exception {
+    if (snapshot.limit() < FILE_HEADER_BYTES + 8) {
+      throw new NonTransientException("Got truncated LocalStore Snapshot " + snapshotFile);
+    }
+
+    ByteBuffer content = snapshot.duplicate();
+    content.limit(snapshot.limit() - 4);
+    CRC32 crc = new CRC32();
+    crc.update(content);
+    if ((int) crc.getValue() != snapshot.getInt(snapshot.limit() - 4)) {
+      throw new NonTransientException("Got corrupt LocalStore Snapshot " + snapshotFile);
+    }
+
+    checkFileHeader(snapshot, SNAPSHOT_MAGIC, newGeneration, snapshotFile);
+    int nodeCount = snapshot.getInt();
+    for (int i = 0; i < nodeCount; i++) {
+      String path = readString(snapshot);
+      byte[] data = readBytes(snapshot);
+      newNodes.put(path, (data == null ? NO_DATA : data));
+    }
+  }
+
+  private static void checkFileHeader(ByteBuffer header, int magic, long generation, File file) throws Exception {
+    header.position(0);
+    if (header.getInt() != magic || header.getInt() != FORMAT_VERSION || header.getLong() != generation) {
+      throw new NonTransientException("Got unknown LocalStore file " + file);
+    }
+  }
+
+  // Replay the complete records after the logOffset.
+  // If locked, the torn record at the tail is truncated, and the unfinished compaction is redone.
+  private void catchUp(Boolean locked) throws Exception {
+    ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+    while (true) {
+      long logSize = logChannel.size();
+      if (logSize - logOffset < RECORD_HEADER_BYTES) {
+        truncateTornRecord(locked, logSize);
+        return;
+      }
+
+      recordHeader.clear();
+      readFully(logChannel, recordHeader, logOffset);
+      int bodyLength = recordHeader.getInt(0);
+      int bodyChecksum = recordHeader.getInt(4);
+      if (bodyLength <= 0 || bodyLength > MAX_RECORD_BODY_BYTES ||
+          logSize - logOffset - RECORD_HEADER_BYTES < bodyLength) {
+        truncateTornRecord(locked, logSize);
+        return;
+      }
+
+      ByteBuffer body = ByteBuffer.allocate(bodyLength);
+      readFully(logChannel, body, logOffset + RECORD_HEADER_BYTES);
+      CRC32 crc = new CRC32();
+      crc.update(body.array());
+      if ((int) crc.getValue() != bodyChecksum) {
+        // The record may be still being written by another process if not locked
+        truncateTornRecord(locked, logSize);
+        return;
+      }
+
+      body.position(0);
+      byte type = body.get();
+      String path = readString(body);
+      byte[] data = readBytes(body);
+      if (type == RECORD_TYPE_SEAL) {
+        Long currentGeneration = readCurrentGeneration();
+        if (currentGeneration != null && currentGeneration != generation) {
+          try {
+            load(currentGeneration);
+          } catch (NoSuchFileException e) {
+            LOGGER.logDebug(e, "Generation %s is already compacted, will retry again.", currentGeneration);
+            continue;
+          }
+          // The changes between the Snapshots are not replayed
+          notifyNodeChanged(null, true);
+          continue;
+        }
+
+        // The compaction is not finished, only the writer can redo it
+        if (locked) {
+          LOGGER.logWarning("Found unfinished compaction of generation %s, will redo it.", generation);
+          compact();
+        }
+        return;
+      }
+
+      apply(type, path, data);
+      logOffset += RECORD_HEADER_BYTES + bodyLength;
+    }
+  }
+
+  private void truncateTornRecord(Boolean locked, long logSize) throws IOException {
+    if (locked && logSize > logOffset) {
+      LOGGER.logWarning("Truncating %s bytes of torn record at offset %s of %s.",
+          logSize - logOffset, logOffset, getLogFile(generation));
+      logChannel.truncate(logOffset);
+      logChannel.force(true);
+    }
+  }
+
+  private void appendRecord(ByteBuffer record) throws IOException {
+    appendRecords(Collections.singletonList(record));
+  }
+
+  private void appendRecords(List<ByteBuffer> records) throws IOException {
+    long position = logOffset;
+    for (ByteBuffer record : records) {
+      while (record.hasRemaining()) {
+        position += logChannel.write(record, position);
+      }
+    }
+    if (syncEnable) {
+      logChannel.force(false);
+    }
+    logOffset = position;
+  }
+
+  private void apply(byte type, String path, byte[] data) {
+    if (type == RECORD_TYPE_SET) {
+      String ancestorPath = getParentPath(path);
+      while (!nodes.containsKey(ancestorPath)) {
+        nodes.put(ancestorPath, NO_DATA);
+        notifyNodeChanged(ancestorPath, true);
+        ancestorPath = getParentPath(ancestorPath);
+      }
+
+      byte[] oldData = nodes.get(path);
+      if (data != null) {
+        nodes.put(path, data);
+        notifyNodeChanged(path, oldData == null);
+      } else if (oldData == null) {
+        nodes.put(path, NO_DATA);
+        notifyNodeChanged(path, true);
+      }
+    } else if (type == RECORD_TYPE_DELETE || type == RECORD_TYPE_DELETE_CHILDREN) {
+      String childPathPrefix = getChildPathPrefix(path);
+      Iterator<String> iterator = nodes.tailMap(childPathPrefix, true).keySet().iterator();
+      while (iterator.hasNext()) {
+        String childPath = iterator.next();
+        if (!childPath.startsWith(childPathPrefix)) {
+          break;
+        }
+        iterator.remove();
+        notifyNodeChanged(childPath, true);
+      }
+
+      if (type == RECORD_TYPE_DELETE && !path.equals(ROOT_PATH) && nodes.remove(path) != null) {
+        notifyNodeChanged(path, true);
+      }
+    }
+  }
+
+  private void notifyNodeChanged(String path, Boolean structureChanged) {
+    for (ChangeListener changeListener : changeListeners) {
+      changeListener.onNodeChanged(path, structureChanged);
+    }
+  }
+
+  // Start the new generation from the current nodes, then seal the current one
+  private void compact() throws Exception {
+    long start = System.currentTimeMillis();
+    long oldGeneration = generation;
+    long newGeneration = generation + 1;
+
+    long newSnapshotBytes = writeSnapshot(newGeneration);
+    appendRecord(encodeRecord(RECORD_TYPE_SEAL, ROOT_PATH, null));
+    startGeneration(newGeneration);
+    snapshotBytes = newSnapshotBytes;
+
+    getLogFile(oldGeneration).delete();
+    getSnapshotFile(oldGeneration).delete();
+
+    long end = System.currentTimeMillis();
+    LOGGER.logInfo("Compacted generation %s into %s with %s nodes in %sms.",
+        oldGeneration, newGeneration, nodes.size(), end - start);
+  }
+
+  // Create the empty Log of the new generation and switch to it
+  private void startGeneration(long newGeneration) throws IOException {
+    File logFile = getLogFile(newGeneration);
+    FileChannel newLogChannel = FileChannel.open(logFile.toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+    header.putInt(LOG_MAGIC).putInt(FORMAT_VERSION).putLong(newGeneration).flip();
+    newLogChannel.write(header, 0);
+    newLogChannel.force(true);
+
+    writeAtomically("CURRENT", Long.toString(newGeneration).getBytes(StandardCharsets.UTF_8));
+
+    if (logChannel != null) {
+      logChannel.close();
+    }
+    logChannel = newLogChannel;
+    logOffset = FILE_HEADER_BYTES;
+    generation = newGeneration;
+    if (nodes.isEmpty()) {
+      nodes.put(ROOT_PATH, NO_DATA);
+    }
+  }
+
+  // Return the bytes of the Snapshot
+  private long writeSnapshot(long newGeneration) throws IOException {
+    File tmpFile = getFile("snapshot.tmp");
+    CRC32 crc = new CRC32();
+    try (FileOutputStream fileStream = new FileOutputStream(tmpFile)) {
+      DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(
+          new CheckedOutputStream(fileStream, crc), 64 * 1024));
+      stream.writeInt(SNAPSHOT_MAGIC);
+      stream.writeInt(FORMAT_VERSION);
+      stream.writeLong(newGeneration);
+      stream.writeInt(nodes.size());
+      for (Map.Entry<String, byte[]> node : nodes.entrySet()) {
+        byte[] pathBytes = node.getKey().getBytes(StandardCharsets.UTF_8);
+        stream.writeInt(pathBytes.length);
+        stream.write(pathBytes);
+        if (node.getValue() == NO_DATA) {
+          stream.writeInt(-1);
+        } else {
+          stream.writeInt(node.getValue().length);
+          stream.write(node.getValue());
+        }
+      }
+      stream.flush();
+      // The checksum itself is not checksummed
+      new DataOutputStream(fileStream).writeInt((int) crc.getValue());
+      fileStream.getFD().sync();
+    }
+    long newSnapshotBytes = tmpFile.length();
+    Files.move(tmpFile.toPath(), getSnapshotFile(newGeneration).toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return newSnapshotBytes;
+  }
+
+  private void writeAtomically(String name, byte[] content) throws IOException {
+    File tmpFile = getFile(name + ".tmp");
+    try (FileOutputStream stream = new FileOutputStream(tmpFile)) {
+      stream.write(content);
+      stream.getFD().sync();
+    }
+    Files.move(tmpFile.toPath(), getFile(name).toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    // Persist the rename
+    try (FileChannel dirChannel = FileChannel.open(storeDir.toPath(), StandardOpenOption.READ)) {
+      dirChannel.force(true);
+    } catch (IOException e) {
+      LOGGER.logDebug(e, "Failed to sync LocalStore directory %s", storeDir);
+    }
+  }
+
+  private static ByteBuffer encodeRecord(byte type, String path, byte[] data) {
+    byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+    int bodyLength = 1 + 4 + pathBytes.length + 4 + (data == null ? 0 : data.length);
+    if (bodyLength > MAX_RECORD_BODY_BYTES) {
+      throw new IllegalArgumentException(String.format(
+          "Record of %s bytes on path %s exceeds the max %s bytes", bodyLength, path, MAX_RECORD_BODY_BYTES));
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + bodyLength);
+    record.putInt(bodyLength);
+    record.putInt(0);
+    record.put(type);
+    record.putInt(pathBytes.length);
+    record.put(pathBytes);
+    if (data == null) {
+      record.putInt(-1);
+    } else {
+      record.putInt(data.length);
+      record.put(data);
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), RECORD_HEADER_BYTES, bodyLength);
+    record.putInt(4, (int) crc.getValue());
+    record.flip();
+    return record;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  // Null means no data
+  private static byte[] readBytes(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int readBytes = channel.read(buffer, position);
+      if (readBytes < 0) {
+        throw new EOFException("Unexpected end of LocalStore file");
+      }
+      position += readBytes;
+    }
+  }
+}
@@ -43,6 +43,13 @@ public class FrameworkStateDefinition {
           FrameworkState.APPLICATION_RUNNING
       )));
 
+  // The Applications which are being submitted or not yet accepted by RM
+  public static final Set<FrameworkState> APPLICATION_SUBMITTING_STATES = Collections.unmodifiableSet(
+      new HashSet<>(Arrays.asList(
+          FrameworkState.APPLICATION_CREATED,
+          FrameworkState.APPLICATION_LAUNCHED
+      )));
+
   public static final Set<FrameworkState> APPLICATION_ASSOCIATED_STATES = Collections.unmodifiableSet(
       new HashSet<>(Arrays.asList(
           FrameworkState.APPLICATION_CREATED,
@@ -21,12 +21,12 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
 import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
 import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
+import org.apache.hadoop.yarn.util.ConverterUtils;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.util.*;
 
 public class RMResyncHandler { // THREAD SAFE
   private static final DefaultLogger LOGGER = new DefaultLogger(RMResyncHandler.class);
@@ -35,6 +35,18 @@ public class RMResyncHandler { // THREAD SAFE
   private final LauncherConfiguration conf;
   private final YarnClient yarnClient;
 
+  // Applications in these states are returned by the incremental resync, the others are only
+  // returned by the full resync, or fetched one by one if they are still live associated.
+  private static final EnumSet<YarnApplicationState> INCREMENTAL_RESYNC_APPLICATION_STATES = EnumSet.of(
+      YarnApplicationState.NEW,
+      YarnApplicationState.NEW_SAVING,
+      YarnApplicationState.SUBMITTED,
+      YarnApplicationState.ACCEPTED,
+      YarnApplicationState.RUNNING);
+
+  // Only accessed by resyncWithRM which is executed one by one in queue
+  private int resyncCount = 0;
+
   public RMResyncHandler(Service service, LauncherConfiguration conf, YarnClient yarnClient) {
     this.service = service;
     this.conf = conf;
@@ -53,11 +65,18 @@ public void start() {
 
   public void resyncWithRM() throws Exception {
     List<ApplicationReport> reports = null;
+    int fullResyncFrequency = conf.getServiceRMFullResyncFrequency();
+    boolean fullResync = (fullResyncFrequency <= 1 || resyncCount % fullResyncFrequency == 0);
 
     try {
       // Only Get LAUNCHER ApplicationReport
-      reports = yarnClient.getApplications(new HashSet<>(
-          Collections.singletonList(GlobalConstants.LAUNCHER_APPLICATION_TYPE)));
+      Set<String> applicationTypes = new HashSet<>(
+          Collections.singletonList(GlobalConstants.LAUNCHER_APPLICATION_TYPE));
+      if (fullResync) {
+        reports = yarnClient.getApplications(applicationTypes);
+      } else {
+        reports = getIncrementalApplicationReports(applicationTypes);
+      }
     } catch (Exception e) {
       LOGGER.logWarning(e,
           "Exception occurred during GetApplications. It should be transient. " +
@@ -71,9 +90,38 @@ public void resyncWithRM() throws Exception {
         liveApplicationReports.put(report.getApplicationId().toString(), report);
       }
 
-      service.onLiveApplicationsUpdated(liveApplicationReports);
+      service.onLiveApplicationsUpdated(liveApplicationReports, fullResync);
+      resyncCount++;
     }
 
     service.queueResyncWithRM(conf.getServiceRMResyncIntervalSec());
   }
-}
\ No newline at end of file
+
+  // Get the not completed Applications, together with the completed but still live associated
+  // Applications, so that the live associated Applications which are missing in the result are
+  // exactly the ones lost in RM.
+  private List<ApplicationReport> getIncrementalApplicationReports(Set<String> applicationTypes) throws Exception {
+    List<ApplicationReport> reports = yarnClient.getApplications(
+        applicationTypes, INCREMENTAL_RESYNC_APPLICATION_STATES);
+
+    Set<String> reportedApplicationIds = new HashSet<>();
+    for (ApplicationReport report : reports) {
+      reportedApplicationIds.add(report.getApplicationId().toString());
+    }
+
+    List<ApplicationReport> allReports = new ArrayList<>(reports);
+    for (String applicationId : service.getLiveAssociatedApplicationIds()) {
+      if (reportedApplicationIds.contains(applicationId)) {
+        continue;
+      }
+
+      try {
+        allReports.add(yarnClient.getApplicationReport(
+            ConverterUtils.toApplicationId(applicationId)));
+      } catch (ApplicationNotFoundException e) {
+        LOGGER.logDebug(e, "[%s]: Application not found in RM", applicationId);
+      }
+    }
+    return allReports;
+  }
+}
@@ -22,11 +22,14 @@
 import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
 import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.store.ChangeNotifier;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.zookeeper.KeeperException;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 
 // Manage the CURD to ZK Request
@@ -39,7 +42,7 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
 
   private final Service service;
   private final LauncherConfiguration conf;
-  private final ZookeeperStore zkStore;
+  private final LauncherStore zkStore;
 
 
   /**
@@ -53,7 +56,7 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
   /**
    * REGION AbstractService
    */
-  public RequestManager(Service service, LauncherConfiguration conf, ZookeeperStore zkStore) {
+  public RequestManager(Service service, LauncherConfiguration conf, LauncherStore zkStore) {
     super(RequestManager.class.getName());
     this.service = service;
     this.conf = conf;
@@ -80,17 +83,23 @@ protected Boolean handleException(Exception e) {
   protected void run() throws Exception {
     super.run();
 
+    // Watch before the first pull, so that any change after the pull will be notified
+    ChangeNotifier changeNotifier =
+        zkStore.newLauncherRequestChangeNotifier(conf.getZkChangeNotificationEnable());
+
     new Thread(() -> {
+      // Null means pull all
+      Set<String> changedPaths = null;
       while (true) {
         try {
-          pullRequest();
+          pullRequest(changedPaths);
         } catch (Exception e) {
           // Directly throw TransientException to Service, since it may not be recovered or make progress any more
           handleException(e);
         } finally {
           try {
-            Thread.sleep(conf.getServiceRequestPullIntervalSec() * 1000);
-          } catch (InterruptedException e) {
+            changedPaths = changeNotifier.waitChanges(conf.getServiceRequestPullIntervalSec() * 1000);
+          } catch (Exception e) {
             handleException(e);
           }
         }
@@ -101,14 +110,35 @@ protected void run() throws Exception {
   /**
    * REGION InternalUtils
    */
-  private void pullRequest() throws Exception {
+  private void pullRequest(Set<String> changedPaths) throws Exception {
+    Set<String> changedFrameworkNames = null;
+    if (changedPaths != null && frameworkRequests != null) {
+      changedFrameworkNames = zkStore.getChangedRequestFrameworkNames(changedPaths);
+    }
+
     Map<String, FrameworkRequest> newFrameworkRequests;
     try {
-      LOGGER.logDebug("Pulling AllFrameworkRequests");
+      if (changedFrameworkNames == null) {
+        LOGGER.logDebug("Pulling AllFrameworkRequests");
 
-      newFrameworkRequests = zkStore.getAllFrameworkRequests();
+        newFrameworkRequests = zkStore.getAllFrameworkRequests();
 
-      LOGGER.logDebug("Pulled AllFrameworkRequests");
+        LOGGER.logDebug("Pulled AllFrameworkRequests");
+      } else {
+        LOGGER.logDebug("Pulling %s changed FrameworkRequests", changedFrameworkNames.size());
+
+        // Only the FrameworkRequests are changed, the set of Frameworks is unchanged
+        newFrameworkRequests = new HashMap<>(frameworkRequests);
+        for (String frameworkName : changedFrameworkNames) {
+          try {
+            newFrameworkRequests.put(frameworkName, zkStore.getFrameworkRequest(frameworkName));
+          } catch (KeeperException.NoNodeException ignored) {
+            newFrameworkRequests.remove(frameworkName);
+          }
+        }
+
+        LOGGER.logDebug("Pulled changed FrameworkRequests");
+      }
     } catch (KeeperException.NoNodeException e) {
       LOGGER.logWarning(e,
           "Failed to getAllFrameworkRequests, LauncherRequest is deleted on ZK");
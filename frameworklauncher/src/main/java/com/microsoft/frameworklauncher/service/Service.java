@@ -27,8 +27,11 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.service.AdmissionController;
+import com.microsoft.frameworklauncher.common.service.MeteredExecutor;
 import com.microsoft.frameworklauncher.common.service.StopStatus;
 import com.microsoft.frameworklauncher.common.service.SystemTaskQueue;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
 import com.microsoft.frameworklauncher.common.utils.RetryUtils;
@@ -36,6 +39,7 @@
 import com.microsoft.frameworklauncher.common.validation.CommonValidation;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
 import com.microsoft.frameworklauncher.hdfsstore.HdfsStore;
+import com.microsoft.frameworklauncher.localstore.LocalStore;
 import com.microsoft.frameworklauncher.webserver.WebServer;
 import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.hadoop.fs.FileSystem;
@@ -56,6 +60,8 @@
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 // Maintains the life cycle for all Frameworks submitted to this Launcher.Service.
 // It is the engine to transition Status to satisfy Request eventually.
@@ -69,12 +75,22 @@ public class Service extends AbstractService {
   private YarnConfiguration yarnConf = new YarnConfiguration();
   private LauncherConfiguration conf;
   private SystemTaskQueue transitionFrameworkStateQueue;
+  // Setup and submit the Applications concurrently, see createApplication
+  private MeteredExecutor applicationLaunchExecutor;
+  // Admit the FRAMEWORK_WAITING Frameworks to createApplication, see admitApplications
+  private AdmissionController applicationAdmissionController;
+  // Whether an admitApplications is queued but not yet started
+  private final AtomicBoolean applicationAdmissionQueued = new AtomicBoolean(false);
+  // ApplicationId -> The last resynced ApplicationReport of the live associated Application,
+  // so that the unchanged and already resynced ones can be skipped during the incremental RM resync.
+  // It is only accessed by the resyncWithRM SystemTask, so it does not need to be synchronized.
+  private final Map<String, ApplicationReport> resyncedApplicationReports = new HashMap<>();
 
 
   /**
    * REGION SubServices
    */
-  private ZookeeperStore zkStore;
+  private LauncherStore zkStore;
   private HdfsStore hdfsStore;
   private YarnClient yarnClient;
   private StatusManager statusManager;
@@ -121,19 +137,39 @@ protected Boolean handleException(Exception e) {
   @Override
   protected void initialize() throws Exception {
     super.initialize();
-    transitionFrameworkStateQueue = new SystemTaskQueue(this::handleException);
 
     // Initialize LauncherConfiguration
     conf = YamlUtils.toObject(GlobalConstants.LAUNCHER_CONFIG_FILE, LauncherConfiguration.class);
     CommonValidation.validate(conf);
 
+    transitionFrameworkStateQueue = new SystemTaskQueue(
+        "TransitionFrameworkStateQueue", this::handleException, conf.getServiceSystemTaskParallelism());
+    applicationLaunchExecutor = new MeteredExecutor(
+        "ApplicationLaunchExecutor", this::handleException,
+        conf.getServiceApplicationLaunchParallelism());
+    // The submission to RM is only throttled by the admission, so the Frameworks not yet admitted
+    // keep FRAMEWORK_WAITING instead of holding the launch threads.
+    applicationAdmissionController = new AdmissionController(
+        "ApplicationAdmissionController", conf.getServiceApplicationSubmitMaxRatePerSec(),
+        conf.getServiceApplicationAdmitBurstSize(), conf.getServiceApplicationAdmitMaxInFlightCount());
+
     // Initialize SubServices
     yarnClient = YarnClient.createYarnClient();
     yarnClient.init(yarnConf);
     yarnClient.start();
 
     // Initialize Launcher Store
-    zkStore = new ZookeeperStore(conf.getZkConnectString(), conf.getZkRootDir(), conf.getZkCompressionEnable());
+    if (conf.getLauncherStoreType() == LauncherStoreType.LOCAL) {
+      zkStore = new LocalStore(
+          conf.getLocalStoreDir(), conf.getZkSerializationType(),
+          conf.getLocalStoreMaxLogMB(), conf.getLocalStoreSyncEnable());
+    } else {
+      zkStore = new ZookeeperStore(
+          conf.getZkConnectString(), conf.getZkRootDir(),
+          conf.getZkCompressionEnable(), conf.getZkCompressionType(),
+          conf.getZkCompressionLevel(), conf.getZkSerializationType(),
+          conf.getZkRecoveryParallelism());
+    }
     hdfsStore = new HdfsStore(conf.getHdfsRootDir());
 
     // Initialize other components
@@ -180,6 +216,12 @@ public synchronized void stop(StopStatus stopStatus) {
     super.stop(stopStatus);
     try {
       // Stop Service's SubServices
+      if (statusManager != null) {
+        statusManager.stop(stopStatus);
+      }
+      if (applicationAdmissionController != null) {
+        applicationAdmissionController.stop();
+      }
       if (yarnClient != null) {
         yarnClient.stop();
       }
@@ -281,9 +323,17 @@ private ContainerLaunchContext setupContainerLaunchContextForDefaultAM(
     localEnvs.put(GlobalConstants.ENV_VAR_FRAMEWORK_NAME, frameworkName);
     localEnvs.put(GlobalConstants.ENV_VAR_FRAMEWORK_VERSION, frameworkVersion.toString());
 
+    localEnvs.put(GlobalConstants.ENV_VAR_LAUNCHER_STORE_TYPE, conf.getLauncherStoreType().toString());
+    // AM is not started in the same working directory
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_DIR, new File(conf.getLocalStoreDir()).getAbsolutePath());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_MAX_LOG_MB, conf.getLocalStoreMaxLogMB().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_SYNC_ENABLE, conf.getLocalStoreSyncEnable().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_CONNECT_STRING, conf.getZkConnectString());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_ROOT_DIR, conf.getZkRootDir());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_ENABLE, conf.getZkCompressionEnable().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_TYPE, conf.getZkCompressionType().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_LEVEL, conf.getZkCompressionLevel().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_SERIALIZATION_TYPE, conf.getZkSerializationType().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_AM_VERSION, conf.getAmVersion().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_AM_RM_HEARTBEAT_INTERVAL_SEC, conf.getAmRmHeartbeatIntervalSec().toString());
 
@@ -335,7 +385,8 @@ private ContainerLaunchContext setupContainerLaunchContextForDefaultAM(
 
   private void setupApplicationContext(
       FrameworkStatus frameworkStatus,
-      ApplicationSubmissionContext applicationContext) throws Exception {
+      ApplicationSubmissionContext applicationContext,
+      long launchStartedNanos) throws Exception {
     String frameworkName = frameworkStatus.getFrameworkName();
     Integer frameworkVersion = frameworkStatus.getFrameworkVersion();
     String applicationId = frameworkStatus.getApplicationId();
@@ -395,9 +446,10 @@ private void setupApplicationContext(
     applicationContext.setMaxAppAttempts(conf.getAmAttemptMaxCount());
     applicationContext.setAttemptFailuresValidityInterval(conf.getAmAttemptFailuresValidityIntervalSec() * 1000);
 
-    // Queue launchApplication to avoid race condition
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
-      launchApplication(frameworkStatus, applicationContext);
+    // Queue launchApplication to avoid race condition,
+    // and the slow submission only blocks the SystemTasks of the same Framework
+    transitionFrameworkStateQueue.queueSystemTask("Service.setupApplicationContext", frameworkName, () -> {
+      launchApplication(frameworkStatus, applicationContext, launchStartedNanos);
     });
   }
 
@@ -439,17 +491,17 @@ private void recoverTransitionFrameworkStateQueue() {
         CommonExts.toString(FrameworkStateDefinition.QUEUE_CORRUPTED_AFTER_RESTART_STATES));
 
     // There may be a lot of corrupted System.Frameworks, so we queue them as one System.Framework per State
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask("Service.recoverTransitionFrameworkStateQueue", () -> {
       createApplication();
     });
     LOGGER.logInfo("All the previous FRAMEWORK_WAITING Frameworks have been driven");
 
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask("Service.recoverTransitionFrameworkStateQueue", () -> {
       retrieveApplicationDiagnostics();
     });
     LOGGER.logInfo("All the previous APPLICATION_RETRIEVING_DIAGNOSTICS Frameworks have been driven");
 
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask("Service.recoverTransitionFrameworkStateQueue", () -> {
       attemptToRetry();
     });
     LOGGER.logInfo("All the previous APPLICATION_COMPLETED Frameworks have been driven");
@@ -465,7 +517,7 @@ private void completeApplication(FrameworkStatus frameworkStatus, int exitCode,
 
     statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_COMPLETED,
         new FrameworkEvent().setApplicationExitCode(exitCode).setApplicationExitDiagnostics(diagnostics));
-    attemptToRetry(frameworkStatus);
+    attemptToRetry(statusManager.getFrameworkStatus(frameworkName));
   }
 
   // retrieveApplicationDiagnostics to prepare completeApplication
@@ -531,7 +583,10 @@ private void retrieveApplicationExitCode(String applicationId, String diagnostic
     completeApplication(frameworkStatus, exitCode, diagnostics);
   }
 
-  private void launchApplication(FrameworkStatus frameworkStatus, ApplicationSubmissionContext applicationContext) throws Exception {
+  private void launchApplication(
+      FrameworkStatus frameworkStatus,
+      ApplicationSubmissionContext applicationContext,
+      long launchStartedNanos) throws Exception {
     String frameworkName = frameworkStatus.getFrameworkName();
     Integer frameworkVersion = frameworkStatus.getFrameworkVersion();
     String applicationId = frameworkStatus.getApplicationId();
@@ -552,13 +607,20 @@ private void launchApplication(FrameworkStatus frameworkStatus, ApplicationSubmi
     }
     UserDescriptor user = frameworkRequest.getFrameworkDescriptor().getUser();
 
+    // Ensure the Application is associated on ZK before it is submitted, otherwise it will be
+    // leaked if Service crashed before the association is committed.
+    statusManager.commitFrameworkStatuses();
+
     logPrefix += "SubmitApplication: ";
     try {
       LOGGER.logInfo(logPrefix + "ApplicationName: %s", applicationContext.getApplicationName());
       LOGGER.logInfo(logPrefix + "ResourceRequest: %s", HadoopExts.toString(applicationContext.getAMContainerResourceRequest()));
       LOGGER.logInfo(logPrefix + "Queue: %s", applicationContext.getQueue());
 
+      long submitStartedNanos = System.nanoTime();
       HadoopUtils.submitApplication(applicationContext, user);
+      applicationLaunchExecutor.recordLatency("SubmitApplication",
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitStartedNanos));
 
       LOGGER.logInfo(logPrefix + "Succeeded");
     } catch (Throwable e) {
@@ -592,39 +654,105 @@ private void launchApplication(FrameworkStatus frameworkStatus, ApplicationSubmi
     }
 
     statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_LAUNCHED);
+
+    // End to end from createApplication to APPLICATION_LAUNCHED
+    applicationLaunchExecutor.recordLatency("LaunchApplication",
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchStartedNanos));
   }
 
   private void createApplication(FrameworkStatus frameworkStatus) throws Exception {
     String frameworkName = frameworkStatus.getFrameworkName();
+    long launchStartedNanos = System.nanoTime();
     ApplicationSubmissionContext applicationContext = yarnClient.createApplication().getApplicationSubmissionContext();
     statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_CREATED,
         new FrameworkEvent().setApplicationContext(applicationContext));
 
-    // Concurrently setupApplicationContext
-    FrameworkStatus frameworkStatusSnapshot = YamlUtils.deepCopy(frameworkStatus, FrameworkStatus.class);
-    new Thread(() -> {
-      try {
-        // Always Setup a brand new ApplicationContext to tolerate ApplicationContext corruption,
-        // such as HDFS data lost.
-        // Retry to setupApplicationContext due to the race condition with onFrameworkToRemove.
-        RetryUtils.executeWithRetry(() -> {
-              setupApplicationContext(frameworkStatusSnapshot, applicationContext);
-            },
-            conf.getApplicationSetupContextMaxRetryCount(),
-            conf.getApplicationSetupContextRetryIntervalSec(), null);
-      } catch (Exception e) {
-        onExceptionOccurred(e);
-      }
-    }).start();
+    // Concurrently setupApplicationContext, bounded by serviceApplicationLaunchParallelism
+    // The transitioned FrameworkStatus is never modified after it is published, so it is a snapshot.
+    FrameworkStatus frameworkStatusSnapshot = statusManager.getFrameworkStatus(frameworkName);
+    applicationLaunchExecutor.execute(() -> {
+      // Always Setup a brand new ApplicationContext to tolerate ApplicationContext corruption,
+      // such as HDFS data lost.
+      // Retry to setupApplicationContext due to the race condition with onFrameworkToRemove.
+      RetryUtils.executeWithRetry(() -> {
+            setupApplicationContext(frameworkStatusSnapshot, applicationContext, launchStartedNanos);
+          },
+          conf.getApplicationSetupContextMaxRetryCount(),
+          conf.getApplicationSetupContextRetryIntervalSec(), null);
+    });
   }
 
   private void createApplication() throws Exception {
     for (FrameworkStatus frameworkStatus : statusManager.getFrameworkStatus(
         new HashSet<>(Collections.singletonList(FrameworkState.FRAMEWORK_WAITING)))) {
-      createApplication(frameworkStatus);
+      queueApplicationAdmission(frameworkStatus);
+    }
+  }
+
+  // The FRAMEWORK_WAITING Framework waits for the admission to createApplication, so that the submissions
+  // after a mass failure, such as RM restart, are spread out instead of overwhelming RM.
+  // The Framework which failed less times is admitted first within its queue.
+  private void queueApplicationAdmission(FrameworkStatus frameworkStatus) {
+    String frameworkName = frameworkStatus.getFrameworkName();
+    FrameworkRequest frameworkRequest = requestManager.tryGetFrameworkRequest(
+        frameworkName, frameworkStatus.getFrameworkVersion());
+    if (frameworkRequest == null) {
+      LOGGER.logWarning("[%s]: queueApplicationAdmission: Framework not found in Request. Ignore it.",
+          frameworkName);
+      return;
+    }
+
+    String queue = frameworkRequest.getFrameworkDescriptor().getPlatformSpecificParameters().getQueue();
+    RetryPolicyState retryPolicyState = frameworkStatus.getFrameworkRetryPolicyState();
+    long failedCount = retryPolicyState.getTransientNormalRetriedCount() +
+        retryPolicyState.getTransientConflictRetriedCount() +
+        retryPolicyState.getNonTransientRetriedCount() +
+        retryPolicyState.getUnKnownRetriedCount();
+
+    applicationAdmissionController.enqueue(
+        frameworkName, (queue == null ? GlobalConstants.DEFAULT_APPLICATION_QUEUE : queue), failedCount);
+    queueAdmitApplications(0);
+  }
+
+  private void queueAdmitApplications(long delayMs) {
+    // No need to queue another one if it is already queued, since it will admit all the waiting Frameworks
+    if (!applicationAdmissionQueued.compareAndSet(false, true)) {
+      return;
+    }
+
+    // Queue it as a Barrier, since it transitions multiple Frameworks
+    CommonExts.VoidCallable admitApplications = () -> {
+      applicationAdmissionQueued.set(false);
+      admitApplications();
+    };
+    if (delayMs <= 0) {
+      transitionFrameworkStateQueue.queueSystemTask("Service.admitApplications", admitApplications);
+    } else {
+      transitionFrameworkStateQueue.queueSystemTaskDelayed("Service.admitApplications", admitApplications, delayMs);
     }
   }
 
+  private void admitApplications() throws Exception {
+    int submittingCount = statusManager.getFrameworkCount(FrameworkStateDefinition.APPLICATION_SUBMITTING_STATES);
+
+    String frameworkName;
+    while ((frameworkName = applicationAdmissionController.admit(
+        submittingCount, this::isApplicationAdmissible)) != null) {
+      createApplication(statusManager.getFrameworkStatus(frameworkName));
+      submittingCount++;
+    }
+
+    if (applicationAdmissionController.getWaitingCount() > 0) {
+      queueAdmitApplications(applicationAdmissionController.getAdmitDelayMs());
+    }
+  }
+
+  // Double check the Framework, since it may be removed or upgraded after it is queued
+  private boolean isApplicationAdmissible(String frameworkName) {
+    return statusManager.containsFramework(frameworkName) &&
+        statusManager.getFrameworkStatus(frameworkName).getFrameworkState() == FrameworkState.FRAMEWORK_WAITING;
+  }
+
   private void completeFramework(FrameworkStatus frameworkStatus) throws Exception {
     String frameworkName = frameworkStatus.getFrameworkName();
 
@@ -646,7 +774,6 @@ private void retryFramework(FrameworkStatus frameworkStatus, RetryPolicyState ne
       LOGGER.logWarning(logPrefix + "Framework not found in Status. Ignore it.");
       return;
     }
-    frameworkStatus = statusManager.getFrameworkStatus(frameworkName);
 
     LOGGER.logSplittedLines(Level.INFO,
         logPrefix + "NewRetryPolicyState:\n%s",
@@ -654,7 +781,7 @@ private void retryFramework(FrameworkStatus frameworkStatus, RetryPolicyState ne
 
     statusManager.transitionFrameworkState(frameworkName, FrameworkState.FRAMEWORK_WAITING,
         new FrameworkEvent().setNewRetryPolicyState(newRetryPolicyState));
-    createApplication(frameworkStatus);
+    queueApplicationAdmission(statusManager.getFrameworkStatus(frameworkName));
   }
 
   // Implement FrameworkRetryPolicy
@@ -721,7 +848,7 @@ private void attemptToRetry(FrameworkStatus frameworkStatus) throws Exception {
             fancyRetryPolicyLogSuffix, delaySec);
 
         FrameworkStatus frameworkStatusSnapshot = YamlUtils.deepCopy(frameworkStatus, FrameworkStatus.class);
-        transitionFrameworkStateQueue.queueSystemTaskDelayed(() -> {
+        transitionFrameworkStateQueue.queueSystemTaskDelayed("Service.attemptToRetry", frameworkName, () -> {
           retryFramework(frameworkStatusSnapshot, newRetryPolicyState);
         }, delaySec * 1000);
         return;
@@ -764,13 +891,24 @@ private void attemptToRetry() throws Exception {
     }
   }
 
-  private void resyncFrameworksWithLiveApplications(Map<String, ApplicationReport> liveApplicationReports) throws Exception {
+  private void resyncFrameworksWithLiveApplications(
+      Map<String, ApplicationReport> liveApplicationReports, boolean fullResync) throws Exception {
     // Since Application is persistent in ZK by RM, so liveApplicationReports will never incomplete.
+    // For the incremental resync, liveApplicationReports still covers all live associated Applications,
+    // see RMResyncHandler.resyncWithRM.
     String logScope = "resyncFrameworksWithLiveApplications";
     CHANGE_AWARE_LOGGER.initializeScope(logScope, Level.INFO);
     CHANGE_AWARE_LOGGER.log(logScope,
-        "Got %s live Applications from RM, start to resync them.",
-        liveApplicationReports.size());
+        "Got %s live Applications from RM, start to %s resync them.",
+        liveApplicationReports.size(), (fullResync ? "fully" : "incrementally"));
+
+    // Forget the Applications which are no longer live in RM, and clear all for the full resync
+    // to correct any state which is drifted from the skipped ApplicationReports.
+    if (fullResync) {
+      resyncedApplicationReports.clear();
+    } else {
+      resyncedApplicationReports.keySet().retainAll(liveApplicationReports.keySet());
+    }
 
     for (ApplicationReport applicationReport : liveApplicationReports.values()) {
       String applicationId = applicationReport.getApplicationId().toString();
@@ -786,6 +924,14 @@ private void resyncFrameworksWithLiveApplications(Map<String, ApplicationReport>
           return;
         }
 
+        // Skip the ApplicationReport which is not changed since last resync, unless the Framework has
+        // not been transitioned by it, such as its transition is failed or deferred, or the Framework is
+        // transitioned elsewhere after last resync.
+        if (isApplicationReportResynced(
+            resyncedApplicationReports.get(applicationId), applicationReport, frameworkState)) {
+          continue;
+        }
+
         // updateApplicationStatus
         statusManager.updateApplicationStatus(frameworkName, applicationReport);
 
@@ -818,6 +964,9 @@ private void resyncFrameworksWithLiveApplications(Map<String, ApplicationReport>
               diagnostics,
               false);
         }
+
+        // Only remember the ApplicationReport after it is resynced, so that it is retried if failed
+        resyncedApplicationReports.put(applicationId, applicationReport);
       } else {
         // Do not kill Application due to AM_RM_RESYNC_EXCEED, since Exceed AM will kill itself.
         // In this way, we can support multiple LauncherServices to share a single RM,
@@ -851,6 +1000,50 @@ private void resyncFrameworksWithLiveApplications(Map<String, ApplicationReport>
     }
   }
 
+  // Whether the live associated Framework in the FrameworkState is already resynced with the
+  // ApplicationReport, given the last resynced ApplicationReport.
+  static boolean isApplicationReportResynced(
+      ApplicationReport lastReport, ApplicationReport report, FrameworkState frameworkState) {
+    FrameworkState resyncedFrameworkState = getResyncedFrameworkState(report);
+    return isApplicationReportUnchanged(lastReport, report) &&
+        (resyncedFrameworkState == null || resyncedFrameworkState == frameworkState);
+  }
+
+  // Only the fields which will be resynced to the Framework are compared.
+  private static boolean isApplicationReportUnchanged(
+      ApplicationReport lastReport, ApplicationReport report) {
+    return lastReport != null &&
+        lastReport.getYarnApplicationState() == report.getYarnApplicationState() &&
+        lastReport.getFinalApplicationStatus() == report.getFinalApplicationStatus() &&
+        lastReport.getProgress() == report.getProgress() &&
+        Objects.equals(lastReport.getTrackingUrl(), report.getTrackingUrl());
+  }
+
+  // The FrameworkState which the live associated Framework is transitioned to by the ApplicationReport,
+  // null means it is not transitioned, see resyncFrameworksWithLiveApplications.
+  private static FrameworkState getResyncedFrameworkState(ApplicationReport report) {
+    YarnApplicationState applicationState = report.getYarnApplicationState();
+    FinalApplicationStatus applicationFinalStatus = report.getFinalApplicationStatus();
+    if (applicationFinalStatus == FinalApplicationStatus.UNDEFINED) {
+      if (applicationState == YarnApplicationState.NEW ||
+          applicationState == YarnApplicationState.NEW_SAVING ||
+          applicationState == YarnApplicationState.SUBMITTED ||
+          applicationState == YarnApplicationState.ACCEPTED) {
+        return FrameworkState.APPLICATION_WAITING;
+      } else if (applicationState == YarnApplicationState.RUNNING) {
+        return FrameworkState.APPLICATION_RUNNING;
+      } else {
+        return null;
+      }
+    } else if (applicationFinalStatus == FinalApplicationStatus.SUCCEEDED ||
+        applicationFinalStatus == FinalApplicationStatus.KILLED ||
+        applicationFinalStatus == FinalApplicationStatus.FAILED) {
+      return FrameworkState.APPLICATION_RETRIEVING_DIAGNOSTICS;
+    } else {
+      return null;
+    }
+  }
+
 
   /**
    * REGION Callbacks
@@ -881,7 +1074,7 @@ public void onExceptionOccurred(Exception e) {
   // Service may need to double check whether FrameworkRequests is changed or not according to StatusManager
   public void onFrameworkRequestsUpdated(Map<String, FrameworkRequest> frameworkRequests) {
     LOGGER.logInfo("onFrameworkRequestsUpdated: FrameworkRequests: [%s]", frameworkRequests.size());
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask("Service.onFrameworkRequestsUpdated", () -> {
       statusManager.updateFrameworkRequests(frameworkRequests);
       createApplication();
     });
@@ -900,6 +1093,9 @@ public void onFrameworkToRemove(FrameworkStatus frameworkStatus, boolean usedToU
       HadoopUtils.killApplication(applicationId);
     }
 
+    // The upgraded Framework will be queued again as a new FRAMEWORK_WAITING Framework
+    applicationAdmissionController.remove(frameworkName);
+
     if (!usedToUpgrade) {
       try {
         // Although remove Framework in HDFS is slow, it is still synchronized in queue to ensure that the
@@ -936,18 +1132,26 @@ public void onStartTransitionFrameworkStateQueue() {
 
   // Callbacks from RMResyncHandler
   public void queueResyncWithRM(int delaySec) {
-    transitionFrameworkStateQueue.queueSystemTaskDelayed(() -> {
+    transitionFrameworkStateQueue.queueSystemTaskDelayed("Service.queueResyncWithRM", () -> {
       rmResyncHandler.resyncWithRM();
     }, delaySec * 1000);
   }
 
   // ApplicationId -> ApplicationReport
-  public void onLiveApplicationsUpdated(HashMap<String, ApplicationReport> liveApplicationReports) throws Exception {
-    LOGGER.logDebug("onLiveApplicationsUpdated: LiveApplications: [%s]", liveApplicationReports.size());
+  public void onLiveApplicationsUpdated(
+      HashMap<String, ApplicationReport> liveApplicationReports, boolean fullResync) throws Exception {
+    LOGGER.logDebug("onLiveApplicationsUpdated: LiveApplications: [%s], FullResync: [%s]",
+        liveApplicationReports.size(), fullResync);
 
     // onLiveApplicationsUpdated is already in queue, so queue it again will disorder
     // the result of resyncWithRM and other SystemTasks
-    resyncFrameworksWithLiveApplications(liveApplicationReports);
+    resyncFrameworksWithLiveApplications(liveApplicationReports, fullResync);
+  }
+
+  // Called by RMResyncHandler which is already in queue, so the result is consistent with the
+  // following onLiveApplicationsUpdated.
+  public List<String> getLiveAssociatedApplicationIds() {
+    return statusManager.getLiveAssociatedApplicationIds();
   }
 
 
@@ -959,8 +1163,10 @@ public void onDiagnosticsRetrieved(String applicationId, String diagnostics) {
           ExitStatusKey.LAUNCHER_DIAGNOSTICS_UNRETRIEVABLE);
     }
 
+    // The Application is double checked in the SystemTask, so queue it as a Barrier if it is not associated now
+    String frameworkName = statusManager.getAssociatedFrameworkName(applicationId);
     String finalDiagnostics = diagnostics;
-    transitionFrameworkStateQueue.queueSystemTask(() -> {
+    transitionFrameworkStateQueue.queueSystemTask("Service.onDiagnosticsRetrieved", frameworkName, () -> {
       retrieveApplicationExitCode(applicationId, finalDiagnostics);
     });
   }
@@ -21,9 +21,10 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.service.StopStatus;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.yarn.api.records.ApplicationReport;
 import org.apache.hadoop.yarn.api.records.ApplicationSubmissionContext;
@@ -32,23 +33,32 @@
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 // Manage the CURD to ZK Status
+// The Status is only modified by the synchronized ModifyInterface, but it is read lock free by the
+// ReadInterface, so that readers never block on the ZK I/O which is done while holding the lock.
+// A FrameworkStatus is never modified after it is published to BaseStatus, instead, the modification
+// is made on its copy which is then published to replace it, so a reader never sees a partially
+// modified FrameworkStatus. However, the reads across several methods, such as a FrameworkStatus
+// and its ExtensionStatus, may see different versions of the Status.
 public class StatusManager extends AbstractService {  // THREAD SAFE
   private static final DefaultLogger LOGGER = new DefaultLogger(StatusManager.class);
 
   private final Service service;
   private final LauncherConfiguration conf;
-  private final ZookeeperStore zkStore;
+  private final LauncherStore zkStore;
 
 
   /**
    * REGION BaseStatus
    */
   // Service only need to maintain LauncherStatus and AllFrameworkStatuses, and it is the only maintainer.
-  private LauncherStatus launcherStatus = null;
+  private volatile LauncherStatus launcherStatus = null;
   // FrameworkName -> FrameworkStatus
-  private Map<String, FrameworkStatus> frameworkStatuses = null;
+  private final Map<String, FrameworkStatus> frameworkStatuses = new ConcurrentHashMap<>();
 
 
   /**
@@ -57,17 +67,28 @@ public class StatusManager extends AbstractService {  // THREAD SAFE
    */
   // Used to invert index FrameworkStatus by ApplicationId/FrameworkState instead of FrameworkName
   // FrameworkState -> FrameworkNames
-  private final Map<FrameworkState, HashSet<String>> frameworkStateLocators = new HashMap<>();
+  private final Map<FrameworkState, Set<String>> frameworkStateLocators = new EnumMap<>(FrameworkState.class);
+  // Guard the Framework moves between the FrameworkState locators, so that a reader across several
+  // locators sees each Framework exactly once. It is only held for the moves in Mem, never for ZK I/O.
+  private final StampedLock frameworkStateLocatorsLock = new StampedLock();
   // Associated ApplicationId -> FrameworkName
-  private final Map<String, String> associatedApplicationIdLocators = new HashMap<>();
+  private final Map<String, String> associatedApplicationIdLocators = new ConcurrentHashMap<>();
   // Live Associated ApplicationId -> FrameworkName
-  private final Map<String, String> liveAssociatedApplicationIdLocators = new HashMap<>();
+  private final Map<String, String> liveAssociatedApplicationIdLocators = new ConcurrentHashMap<>();
+
+
+  /**
+   * REGION GroupCommit
+   */
+  // FrameworkName -> FrameworkStatus which is changed in Mem but not yet committed to ZK, in changed order.
+  // It refers to the latest published FrameworkStatus in BaseStatus, which is never modified afterwards.
+  private final Map<String, FrameworkStatus> uncommittedFrameworkStatuses = new LinkedHashMap<>();
 
 
   /**
    * REGION AbstractService
    */
-  public StatusManager(Service service, LauncherConfiguration conf, ZookeeperStore zkStore) {
+  public StatusManager(Service service, LauncherConfiguration conf, LauncherStore zkStore) {
     super(StatusManager.class.getName());
     this.service = service;
     this.conf = conf;
@@ -92,7 +113,7 @@ protected void initialize() throws Exception {
     super.initialize();
 
     for (FrameworkState frameworkState : FrameworkState.values()) {
-      frameworkStateLocators.put(frameworkState, new HashSet<>());
+      frameworkStateLocators.put(frameworkState, ConcurrentHashMap.newKeySet());
     }
   }
 
@@ -104,13 +125,15 @@ protected void recover() throws Exception {
         UserGroupInformation.getCurrentUser().getUserName());
 
     // Recover LauncherStatus to ZK
+    long recoveryStartedTimestamp = System.currentTimeMillis();
     LauncherStatus launcherStatus = new LauncherStatus();
     launcherStatus.setLauncherConfiguration(conf);
     launcherStatus.setLoggedInUser(loggedInUser);
+    launcherStatus.setServiceRecoveryStartedTimestamp(recoveryStartedTimestamp);
     updateLauncherStatus(launcherStatus);
 
     // Recover AllFrameworkStatuses from ZK and clean the corrupted AggregatedFrameworkStatus
-    frameworkStatuses = new HashMap<>();
+    frameworkStatuses.clear();
     AggregatedLauncherStatus aggLauncherStatus = zkStore.getAggregatedLauncherStatus();
     for (Map.Entry<String, AggregatedFrameworkStatus> aggFrameworkStatusKV :
         aggLauncherStatus.getAggregatedFrameworkStatuses().entrySet()) {
@@ -148,15 +171,65 @@ protected void recover() throws Exception {
       }
     }
 
-    LOGGER.logInfo("Succeeded to recover %s.", serviceName);
+    // Expose the recovery cost, which is dominated by reading the whole Launcher state tree from ZK
+    long recoveryCompletedTimestamp = System.currentTimeMillis();
+    LauncherStatus recoveredLauncherStatus = new LauncherStatus();
+    recoveredLauncherStatus.setLauncherConfiguration(conf);
+    recoveredLauncherStatus.setLoggedInUser(loggedInUser);
+    recoveredLauncherStatus.setServiceRecoveryStartedTimestamp(recoveryStartedTimestamp);
+    recoveredLauncherStatus.setServiceRecoveryCompletedTimestamp(recoveryCompletedTimestamp);
+    recoveredLauncherStatus.setServiceRecoveredFrameworkCount(frameworkStatuses.size());
+    updateLauncherStatus(recoveredLauncherStatus);
+
+    LOGGER.logInfo("Succeeded to recover %s with %s Frameworks in %sms.",
+        serviceName, frameworkStatuses.size(), recoveryCompletedTimestamp - recoveryStartedTimestamp);
 
     // Here ZK and Mem Status is the same.
     // Since Request may be ahead of Status even when Running,
     // so here the Recovery of Service StatusManager is completed.
   }
 
-  // No need to run and stop for StatusManager, since all ZK and Mem Status
-  // are always CONSISTENT between SystemTasks.
+  // Except for the uncommitted FrameworkStatuses, ZK and Mem Status are always CONSISTENT
+  // between SystemTasks, and the uncommitted ones are committed by the GroupCommit Thread.
+  @Override
+  protected void run() throws Exception {
+    super.run();
+
+    Integer groupCommitIntervalMs = conf.getServiceStatusGroupCommitIntervalMs();
+    if (groupCommitIntervalMs <= 0) {
+      return;
+    }
+
+    new Thread(() -> {
+      while (true) {
+        try {
+          commitFrameworkStatuses();
+        } catch (Exception e) {
+          // Directly throw TransientException to Service, since ZK and Mem Status cannot be CONSISTENT any more
+          handleException(e);
+        } finally {
+          try {
+            Thread.sleep(groupCommitIntervalMs);
+          } catch (InterruptedException e) {
+            handleException(e);
+          }
+        }
+      }
+    }).start();
+  }
+
+  @Override
+  public void stop(StopStatus stopStatus) {
+    // Best Effort to stop Gracefully
+    try {
+      super.stop(stopStatus);
+
+      LOGGER.logInfo("commitFrameworkStatuses for the last time before stop %s.", serviceName);
+      commitFrameworkStatuses();
+    } catch (Exception e) {
+      LOGGER.logWarning(e, "Failed to stop %s gracefully", serviceName);
+    }
+  }
 
 
   /**
@@ -174,6 +247,43 @@ private void updateLauncherStatus(LauncherStatus newLauncherStatus) throws Excep
     zkStore.setLauncherStatus(launcherStatus);
   }
 
+  // Set the FrameworkStatus to ZK in the next group commit, or immediately if GroupCommit is disabled
+  private void setFrameworkStatus(String frameworkName, FrameworkStatus frameworkStatus) throws Exception {
+    if (conf.getServiceStatusGroupCommitIntervalMs() <= 0) {
+      zkStore.setFrameworkStatus(frameworkName, frameworkStatus);
+      return;
+    }
+
+    uncommittedFrameworkStatuses.put(frameworkName, frameworkStatus);
+    if (uncommittedFrameworkStatuses.size() >= conf.getServiceStatusGroupCommitMaxBatchSize()) {
+      commitFrameworkStatuses();
+    }
+  }
+
+  private void deleteFrameworkStatus(String frameworkName, boolean childrenOnly) throws Exception {
+    if (!childrenOnly) {
+      // Ensure the deleted FrameworkStatus will not be Set again by the next group commit
+      uncommittedFrameworkStatuses.remove(frameworkName);
+    }
+    zkStore.deleteFrameworkStatus(frameworkName, childrenOnly);
+  }
+
+  // Read the FrameworkState locators optimistically, and retry with the read lock if any Framework moved
+  private <T> T readFrameworkStateLocators(Supplier<T> reader) {
+    long stamp = frameworkStateLocatorsLock.tryOptimisticRead();
+    T result = reader.get();
+    if (frameworkStateLocatorsLock.validate(stamp)) {
+      return result;
+    }
+
+    stamp = frameworkStateLocatorsLock.readLock();
+    try {
+      return reader.get();
+    } finally {
+      frameworkStateLocatorsLock.unlockRead(stamp);
+    }
+  }
+
   private void addExtensionFrameworkStatus(String frameworkName) {
     FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
     String applicationId = frameworkStatus.getApplicationId();
@@ -202,27 +312,19 @@ private void removeExtensionFrameworkStatus(String frameworkName) {
     }
   }
 
-  // Should call disassociateFrameworkWithApplication if associateFrameworkWithApplication failed
-  private void associateFrameworkWithApplication(String frameworkName, ApplicationSubmissionContext applicationContext) {
-    FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
+  // Only construct BaseStatus on the unpublished FrameworkStatus,
+  // the ExtensionStatus is constructed after it is published.
+  private void associateFrameworkWithApplication(
+      FrameworkStatus frameworkStatus, ApplicationSubmissionContext applicationContext) {
     String applicationId = applicationContext.getApplicationId().toString();
 
-    // Construct BaseStatus
     frameworkStatus.setApplicationId(applicationId);
     frameworkStatus.setApplicationProgress((float) 0);
-
-    // Construct ExtensionStatus
-    associatedApplicationIdLocators.put(applicationId, frameworkName);
   }
 
-  private void disassociateFrameworkWithApplication(String frameworkName) {
-    FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
-    String applicationId = frameworkStatus.getApplicationId();
-
-    // Destruct ExtensionStatus
-    associatedApplicationIdLocators.remove(applicationId);
-
-    // Destruct BaseStatus
+  // Only destruct BaseStatus on the unpublished FrameworkStatus,
+  // the ExtensionStatus is destructed before it is published.
+  private void disassociateFrameworkWithApplication(FrameworkStatus frameworkStatus) {
     frameworkStatus.setApplicationId(null);
     frameworkStatus.setApplicationProgress(null);
     frameworkStatus.setApplicationTrackingUrl(null);
@@ -234,6 +336,7 @@ private void disassociateFrameworkWithApplication(String frameworkName) {
   }
 
   private void updateExtensionFrameworkStatusWithApplicationLiveness(String frameworkName, boolean isLive) {
+    // Use the published FrameworkStatus, which is associated with the Application
     FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
     String applicationId = frameworkStatus.getApplicationId();
 
@@ -258,7 +361,7 @@ private void addFramework(FrameworkRequest frameworkRequest) throws Exception {
     addExtensionFrameworkStatus(frameworkName);
 
     // Update ZK Status
-    zkStore.setFrameworkStatus(frameworkName, frameworkStatus);
+    setFrameworkStatus(frameworkName, frameworkStatus);
 
     // The external resource will be setup by following CreateApplication
   }
@@ -277,7 +380,7 @@ private void removeFramework(String frameworkName, boolean usedToUpgrade) throws
     frameworkStatuses.remove(frameworkName);
 
     // Update ZK Status
-    zkStore.deleteFrameworkStatus(frameworkName, usedToUpgrade);
+    deleteFrameworkStatus(frameworkName, usedToUpgrade);
   }
 
   private void upgradeFramework(FrameworkRequest frameworkRequest) throws Exception {
@@ -290,19 +393,19 @@ private void upgradeFramework(FrameworkRequest frameworkRequest) throws Exceptio
   /**
    * REGION ReadInterface
    */
-  public synchronized UserDescriptor getLoggedInUser() {
+  public UserDescriptor getLoggedInUser() {
     return launcherStatus.getLoggedInUser();
   }
 
-  public synchronized Set<String> getFrameworkNames() {
-    return frameworkStatuses.keySet();
+  public Set<String> getFrameworkNames() {
+    return Collections.unmodifiableSet(frameworkStatuses.keySet());
   }
 
-  public synchronized boolean containsFramework(String frameworkName) {
+  public boolean containsFramework(String frameworkName) {
     return frameworkStatuses.containsKey(frameworkName);
   }
 
-  public synchronized boolean containsFramework(FrameworkStatus frameworkStatus) throws IOException {
+  public boolean containsFramework(FrameworkStatus frameworkStatus) throws IOException {
     String frameworkName = frameworkStatus.getFrameworkName();
 
     if (!containsFramework(frameworkName)) {
@@ -322,18 +425,19 @@ public synchronized boolean containsFramework(FrameworkStatus frameworkStatus) t
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized FrameworkStatus getFrameworkStatus(String frameworkName) {
+  public FrameworkStatus getFrameworkStatus(String frameworkName) {
     assert containsFramework(frameworkName);
     return frameworkStatuses.get(frameworkName);
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet) {
+  public List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet) {
     return getFrameworkStatus(frameworkStateSet, true);
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet, boolean contains) {
+  // A Framework which is transitioning between the acceptable FrameworkStates is returned exactly once.
+  public List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState> frameworkStateSet, boolean contains) {
     Set<FrameworkState> acceptableFrameworkStateSet = new HashSet<>();
     if (contains) {
       acceptableFrameworkStateSet.addAll(frameworkStateSet);
@@ -345,40 +449,65 @@ public synchronized List<FrameworkStatus> getFrameworkStatus(Set<FrameworkState>
       }
     }
 
-    List<FrameworkStatus> frameworkStatuses = new ArrayList<>();
-    for (FrameworkState frameworkState : acceptableFrameworkStateSet) {
-      for (String frameworkName : frameworkStateLocators.get(frameworkState)) {
-        frameworkStatuses.add(getFrameworkStatus(frameworkName));
+    return readFrameworkStateLocators(() -> {
+      List<FrameworkStatus> frameworkStatuses = new ArrayList<>();
+      for (FrameworkState frameworkState : acceptableFrameworkStateSet) {
+        for (String frameworkName : frameworkStateLocators.get(frameworkState)) {
+          // The Framework may be removed concurrently
+          FrameworkStatus frameworkStatus = this.frameworkStatuses.get(frameworkName);
+          if (frameworkStatus != null) {
+            frameworkStatuses.add(frameworkStatus);
+          }
+        }
       }
-    }
-    return frameworkStatuses;
+      return frameworkStatuses;
+    });
+  }
+
+  public int getFrameworkCount(Set<FrameworkState> frameworkStateSet) {
+    return readFrameworkStateLocators(() -> {
+      int frameworkCount = 0;
+      for (FrameworkState frameworkState : frameworkStateSet) {
+        frameworkCount += frameworkStateLocators.get(frameworkState).size();
+      }
+      return frameworkCount;
+    });
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized FrameworkStatus getFrameworkStatusWithLiveAssociatedApplicationId(String applicationId) {
-    assert isApplicationIdLiveAssociated(applicationId);
-    return getFrameworkStatus(liveAssociatedApplicationIdLocators.get(applicationId));
+  public FrameworkStatus getFrameworkStatusWithLiveAssociatedApplicationId(String applicationId) {
+    // Get the locator only once, since it may be removed concurrently
+    String frameworkName = liveAssociatedApplicationIdLocators.get(applicationId);
+    assert frameworkName != null;
+    return frameworkStatuses.get(frameworkName);
   }
 
-  public synchronized List<String> getLiveAssociatedApplicationIds() {
+  public List<String> getLiveAssociatedApplicationIds() {
     return new ArrayList<>(liveAssociatedApplicationIdLocators.keySet());
   }
 
-  public synchronized boolean isApplicationIdLiveAssociated(String applicationId) {
+  public boolean isApplicationIdLiveAssociated(String applicationId) {
     return liveAssociatedApplicationIdLocators.containsKey(applicationId);
   }
 
   // Returned FrameworkStatus is readonly, caller should not modify it
-  public synchronized FrameworkStatus getFrameworkStatusWithAssociatedApplicationId(String applicationId) {
-    assert isApplicationIdAssociated(applicationId);
-    return getFrameworkStatus(associatedApplicationIdLocators.get(applicationId));
+  public FrameworkStatus getFrameworkStatusWithAssociatedApplicationId(String applicationId) {
+    // Get the locator only once, since it may be removed concurrently
+    String frameworkName = associatedApplicationIdLocators.get(applicationId);
+    assert frameworkName != null;
+    return frameworkStatuses.get(frameworkName);
+  }
+
+  // Returns null if the Application is not associated
+  public String getAssociatedFrameworkName(String applicationId) {
+    return associatedApplicationIdLocators.get(applicationId);
   }
 
-  public synchronized List<String> getAssociatedApplicationIds() {
+  public List<String> getAssociatedApplicationIds() {
     return new ArrayList<>(associatedApplicationIdLocators.keySet());
   }
 
-  public synchronized boolean isApplicationIdAssociated(String applicationId) {
+  public boolean isApplicationIdAssociated(String applicationId) {
     return associatedApplicationIdLocators.containsKey(applicationId);
   }
 
@@ -399,8 +528,8 @@ public synchronized void transitionFrameworkState(
       FrameworkState dstState,
       FrameworkEvent event) throws Exception {
 
-    FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
-    FrameworkState srcState = frameworkStatus.getFrameworkState();
+    FrameworkStatus srcFrameworkStatus = getFrameworkStatus(frameworkName);
+    FrameworkState srcState = srcFrameworkStatus.getFrameworkState();
 
     // State transition function between each FrameworkStates
     // Attempt to transition
@@ -410,35 +539,29 @@ public synchronized void transitionFrameworkState(
 
     assert !FrameworkStateDefinition.FINAL_STATES.contains(srcState);
 
-    if (!FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(srcState) &&
-        FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(dstState)) {
+    boolean toAssociate =
+        !FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(srcState) &&
+            FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(dstState);
+    boolean toDisassociate =
+        FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(srcState) &&
+            !FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(dstState);
+    boolean toLive =
+        !FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(srcState) &&
+            FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(dstState);
+    boolean toNotLive =
+        FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(srcState) &&
+            !FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(dstState);
+
+    // Modify the copy of the published FrameworkStatus, so the lock free readers never see it partially modified
+    FrameworkStatus frameworkStatus = YamlUtils.deepCopy(srcFrameworkStatus, FrameworkStatus.class);
+
+    if (toAssociate) {
       assert (event.getApplicationContext() != null);
-
-      String applicationId = event.getApplicationContext().getApplicationId().toString();
-      try {
-        associateFrameworkWithApplication(frameworkName, event.getApplicationContext());
-        LOGGER.logInfo("Associated Framework [%s] with Application %s", frameworkName, applicationId);
-      } catch (Exception e) {
-        disassociateFrameworkWithApplication(frameworkName);
-        throw new Exception(
-            String.format("Failed to associate Application %s to Framework [%s]",
-                applicationId, frameworkName), e);
-      }
-    }
-
-    if (!FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(srcState) &&
-        FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(dstState)) {
-      updateExtensionFrameworkStatusWithApplicationLiveness(frameworkName, true);
-    }
-
-    if (FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(srcState) &&
-        !FrameworkStateDefinition.APPLICATION_LIVE_ASSOCIATED_STATES.contains(dstState)) {
-      updateExtensionFrameworkStatusWithApplicationLiveness(frameworkName, false);
+      associateFrameworkWithApplication(frameworkStatus, event.getApplicationContext());
     }
 
-    if (FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(srcState) &&
-        !FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(dstState)) {
-      disassociateFrameworkWithApplication(frameworkName);
+    if (toDisassociate) {
+      disassociateFrameworkWithApplication(frameworkStatus);
     }
 
     if (dstState == FrameworkState.APPLICATION_RETRIEVING_DIAGNOSTICS ||
@@ -459,7 +582,7 @@ public synchronized void transitionFrameworkState(
     // Framework will be Retried
     if (srcState == FrameworkState.APPLICATION_COMPLETED && dstState == FrameworkState.FRAMEWORK_WAITING) {
       // Cleanup previous Application level external resource [ZK]
-      zkStore.deleteFrameworkStatus(frameworkName, true);
+      deleteFrameworkStatus(frameworkName, true);
 
       // Ensure transitionFrameworkState and RetryPolicyState is Transactional
       assert (event.getNewRetryPolicyState() != null);
@@ -477,12 +600,40 @@ public synchronized void transitionFrameworkState(
     }
 
     // Start Transition
-    frameworkStateLocators.get(srcState).remove(frameworkName);
-    frameworkStateLocators.get(dstState).add(frameworkName);
     frameworkStatus.setFrameworkState(dstState);
 
+    // Update Mem Status
+    // Destruct ExtensionStatus of the src FrameworkStatus before it is replaced
+    String srcApplicationId = srcFrameworkStatus.getApplicationId();
+    if (toNotLive) {
+      updateExtensionFrameworkStatusWithApplicationLiveness(frameworkName, false);
+    }
+    if (toDisassociate) {
+      associatedApplicationIdLocators.remove(srcApplicationId);
+    }
+
+    // Publish the dst FrameworkStatus, and move its FrameworkState locator atomically to the readers
+    long stamp = frameworkStateLocatorsLock.writeLock();
+    try {
+      frameworkStateLocators.get(dstState).add(frameworkName);
+      frameworkStatuses.put(frameworkName, frameworkStatus);
+      frameworkStateLocators.get(srcState).remove(frameworkName);
+    } finally {
+      frameworkStateLocatorsLock.unlockWrite(stamp);
+    }
+
+    // Construct ExtensionStatus of the dst FrameworkStatus after it is published
+    if (toAssociate) {
+      associatedApplicationIdLocators.put(frameworkStatus.getApplicationId(), frameworkName);
+      LOGGER.logInfo("Associated Framework [%s] with Application %s",
+          frameworkName, frameworkStatus.getApplicationId());
+    }
+    if (toLive) {
+      updateExtensionFrameworkStatusWithApplicationLiveness(frameworkName, true);
+    }
+
     // Update ZK Status
-    zkStore.setFrameworkStatus(frameworkName, frameworkStatus);
+    setFrameworkStatus(frameworkName, frameworkStatus);
     LOGGER.logInfo("Transitioned Framework [%s] from [%s] to [%s]", frameworkName, srcState, dstState);
   }
 
@@ -525,7 +676,8 @@ public synchronized void updateFrameworkRequests(Map<String, FrameworkRequest> f
   }
 
   public synchronized void updateApplicationStatus(String frameworkName, ApplicationReport applicationReport) throws Exception {
-    FrameworkStatus frameworkStatus = getFrameworkStatus(frameworkName);
+    // Modify the copy of the published FrameworkStatus, so the lock free readers never see it partially modified
+    FrameworkStatus frameworkStatus = YamlUtils.deepCopy(getFrameworkStatus(frameworkName), FrameworkStatus.class);
     String applicationId = applicationReport.getApplicationId().toString();
     String logPrefix = String.format(
         "[%s][%s]: UpdateFrameworkStatus: ", frameworkName, frameworkStatus.getApplicationId());
@@ -554,7 +706,26 @@ public synchronized void updateApplicationStatus(String frameworkName, Applicati
     }
 
     if (frameworkStatusChanged) {
-      zkStore.setFrameworkStatus(frameworkName, frameworkStatus);
+      frameworkStatuses.put(frameworkName, frameworkStatus);
+      setFrameworkStatus(frameworkName, frameworkStatus);
     }
   }
+
+  // Commit all the changed FrameworkStatuses to ZK in batches.
+  // It must be called before any side effect which the Recovery relies on the committed FrameworkStatus
+  // to recognize, such as submitting the Application associated in the FrameworkStatus.
+  public synchronized void commitFrameworkStatuses() throws Exception {
+    if (uncommittedFrameworkStatuses.isEmpty()) {
+      return;
+    }
+
+    long start = System.currentTimeMillis();
+    int frameworkCount = uncommittedFrameworkStatuses.size();
+    // All of them are kept uncommitted if failed, since Set is idempotent
+    zkStore.setFrameworkStatuses(uncommittedFrameworkStatuses);
+    uncommittedFrameworkStatuses.clear();
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("Committed %s FrameworkStatuses in %sms", frameworkCount, end - start);
+  }
 }
\ No newline at end of file
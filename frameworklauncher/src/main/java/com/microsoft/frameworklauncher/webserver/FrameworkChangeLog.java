@@ -0,0 +1,125 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+
+// Record which Frameworks are changed in which ResourceVersion, so that the Watch Requests can be
+// answered by the changes after their ResourceVersions, instead of the full list of Frameworks.
+// The ResourceVersion starts from the current time, so that it is still increasing across
+// WebServer restarts, as long as it is increased less than once per millisecond.
+public class FrameworkChangeLog { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(FrameworkChangeLog.class);
+
+  // Only the changes in recent versions are retained, the older ResourceVersions need full list
+  private static final int MAX_RETAINED_VERSIONS = 10000;
+
+  private long resourceVersion = System.currentTimeMillis();
+  // ResourceVersion -> Changed FrameworkNames in the ResourceVersion
+  private final TreeMap<Long, Set<String>> changes = new TreeMap<>();
+  // Bound the Watch Requests which are waiting for the changes
+  private final Semaphore watchPermits;
+
+  public FrameworkChangeLog(int maxWatchConcurrency) {
+    this.watchPermits = new Semaphore(maxWatchConcurrency);
+  }
+
+  public static class Changes {
+    // All changes until the ResourceVersion are included
+    private final long resourceVersion;
+    // Null means the changes are unknown, so the full list is needed
+    private final Set<String> frameworkNames;
+
+    private Changes(long resourceVersion, Set<String> frameworkNames) {
+      this.resourceVersion = resourceVersion;
+      this.frameworkNames = frameworkNames;
+    }
+
+    public long getResourceVersion() {
+      return resourceVersion;
+    }
+
+    public Set<String> getFrameworkNames() {
+      return frameworkNames;
+    }
+  }
+
+  public synchronized long getResourceVersion() {
+    return resourceVersion;
+  }
+
+  public synchronized void onFrameworksChanged(Collection<String> frameworkNames) {
+    if (frameworkNames.isEmpty()) {
+      return;
+    }
+
+    resourceVersion++;
+    changes.put(resourceVersion, new HashSet<>(frameworkNames));
+    while (changes.size() > MAX_RETAINED_VERSIONS) {
+      changes.pollFirstEntry();
+    }
+
+    LOGGER.logDebug("ResourceVersion %s: %s Frameworks changed",
+        resourceVersion, frameworkNames.size());
+    notifyAll();
+  }
+
+  // Get the changed FrameworkNames after the given ResourceVersion.
+  // Null ResourceVersion or not retained ResourceVersion means the full list is needed.
+  public synchronized Changes getChanges(Long sinceResourceVersion) {
+    if (sinceResourceVersion == null || sinceResourceVersion > resourceVersion) {
+      return new Changes(resourceVersion, null);
+    }
+    if (sinceResourceVersion == resourceVersion) {
+      return new Changes(resourceVersion, Collections.emptySet());
+    }
+    if (changes.isEmpty() || sinceResourceVersion < changes.firstKey() - 1) {
+      return new Changes(resourceVersion, null);
+    }
+
+    Set<String> frameworkNames = new HashSet<>();
+    for (Set<String> versionFrameworkNames : changes.tailMap(sinceResourceVersion, false).values()) {
+      frameworkNames.addAll(versionFrameworkNames);
+    }
+    return new Changes(resourceVersion, frameworkNames);
+  }
+
+  // Return false if there are too many Watch Requests, otherwise the caller must call releaseWatch finally
+  public Boolean tryAcquireWatch() {
+    return watchPermits.tryAcquire();
+  }
+
+  public void releaseWatch() {
+    watchPermits.release();
+  }
+
+  // Wait until the ResourceVersion is increased beyond the given one, or timeout
+  public synchronized void waitChanges(long sinceResourceVersion, long timeoutMs) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    while (resourceVersion <= sinceResourceVersion) {
+      long remainingMs = deadline - System.currentTimeMillis();
+      if (remainingMs <= 0) {
+        return;
+      }
+      wait(remainingMs);
+    }
+  }
+}
@@ -58,39 +58,59 @@ public Response toResponse(Exception e) {
 
     // Map response status
     String logPrefix = "Http request failed due to: ";
-    final int statusCode;
+    final int statusCode = toStatusCode(e);
+    if (statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+      LOGGER.logWarning(e, logPrefix + toReason(statusCode));
+    } else {
+      LOGGER.logInfo(e, logPrefix + toReason(statusCode));
+    }
+
+    // let jaxb handle marshalling data out in the same format requested
+    RemoteExceptionData exception = new RemoteExceptionData(
+        e.getClass().getSimpleName(),
+        StringUtils.stringifyException(e),
+        e.getClass().getName());
+
+    return Response.status(statusCode).entity(exception)
+        .build();
+  }
+
+  // Also used to map the failure of each Framework within a batch request
+  public static int toStatusCode(Exception e) {
     if (e instanceof SecurityException) {
-      LOGGER.logInfo(e, logPrefix + "Unauthorized");
-      statusCode = HttpStatus.SC_UNAUTHORIZED;
+      return HttpStatus.SC_UNAUTHORIZED;
     } else if (e instanceof AuthorizationException) {
-      LOGGER.logInfo(e, logPrefix + "Forbidden");
-      statusCode = HttpStatus.SC_FORBIDDEN;
+      return HttpStatus.SC_FORBIDDEN;
     } else if (e instanceof NotFoundException ||
         e instanceof FileNotFoundException) {
-      LOGGER.logInfo(e, logPrefix + "Not Found");
-      statusCode = HttpStatus.SC_NOT_FOUND;
+      return HttpStatus.SC_NOT_FOUND;
     } else if (e instanceof ThrottledRequestException) {
-      LOGGER.logInfo(e, logPrefix + "Throttled Request");
-      statusCode = WebCommon.SC_TOO_MANY_REQUESTS;
+      return WebCommon.SC_TOO_MANY_REQUESTS;
     } else if (e instanceof BadRequestException ||
         e instanceof JsonProcessingException ||
         e instanceof WebApplicationException ||
         e instanceof IllegalArgumentException ||
         e instanceof UnsupportedOperationException) {
-      LOGGER.logInfo(e, logPrefix + "Bad Request");
-      statusCode = HttpStatus.SC_BAD_REQUEST;
+      return HttpStatus.SC_BAD_REQUEST;
     } else {
-      LOGGER.logWarning(e, logPrefix + "Service Unavailable");
-      statusCode = HttpStatus.SC_SERVICE_UNAVAILABLE;
+      return HttpStatus.SC_SERVICE_UNAVAILABLE;
     }
+  }
 
-    // let jaxb handle marshalling data out in the same format requested
-    RemoteExceptionData exception = new RemoteExceptionData(
-        e.getClass().getSimpleName(),
-        StringUtils.stringifyException(e),
-        e.getClass().getName());
-
-    return Response.status(statusCode).entity(exception)
-        .build();
+  private static String toReason(int statusCode) {
+    switch (statusCode) {
+      case HttpStatus.SC_UNAUTHORIZED:
+        return "Unauthorized";
+      case HttpStatus.SC_FORBIDDEN:
+        return "Forbidden";
+      case HttpStatus.SC_NOT_FOUND:
+        return "Not Found";
+      case WebCommon.SC_TOO_MANY_REQUESTS:
+        return "Throttled Request";
+      case HttpStatus.SC_BAD_REQUEST:
+        return "Bad Request";
+      default:
+        return "Service Unavailable";
+    }
   }
 }
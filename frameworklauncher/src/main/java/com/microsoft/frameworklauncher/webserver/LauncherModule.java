@@ -21,9 +21,14 @@
 import com.microsoft.frameworklauncher.common.GlobalConstants;
 import com.microsoft.frameworklauncher.common.exceptions.AuthorizationException;
 import com.microsoft.frameworklauncher.common.exceptions.BadRequestException;
+import com.microsoft.frameworklauncher.common.exceptions.ThrottledRequestException;
 import com.microsoft.frameworklauncher.common.exts.CommonExts;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.service.AdmissionController;
+import com.microsoft.frameworklauncher.common.service.MeteredExecutor;
+import com.microsoft.frameworklauncher.common.service.SystemTaskQueue;
+import com.microsoft.frameworklauncher.common.utils.HadoopUtils;
 import com.microsoft.frameworklauncher.common.validation.CommonValidation;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
 import com.microsoft.frameworklauncher.common.web.WebStructure;
@@ -32,13 +37,9 @@
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.*;
-import javax.ws.rs.core.Context;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import javax.ws.rs.core.*;
+import java.util.*;
+import java.util.concurrent.Callable;
 
 @Path("/")
 public class LauncherModule {
@@ -46,12 +47,19 @@ public class LauncherModule {
   private final LauncherConfiguration conf;
   private final StatusManager statusManager;
   private final RequestManager requestManager;
+  private final FrameworkChangeLog frameworkChangeLog;
+  private final SummarizedFrameworkInfoCache sFrameworkInfoCache;
 
   @Inject
-  public LauncherModule(LauncherConfiguration conf, StatusManager statusManager, RequestManager requestManager) {
+  public LauncherModule(
+      LauncherConfiguration conf, StatusManager statusManager,
+      RequestManager requestManager, FrameworkChangeLog frameworkChangeLog,
+      SummarizedFrameworkInfoCache sFrameworkInfoCache) {
     this.conf = conf;
     this.statusManager = statusManager;
     this.requestManager = requestManager;
+    this.frameworkChangeLog = frameworkChangeLog;
+    this.sFrameworkInfoCache = sFrameworkInfoCache;
   }
 
   private static LaunchClientType getLaunchClientType(
@@ -96,6 +104,87 @@ private static Boolean getBoolean(
     return Boolean.valueOf(booleanStr);
   }
 
+  private static Integer getInteger(
+      CommonExts.NoExceptionCallable<String> ResolveInteger) throws BadRequestException {
+    String integerStr = ResolveInteger.call();
+    if (integerStr == null) {
+      return null;
+    }
+
+    try {
+      return Integer.valueOf(integerStr);
+    } catch (NumberFormatException e) {
+      throw new BadRequestException(String.format(
+          "Failed to ParseIntegerStr: [%s]", integerStr), e);
+    }
+  }
+
+  private static <T extends Enum<T>> T getEnum(
+      Class<T> enumClass, CommonExts.NoExceptionCallable<String> ResolveEnumStr) throws BadRequestException {
+    String enumStr = ResolveEnumStr.call();
+    if (enumStr == null) {
+      return null;
+    }
+
+    try {
+      return Enum.valueOf(enumClass, enumStr);
+    } catch (Exception e) {
+      throw new BadRequestException(String.format(
+          "Failed to Parse%sStr: [%s]", enumClass.getSimpleName(), enumStr), e);
+    }
+  }
+
+  // Multiple values are separated by REQUEST_PARAM_VALUE_SEPARATOR
+  private static <T extends Enum<T>> Set<T> getEnumSet(
+      Class<T> enumClass, CommonExts.NoExceptionCallable<String> ResolveEnumSetStr) throws BadRequestException {
+    String enumSetStr = ResolveEnumSetStr.call();
+    if (enumSetStr == null) {
+      return null;
+    }
+
+    Set<T> enumSet = EnumSet.noneOf(enumClass);
+    for (String enumStr : enumSetStr.split(WebStructure.REQUEST_PARAM_VALUE_SEPARATOR)) {
+      enumSet.add(getEnum(enumClass, enumStr::trim));
+    }
+    return enumSet;
+  }
+
+  private static Long getLong(
+      CommonExts.NoExceptionCallable<String> ResolveLong) throws BadRequestException {
+    String longStr = ResolveLong.call();
+    if (longStr == null) {
+      return null;
+    }
+
+    try {
+      return Long.valueOf(longStr);
+    } catch (NumberFormatException e) {
+      throw new BadRequestException(String.format(
+          "Failed to ParseLongStr: [%s]", longStr), e);
+    }
+  }
+
+  // Respond NotModified without getting the entity if the ETag matches the If-None-Match of the Request.
+  // Null ETag means it is unknown, so the entity is always responded without ETag.
+  // The entity is serialized by streaming into the Response, which is also GZIP compressed if the
+  // Request accepts it, so the Response Varies by Accept-Encoding for the same ETag, and the ETag is
+  // weak since the GZIP and identity encoded Responses are only semantically equivalent.
+  private static Response getConditionalResponse(
+      Request request, String eTag, Callable<Object> entityGetter) throws Exception {
+    Response.ResponseBuilder responseBuilder;
+    if (eTag == null) {
+      responseBuilder = Response.ok(entityGetter.call());
+    } else {
+      EntityTag entityTag = new EntityTag(eTag, true);
+      responseBuilder = request.evaluatePreconditions(entityTag);
+      if (responseBuilder == null) {
+        responseBuilder = Response.ok(entityGetter.call());
+      }
+      responseBuilder.tag(entityTag);
+    }
+    return responseBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+  }
+
   private void checkWritableAccess(
       HttpServletRequest hsr) throws Exception {
     checkWritableAccess(hsr, null, null);
@@ -178,6 +267,68 @@ private Set<UserDescriptor> getAdminUsers(
     return adminUsers;
   }
 
+  private FrameworkRequest newFrameworkRequest(
+      HttpServletRequest hsr, String frameworkName,
+      FrameworkDescriptor frameworkDescriptor, String logPrefix) throws Exception {
+    // Get LaunchClientType
+    LaunchClientType clientType = getLaunchClientType(() ->
+        hsr.getHeader(WebCommon.REQUEST_HEADER_LAUNCH_CLIENT_TYPE));
+    if (clientType == null) {
+      clientType = LaunchClientType.UNKNOWN;
+      LOGGER.logDebug(logPrefix +
+              "Failed to Get LaunchClientType, using its default value: [%s]",
+          clientType);
+    }
+
+    // Get LaunchClientHostName
+    String clientHostName = hsr.getRemoteHost();
+    if (clientHostName == null) {
+      clientHostName = "UNKNOWN";
+      LOGGER.logDebug(logPrefix +
+              "Failed to Get LaunchClientHostName, using its default value: [%s]",
+          clientHostName);
+    }
+
+    // Get LaunchClientUserName
+    String clientUserName = hsr.getRemoteUser();
+    if (clientUserName == null) {
+      clientUserName = "UNKNOWN";
+      LOGGER.logDebug(logPrefix +
+              "Failed to Get LaunchClientUserName, using its default value: [%s]",
+          clientUserName);
+    }
+
+    // Request
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    frameworkRequest.setLaunchClientType(clientType);
+    frameworkRequest.setLaunchClientHostName(clientHostName);
+    frameworkRequest.setLaunchClientUserName(clientUserName);
+    return frameworkRequest;
+  }
+
+  private static FrameworkOperationResults toFrameworkOperationResults(
+      Collection<String> frameworkNames, Map<String, Exception> rejectedFrameworks) {
+    List<FrameworkOperationResult> resultList = new ArrayList<>();
+    for (String frameworkName : frameworkNames) {
+      FrameworkOperationResult result = new FrameworkOperationResult();
+      result.setFrameworkName(frameworkName);
+      Exception rejectedReason = rejectedFrameworks.get(frameworkName);
+      if (rejectedReason == null) {
+        result.setStatusCode(HttpStatus.SC_ACCEPTED);
+      } else {
+        result.setStatusCode(LauncherExceptionHandler.toStatusCode(rejectedReason));
+        result.setMessage(rejectedReason.getMessage());
+      }
+      resultList.add(result);
+    }
+
+    FrameworkOperationResults results = new FrameworkOperationResults();
+    results.setFrameworkOperationResults(resultList);
+    return results;
+  }
+
   @GET
   @Path(WebStructure.ROOT_PATH)
   @Produces({MediaType.TEXT_PLAIN})
@@ -199,6 +350,18 @@ public LauncherStatus getLauncherStatus() {
     return statusManager.getLauncherStatus();
   }
 
+  @GET
+  @Path(WebStructure.METRICS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public LauncherMetrics getMetrics() {
+    LauncherMetrics metrics = new LauncherMetrics();
+    metrics.setSystemTaskQueueMetrics(SystemTaskQueue.getAllMetrics());
+    metrics.setMeteredExecutorMetrics(MeteredExecutor.getAllMetrics());
+    metrics.setYarnClientPoolMetrics(HadoopUtils.getYarnClientPoolMetrics());
+    metrics.setAdmissionControllerMetrics(AdmissionController.getAllMetrics());
+    return metrics;
+  }
+
   @GET
   @Path(WebStructure.LAUNCHER_REQUEST_PATH)
   @Produces({MediaType.APPLICATION_JSON})
@@ -285,24 +448,173 @@ public AclConfiguration getAclConfiguration(
   @GET
   @Path(WebStructure.FRAMEWORK_ROOT_PATH)
   @Produces({MediaType.APPLICATION_JSON})
-  public SummarizedFrameworkInfos getFrameworks(@Context HttpServletRequest hsr) throws Exception {
+  public Response getFrameworks(
+      @Context HttpServletRequest hsr,
+      @Context Request request) throws Exception {
+    GetFrameworksRequest getFrameworksRequest = new GetFrameworksRequest();
+    getFrameworksRequest.setLaunchClientType(getLaunchClientType(() ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_LAUNCH_CLIENT_TYPE)));
+    getFrameworksRequest.setUserName(getName(() ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_USER_NAME)));
+    getFrameworksRequest.setQueue(
+        hsr.getParameter(WebStructure.REQUEST_PARAM_QUEUE));
+    getFrameworksRequest.setFrameworkStates(getEnumSet(FrameworkState.class, () ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_FRAMEWORK_STATE)));
+    getFrameworksRequest.setSortBy(getEnum(FrameworkSortKey.class, () ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_SORT_BY)));
+    getFrameworksRequest.setDescending(getBoolean(() ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_DESCENDING)));
+    getFrameworksRequest.setPageSize(getInteger(() ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_PAGE_SIZE)));
+    getFrameworksRequest.setContinuationToken(
+        hsr.getParameter(WebStructure.REQUEST_PARAM_CONTINUATION_TOKEN));
+    CommonValidation.validate(getFrameworksRequest);
+
+    // Answer by the cached Response if no Framework changed since it was cached
+    long resourceVersion = sFrameworkInfoCache.refresh();
+    String queryKey = SummarizedFrameworkInfoCache.getQueryKey(getFrameworksRequest);
+    return getConditionalResponse(request, String.format("V%s", resourceVersion), () -> {
+      byte[] responseBody = sFrameworkInfoCache.getResponse(queryKey, resourceVersion);
+      if (responseBody == null) {
+        responseBody = sFrameworkInfoCache.putResponse(
+            queryKey, resourceVersion, getFrameworks(getFrameworksRequest));
+      }
+      return responseBody;
+    });
+  }
+
+  private SummarizedFrameworkInfos getFrameworks(GetFrameworksRequest getFrameworksRequest) throws Exception {
+    LaunchClientType clientType = getFrameworksRequest.getLaunchClientType();
+    String userName = getFrameworksRequest.getUserName();
+    String queue = getFrameworksRequest.getQueue();
+    Set<FrameworkState> frameworkStates = getFrameworksRequest.getFrameworkStates();
+
+    Collection<FrameworkRequest> frameworkRequests;
+    if (frameworkStates != null && !frameworkStates.contains(FrameworkState.FRAMEWORK_WAITING)) {
+      // Only start from the FrameworkState index if it covers all the FrameworkStates, since the
+      // FRAMEWORK_WAITING Frameworks may be inferred from the Requests, which are not in the index.
+      frameworkRequests = requestManager.getFrameworkRequests(
+          statusManager.getFrameworkNames(frameworkStates), clientType, userName, queue).values();
+    } else {
+      frameworkRequests = requestManager.getFrameworkRequests(clientType, userName, queue);
+    }
+
+    List<SummarizedFrameworkInfo> sFrameworkInfoList = new ArrayList<>();
+    for (FrameworkRequest frameworkRequest : frameworkRequests) {
+      if (frameworkRequest == null) {
+        // Framework is already deleted.
+        continue;
+      }
+
+      SummarizedFrameworkInfo sFrameworkInfo =
+          sFrameworkInfoCache.getSummarizedFrameworkInfo(frameworkRequest.getFrameworkName());
+      if (sFrameworkInfo == null) {
+        // Framework is added after the last refresh, so it will be returned after the next refresh.
+        continue;
+      }
+      if (frameworkStates != null && !frameworkStates.contains(sFrameworkInfo.getFrameworkState())) {
+        continue;
+      }
+      sFrameworkInfoList.add(sFrameworkInfo);
+    }
+
+    FrameworkSortKey sortBy = getFrameworksRequest.getSortBy();
+    Boolean descending = getFrameworksRequest.getDescending();
+    Integer pageSize = getFrameworksRequest.getPageSize();
+    String continuationToken = getFrameworksRequest.getContinuationToken();
+    if (sortBy == null && descending == null && pageSize == null && continuationToken == null) {
+      // Keep the unsorted full list for the Client which does not page
+      SummarizedFrameworkInfos sFrameworkInfos = new SummarizedFrameworkInfos();
+      sFrameworkInfos.setSummarizedFrameworkInfos(sFrameworkInfoList);
+      return sFrameworkInfos;
+    }
+
+    return SummarizedFrameworkInfoPager.getPage(sFrameworkInfoList,
+        (sortBy == null ? FrameworkSortKey.FRAMEWORK_NAME : sortBy),
+        (descending == null ? false : descending),
+        pageSize, continuationToken);
+  }
+
+  // Long poll the changes of the Frameworks matching the filter after the given ResourceVersion.
+  // The Request is blocked until any of them changed, or webServerWatchTimeoutSec elapsed.
+  // Without ResourceVersion, the full list of them is returned immediately.
+  @GET
+  @Path(WebStructure.WATCH_FRAMEWORKS_PATH)
+  @Produces({MediaType.APPLICATION_JSON})
+  public SummarizedFrameworkInfoChanges watchFrameworks(@Context HttpServletRequest hsr) throws Exception {
+    Long resourceVersion = getLong(() ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_RESOURCE_VERSION));
+    String frameworkName = getName(() ->
+        hsr.getParameter(WebStructure.REQUEST_PARAM_FRAMEWORK_NAME));
     LaunchClientType clientType = getLaunchClientType(() ->
         hsr.getParameter(WebStructure.REQUEST_PARAM_LAUNCH_CLIENT_TYPE));
     String userName = getName(() ->
         hsr.getParameter(WebStructure.REQUEST_PARAM_USER_NAME));
 
-    List<FrameworkRequest> frameworkRequests =
-        requestManager.getFrameworkRequests(clientType, userName);
+    if (!frameworkChangeLog.tryAcquireWatch()) {
+      throw new ThrottledRequestException(String.format(
+          "watchFrameworks Rejected: Since there are already %s Watch Requests",
+          conf.getWebServerWatchMaxConcurrency()));
+    }
+
+    try {
+      long deadline = System.currentTimeMillis() + conf.getWebServerWatchTimeoutSec() * 1000L;
+      while (true) {
+        FrameworkChangeLog.Changes changes = frameworkChangeLog.getChanges(resourceVersion);
+        SummarizedFrameworkInfoChanges sFrameworkInfoChanges =
+            getFrameworkChanges(changes, frameworkName, clientType, userName);
+        long remainingMs = deadline - System.currentTimeMillis();
+        if (sFrameworkInfoChanges.getFullList() ||
+            !sFrameworkInfoChanges.getSummarizedFrameworkInfos().isEmpty() ||
+            !sFrameworkInfoChanges.getDeletedFrameworkNames().isEmpty() ||
+            remainingMs <= 0) {
+          return sFrameworkInfoChanges;
+        }
+
+        // None of the changes is watched, so continue to wait from the latest ResourceVersion
+        resourceVersion = changes.getResourceVersion();
+        frameworkChangeLog.waitChanges(resourceVersion, remainingMs);
+      }
+    } finally {
+      frameworkChangeLog.releaseWatch();
+    }
+  }
+
+  private SummarizedFrameworkInfoChanges getFrameworkChanges(
+      FrameworkChangeLog.Changes changes, String frameworkName,
+      LaunchClientType clientType, String userName) throws Exception {
+    Set<String> changedFrameworkNames = changes.getFrameworkNames();
+    Map<String, FrameworkRequest> frameworkRequests = new HashMap<>();
+    if (changedFrameworkNames == null) {
+      for (FrameworkRequest frameworkRequest : requestManager.getFrameworkRequests(clientType, userName, null)) {
+        frameworkRequests.put(frameworkRequest.getFrameworkName(), frameworkRequest);
+      }
+    } else {
+      frameworkRequests = requestManager.getFrameworkRequests(changedFrameworkNames, clientType, userName, null);
+    }
 
     List<SummarizedFrameworkInfo> sFrameworkInfoList = new ArrayList<>();
-    for (FrameworkRequest frameworkRequest : frameworkRequests) {
-      FrameworkStatus frameworkStatus = statusManager.getFrameworkStatus(frameworkRequest);
-      sFrameworkInfoList.add(SummarizedFrameworkInfo.newInstance(frameworkRequest, frameworkStatus));
+    List<String> deletedFrameworkNames = new ArrayList<>();
+    for (Map.Entry<String, FrameworkRequest> entry : frameworkRequests.entrySet()) {
+      if (frameworkName != null && !frameworkName.equals(entry.getKey())) {
+        continue;
+      }
+
+      FrameworkRequest frameworkRequest = entry.getValue();
+      if (frameworkRequest == null) {
+        deletedFrameworkNames.add(entry.getKey());
+      } else {
+        FrameworkStatus frameworkStatus = statusManager.getFrameworkStatus(frameworkRequest);
+        sFrameworkInfoList.add(SummarizedFrameworkInfo.newInstance(frameworkRequest, frameworkStatus));
+      }
     }
 
-    SummarizedFrameworkInfos sFrameworkInfos = new SummarizedFrameworkInfos();
-    sFrameworkInfos.setSummarizedFrameworkInfos(sFrameworkInfoList);
-    return sFrameworkInfos;
+    SummarizedFrameworkInfoChanges sFrameworkInfoChanges = new SummarizedFrameworkInfoChanges();
+    sFrameworkInfoChanges.setResourceVersion(changes.getResourceVersion());
+    sFrameworkInfoChanges.setFullList(changedFrameworkNames == null);
+    sFrameworkInfoChanges.setSummarizedFrameworkInfos(sFrameworkInfoList);
+    sFrameworkInfoChanges.setDeletedFrameworkNames(deletedFrameworkNames);
+    return sFrameworkInfoChanges;
   }
 
   @PUT
@@ -320,46 +632,51 @@ public Response putFramework(
     CommonValidation.validate(frameworkDescriptor);
     checkWritableAccess(hsr, frameworkName, frameworkDescriptor.getUser());
 
-    // Get LaunchClientType
-    LaunchClientType clientType = getLaunchClientType(() ->
-        hsr.getHeader(WebCommon.REQUEST_HEADER_LAUNCH_CLIENT_TYPE));
-    if (clientType == null) {
-      clientType = LaunchClientType.UNKNOWN;
-      LOGGER.logDebug(logPrefix +
-              "Failed to Get LaunchClientType, using its default value: [%s]",
-          clientType);
-    }
+    FrameworkRequest frameworkRequest = newFrameworkRequest(hsr, frameworkName, frameworkDescriptor, logPrefix);
+    requestManager.setFrameworkRequest(frameworkRequest.getFrameworkName(), frameworkRequest);
+    return Response
+        .status(HttpStatus.SC_ACCEPTED)
+        .header("Location", hsr.getRequestURL())
+        .build();
+  }
 
-    // Get LaunchClientHostName
-    String clientHostName = hsr.getRemoteHost();
-    if (clientHostName == null) {
-      clientHostName = "UNKNOWN";
-      LOGGER.logDebug(logPrefix +
-              "Failed to Get LaunchClientHostName, using its default value: [%s]",
-          clientHostName);
+  // Each Framework in the batch is validated, authorized and Set individually, so the Response is
+  // SC_ACCEPTED with the result of each Framework, unless the whole batch is rejected.
+  @POST
+  @Path(WebStructure.PUT_FRAMEWORKS_PATH)
+  @Consumes({MediaType.APPLICATION_JSON})
+  @Produces({MediaType.APPLICATION_JSON})
+  public Response putFrameworks(
+      @Context HttpServletRequest hsr,
+      PutFrameworksRequest putFrameworksRequest) throws Exception {
+    CommonValidation.validate(putFrameworksRequest);
+    Map<String, FrameworkDescriptor> frameworkDescriptors = putFrameworksRequest.getFrameworkDescriptors();
+    LOGGER.logInfo("putFrameworks: Started with %s Frameworks", frameworkDescriptors.size());
+
+    Map<String, Exception> rejectedFrameworks = new HashMap<>();
+    Map<String, FrameworkRequest> frameworkRequests = new LinkedHashMap<>();
+    for (Map.Entry<String, FrameworkDescriptor> entry : frameworkDescriptors.entrySet()) {
+      String frameworkName = entry.getKey();
+      FrameworkDescriptor frameworkDescriptor = entry.getValue();
+      String logPrefix = String.format("[%s]: putFrameworks: ", frameworkName);
+      try {
+        CommonValidation.validate(frameworkName);
+        CommonValidation.validate(frameworkDescriptor);
+        checkWritableAccess(hsr, frameworkName, frameworkDescriptor.getUser());
+        frameworkRequests.put(frameworkName,
+            newFrameworkRequest(hsr, frameworkName, frameworkDescriptor, logPrefix));
+      } catch (Exception e) {
+        LOGGER.logInfo(e, logPrefix + "Rejected");
+        rejectedFrameworks.put(frameworkName, e);
+      }
     }
 
-    // Get LaunchClientUserName
-    String clientUserName = hsr.getRemoteUser();
-    if (clientUserName == null) {
-      clientUserName = "UNKNOWN";
-      LOGGER.logDebug(logPrefix +
-              "Failed to Get LaunchClientUserName, using its default value: [%s]",
-          clientUserName);
+    if (!frameworkRequests.isEmpty()) {
+      rejectedFrameworks.putAll(requestManager.setFrameworkRequests(frameworkRequests));
     }
-
-    // Request
-    FrameworkRequest frameworkRequest = new FrameworkRequest();
-    frameworkRequest.setFrameworkName(frameworkName);
-    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
-    frameworkRequest.setLaunchClientType(clientType);
-    frameworkRequest.setLaunchClientHostName(clientHostName);
-    frameworkRequest.setLaunchClientUserName(clientUserName);
-
-    requestManager.setFrameworkRequest(frameworkRequest.getFrameworkName(), frameworkRequest);
     return Response
         .status(HttpStatus.SC_ACCEPTED)
-        .header("Location", hsr.getRequestURL())
+        .entity(toFrameworkOperationResults(frameworkDescriptors.keySet(), rejectedFrameworks))
         .build();
   }
 
@@ -448,6 +765,39 @@ public Response deleteFramework(
         .build();
   }
 
+  @POST
+  @Path(WebStructure.DELETE_FRAMEWORKS_PATH)
+  @Consumes({MediaType.APPLICATION_JSON})
+  @Produces({MediaType.APPLICATION_JSON})
+  public Response deleteFrameworks(
+      @Context HttpServletRequest hsr,
+      DeleteFrameworksRequest deleteFrameworksRequest) throws Exception {
+    CommonValidation.validate(deleteFrameworksRequest);
+    List<String> frameworkNames = deleteFrameworksRequest.getFrameworkNames();
+    LOGGER.logInfo("deleteFrameworks: Started with %s Frameworks", frameworkNames.size());
+
+    Map<String, Exception> rejectedFrameworks = new HashMap<>();
+    Set<String> acceptedFrameworkNames = new LinkedHashSet<>();
+    for (String frameworkName : frameworkNames) {
+      try {
+        CommonValidation.validate(frameworkName);
+        checkWritableAccess(hsr, frameworkName);
+        acceptedFrameworkNames.add(frameworkName);
+      } catch (Exception e) {
+        LOGGER.logInfo(e, "[%s]: deleteFrameworks: Rejected", frameworkName);
+        rejectedFrameworks.put(frameworkName, e);
+      }
+    }
+
+    if (!acceptedFrameworkNames.isEmpty()) {
+      requestManager.deleteFrameworkRequests(acceptedFrameworkNames);
+    }
+    return Response
+        .status(HttpStatus.SC_ACCEPTED)
+        .entity(toFrameworkOperationResults(frameworkNames, rejectedFrameworks))
+        .build();
+  }
+
   @DELETE
   @Path(WebStructure.MIGRATE_TASK_PATH)
   public Response deleteMigrateTask(
@@ -468,62 +818,83 @@ public Response deleteMigrateTask(
   @GET
   @Path(WebStructure.FRAMEWORK_PATH)
   @Produces({MediaType.APPLICATION_JSON})
-  public FrameworkInfo getFramework(
+  public Response getFramework(
+      @Context Request request,
       @PathParam(WebStructure.FRAMEWORK_NAME_PATH_PARAM) String frameworkName)
       throws Exception {
-    AggregatedFrameworkRequest aggFrameworkRequest =
-        requestManager.getAggregatedFrameworkRequest(frameworkName);
-    FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
-    AggregatedFrameworkStatus aggFrameworkStatus =
-        statusManager.getAggregatedFrameworkStatus(frameworkRequest);
-    FrameworkStatus frameworkStatus = aggFrameworkStatus.getFrameworkStatus();
-
-    FrameworkInfo frameworkInfo = new FrameworkInfo();
-    frameworkInfo.setSummarizedFrameworkInfo(
-        SummarizedFrameworkInfo.newInstance(frameworkRequest, frameworkStatus));
-    frameworkInfo.setAggregatedFrameworkRequest(aggFrameworkRequest);
-    frameworkInfo.setAggregatedFrameworkStatus(aggFrameworkStatus);
-
-    return frameworkInfo;
+    // The ETags are got before the entity, so that they may be older than the entity, but never newer
+    String requestETag = requestManager.getAggregatedFrameworkRequestETag(frameworkName);
+    String statusETag = statusManager.getAggregatedFrameworkStatusETag(
+        requestManager.getFrameworkRequest(frameworkName));
+    String eTag = (statusETag == null ? null : requestETag + "." + statusETag);
+
+    return getConditionalResponse(request, eTag, () -> {
+      AggregatedFrameworkRequest aggFrameworkRequest =
+          requestManager.getAggregatedFrameworkRequest(frameworkName);
+      FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
+      AggregatedFrameworkStatus aggFrameworkStatus =
+          statusManager.getAggregatedFrameworkStatus(frameworkRequest);
+      FrameworkStatus frameworkStatus = aggFrameworkStatus.getFrameworkStatus();
+
+      FrameworkInfo frameworkInfo = new FrameworkInfo();
+      frameworkInfo.setSummarizedFrameworkInfo(
+          SummarizedFrameworkInfo.newInstance(frameworkRequest, frameworkStatus));
+      frameworkInfo.setAggregatedFrameworkRequest(aggFrameworkRequest);
+      frameworkInfo.setAggregatedFrameworkStatus(aggFrameworkStatus);
+
+      return frameworkInfo;
+    });
   }
 
   @GET
   @Path(WebStructure.AGGREGATED_FRAMEWORK_STATUS_PATH)
   @Produces({MediaType.APPLICATION_JSON})
-  public AggregatedFrameworkStatus getAggregatedFrameworkStatus(
+  public Response getAggregatedFrameworkStatus(
+      @Context Request request,
       @PathParam(WebStructure.FRAMEWORK_NAME_PATH_PARAM) String frameworkName)
       throws Exception {
     FrameworkRequest frameworkRequest =
         requestManager.getFrameworkRequest(frameworkName);
-    return statusManager.getAggregatedFrameworkStatus(frameworkRequest);
+    return getConditionalResponse(request,
+        statusManager.getAggregatedFrameworkStatusETag(frameworkRequest),
+        () -> statusManager.getAggregatedFrameworkStatus(frameworkRequest));
   }
 
   @GET
   @Path(WebStructure.FRAMEWORK_STATUS_PATH)
   @Produces({MediaType.APPLICATION_JSON})
-  public FrameworkStatus getFrameworkStatus(
+  public Response getFrameworkStatus(
+      @Context Request request,
       @PathParam(WebStructure.FRAMEWORK_NAME_PATH_PARAM) String frameworkName)
       throws Exception {
     FrameworkRequest frameworkRequest =
         requestManager.getFrameworkRequest(frameworkName);
-    return statusManager.getFrameworkStatus(frameworkRequest);
+    return getConditionalResponse(request,
+        statusManager.getAggregatedFrameworkStatusETag(frameworkRequest),
+        () -> statusManager.getFrameworkStatus(frameworkRequest));
   }
 
   @GET
   @Path(WebStructure.AGGREGATED_FRAMEWORK_REQUEST_PATH)
   @Produces({MediaType.APPLICATION_JSON})
-  public AggregatedFrameworkRequest getAggregatedFrameworkRequest(
+  public Response getAggregatedFrameworkRequest(
+      @Context Request request,
       @PathParam(WebStructure.FRAMEWORK_NAME_PATH_PARAM) String frameworkName)
       throws Exception {
-    return requestManager.getAggregatedFrameworkRequest(frameworkName);
+    return getConditionalResponse(request,
+        requestManager.getAggregatedFrameworkRequestETag(frameworkName),
+        () -> requestManager.getAggregatedFrameworkRequest(frameworkName));
   }
 
   @GET
   @Path(WebStructure.FRAMEWORK_REQUEST_PATH)
   @Produces({MediaType.APPLICATION_JSON})
-  public FrameworkRequest getFrameworkRequest(
+  public Response getFrameworkRequest(
+      @Context Request request,
       @PathParam(WebStructure.FRAMEWORK_NAME_PATH_PARAM) String frameworkName)
       throws Exception {
-    return requestManager.getFrameworkRequest(frameworkName);
+    return getConditionalResponse(request,
+        requestManager.getAggregatedFrameworkRequestETag(frameworkName),
+        () -> requestManager.getFrameworkRequest(frameworkName));
   }
 }
\ No newline at end of file
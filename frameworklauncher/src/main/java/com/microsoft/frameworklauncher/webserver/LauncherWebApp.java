@@ -24,20 +24,31 @@ public class LauncherWebApp extends WebApp {
   private LauncherConfiguration conf;
   private StatusManager statusManager;
   private RequestManager requestManager;
+  private FrameworkChangeLog frameworkChangeLog;
+  private SummarizedFrameworkInfoCache sFrameworkInfoCache;
 
-  public LauncherWebApp(LauncherConfiguration conf, StatusManager statusManager, RequestManager requestManager) {
+  public LauncherWebApp(
+      LauncherConfiguration conf, StatusManager statusManager,
+      RequestManager requestManager, FrameworkChangeLog frameworkChangeLog,
+      SummarizedFrameworkInfoCache sFrameworkInfoCache) {
     this.conf = conf;
     this.statusManager = statusManager;
     this.requestManager = requestManager;
+    this.frameworkChangeLog = frameworkChangeLog;
+    this.sFrameworkInfoCache = sFrameworkInfoCache;
   }
 
   @Override
   public void setup() {
+    // The web services are already filtered by the GZIPContentEncodingFilter in the WebApp,
+    // and the JSON entities are serialized into it by streaming.
     bind(JacksonObjectMapperProvider.class);
     bind(LauncherExceptionHandler.class);
     bind(LauncherModule.class);
     bind(LauncherConfiguration.class).toInstance(conf);
     bind(StatusManager.class).toInstance(statusManager);
     bind(RequestManager.class).toInstance(requestManager);
+    bind(FrameworkChangeLog.class).toInstance(frameworkChangeLog);
+    bind(SummarizedFrameworkInfoCache.class).toInstance(sFrameworkInfoCache);
   }
 }
@@ -17,20 +17,18 @@
 
 package com.microsoft.frameworklauncher.webserver;
 
+import com.microsoft.frameworklauncher.common.GlobalConstants;
 import com.microsoft.frameworklauncher.common.exceptions.BadRequestException;
 import com.microsoft.frameworklauncher.common.exceptions.ThrottledRequestException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.zookeeper.KeeperException;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -43,7 +41,7 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
 
   private final WebServer webServer;
   private final LauncherConfiguration conf;
-  private final ZookeeperStore zkStore;
+  private final LauncherStore zkStore;
   private final ReadLock readLock;
   private final WriteLock writeLock;
 
@@ -62,12 +60,23 @@ public class RequestManager extends AbstractService {  // THREAD SAFE
    * ExtensionRequest should be always CONSISTENT with BaseRequest
    */
   private int totalTaskNumber = 0;
+  // The Frameworks changed by the current modification, which will be notified once it completed
+  private final Set<String> changedFrameworkNames = new HashSet<>();
+  // Secondary indexes of aggFrameworkRequests: UserName / LaunchClientType / Queue -> FrameworkNames
+  private final Map<String, Set<String>> userNameIndex = new HashMap<>();
+  private final Map<LaunchClientType, Set<String>> clientTypeIndex = new HashMap<>();
+  private final Map<String, Set<String>> queueIndex = new HashMap<>();
+  // FrameworkName -> The generation in which its AggregatedFrameworkRequest is last changed, as the ETag
+  private final Map<String, Long> requestGenerations = new HashMap<>();
+  // Increased for each change, and starts from the current time so that it is still increasing across
+  // WebServer restarts, then the ETags will not be reused.
+  private long requestGeneration = System.currentTimeMillis();
 
 
   /**
    * REGION AbstractService
    */
-  public RequestManager(WebServer webServer, LauncherConfiguration conf, ZookeeperStore zkStore) {
+  public RequestManager(WebServer webServer, LauncherConfiguration conf, LauncherStore zkStore) {
     super(RequestManager.class.getName());
     this.webServer = webServer;
     this.conf = conf;
@@ -98,6 +107,7 @@ protected Boolean handleException(Exception e) {
   @Override
   protected void recover() throws Exception {
     super.recover();
+    long start = System.currentTimeMillis();
 
     try {
       AggregatedLauncherRequest aggLauncherRequest = zkStore.getAggregatedLauncherRequest();
@@ -113,10 +123,18 @@ protected void recover() throws Exception {
       zkStore.setLauncherRequest(launcherRequest);
     }
 
+    for (AggregatedFrameworkRequest aggFrameworkRequest : aggFrameworkRequests.values()) {
+      addToIndexes(aggFrameworkRequest.getFrameworkRequest());
+      touchFrameworkRequest(aggFrameworkRequest.getFrameworkRequest().getFrameworkName());
+    }
+
     // Continue previous deleteOrphanFrameworks to provide Atomic deleteFrameworkRequest
     deleteOrphanFrameworks();
+    notifyChangedFrameworks();
 
-    LOGGER.logInfo("Succeeded to recover %s.", serviceName);
+    long end = System.currentTimeMillis();
+    LOGGER.logInfo("Succeeded to recover %s with %s Frameworks in %sms.",
+        serviceName, aggFrameworkRequests.size(), end - start);
   }
 
 
@@ -126,7 +144,11 @@ protected void recover() throws Exception {
   private boolean deleteFrameworkRequestInternal(String frameworkName) throws Exception {
     // Should success even if frameworkName does not exist
     zkStore.deleteFrameworkRequest(frameworkName);
+    return removeFrameworkRequestInMem(frameworkName);
+  }
 
+  // Remove the FrameworkRequest which is already deleted on ZK
+  private boolean removeFrameworkRequestInMem(String frameworkName) {
     if (aggFrameworkRequests.containsKey(frameworkName)) {
       AggregatedFrameworkRequest aggFrameworkRequest = aggFrameworkRequests.get(frameworkName);
       int oldTotalTaskNumber = totalTaskNumber;
@@ -134,9 +156,12 @@ private boolean deleteFrameworkRequestInternal(String frameworkName) throws Exce
       totalTaskNumber -= frameworkTaskNumber;
 
       LOGGER.logDebug(
-          "[%s]: deleteFrameworkRequestInternal: " +
+          "[%s]: removeFrameworkRequestInMem: " +
               "New Total TaskNumber: %s, Old Total TaskNumber: %s, Framework TaskNumber: %s",
           frameworkName, totalTaskNumber, oldTotalTaskNumber, frameworkTaskNumber);
+      removeFromIndexes(aggFrameworkRequest.getFrameworkRequest());
+      requestGenerations.remove(frameworkName);
+      changedFrameworkNames.add(frameworkName);
     }
     return aggFrameworkRequests.remove(frameworkName) == null;
   }
@@ -217,6 +242,142 @@ private void gcCompletedFrameworks(Map<String, FrameworkStatus> completedFramewo
     }
   }
 
+  // Reject the child Framework if its ParentFramework is already Deleted, the ParentFramework is also
+  // considered as not Deleted if it is within the same batch.
+  private void checkParentFramework(
+      String frameworkName, FrameworkRequest frameworkRequest, Map<String, FrameworkRequest> batchFrameworkRequests)
+      throws BadRequestException {
+    ParentFrameworkDescriptor parentFramework = frameworkRequest.getFrameworkDescriptor().getParentFramework();
+    if (parentFramework != null) {
+      String parentFrameworkName = parentFramework.getParentFrameworkName();
+      boolean deleteOnParentDeleted = parentFramework.isDeleteOnParentDeleted();
+      if (deleteOnParentDeleted && !aggFrameworkRequests.containsKey(parentFrameworkName) &&
+          !batchFrameworkRequests.containsKey(parentFrameworkName) &&
+          !frameworkName.equals(parentFrameworkName)) {
+        // Reject future child Frameworks
+        throw new BadRequestException(String.format(
+            "[%s]: setFrameworkRequest Rejected: " +
+                "Since its DeleteOnParentDeleted enabled and its ParentFramework [%s] Deleted",
+            frameworkName, parentFrameworkName));
+      }
+    }
+  }
+
+  // Fill the RequestTimestamps of the FrameworkRequest to be Set, and return the TaskNumber it will add
+  private int prepareFrameworkRequest(
+      String frameworkName, FrameworkRequest frameworkRequest, Long currentTimestamp) {
+    int addedTaskNumber = getFrameworkTaskNumber(frameworkRequest);
+    if (aggFrameworkRequests.containsKey(frameworkName)) {
+      FrameworkRequest oldFrameworkRequest = aggFrameworkRequests.get(frameworkName).getFrameworkRequest();
+      addedTaskNumber -= getFrameworkTaskNumber(oldFrameworkRequest);
+      frameworkRequest.setFirstRequestTimestamp(oldFrameworkRequest.getFirstRequestTimestamp());
+    } else {
+      frameworkRequest.setFirstRequestTimestamp(currentTimestamp);
+    }
+    frameworkRequest.setLastRequestTimestamp(currentTimestamp);
+    return addedTaskNumber;
+  }
+
+  // Reload the FrameworkRequests from ZK into Mem, and if ZK is also unavailable to reload them,
+  // the ZK and Mem Request can only be CONSISTENT again by recovering the WebServer.
+  private void syncFrameworkRequestsFromZK(Collection<String> frameworkNames) {
+    for (String frameworkName : frameworkNames) {
+      try {
+        FrameworkRequest frameworkRequest;
+        try {
+          frameworkRequest = zkStore.getFrameworkRequest(frameworkName);
+        } catch (KeeperException.NoNodeException e) {
+          removeFrameworkRequestInMem(frameworkName);
+          continue;
+        }
+
+        int addedTaskNumber = getFrameworkTaskNumber(frameworkRequest);
+        if (aggFrameworkRequests.containsKey(frameworkName)) {
+          addedTaskNumber -= getFrameworkTaskNumber(aggFrameworkRequests.get(frameworkName).getFrameworkRequest());
+        }
+        totalTaskNumber += addedTaskNumber;
+        putFrameworkRequestInMem(frameworkName, frameworkRequest);
+      } catch (Exception e) {
+        handleException(e);
+        return;
+      }
+    }
+  }
+
+  private void putFrameworkRequestInMem(String frameworkName, FrameworkRequest frameworkRequest) {
+    if (!aggFrameworkRequests.containsKey(frameworkName)) {
+      aggFrameworkRequests.put(frameworkName, new AggregatedFrameworkRequest());
+    } else {
+      removeFromIndexes(aggFrameworkRequests.get(frameworkName).getFrameworkRequest());
+    }
+    aggFrameworkRequests.get(frameworkName).setFrameworkRequest(frameworkRequest);
+    addToIndexes(frameworkRequest);
+    touchFrameworkRequest(frameworkName);
+    changedFrameworkNames.add(frameworkName);
+  }
+
+  // Change the ETag of the AggregatedFrameworkRequest
+  private void touchFrameworkRequest(String frameworkName) {
+    requestGeneration = Math.max(requestGeneration + 1, System.currentTimeMillis());
+    requestGenerations.put(frameworkName, requestGeneration);
+  }
+
+  private void addToIndexes(FrameworkRequest frameworkRequest) {
+    String frameworkName = frameworkRequest.getFrameworkName();
+    addToIndex(userNameIndex, getUserName(frameworkRequest), frameworkName);
+    addToIndex(clientTypeIndex, frameworkRequest.getLaunchClientType(), frameworkName);
+    addToIndex(queueIndex, getQueue(frameworkRequest), frameworkName);
+  }
+
+  private void removeFromIndexes(FrameworkRequest frameworkRequest) {
+    String frameworkName = frameworkRequest.getFrameworkName();
+    removeFromIndex(userNameIndex, getUserName(frameworkRequest), frameworkName);
+    removeFromIndex(clientTypeIndex, frameworkRequest.getLaunchClientType(), frameworkName);
+    removeFromIndex(queueIndex, getQueue(frameworkRequest), frameworkName);
+  }
+
+  private static <K> void addToIndex(Map<K, Set<String>> index, K key, String frameworkName) {
+    index.computeIfAbsent(key, k -> new HashSet<>()).add(frameworkName);
+  }
+
+  private static <K> void removeFromIndex(Map<K, Set<String>> index, K key, String frameworkName) {
+    Set<String> frameworkNames = index.get(key);
+    if (frameworkNames != null) {
+      frameworkNames.remove(frameworkName);
+      if (frameworkNames.isEmpty()) {
+        index.remove(key);
+      }
+    }
+  }
+
+  // Narrow the candidates to the indexed ones of the key, if they are fewer.
+  // Null key means not filtered by the index.
+  private static <K> Collection<String> narrowCandidates(
+      Collection<String> candidateFrameworkNames, Map<K, Set<String>> index, K key) {
+    if (key == null) {
+      return candidateFrameworkNames;
+    }
+
+    Set<String> frameworkNames = index.getOrDefault(key, Collections.emptySet());
+    return (frameworkNames.size() < candidateFrameworkNames.size() ? frameworkNames : candidateFrameworkNames);
+  }
+
+  private static String getUserName(FrameworkRequest frameworkRequest) {
+    return frameworkRequest.getFrameworkDescriptor().getUser().getName();
+  }
+
+  private static String getQueue(FrameworkRequest frameworkRequest) {
+    String queue = frameworkRequest.getFrameworkDescriptor().getPlatformSpecificParameters().getQueue();
+    return (queue == null ? GlobalConstants.DEFAULT_APPLICATION_QUEUE : queue);
+  }
+
+  private void notifyChangedFrameworks() {
+    if (!changedFrameworkNames.isEmpty()) {
+      webServer.onFrameworksChanged(changedFrameworkNames);
+      changedFrameworkNames.clear();
+    }
+  }
+
   private int getFrameworkTaskNumber(FrameworkRequest frameworkRequest) {
     int frameworkTaskNumber = 0;
     for (TaskRoleDescriptor taskRole : frameworkRequest.getFrameworkDescriptor().getTaskRoles().values()) {
@@ -243,34 +404,81 @@ public LauncherRequest getLauncherRequest() throws Exception {
     return CommonUtils.executeWithLock(readLock, () -> launcherRequest);
   }
 
-  public List<FrameworkRequest> getFrameworkRequests(LaunchClientType clientType, String userName) throws Exception {
+  // Get the FrameworkRequests which match the filter, null filter value means not filtered by it.
+  // Only the Frameworks in the smallest matched index are scanned.
+  public List<FrameworkRequest> getFrameworkRequests(
+      LaunchClientType clientType, String userName, String queue) throws Exception {
     return CommonUtils.executeWithLock(readLock, () -> {
       List<FrameworkRequest> frameworkRequests = new ArrayList<>();
 
-      for (AggregatedFrameworkRequest aggFrameworkRequest : aggFrameworkRequests.values()) {
-        FrameworkRequest frameworkRequest = aggFrameworkRequest.getFrameworkRequest();
-
-        if (clientType != null &&
-            !clientType.equals(frameworkRequest.getLaunchClientType())) {
-          continue;
-        }
-        if (userName != null &&
-            !userName.equals(frameworkRequest.getFrameworkDescriptor().getUser().getName())) {
-          continue;
+      Collection<String> candidateFrameworkNames = aggFrameworkRequests.keySet();
+      candidateFrameworkNames = narrowCandidates(candidateFrameworkNames, clientTypeIndex, clientType);
+      candidateFrameworkNames = narrowCandidates(candidateFrameworkNames, userNameIndex, userName);
+      candidateFrameworkNames = narrowCandidates(candidateFrameworkNames, queueIndex, queue);
+      for (String frameworkName : candidateFrameworkNames) {
+        FrameworkRequest frameworkRequest = aggFrameworkRequests.get(frameworkName).getFrameworkRequest();
+        if (matchesFilter(frameworkRequest, clientType, userName, queue)) {
+          frameworkRequests.add(frameworkRequest);
         }
+      }
+
+      return frameworkRequests;
+    });
+  }
 
-        frameworkRequests.add(frameworkRequest);
+  // Get the FrameworkRequests of the given Frameworks which match the filter.
+  // The not exist Frameworks are also returned with null FrameworkRequest.
+  public Map<String, FrameworkRequest> getFrameworkRequests(
+      Collection<String> frameworkNames, LaunchClientType clientType, String userName, String queue)
+      throws Exception {
+    return CommonUtils.executeWithLock(readLock, () -> {
+      Map<String, FrameworkRequest> frameworkRequests = new HashMap<>();
+
+      for (String frameworkName : frameworkNames) {
+        AggregatedFrameworkRequest aggFrameworkRequest = aggFrameworkRequests.get(frameworkName);
+        if (aggFrameworkRequest == null) {
+          frameworkRequests.put(frameworkName, null);
+        } else if (matchesFilter(aggFrameworkRequest.getFrameworkRequest(), clientType, userName, queue)) {
+          frameworkRequests.put(frameworkName, aggFrameworkRequest.getFrameworkRequest());
+        }
       }
 
       return frameworkRequests;
     });
   }
 
+  private static boolean matchesFilter(
+      FrameworkRequest frameworkRequest, LaunchClientType clientType, String userName, String queue) {
+    if (clientType != null &&
+        !clientType.equals(frameworkRequest.getLaunchClientType())) {
+      return false;
+    }
+    if (userName != null &&
+        !userName.equals(getUserName(frameworkRequest))) {
+      return false;
+    }
+    if (queue != null &&
+        !queue.equals(getQueue(frameworkRequest))) {
+      return false;
+    }
+    return true;
+  }
+
   public AggregatedFrameworkRequest getAggregatedFrameworkRequest(String frameworkName) throws Exception {
     return CommonUtils.executeWithLock(readLock, () ->
         YamlUtils.deepCopy(checkExist(aggFrameworkRequests.get(frameworkName)), AggregatedFrameworkRequest.class));
   }
 
+  // Get the ETag of the AggregatedFrameworkRequest, which is changed whenever it is changed.
+  // Caller should get the ETag before the AggregatedFrameworkRequest, so that the ETag may be older than
+  // the AggregatedFrameworkRequest, but never newer.
+  public String getAggregatedFrameworkRequestETag(String frameworkName) throws Exception {
+    return CommonUtils.executeWithLock(readLock, () -> {
+      checkExist(aggFrameworkRequests.get(frameworkName));
+      return String.format("R%s", requestGenerations.get(frameworkName));
+    });
+  }
+
   public FrameworkRequest getFrameworkRequest(String frameworkName) throws Exception {
     return CommonUtils.executeWithLock(readLock, () ->
         checkExist(aggFrameworkRequests.get(frameworkName)).getFrameworkRequest());
@@ -292,31 +500,12 @@ public void setFrameworkRequest(
       String frameworkName, FrameworkRequest frameworkRequest)
       throws Exception {
     CommonUtils.executeWithLock(writeLock, () -> {
-      ParentFrameworkDescriptor parentFramework = frameworkRequest.getFrameworkDescriptor().getParentFramework();
-      if (parentFramework != null) {
-        String parentFrameworkName = parentFramework.getParentFrameworkName();
-        boolean deleteOnParentDeleted = parentFramework.isDeleteOnParentDeleted();
-        if (deleteOnParentDeleted && !aggFrameworkRequests.containsKey(parentFrameworkName) &&
-            !frameworkName.equals(parentFrameworkName)) {
-          // Reject future child Frameworks
-          throw new BadRequestException(String.format(
-              "[%s]: setFrameworkRequest Rejected: " +
-                  "Since its DeleteOnParentDeleted enabled and its ParentFramework [%s] Deleted",
-              frameworkName, parentFrameworkName));
-        }
-      }
+      checkParentFramework(frameworkName, frameworkRequest, Collections.emptyMap());
 
       Long currentTimestamp = System.currentTimeMillis();
       int frameworkTaskNumber = getFrameworkTaskNumber(frameworkRequest);
-      int newTotalTaskNumber = totalTaskNumber + frameworkTaskNumber;
-      if (aggFrameworkRequests.containsKey(frameworkName)) {
-        FrameworkRequest oldFrameworkRequest = aggFrameworkRequests.get(frameworkName).getFrameworkRequest();
-        newTotalTaskNumber -= getFrameworkTaskNumber(oldFrameworkRequest);
-        frameworkRequest.setFirstRequestTimestamp(oldFrameworkRequest.getFirstRequestTimestamp());
-      } else {
-        frameworkRequest.setFirstRequestTimestamp(currentTimestamp);
-      }
-      frameworkRequest.setLastRequestTimestamp(currentTimestamp);
+      int newTotalTaskNumber = totalTaskNumber +
+          prepareFrameworkRequest(frameworkName, frameworkRequest, currentTimestamp);
 
       if (newTotalTaskNumber > conf.getMaxTotalTaskNumber()) {
         throw new ThrottledRequestException(String.format(
@@ -332,10 +521,62 @@ public void setFrameworkRequest(
         totalTaskNumber = newTotalTaskNumber;
       }
 
-      if (!aggFrameworkRequests.containsKey(frameworkName)) {
-        aggFrameworkRequests.put(frameworkName, new AggregatedFrameworkRequest());
+      putFrameworkRequestInMem(frameworkName, frameworkRequest);
+      notifyChangedFrameworks();
+    });
+  }
+
+  // Set the FrameworkRequests in a batch, and return the rejected Frameworks with the reasons.
+  // The Max Total TaskNumber is checked once for the whole batch, i.e. the whole batch will be
+  // rejected by ThrottledRequestException if it exceeds, and the accepted ones are Set to ZK in batches.
+  public Map<String, Exception> setFrameworkRequests(
+      Map<String, FrameworkRequest> frameworkRequests)
+      throws Exception {
+    return CommonUtils.executeWithLock(writeLock, () -> {
+      Map<String, Exception> rejectedFrameworks = new LinkedHashMap<>();
+      Map<String, FrameworkRequest> acceptedFrameworkRequests = new LinkedHashMap<>();
+      Long currentTimestamp = System.currentTimeMillis();
+      int newTotalTaskNumber = totalTaskNumber;
+      for (Map.Entry<String, FrameworkRequest> entry : frameworkRequests.entrySet()) {
+        String frameworkName = entry.getKey();
+        FrameworkRequest frameworkRequest = entry.getValue();
+        try {
+          checkParentFramework(frameworkName, frameworkRequest, frameworkRequests);
+        } catch (BadRequestException e) {
+          rejectedFrameworks.put(frameworkName, e);
+          continue;
+        }
+
+        newTotalTaskNumber += prepareFrameworkRequest(frameworkName, frameworkRequest, currentTimestamp);
+        acceptedFrameworkRequests.put(frameworkName, frameworkRequest);
       }
-      aggFrameworkRequests.get(frameworkName).setFrameworkRequest(frameworkRequest);
+
+      if (newTotalTaskNumber > conf.getMaxTotalTaskNumber()) {
+        throw new ThrottledRequestException(String.format(
+            "setFrameworkRequests Rejected: " +
+                "Since the New Total TaskNumber %s will exceed the Max Total TaskNumber %s",
+            newTotalTaskNumber, conf.getMaxTotalTaskNumber()));
+      } else {
+        try {
+          zkStore.setFrameworkRequests(acceptedFrameworkRequests);
+        } catch (Exception e) {
+          // The batch may be partially Set on ZK, so resync them to keep ZK and Mem CONSISTENT
+          syncFrameworkRequestsFromZK(acceptedFrameworkRequests.keySet());
+          notifyChangedFrameworks();
+          throw e;
+        }
+
+        LOGGER.logDebug("setFrameworkRequests: %s Frameworks Accepted, %s Frameworks Rejected, " +
+                "New Total TaskNumber: %s, Old Total TaskNumber: %s",
+            acceptedFrameworkRequests.size(), rejectedFrameworks.size(), newTotalTaskNumber, totalTaskNumber);
+        totalTaskNumber = newTotalTaskNumber;
+      }
+
+      for (Map.Entry<String, FrameworkRequest> entry : acceptedFrameworkRequests.entrySet()) {
+        putFrameworkRequestInMem(entry.getKey(), entry.getValue());
+      }
+      notifyChangedFrameworks();
+      return rejectedFrameworks;
     });
   }
 
@@ -348,6 +589,23 @@ public void deleteFrameworkRequest(
         // Delete existing child Frameworks
         deleteOrphanFrameworks();
       }
+      notifyChangedFrameworks();
+    });
+  }
+
+  public void deleteFrameworkRequests(
+      Collection<String> frameworkNames)
+      throws Exception {
+    CommonUtils.executeWithLock(writeLock, () -> {
+      // Should success even if some frameworkNames do not exist
+      zkStore.deleteFrameworkRequests(frameworkNames);
+      for (String frameworkName : frameworkNames) {
+        removeFrameworkRequestInMem(frameworkName);
+      }
+
+      // Delete existing child Frameworks
+      deleteOrphanFrameworks();
+      notifyChangedFrameworks();
     });
   }
 
@@ -359,6 +617,7 @@ public void deleteMigrateTaskRequest(
       zkStore.deleteMigrateTaskRequest(frameworkName, containerId);
       try {
         aggFrameworkRequests.get(frameworkName).getMigrateTaskRequests().remove(containerId);
+        touchFrameworkRequest(frameworkName);
       } catch (Exception ignored) {
       }
     });
@@ -388,6 +647,7 @@ public void updateMigrateTask(
         aggFrameworkRequest.setMigrateTaskRequests(new HashMap<>());
       }
       aggFrameworkRequest.getMigrateTaskRequests().put(containerId, migrateTaskRequest);
+      touchFrameworkRequest(frameworkName);
     });
   }
 
@@ -399,6 +659,7 @@ public void updateApplicationProgress(
       AggregatedFrameworkRequest aggFrameworkRequest = checkExist(aggFrameworkRequests.get(frameworkName));
       zkStore.setOverrideApplicationProgressRequest(frameworkName, overrideApplicationProgressRequest);
       aggFrameworkRequest.setOverrideApplicationProgressRequest(overrideApplicationProgressRequest);
+      touchFrameworkRequest(frameworkName);
     });
   }
 
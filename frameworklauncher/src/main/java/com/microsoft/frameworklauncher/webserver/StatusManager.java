@@ -22,10 +22,12 @@
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
+import com.microsoft.frameworklauncher.common.store.ChangeNotifier;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
+import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Manage the CURD to ZK Status
 public class StatusManager extends AbstractService { // THREAD SAFE
@@ -33,7 +35,7 @@ public class StatusManager extends AbstractService { // THREAD SAFE
 
   private final WebServer webServer;
   private final LauncherConfiguration conf;
-  private final ZookeeperStore zkStore;
+  private final LauncherStore zkStore;
 
   /**
    * REGION BaseStatus
@@ -43,16 +45,50 @@ public class StatusManager extends AbstractService { // THREAD SAFE
   // FrameworkName -> AggregatedFrameworkStatus
   private volatile Map<String, AggregatedFrameworkStatus> aggFrameworkStatuses;
 
+  /**
+   * REGION ExtensionStatus
+   * ExtensionStatus is EVENTUALLY CONSISTENT with BaseStatus, so the reader should check it again with BaseStatus
+   */
+  // Secondary index of aggFrameworkStatuses: FrameworkState -> FrameworkNames
+  private final Map<FrameworkState, Set<String>> frameworkStateIndex = new EnumMap<>(FrameworkState.class);
+  // FrameworkName -> StatusGeneration, which identifies the pulled AggregatedFrameworkStatus as the ETag
+  private final Map<String, StatusGeneration> statusGenerations = new ConcurrentHashMap<>();
+  // Increased for each pull, and starts from the current time so that it is still increasing across
+  // WebServer restarts, then the ETags will not be reused.
+  private long pullGeneration = System.currentTimeMillis();
+
+  private static class StatusGeneration {
+    private final AggregatedFrameworkStatus aggFrameworkStatus;
+    // The pull generation in which the AggregatedFrameworkStatus is last changed
+    private final long generation;
+
+    private StatusGeneration(AggregatedFrameworkStatus aggFrameworkStatus, long generation) {
+      this.aggFrameworkStatus = aggFrameworkStatus;
+      this.generation = generation;
+    }
+  }
+
+  /**
+   * REGION StateVariable
+   */
+  private ChangeNotifier changeNotifier;
+
 
   /**
    * REGION AbstractService
    */
-  public StatusManager(WebServer webServer, LauncherConfiguration conf, ZookeeperStore zkStore) {
+  public StatusManager(WebServer webServer, LauncherConfiguration conf, LauncherStore zkStore) {
     super(StatusManager.class.getName());
 
     this.webServer = webServer;
     this.conf = conf;
-    this.zkStore = zkStore;
+    // The pulled Statuses are only exposed as readonly, so the cached ones can be shared
+    this.zkStore = zkStore.withReadCache(
+        conf.getZkReadCacheMaxEntries(), conf.getZkReadCacheExpirySec(), true);
+
+    for (FrameworkState frameworkState : FrameworkState.values()) {
+      frameworkStateIndex.put(frameworkState, ConcurrentHashMap.newKeySet());
+    }
   }
 
   @Override
@@ -72,10 +108,15 @@ protected Boolean handleException(Exception e) {
   @Override
   protected void recover() throws Exception {
     super.recover();
+    long start = System.currentTimeMillis();
 
-    pullStatus();
+    // Watch before the first pull, so that any change after the pull will be notified
+    changeNotifier = zkStore.newAggregatedLauncherStatusChangeNotifier(conf.getZkChangeNotificationEnable());
+    pullStatus(null);
 
-    LOGGER.logInfo("Succeeded to recover %s.", serviceName);
+    long end = System.currentTimeMillis();
+    LOGGER.logInfo("Succeeded to recover %s with %s Frameworks in %sms.",
+        serviceName, aggFrameworkStatuses.size(), end - start);
   }
 
   // No need to stop ongoing Thread, since zkStore is Atomic
@@ -85,14 +126,16 @@ protected void run() throws Exception {
 
     new Thread(() -> {
       while (true) {
+        // Null means pull all
+        Set<String> changedPaths = null;
         try {
-          Thread.sleep(conf.getWebServerStatusPullIntervalSec() * 1000);
-        } catch (InterruptedException e) {
+          changedPaths = changeNotifier.waitChanges(conf.getWebServerStatusPullIntervalSec() * 1000);
+        } catch (Exception e) {
           handleException(e);
         }
 
         try {
-          pullStatus();
+          pullStatus(changedPaths);
         } catch (Exception e) {
           // Directly throw TransientException to WebServer, since it may not be recovered or make progress any more
           handleException(e);
@@ -104,14 +147,32 @@ protected void run() throws Exception {
   /**
    * REGION InternalUtils
    */
-  private void pullStatus() throws Exception {
-    LOGGER.logDebug("Pulling AggregatedLauncherStatus");
+  void pullStatus(Set<String> changedPaths) throws Exception {
+    pullGeneration = Math.max(pullGeneration + 1, System.currentTimeMillis());
+    Map<String, AggregatedFrameworkStatus> oldAggFrameworkStatuses = aggFrameworkStatuses;
+    Set<String> changedFrameworkNames = null;
+    if (changedPaths != null && aggFrameworkStatuses != null) {
+      changedFrameworkNames = zkStore.getChangedStatusFrameworkNames(changedPaths);
+    }
+
+    if (changedFrameworkNames == null) {
+      LOGGER.logDebug("Pulling AggregatedLauncherStatus");
+
+      AggregatedLauncherStatus aggLauncherStatus = zkStore.getAggregatedLauncherStatus();
+      launcherStatus = aggLauncherStatus.getLauncherStatus();
+      aggFrameworkStatuses = CommonExts.asReadOnly(aggLauncherStatus.getAggregatedFrameworkStatuses());
 
-    AggregatedLauncherStatus aggLauncherStatus = zkStore.getAggregatedLauncherStatus();
-    launcherStatus = aggLauncherStatus.getLauncherStatus();
-    aggFrameworkStatuses = CommonExts.asReadOnly(aggLauncherStatus.getAggregatedFrameworkStatuses());
+      LOGGER.logDebug("Pulled AggregatedLauncherStatus");
+    } else {
+      LOGGER.logDebug("Pulling %s changed AggregatedFrameworkStatuses", changedFrameworkNames.size());
+
+      // Only the AggregatedFrameworkStatuses are changed, the LauncherStatus and the set of Frameworks are unchanged
+      Map<String, AggregatedFrameworkStatus> newAggFrameworkStatuses = new HashMap<>(aggFrameworkStatuses);
+      zkStore.getAggregatedFrameworkStatuses(changedFrameworkNames, newAggFrameworkStatuses);
+      aggFrameworkStatuses = CommonExts.asReadOnly(newAggFrameworkStatuses);
 
-    LOGGER.logDebug("Pulled AggregatedLauncherStatus");
+      LOGGER.logDebug("Pulled changed AggregatedFrameworkStatuses");
+    }
 
     // Detect the corrupted AggregatedFrameworkStatus and lead Service.StatusManager.recover to clean
     for (Map.Entry<String, AggregatedFrameworkStatus> aggFrameworkStatusKV : aggFrameworkStatuses.entrySet()) {
@@ -124,9 +185,114 @@ private void pullStatus() throws Exception {
       }
     }
 
+    updateExtensionStatus(oldAggFrameworkStatuses, changedFrameworkNames);
+    notifyChangedFrameworks(oldAggFrameworkStatuses, changedFrameworkNames);
     updateCompletedFrameworkStatuses();
   }
 
+  // Update the ExtensionStatus for the Frameworks which may be changed by the pull.
+  // Null candidateFrameworkNames means all Frameworks may be changed.
+  private void updateExtensionStatus(
+      Map<String, AggregatedFrameworkStatus> oldAggFrameworkStatuses,
+      Set<String> candidateFrameworkNames) {
+    Set<String> frameworkNames = candidateFrameworkNames;
+    if (frameworkNames == null) {
+      frameworkNames = new HashSet<>(aggFrameworkStatuses.keySet());
+      if (oldAggFrameworkStatuses != null) {
+        frameworkNames.addAll(oldAggFrameworkStatuses.keySet());
+      }
+    }
+
+    for (String frameworkName : frameworkNames) {
+      AggregatedFrameworkStatus oldAggFrameworkStatus =
+          (oldAggFrameworkStatuses == null ? null : oldAggFrameworkStatuses.get(frameworkName));
+      AggregatedFrameworkStatus newAggFrameworkStatus = aggFrameworkStatuses.get(frameworkName);
+
+      FrameworkState oldFrameworkState = getFrameworkState(oldAggFrameworkStatus);
+      FrameworkState newFrameworkState = getFrameworkState(newAggFrameworkStatus);
+      if (oldFrameworkState != newFrameworkState) {
+        if (oldFrameworkState != null) {
+          frameworkStateIndex.get(oldFrameworkState).remove(frameworkName);
+        }
+        if (newFrameworkState != null) {
+          frameworkStateIndex.get(newFrameworkState).add(frameworkName);
+        }
+      }
+
+      StatusGeneration statusGeneration = statusGenerations.get(frameworkName);
+      if (newAggFrameworkStatus == null) {
+        statusGenerations.remove(frameworkName);
+      } else if (statusGeneration == null || !isSameStatus(oldAggFrameworkStatus, newAggFrameworkStatus)) {
+        statusGenerations.put(frameworkName, new StatusGeneration(newAggFrameworkStatus, pullGeneration));
+      } else if (statusGeneration.aggFrameworkStatus != newAggFrameworkStatus) {
+        statusGenerations.put(frameworkName, new StatusGeneration(newAggFrameworkStatus, statusGeneration.generation));
+      }
+    }
+  }
+
+  private static FrameworkState getFrameworkState(AggregatedFrameworkStatus aggFrameworkStatus) {
+    return (aggFrameworkStatus == null ? null : aggFrameworkStatus.getFrameworkStatus().getFrameworkState());
+  }
+
+  // The pulled Statuses unchanged on ZK are the same objects shared by the read cache, so the
+  // AggregatedFrameworkStatus is unchanged if all of its Statuses are the same objects.
+  // Without the read cache, it is always considered as changed.
+  private static boolean isSameStatus(
+      AggregatedFrameworkStatus oldAggFrameworkStatus, AggregatedFrameworkStatus newAggFrameworkStatus) {
+    if (oldAggFrameworkStatus == null ||
+        oldAggFrameworkStatus.getFrameworkStatus() != newAggFrameworkStatus.getFrameworkStatus()) {
+      return false;
+    }
+
+    Map<String, AggregatedTaskRoleStatus> oldAggTaskRoleStatuses = oldAggFrameworkStatus.getAggregatedTaskRoleStatuses();
+    Map<String, AggregatedTaskRoleStatus> newAggTaskRoleStatuses = newAggFrameworkStatus.getAggregatedTaskRoleStatuses();
+    if (!oldAggTaskRoleStatuses.keySet().equals(newAggTaskRoleStatuses.keySet())) {
+      return false;
+    }
+    for (Map.Entry<String, AggregatedTaskRoleStatus> newAggTaskRoleStatusKV : newAggTaskRoleStatuses.entrySet()) {
+      AggregatedTaskRoleStatus oldAggTaskRoleStatus = oldAggTaskRoleStatuses.get(newAggTaskRoleStatusKV.getKey());
+      AggregatedTaskRoleStatus newAggTaskRoleStatus = newAggTaskRoleStatusKV.getValue();
+      if (oldAggTaskRoleStatus.getTaskRoleStatus() != newAggTaskRoleStatus.getTaskRoleStatus() ||
+          oldAggTaskRoleStatus.getTaskStatuses() != newAggTaskRoleStatus.getTaskStatuses()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Notify the Frameworks whose FrameworkStatuses are changed, added or removed by the pull.
+  // Null candidateFrameworkNames means all Frameworks may be changed.
+  private void notifyChangedFrameworks(
+      Map<String, AggregatedFrameworkStatus> oldAggFrameworkStatuses,
+      Set<String> candidateFrameworkNames) {
+    if (oldAggFrameworkStatuses == null) {
+      // The ResourceVersion is just started, so no Watch Request can be answered by the changes
+      return;
+    }
+
+    Set<String> frameworkNames = candidateFrameworkNames;
+    if (frameworkNames == null) {
+      frameworkNames = new HashSet<>(oldAggFrameworkStatuses.keySet());
+      frameworkNames.addAll(aggFrameworkStatuses.keySet());
+    }
+
+    List<String> changedFrameworkNames = new ArrayList<>();
+    for (String frameworkName : frameworkNames) {
+      AggregatedFrameworkStatus oldAggFrameworkStatus = oldAggFrameworkStatuses.get(frameworkName);
+      AggregatedFrameworkStatus newAggFrameworkStatus = aggFrameworkStatuses.get(frameworkName);
+      if (oldAggFrameworkStatus == null || newAggFrameworkStatus == null) {
+        if (oldAggFrameworkStatus != newAggFrameworkStatus) {
+          changedFrameworkNames.add(frameworkName);
+        }
+      } else if (!YamlUtils.deepEquals(
+          oldAggFrameworkStatus.getFrameworkStatus(), newAggFrameworkStatus.getFrameworkStatus())) {
+        changedFrameworkNames.add(frameworkName);
+      }
+    }
+
+    webServer.onFrameworksChanged(changedFrameworkNames);
+  }
+
   private void updateCompletedFrameworkStatuses() throws Exception {
     Map<String, FrameworkStatus> completedFrameworkStatuses = new HashMap<>();
     for (Map.Entry<String, AggregatedFrameworkStatus> aggFrameworkStatusKV : aggFrameworkStatuses.entrySet()) {
@@ -170,8 +336,43 @@ public AggregatedFrameworkStatus getAggregatedFrameworkStatus(FrameworkRequest f
     }
   }
 
+  // Get the ETag of the AggregatedFrameworkStatus which will be got by getAggregatedFrameworkStatus.
+  // It is changed whenever any of its pulled Statuses is changed on ZK, or the inferred one is changed
+  // with the FrameworkRequest. Null means it is unknown, since the Status is just being pulled.
+  // Caller should get the ETag before the AggregatedFrameworkStatus, so that the ETag may be older than
+  // the AggregatedFrameworkStatus, but never newer.
+  public String getAggregatedFrameworkStatusETag(FrameworkRequest frameworkRequest) {
+    String frameworkName = frameworkRequest.getFrameworkName();
+    Integer frameworkVersion = frameworkRequest.getFrameworkDescriptor().getVersion();
+
+    // Get the StatusGeneration before the Status, since it is updated after the Status
+    StatusGeneration statusGeneration = statusGenerations.get(frameworkName);
+    AggregatedFrameworkStatus aggFrameworkStatus = aggFrameworkStatuses.get(frameworkName);
+    if (aggFrameworkStatus != null &&
+        aggFrameworkStatus.getFrameworkStatus().getFrameworkVersion().equals(frameworkVersion)) {
+      if (statusGeneration == null || statusGeneration.aggFrameworkStatus != aggFrameworkStatus) {
+        return null;
+      }
+      return String.format("S%s", statusGeneration.generation);
+    } else {
+      // The inferred Status only depends on the FrameworkRequest
+      return String.format("W%s.%s", frameworkVersion, frameworkRequest.getFirstRequestTimestamp());
+    }
+  }
+
   public FrameworkStatus getFrameworkStatus(FrameworkRequest frameworkRequest) {
     AggregatedFrameworkStatus aggFrameworkStatus = getAggregatedFrameworkStatus(frameworkRequest);
     return aggFrameworkStatus.getFrameworkStatus();
   }
+
+  // Get the Frameworks whose pulled FrameworkStatuses are in the given FrameworkStates.
+  // Note the inferred FrameworkStatuses, i.e. FRAMEWORK_WAITING, are not included, and the
+  // returned Frameworks may be stale, so caller should check them again by getFrameworkStatus.
+  public Set<String> getFrameworkNames(Set<FrameworkState> frameworkStates) {
+    Set<String> frameworkNames = new HashSet<>();
+    for (FrameworkState frameworkState : frameworkStates) {
+      frameworkNames.addAll(frameworkStateIndex.get(frameworkState));
+    }
+    return frameworkNames;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.FrameworkRequest;
+import com.microsoft.frameworklauncher.common.model.FrameworkStatus;
+import com.microsoft.frameworklauncher.common.model.SummarizedFrameworkInfo;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Precompute the SummarizedFrameworkInfos of all Frameworks, and incrementally refresh them by the
+// FrameworkChangeLog, so that only the Frameworks changed since the last refresh are summarized again.
+// Besides, the serialized Responses are cached by the query and validated by the ResourceVersion,
+// so that an unchanged query can be answered by the serialized Response directly.
+public class SummarizedFrameworkInfoCache { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(SummarizedFrameworkInfoCache.class);
+  // Serialize the same as the WebServer, so the cached Responses are the same as the uncached ones
+  private static final ObjectMapper OBJECT_MAPPER = JacksonObjectMapperProvider.createDefaultMapper();
+
+  private static class CachedResponse {
+    private final long resourceVersion;
+    private final byte[] body;
+
+    private CachedResponse(long resourceVersion, byte[] body) {
+      this.resourceVersion = resourceVersion;
+      this.body = body;
+    }
+  }
+
+  private final RequestManager requestManager;
+  private final StatusManager statusManager;
+  private final FrameworkChangeLog frameworkChangeLog;
+
+  // Serialize the refreshes, so that a later change can never be overwritten by an earlier refresh
+  private final Object refreshLock = new Object();
+  // The ResourceVersion which sFrameworkInfos are refreshed to, null means not refreshed yet
+  private volatile Long resourceVersion = null;
+  // FrameworkName -> SummarizedFrameworkInfo, which is readonly once put
+  private final Map<String, SummarizedFrameworkInfo> sFrameworkInfos = new ConcurrentHashMap<>();
+
+  private final int maxResponses;
+  // QueryKey -> CachedResponse, in access order
+  private final LinkedHashMap<String, CachedResponse> responses;
+
+  public SummarizedFrameworkInfoCache(
+      RequestManager requestManager, StatusManager statusManager,
+      FrameworkChangeLog frameworkChangeLog, int maxResponses) {
+    this.requestManager = requestManager;
+    this.statusManager = statusManager;
+    this.frameworkChangeLog = frameworkChangeLog;
+    this.maxResponses = maxResponses;
+    this.responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+        return size() > SummarizedFrameworkInfoCache.this.maxResponses;
+      }
+    };
+  }
+
+  // Refresh the changed Frameworks and return the ResourceVersion refreshed to.
+  // The changes are got before the Requests and Statuses are read, so any change missed by this
+  // refresh will be included in the next one.
+  public long refresh() throws Exception {
+    synchronized (refreshLock) {
+      FrameworkChangeLog.Changes changes = frameworkChangeLog.getChanges(resourceVersion);
+      Set<String> changedFrameworkNames = changes.getFrameworkNames();
+      if (changedFrameworkNames == null) {
+        Map<String, SummarizedFrameworkInfo> newSFrameworkInfos = new HashMap<>();
+        for (FrameworkRequest frameworkRequest : requestManager.getFrameworkRequests(null, null, null)) {
+          newSFrameworkInfos.put(frameworkRequest.getFrameworkName(), newSFrameworkInfo(frameworkRequest));
+        }
+        sFrameworkInfos.keySet().retainAll(newSFrameworkInfos.keySet());
+        sFrameworkInfos.putAll(newSFrameworkInfos);
+
+        LOGGER.logInfo("Refreshed all %s SummarizedFrameworkInfos to ResourceVersion %s",
+            sFrameworkInfos.size(), changes.getResourceVersion());
+      } else if (!changedFrameworkNames.isEmpty()) {
+        Map<String, FrameworkRequest> frameworkRequests =
+            requestManager.getFrameworkRequests(changedFrameworkNames, null, null, null);
+        for (Map.Entry<String, FrameworkRequest> entry : frameworkRequests.entrySet()) {
+          if (entry.getValue() == null) {
+            sFrameworkInfos.remove(entry.getKey());
+          } else {
+            sFrameworkInfos.put(entry.getKey(), newSFrameworkInfo(entry.getValue()));
+          }
+        }
+
+        LOGGER.logDebug("Refreshed %s changed SummarizedFrameworkInfos to ResourceVersion %s",
+            changedFrameworkNames.size(), changes.getResourceVersion());
+      }
+
+      resourceVersion = changes.getResourceVersion();
+      return resourceVersion;
+    }
+  }
+
+  private SummarizedFrameworkInfo newSFrameworkInfo(FrameworkRequest frameworkRequest) {
+    FrameworkStatus frameworkStatus = statusManager.getFrameworkStatus(frameworkRequest);
+    return SummarizedFrameworkInfo.newInstance(frameworkRequest, frameworkStatus);
+  }
+
+  // Returned SummarizedFrameworkInfo is readonly, caller should not modify it.
+  // Null means the Framework does not exist in the last refresh.
+  public SummarizedFrameworkInfo getSummarizedFrameworkInfo(String frameworkName) {
+    return sFrameworkInfos.get(frameworkName);
+  }
+
+  public static String getQueryKey(Object query) throws IOException {
+    return OBJECT_MAPPER.writeValueAsString(query);
+  }
+
+  // Get the serialized Response of the query only if it is cached in the same ResourceVersion,
+  // otherwise return null.
+  public synchronized byte[] getResponse(String queryKey, long resourceVersion) {
+    CachedResponse cachedResponse = responses.get(queryKey);
+    if (cachedResponse == null || cachedResponse.resourceVersion != resourceVersion) {
+      return null;
+    }
+    return cachedResponse.body;
+  }
+
+  // Serialize the Response of the query in the ResourceVersion, cache and return it
+  public byte[] putResponse(String queryKey, long resourceVersion, Object response) throws IOException {
+    byte[] body = OBJECT_MAPPER.writeValueAsBytes(response);
+    synchronized (this) {
+      CachedResponse cachedResponse = responses.get(queryKey);
+      if (cachedResponse == null || cachedResponse.resourceVersion < resourceVersion) {
+        responses.put(queryKey, new CachedResponse(resourceVersion, body));
+      }
+    }
+    return body;
+  }
+}
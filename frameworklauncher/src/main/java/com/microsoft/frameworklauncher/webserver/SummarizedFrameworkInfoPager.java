@@ -0,0 +1,154 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.exceptions.BadRequestException;
+import com.microsoft.frameworklauncher.common.model.FrameworkSortKey;
+import com.microsoft.frameworklauncher.common.model.SummarizedFrameworkInfo;
+import com.microsoft.frameworklauncher.common.model.SummarizedFrameworkInfos;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Sort and page the SummarizedFrameworkInfos by the keyset (SortBy value, FrameworkName).
+// The ContinuationToken encodes the key of the last returned one, so the next page is still
+// correct even if the Frameworks are added or deleted between the pages.
+public class SummarizedFrameworkInfoPager {
+  private static final String TOKEN_SEPARATOR = ":";
+
+  public static SummarizedFrameworkInfos getPage(
+      Collection<SummarizedFrameworkInfo> sFrameworkInfos,
+      FrameworkSortKey sortBy, boolean descending,
+      Integer pageSize, String continuationToken) throws BadRequestException {
+    Comparator<SummarizedFrameworkInfo> comparator = getComparator(sortBy, descending);
+    SummarizedFrameworkInfo lastSFrameworkInfo = (continuationToken == null ? null :
+        decodeContinuationToken(continuationToken, sortBy, descending));
+
+    // Only keep the first pageSize ones in a max heap, so that the others are never fully sorted
+    int maxPageSize = (pageSize == null ? Integer.MAX_VALUE : pageSize);
+    PriorityQueue<SummarizedFrameworkInfo> pageHeap = new PriorityQueue<>(comparator.reversed());
+    int remainingCount = 0;
+    for (SummarizedFrameworkInfo sFrameworkInfo : sFrameworkInfos) {
+      if (lastSFrameworkInfo != null && comparator.compare(sFrameworkInfo, lastSFrameworkInfo) <= 0) {
+        continue;
+      }
+
+      remainingCount++;
+      pageHeap.add(sFrameworkInfo);
+      if (pageHeap.size() > maxPageSize) {
+        pageHeap.poll();
+      }
+    }
+
+    List<SummarizedFrameworkInfo> sFrameworkInfoList = new ArrayList<>(pageHeap);
+    sFrameworkInfoList.sort(comparator);
+
+    SummarizedFrameworkInfos page = new SummarizedFrameworkInfos();
+    page.setSummarizedFrameworkInfos(sFrameworkInfoList);
+    if (remainingCount > sFrameworkInfoList.size()) {
+      page.setContinuationToken(encodeContinuationToken(
+          sFrameworkInfoList.get(sFrameworkInfoList.size() - 1), sortBy, descending));
+    }
+    return page;
+  }
+
+  private static Comparator<SummarizedFrameworkInfo> getComparator(FrameworkSortKey sortBy, boolean descending) {
+    Comparator<SummarizedFrameworkInfo> comparator = Comparator
+        .comparing((SummarizedFrameworkInfo sFrameworkInfo) -> getSortValue(sFrameworkInfo, sortBy),
+            Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+        .thenComparing(SummarizedFrameworkInfo::getFrameworkName);
+    return (descending ? comparator.reversed() : comparator);
+  }
+
+  private static Long getSortValue(SummarizedFrameworkInfo sFrameworkInfo, FrameworkSortKey sortBy) {
+    switch (sortBy) {
+      case FIRST_REQUEST_TIMESTAMP:
+        return sFrameworkInfo.getFirstRequestTimestamp();
+      case LAST_REQUEST_TIMESTAMP:
+        return sFrameworkInfo.getLastRequestTimestamp();
+      case FRAMEWORK_COMPLETED_TIMESTAMP:
+        return sFrameworkInfo.getFrameworkCompletedTimestamp();
+      default:
+        return null;
+    }
+  }
+
+  private static void setSortValue(SummarizedFrameworkInfo sFrameworkInfo, FrameworkSortKey sortBy, Long sortValue) {
+    switch (sortBy) {
+      case FIRST_REQUEST_TIMESTAMP:
+        sFrameworkInfo.setFirstRequestTimestamp(sortValue);
+        break;
+      case LAST_REQUEST_TIMESTAMP:
+        sFrameworkInfo.setLastRequestTimestamp(sortValue);
+        break;
+      case FRAMEWORK_COMPLETED_TIMESTAMP:
+        sFrameworkInfo.setFrameworkCompletedTimestamp(sortValue);
+        break;
+      default:
+        break;
+    }
+  }
+
+  // Token: Base64Url(SortBy:Descending:SortValue:FrameworkName)
+  static String encodeContinuationToken(
+      SummarizedFrameworkInfo sFrameworkInfo, FrameworkSortKey sortBy, boolean descending) {
+    Long sortValue = getSortValue(sFrameworkInfo, sortBy);
+    String token = String.join(TOKEN_SEPARATOR,
+        sortBy.toString(),
+        Boolean.toString(descending),
+        (sortValue == null ? "" : sortValue.toString()),
+        sFrameworkInfo.getFrameworkName());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Return the key of the last returned SummarizedFrameworkInfo in the token
+  static SummarizedFrameworkInfo decodeContinuationToken(
+      String continuationToken, FrameworkSortKey sortBy, boolean descending) throws BadRequestException {
+    String[] fields;
+    try {
+      String token = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+      // FrameworkName is the last field, so it is not split even if it contains the separator
+      fields = token.split(TOKEN_SEPARATOR, 4);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException(String.format(
+          "Failed to ParseContinuationToken: [%s]", continuationToken), e);
+    }
+
+    if (fields.length != 4 || fields[3].isEmpty()) {
+      throw new BadRequestException(String.format(
+          "Failed to ParseContinuationToken: [%s]", continuationToken));
+    }
+    if (!fields[0].equals(sortBy.toString()) || !fields[1].equals(Boolean.toString(descending))) {
+      throw new BadRequestException(String.format(
+          "ContinuationToken [%s] is not for SortBy [%s] and Descending [%s]",
+          continuationToken, sortBy, descending));
+    }
+
+    SummarizedFrameworkInfo sFrameworkInfo = new SummarizedFrameworkInfo();
+    sFrameworkInfo.setFrameworkName(fields[3]);
+    if (!fields[2].isEmpty()) {
+      try {
+        setSortValue(sFrameworkInfo, sortBy, Long.valueOf(fields[2]));
+      } catch (NumberFormatException e) {
+        throw new BadRequestException(String.format(
+            "Failed to ParseContinuationToken: [%s]", continuationToken), e);
+      }
+    }
+    return sFrameworkInfo;
+  }
+}
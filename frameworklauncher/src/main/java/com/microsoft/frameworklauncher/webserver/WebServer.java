@@ -24,10 +24,11 @@
 import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
 import com.microsoft.frameworklauncher.common.service.AbstractService;
 import com.microsoft.frameworklauncher.common.service.StopStatus;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import com.microsoft.frameworklauncher.common.web.WebCommon;
-import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
 import org.apache.hadoop.yarn.webapp.WebApps;
 
+import java.util.Collection;
 import java.util.Map;
 
 // Forward Http Request to ZK Request and Return ZK Status.
@@ -39,17 +40,26 @@ public class WebServer extends AbstractService {
   /**
    * REGION SubServices
    */
-  private final ZookeeperStore zkStore;
+  private final LauncherStore zkStore;
   private StatusManager statusManager;
   private RequestManager requestManager;
 
+  /**
+   * REGION StateVariable
+   */
+  // Shared by both RequestManager and StatusManager, to notify the Watch Requests
+  private final FrameworkChangeLog frameworkChangeLog;
+  // Refreshed by the FrameworkChangeLog, to answer getFrameworks
+  private SummarizedFrameworkInfoCache sFrameworkInfoCache;
+
   /**
    * REGION AbstractService
    */
-  public WebServer(LauncherConfiguration conf, ZookeeperStore zkStore) {
+  public WebServer(LauncherConfiguration conf, LauncherStore zkStore) {
     super(WebServer.class.getName());
     this.conf = conf;
     this.zkStore = zkStore;
+    this.frameworkChangeLog = new FrameworkChangeLog(conf.getWebServerWatchMaxConcurrency());
   }
 
   protected Boolean handleException(Exception e) {
@@ -81,6 +91,8 @@ protected void recover() throws Exception {
     requestManager.start();
     statusManager = new StatusManager(this, conf, zkStore);
     statusManager.start();
+    sFrameworkInfoCache = new SummarizedFrameworkInfoCache(
+        requestManager, statusManager, frameworkChangeLog, conf.getWebServerResponseCacheMaxEntries());
   }
 
   @Override
@@ -92,7 +104,7 @@ protected void run() throws Exception {
         conf.getWebServerBindHost(), conf.getWebServerAddress());
     WebApps.$for("frameworklauncher", null, null, "ws")
         .at(bindAddress)
-        .start(new LauncherWebApp(conf, statusManager, requestManager));
+        .start(new LauncherWebApp(conf, statusManager, requestManager, frameworkChangeLog, sFrameworkInfoCache));
 
     LOGGER.logInfo("WebApp Started at %s", bindAddress);
   }
@@ -130,4 +142,9 @@ public void onCompletedFrameworkStatusesUpdated(
       throws Exception {
     requestManager.onCompletedFrameworkStatusesUpdated(completedFrameworkStatuses);
   }
+
+  // The FrameworkRequests or FrameworkStatuses of the Frameworks are changed
+  public void onFrameworksChanged(Collection<String> frameworkNames) {
+    frameworkChangeLog.onFrameworksChanged(frameworkNames);
+  }
 }
\ No newline at end of file
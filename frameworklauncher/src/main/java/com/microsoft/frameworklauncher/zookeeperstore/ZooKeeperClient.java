@@ -20,17 +20,29 @@
 import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.exceptions.TransientException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.model.CompressionType;
+import com.microsoft.frameworklauncher.common.model.SerializationType;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 import com.microsoft.frameworklauncher.common.utils.CompressionUtils;
-import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.common.utils.SerializationUtils;
 import org.apache.zookeeper.*;
+import org.apache.zookeeper.KeeperException.Code;
 import org.apache.zookeeper.ZooDefs.Ids;
+import org.apache.zookeeper.data.Stat;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
 
 // TODO: This is an incomplete porting, replace it with Apache Curator
 public class ZooKeeperClient implements Watcher {
@@ -39,21 +51,48 @@ public class ZooKeeperClient implements Watcher {
   // Do not set to 1024 * 1024 in case java.io.IOException:
   // Len error 1048695 (org.apache.zookeeper.server.NIOServerCnxn)
   private static final int ZK_MAX_NODE_BYTES = 768 * 1024;
-  private static final String READY_PAYLOAD_VERSIONS_NODE_NAME = "ReadyPayloadVersions";
+  // Max number of async requests which are issued but not completed for a pipelined operation,
+  // it bounds the memory held by the ZK client outgoing queue to about ZK_MAX_NODE_BYTES * 16.
+  private static final int ZK_MAX_IN_FLIGHT_REQUESTS = 16;
+  static final String READY_PAYLOAD_VERSIONS_NODE_NAME = "ReadyPayloadVersions";
+  // The expected version for compareAndSetSmallObject which means the node should not exist
+  public static final int NEW_NODE_VERSION = -1;
   private final CountDownLatch connectedSignal = new CountDownLatch(1);
   private final ZooKeeper zk;
   private final Boolean zkCompressionEnable;
+  private final CompressionType zkCompressionType;
+  private final Integer zkCompressionLevel;
+  private final SerializationType zkSerializationType;
+
+  public ZooKeeperClient(
+      String zkServers, Boolean compressionEnable, SerializationType serializationType)
+      throws IOException, InterruptedException {
+    this(zkServers, compressionEnable, CompressionType.GZIP, Deflater.DEFAULT_COMPRESSION, serializationType);
+  }
 
-  public ZooKeeperClient(String zkServers, Boolean compressionEnable) throws IOException, InterruptedException {
+  public ZooKeeperClient(
+      String zkServers, Boolean compressionEnable, CompressionType compressionType,
+      Integer compressionLevel, SerializationType serializationType)
+      throws IOException, InterruptedException {
     zk = new ZooKeeper(zkServers, 10000, this);
     connectedSignal.await();
     zkCompressionEnable = compressionEnable;
+    zkCompressionType = compressionType;
+    zkCompressionLevel = compressionLevel;
+    zkSerializationType = serializationType;
   }
 
   // ONLY for testing
   protected ZooKeeperClient() {
     zk = null;
     zkCompressionEnable = false;
+    zkCompressionType = CompressionType.GZIP;
+    zkCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+    zkSerializationType = SerializationType.YAML;
+  }
+
+  public void close() throws InterruptedException {
+    zk.close();
   }
 
   @Override
@@ -75,8 +114,22 @@ public List<String> getChildren(String path) throws Exception {
     return zk.getChildren(path, false);
   }
 
+  // Set the watcher for the creation, deletion and data changes of the node, and return whether it exists
+  public Boolean exists(String path, Watcher watcher) throws Exception {
+    return zk.exists(path, watcher) != null;
+  }
+
+  // Set the watcher for the deletion and children changes of the node, and return the children
+  public List<String> getChildren(String path, Watcher watcher) throws Exception {
+    return zk.getChildren(path, watcher);
+  }
+
   private byte[] getData(String path) throws Exception {
-    return zk.getData(path, true, null);
+    return getData(path, null);
+  }
+
+  private byte[] getData(String path, Stat stat) throws Exception {
+    return zk.getData(path, true, stat);
   }
 
   private void setData(String path, byte[] value) throws Exception {
@@ -105,6 +158,14 @@ public void createPath(String path) throws Exception {
     createNode(path, new byte[0]);
   }
 
+  // Create the given paths with pipelined async requests, no matter the given paths exist or not.
+  // DISTRIBUTED THREAD SAFE
+  public void createPaths(List<String> paths) throws Exception {
+    createNodesPipelined(
+        paths, Collections.nCopies(paths.size(), new byte[0]),
+        CreateMode.PERSISTENT, new String[paths.size()]);
+  }
+
   private String createSequentialNode(String parentPath, byte[] bytes) throws Exception {
     String normalizedParentPath = ZookeeperStoreStructure.getNodePath(parentPath, "");
     String path = create(normalizedParentPath, bytes, CreateMode.PERSISTENT_SEQUENTIAL);
@@ -115,6 +176,137 @@ public String createSequentialPath(String parentPath) throws Exception {
     return createSequentialNode(parentPath, new byte[0]);
   }
 
+  // Used to pipeline async requests, so that the request round trips are overlapped instead of
+  // accumulated, and at most ZK_MAX_IN_FLIGHT_REQUESTS requests are in flight.
+  // Once any request failed, the remaining requests will not be issued, and the KeeperException
+  // of the first failed request will be thrown after all issued requests completed.
+  private static class RequestPipeline {
+    private final Semaphore inFlightPermits = new Semaphore(ZK_MAX_IN_FLIGHT_REQUESTS);
+    private final CountDownLatch completedSignal;
+    private final AtomicReference<KeeperException> firstException = new AtomicReference<>();
+
+    public RequestPipeline(int requestCount) {
+      completedSignal = new CountDownLatch(requestCount);
+    }
+
+    // Return false if the request should not be issued anymore
+    public Boolean beforeIssue() throws InterruptedException {
+      if (firstException.get() != null) {
+        completedSignal.countDown();
+        return false;
+      }
+      inFlightPermits.acquire();
+      return true;
+    }
+
+    public void afterComplete(int rc, String path) {
+      if (rc != Code.OK.intValue()) {
+        firstException.compareAndSet(null, KeeperException.create(Code.get(rc), path));
+      }
+      inFlightPermits.release();
+      completedSignal.countDown();
+    }
+
+    public void await() throws Exception {
+      completedSignal.await();
+      if (firstException.get() != null) {
+        throw firstException.get();
+      }
+    }
+  }
+
+  // Create given nodes with pipelined async requests, and fill the created paths in the given order,
+  // so that the created nodes are also known if the creation failed.
+  // For PERSISTENT nodes, exist node will be set, the same as createNode.
+  private void createNodesPipelined(
+      List<String> paths, List<byte[]> datas, CreateMode mode, String[] createdPaths) throws Exception {
+    RequestPipeline pipeline = new RequestPipeline(paths.size());
+    List<Integer> existIndexes = Collections.synchronizedList(new ArrayList<>());
+
+    for (int i = 0; i < paths.size(); i++) {
+      if (!pipeline.beforeIssue()) {
+        continue;
+      }
+
+      final int index = i;
+      zk.create(paths.get(i), datas.get(i), Ids.OPEN_ACL_UNSAFE, mode, (rc, path, ctx, name) -> {
+        if (rc == Code.NODEEXISTS.intValue() && mode == CreateMode.PERSISTENT) {
+          existIndexes.add(index);
+          rc = Code.OK.intValue();
+        } else {
+          createdPaths[index] = name;
+        }
+        pipeline.afterComplete(rc, path);
+      }, null);
+    }
+    pipeline.await();
+
+    // Rare case, fallback to synchronous requests
+    for (Integer existIndex : existIndexes) {
+      createNode(paths.get(existIndex), datas.get(existIndex));
+      createdPaths[existIndex] = paths.get(existIndex);
+    }
+  }
+
+  // Get data of given nodes with pipelined async requests, and return the concatenated data in the given order.
+  private List<byte[]> getDataPipelined(List<String> paths) throws Exception {
+    byte[][] datas = new byte[paths.size()][];
+    RequestPipeline pipeline = new RequestPipeline(paths.size());
+
+    for (int i = 0; i < paths.size(); i++) {
+      if (!pipeline.beforeIssue()) {
+        continue;
+      }
+
+      final int index = i;
+      zk.getData(paths.get(i), true, (rc, path, ctx, data, stat) -> {
+        datas[index] = data;
+        pipeline.afterComplete(rc, path);
+      }, null);
+    }
+    pipeline.await();
+
+    return Arrays.asList(datas);
+  }
+
+  // Get children of given nodes with pipelined async requests, and return them in the given order.
+  // The children of not exist node is empty.
+  private List<List<String>> getChildrenPipelined(List<String> paths) throws Exception {
+    List<List<String>> childrens = new ArrayList<>(Collections.nCopies(paths.size(), null));
+    RequestPipeline pipeline = new RequestPipeline(paths.size());
+
+    for (int i = 0; i < paths.size(); i++) {
+      if (!pipeline.beforeIssue()) {
+        continue;
+      }
+
+      final int index = i;
+      zk.getChildren(paths.get(i), false, (rc, path, ctx, children) -> {
+        if (rc == Code.NONODE.intValue()) {
+          children = Collections.emptyList();
+          rc = Code.OK.intValue();
+        }
+        childrens.set(index, children);
+        pipeline.afterComplete(rc, path);
+      }, null);
+    }
+    pipeline.await();
+
+    return childrens;
+  }
+
+  // Split the payload into PayloadParts by ZK_MAX_NODE_BYTES
+  // PayloadPart: {partIndex : [partStartOffset, partEndOffset)}
+  private static List<byte[]> splitPayload(byte[] payload) {
+    List<byte[]> payloadParts = new ArrayList<>();
+    for (int partStartOffset = 0; partStartOffset < payload.length; partStartOffset += ZK_MAX_NODE_BYTES) {
+      int partEndOffset = Math.min(payload.length, partStartOffset + ZK_MAX_NODE_BYTES);
+      int partBytes = partEndOffset - partStartOffset;
+      payloadParts.add(CommonUtils.subArray(payload, partStartOffset, partBytes));
+    }
+    return payloadParts;
+  }
+
   // Delete given node in given path, no matter the given path exist or not.
   // DISTRIBUTED THREAD SAFE
   public void deleteRecursively(String path) throws Exception {
@@ -144,16 +336,78 @@ public void deleteRecursively(String path, Boolean childrenOnly) throws Exceptio
     }
   }
 
+  // Delete given nodes and all their descendants by ZK multi in batches, no matter the given paths exist or not.
+  // The descendants are listed level by level with pipelined requests, and each batch is bounded by
+  // ZK_MAX_NODE_BYTES and deletes the deeper nodes first. If any node of a batch is concurrently changed,
+  // the batch fallbacks to be deleted one by one.
+  // DISTRIBUTED THREAD SAFE
+  public void deleteRecursively(Collection<String> paths) throws Exception {
+    long start = System.currentTimeMillis();
+
+    List<String> subTreePaths = new ArrayList<>();
+    List<String> levelPaths = new ArrayList<>(paths);
+    while (!levelPaths.isEmpty()) {
+      subTreePaths.addAll(levelPaths);
+      List<List<String>> levelChildrens = getChildrenPipelined(levelPaths);
+      List<String> nextLevelPaths = new ArrayList<>();
+      for (int i = 0; i < levelPaths.size(); i++) {
+        for (String child : levelChildrens.get(i)) {
+          nextLevelPaths.add(ZookeeperStoreStructure.getNodePath(levelPaths.get(i), child));
+        }
+      }
+      levelPaths = nextLevelPaths;
+    }
+    Collections.reverse(subTreePaths);
+
+    List<String> batchPaths = new ArrayList<>();
+    long batchBytes = 0;
+    int batchCount = 0;
+    for (String path : subTreePaths) {
+      if (!batchPaths.isEmpty() && batchBytes + path.length() > ZK_MAX_NODE_BYTES) {
+        deleteNodes(batchPaths);
+        batchPaths.clear();
+        batchBytes = 0;
+        batchCount++;
+      }
+
+      batchPaths.add(path);
+      batchBytes += path.length();
+    }
+    if (!batchPaths.isEmpty()) {
+      deleteNodes(batchPaths);
+      batchCount++;
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("deleteRecursively with %s paths and %s nodes in %s batches in %sms.",
+        paths.size(), subTreePaths.size(), batchCount, end - start);
+  }
+
+  private void deleteNodes(List<String> paths) throws Exception {
+    List<Op> ops = new ArrayList<>(paths.size());
+    for (String path : paths) {
+      ops.add(Op.delete(path, -1));
+    }
+
+    try {
+      zk.multi(ops);
+    } catch (KeeperException.NoNodeException | KeeperException.NotEmptyException e) {
+      for (String path : paths) {
+        deleteRecursively(path, false);
+      }
+    }
+  }
+
   // Set/Get small size (<= ZK_MAX_NODE_BYTES) object to the node of the given path, no matter the given path exist or not.
   // DISTRIBUTED THREAD SAFE
   public <T> void setSmallObject(String path, T obj) throws Exception {
-    byte[] serializedObj = YamlUtils.toBytes(obj);
+    byte[] serializedObj = SerializationUtils.toBytes(obj, zkSerializationType);
 
     long start = System.currentTimeMillis();
 
     byte[] payload;
     if (zkCompressionEnable) {
-      payload = CompressionUtils.compress(serializedObj);
+      payload = compress(serializedObj);
     } else {
       payload = serializedObj;
     }
@@ -164,6 +418,54 @@ public <T> void setSmallObject(String path, T obj) throws Exception {
         serializedObj.length, path, end - start);
   }
 
+  // Set small size objects by ZK multi in batches, each of which is bounded by ZK_MAX_NODE_BYTES
+  // and is Set atomically. If any node of a batch does not exist, the batch fallbacks to be created
+  // with pipelined requests.
+  // DISTRIBUTED THREAD SAFE
+  public <T> void setSmallObjects(Map<String, T> pathObjs) throws Exception {
+    long start = System.currentTimeMillis();
+
+    List<String> batchPaths = new ArrayList<>();
+    List<byte[]> batchPayloads = new ArrayList<>();
+    long batchBytes = 0;
+    int batchCount = 0;
+    for (Map.Entry<String, T> pathObj : pathObjs.entrySet()) {
+      byte[] payload = toPayload(pathObj.getValue());
+      if (!batchPaths.isEmpty() && batchBytes + payload.length > ZK_MAX_NODE_BYTES) {
+        setNodes(batchPaths, batchPayloads);
+        batchPaths.clear();
+        batchPayloads.clear();
+        batchBytes = 0;
+        batchCount++;
+      }
+
+      batchPaths.add(pathObj.getKey());
+      batchPayloads.add(payload);
+      batchBytes += payload.length;
+    }
+    if (!batchPaths.isEmpty()) {
+      setNodes(batchPaths, batchPayloads);
+      batchCount++;
+    }
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("setSmallObjects with %s objects in %s batches in %sms.",
+        pathObjs.size(), batchCount, end - start);
+  }
+
+  private void setNodes(List<String> paths, List<byte[]> payloads) throws Exception {
+    List<Op> ops = new ArrayList<>(paths.size());
+    for (int i = 0; i < paths.size(); i++) {
+      ops.add(Op.setData(paths.get(i), payloads.get(i), -1));
+    }
+
+    try {
+      zk.multi(ops);
+    } catch (KeeperException.NoNodeException e) {
+      createNodesPipelined(paths, payloads, CreateMode.PERSISTENT, new String[paths.size()]);
+    }
+  }
+
   // DISTRIBUTED THREAD SAFE
   public <T> T getSmallObject(String path, Class<T> classRef) throws Exception {
     long start = System.currentTimeMillis();
@@ -174,20 +476,145 @@ public <T> T getSmallObject(String path, Class<T> classRef) throws Exception {
     LOGGER.logDebug("getSmallObject with %s bytes on path %s in %sms.",
         serializedObj.length, path, end - start);
 
-    return YamlUtils.toObject(serializedObj, classRef);
+    return SerializationUtils.toObject(serializedObj, classRef);
+  }
+
+  // Set small size object only if the node of the given path is still in the expectedVersion,
+  // and return whether it is set. The expectedVersion can be got by getSmallObject with Stat.
+  // DISTRIBUTED THREAD SAFE
+  public <T> Boolean compareAndSetSmallObject(String path, T obj, int expectedVersion) throws Exception {
+    byte[] payload = toPayload(obj);
+    try {
+      if (expectedVersion == NEW_NODE_VERSION) {
+        create(path, payload, CreateMode.PERSISTENT);
+      } else {
+        zk.setData(path, payload, expectedVersion);
+      }
+      return true;
+    } catch (KeeperException.NodeExistsException |
+        KeeperException.NoNodeException |
+        KeeperException.BadVersionException e) {
+      LOGGER.logDebug(e, "compareAndSetSmallObject on path %s with version %s failed.", path, expectedVersion);
+      return false;
+    }
+  }
+
+  // DISTRIBUTED THREAD SAFE
+  public <T> T getSmallObject(String path, Class<T> classRef, Stat stat) throws Exception {
+    return fromPayload(getData(path, stat), classRef);
+  }
+
+  // Get the version of the small object on the given path, which is changed whenever the object is
+  // changed, even if the node is deleted and recreated, so it can be used to validate a cached object.
+  // Null means the version is not supported, so the object should not be cached.
+  // DISTRIBUTED THREAD SAFE
+  public String getSmallObjectVersion(String path) throws Exception {
+    Stat stat = zk.exists(path, false);
+    if (stat == null) {
+      throw new KeeperException.NoNodeException(path);
+    }
+    return getSmallObjectVersion(stat);
+  }
+
+  // Get the version of the small object from the Stat got by getSmallObject with Stat.
+  // The Stat version is not used since it is restarted from 0 after the node is recreated.
+  public String getSmallObjectVersion(Stat stat) {
+    return Long.toString(stat.getMzxid());
+  }
+
+  // Create any size object as immutable PayloadParts under the given parent path, and return the
+  // PayloadPart node names in order.
+  // The PayloadParts will never be changed, so they should be referenced by another atomically
+  // updated node, which is also responsible to delete them when they are no longer referenced.
+  // DISTRIBUTED THREAD SAFE
+  public <T> List<String> createPayloadParts(String parentPath, T obj) throws Exception {
+    List<byte[]> payloadParts = splitPayload(toPayload(obj));
+    String normalizedParentPath = ZookeeperStoreStructure.getNodePath(parentPath, "");
+    List<String> partPaths = new ArrayList<>(Collections.nCopies(payloadParts.size(), normalizedParentPath));
+
+    String[] createdPartPaths = new String[payloadParts.size()];
+    Exception createException = null;
+    try {
+      createNodesPipelined(partPaths, payloadParts, CreateMode.PERSISTENT_SEQUENTIAL, createdPartPaths);
+    } catch (Exception e) {
+      createException = e;
+    }
+
+    List<String> partNames = new ArrayList<>();
+    for (String createdPartPath : createdPartPaths) {
+      if (createdPartPath != null) {
+        partNames.add(ZookeeperStoreStructure.getNodeName(createdPartPath));
+      }
+    }
+
+    if (createException != null) {
+      deletePayloadParts(parentPath, partNames);
+      throw createException;
+    }
+    return partNames;
+  }
+
+  // DISTRIBUTED THREAD SAFE
+  public <T> T getPayloadParts(String parentPath, List<String> partNames, Class<T> classRef) throws Exception {
+    List<String> partPaths = new ArrayList<>();
+    for (String partName : partNames) {
+      partPaths.add(ZookeeperStoreStructure.getNodePath(parentPath, partName));
+    }
+    return fromPayloadParts(getDataPipelined(partPaths), classRef);
+  }
+
+  // Try best to delete the PayloadParts
+  public void deletePayloadParts(String parentPath, List<String> partNames) {
+    for (String partName : partNames) {
+      String partPath = ZookeeperStoreStructure.getNodePath(parentPath, partName);
+      try {
+        deleteRecursively(partPath);
+      } catch (Exception e) {
+        LOGGER.logDebug(e, "Failed to Delete PayloadPart %s", partPath);
+      }
+    }
+  }
+
+  private <T> byte[] toPayload(T obj) throws Exception {
+    byte[] serializedObj = SerializationUtils.toBytes(obj, zkSerializationType);
+    if (zkCompressionEnable) {
+      return compress(serializedObj);
+    } else {
+      return serializedObj;
+    }
+  }
+
+  private byte[] compress(byte[] serializedObj) throws IOException {
+    return CompressionUtils.compress(serializedObj, zkCompressionType, zkCompressionLevel);
+  }
+
+  private static <T> T fromPayload(byte[] payload, Class<T> classRef) throws Exception {
+    return SerializationUtils.toObject(CompressionUtils.decompress(payload), classRef);
+  }
+
+  // Decompress and deserialize the PayloadParts as a single stream, so that the whole payload
+  // is never assembled, which is much cheaper for a large object.
+  private static <T> T fromPayloadParts(List<byte[]> payloadParts, Class<T> classRef) throws Exception {
+    if (payloadParts.size() == 1) {
+      return fromPayload(payloadParts.get(0), classRef);
+    }
+
+    try (InputStream payloadStream = CompressionUtils.decompress(CommonUtils.concatArraysToStream(payloadParts))) {
+      return SerializationUtils.toObject(payloadStream, classRef);
+    }
   }
 
   // Set/Get large size (> ZK_MAX_NODE_BYTES) object to the node of the given path, no matter the given path exist or not.
   // Note the node of the given path can only be leaf node.
   // DISTRIBUTED THREAD SAFE and Atomic like getSmallObject
   public <T> void setLargeObject(String path, T obj) throws Exception {
-    byte[] serializedObj = YamlUtils.toBytes(obj);
+    byte[] serializedObj = SerializationUtils.toBytes(obj, zkSerializationType);
 
     long start = System.currentTimeMillis();
 
     byte[] payload;
     if (zkCompressionEnable) {
-      payload = CompressionUtils.compress(serializedObj);
+      payload = compress(serializedObj);
     } else {
       payload = serializedObj;
     }
@@ -215,20 +642,17 @@ public <T> void setLargeObject(String path, T obj) throws Exception {
     String payloadRootPath = ZookeeperStoreStructure.getNodePath(path, payloadVersion);
 
     // Split and Set Payload
+    // All PayloadParts are Set before the PayloadVersion is added under ReadyPayloadVersionsRootPath,
+    // so they can be Set concurrently.
     try {
-      for (int partStartOffset = 0; partStartOffset < payload.length; partStartOffset += ZK_MAX_NODE_BYTES) {
-        // Split Payload by ZK_MAX_NODE_BYTES to PayloadParts
-        // PayloadPart: {partIndex : [partStartOffset, partEndOffset)}
-        int partEndOffset = Math.min(payload.length, partStartOffset + ZK_MAX_NODE_BYTES);
-        int partBytes = partEndOffset - partStartOffset;
-        byte[] payloadPart = CommonUtils.subArray(payload, partStartOffset, partBytes);
-
+      List<byte[]> payloadParts = splitPayload(payload);
+      List<String> partIndexPaths = new ArrayList<>();
+      for (Integer partIndex = 0; partIndex < payloadParts.size(); partIndex++) {
         // Set each PayloadParts into corresponding PayloadPartPath, i.e. Path/{PayloadVersion}/{PayLoadPartIndex}
-        Integer partIndex = partStartOffset / ZK_MAX_NODE_BYTES;
         String partIndexStr = partIndex.toString();
-        String partIndexPath = ZookeeperStoreStructure.getNodePath(payloadRootPath, partIndexStr);
-        createNode(partIndexPath, payloadPart);
+        partIndexPaths.add(ZookeeperStoreStructure.getNodePath(payloadRootPath, partIndexStr));
       }
+      createNodesPipelined(partIndexPaths, payloadParts, CreateMode.PERSISTENT, new String[payloadParts.size()]);
     } catch (KeeperException.NoNodeException e) {
       LOGGER.logWarning(e,
           "Failed to Set PayloadParts under Path %s due to NoNode ZkException. " +
@@ -307,6 +731,20 @@ private static String getLatestVersion(ZooKeeperClient zkClient, String versions
   }
 
 
+  // Get the version of the large object on the given path, see getSmallObjectVersion.
+  // Each setLargeObject changes the children of the ReadyPayloadVersionsRootPath, so its pzxid is
+  // changed with the object. Note the version may be changed without the object changed, such as
+  // after the old versions are GCed, which only causes an unnecessary cache miss.
+  // DISTRIBUTED THREAD SAFE
+  public String getLargeObjectVersion(String path) throws Exception {
+    String readyPayloadVersionsRootPath = ZookeeperStoreStructure.getNodePath(path, READY_PAYLOAD_VERSIONS_NODE_NAME);
+    Stat stat = zk.exists(readyPayloadVersionsRootPath, false);
+    if (stat == null) {
+      throw new KeeperException.NoNodeException(readyPayloadVersionsRootPath);
+    }
+    return stat.getCzxid() + ":" + stat.getPzxid();
+  }
+
   // DISTRIBUTED THREAD SAFE and Atomic like getSmallObject
   public <T> T getLargeObject(String path, Class<T> classRef) throws Exception {
     // Get the Payload of the latest ReadyPayloadVersion which is complete.
@@ -335,10 +773,11 @@ private static <T> T getLargeObjectInternal(ZooKeeperClient zkClient, String pat
 
     // Get PayloadParts from all child nodes under Path/{PayloadRootPath}/
     String payloadRootPath = ZookeeperStoreStructure.getNodePath(path, completePayloadVersion);
-    byte[] payload = new byte[0];
+    List<byte[]> payloadParts = new ArrayList<>();
     Boolean isCorrupt = false;
     try {
       List<String> partIndexStrs = zkClient.getChildren(payloadRootPath);
+      List<String> partIndexPaths = new ArrayList<>();
       for (Integer partIndex = 0; partIndex < partIndexStrs.size(); partIndex++) {
         // Get each PayloadParts in PayloadPartPath, i.e. Path/{PayloadRootPath}/{PayLoadPartIndex}
         String partIndexStr = partIndex.toString();
@@ -346,10 +785,11 @@ private static <T> T getLargeObjectInternal(ZooKeeperClient zkClient, String pat
           isCorrupt = true;
           break;
         }
+        partIndexPaths.add(ZookeeperStoreStructure.getNodePath(payloadRootPath, partIndexStr));
+      }
 
-        String partIndexPath = ZookeeperStoreStructure.getNodePath(payloadRootPath, partIndexStr);
-        byte[] payloadPart = zkClient.getData(partIndexPath);
-        payload = CommonUtils.concatArrays(payload, payloadPart);
+      if (!isCorrupt) {
+        payloadParts = zkClient.getDataPipelined(partIndexPaths);
       }
     } catch (KeeperException.NoNodeException e) {
       LOGGER.logWarning(e,
@@ -378,12 +818,16 @@ private static <T> T getLargeObjectInternal(ZooKeeperClient zkClient, String pat
               payloadRootPath));
     }
 
-    byte[] serializedObj = CompressionUtils.decompress(payload);
+    T obj = fromPayloadParts(payloadParts, classRef);
 
+    long payloadBytes = 0;
+    for (byte[] payloadPart : payloadParts) {
+      payloadBytes += payloadPart.length;
+    }
     long end = System.currentTimeMillis();
-    LOGGER.logDebug("getLargeObject with %s bytes on path %s in %sms.",
-        serializedObj.length, path, end - start);
+    LOGGER.logDebug("getLargeObject with %s payload bytes in %s parts on path %s in %sms.",
+        payloadBytes, payloadParts.size(), path, end - start);
 
-    return YamlUtils.toObject(serializedObj, classRef);
+    return obj;
   }
 }
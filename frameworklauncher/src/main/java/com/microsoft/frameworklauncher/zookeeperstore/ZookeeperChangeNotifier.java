@@ -0,0 +1,149 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.log.DefaultLogger;
+import com.microsoft.frameworklauncher.common.store.ChangeNotifier;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// Notify the changed nodes under the watched subtrees by ZK watches, so that the consumer can be
+// waked up promptly once the subtrees changed, instead of only polling them with a fixed interval.
+// Note ZK watch is one-time trigger, so the watches of the changed nodes are set again before they
+// are returned to the consumer, then the changes after the consumer read them will be notified next time.
+public class ZookeeperChangeNotifier implements ChangeNotifier, Watcher { // THREAD SAFE
+  private static final DefaultLogger LOGGER = new DefaultLogger(ZookeeperChangeNotifier.class);
+
+  private final ZooKeeperClient zkClient;
+  // Watched subtree RootPath -> Max depth of the watched nodes under the RootPath
+  // Depth 0 means only the RootPath itself is watched, and depth 1 means its children are also watched, etc.
+  private final Map<String, Integer> rootPathDepths;
+  // Whether the node of the path under the RootPaths and its subtree are watched, null means all are watched.
+  // It is used to skip the nodes which are changed together with a watched one, such as the PayloadParts.
+  private final Predicate<String> pathFilter;
+  // Paths of the nodes which are being watched, only accessed by the consumer
+  private final TreeSet<String> watchedPaths = new TreeSet<>();
+
+  // Changed paths which are notified but not yet returned to the consumer
+  private final Set<String> changedPaths = new HashSet<>();
+  // Whether some changes may be missed, such as the watches are lost due to ZK session expired
+  private Boolean changesMissed = false;
+
+  public ZookeeperChangeNotifier(ZooKeeperClient zkClient, Map<String, Integer> rootPathDepths) throws Exception {
+    this(zkClient, rootPathDepths, null);
+  }
+
+  public ZookeeperChangeNotifier(
+      ZooKeeperClient zkClient, Map<String, Integer> rootPathDepths, Predicate<String> pathFilter) throws Exception {
+    this.zkClient = zkClient;
+    this.rootPathDepths = new HashMap<>(rootPathDepths);
+    this.pathFilter = pathFilter;
+
+    for (Map.Entry<String, Integer> rootPathDepth : this.rootPathDepths.entrySet()) {
+      watchSubtree(rootPathDepth.getKey(), rootPathDepth.getValue());
+    }
+  }
+
+  @Override
+  public synchronized void process(WatchedEvent event) {
+    if (event.getType() == Event.EventType.None) {
+      // Watches are kept across ZK reconnections within the same session
+      if (event.getState() == Event.KeeperState.Expired) {
+        LOGGER.logWarning("ZK session expired, the watched changes may be missed.");
+        changesMissed = true;
+        notifyAll();
+      }
+      return;
+    }
+
+    changedPaths.add(event.getPath());
+    notifyAll();
+  }
+
+  @Override
+  public Set<String> waitChanges(long timeoutMs) throws Exception {
+    Set<String> paths;
+    Boolean missed;
+    synchronized (this) {
+      long deadline = System.currentTimeMillis() + timeoutMs;
+      while (changedPaths.isEmpty() && !changesMissed) {
+        long remainingMs = deadline - System.currentTimeMillis();
+        if (remainingMs <= 0) {
+          break;
+        }
+        wait(remainingMs);
+      }
+
+      paths = new HashSet<>(changedPaths);
+      missed = changesMissed;
+      changedPaths.clear();
+      changesMissed = false;
+    }
+
+    // Watch again before the consumer reads the changed nodes
+    for (String path : paths) {
+      Integer remainingDepth = ZookeeperStoreStructure.getRemainingDepth(rootPathDepths, path);
+      if (remainingDepth != null) {
+        watchSubtree(path, remainingDepth);
+      }
+    }
+
+    if (missed || paths.isEmpty()) {
+      return null;
+    }
+
+    LOGGER.logDebug("Notified %s changed paths", paths.size());
+    return paths;
+  }
+
+  private void watchSubtree(String path, int remainingDepth) throws Exception {
+    if (!zkClient.exists(path, this)) {
+      unwatchSubtree(path);
+      return;
+    }
+    watchedPaths.add(path);
+
+    if (remainingDepth > 0) {
+      List<String> children;
+      try {
+        children = zkClient.getChildren(path, this);
+      } catch (KeeperException.NoNodeException e) {
+        unwatchSubtree(path);
+        return;
+      }
+
+      // Only need to watch new children, since the watches on the others are still set
+      for (String child : children) {
+        String childPath = ZookeeperStoreStructure.getNodePath(path, child);
+        if (!watchedPaths.contains(childPath) && (pathFilter == null || pathFilter.test(childPath))) {
+          watchSubtree(childPath, remainingDepth - 1);
+        }
+      }
+    }
+  }
+
+  private void unwatchSubtree(String path) {
+    String pathPrefix = ZookeeperStoreStructure.getNodePath(path, "");
+    watchedPaths.remove(path);
+    watchedPaths.subSet(pathPrefix, pathPrefix + Character.MAX_VALUE).clear();
+  }
+}
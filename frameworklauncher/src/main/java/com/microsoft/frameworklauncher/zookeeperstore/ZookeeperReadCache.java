@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.utils.ModelUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Cache the deserialized objects read from ZK, keyed by the node path and validated by the node
+// version, so that an unchanged node can be read by a cheap exists instead of fetching, decompressing
+// and deserializing its whole payload again.
+// The version should be changed whenever the node content is changed, even if the node is deleted
+// and recreated, so the caller should use the mzxid or czxid instead of the Stat version.
+// Entries are evicted in LRU order once exceeded maxEntries, and also expired after expiryMs as a
+// safety net to always re-read the nodes in the end.
+public class ZookeeperReadCache { // THREAD SAFE
+  private static class Entry {
+    private final String version;
+    private final Object obj;
+    private final long cachedTimestamp;
+
+    private Entry(String version, Object obj, long cachedTimestamp) {
+      this.version = version;
+      this.obj = obj;
+      this.cachedTimestamp = cachedTimestamp;
+    }
+  }
+
+  private final int maxEntries;
+  private final long expiryMs;
+  // Whether the cached objects are directly returned to the callers, so the callers must not modify them.
+  // Otherwise, a deep copy is returned for each get and put.
+  private final Boolean shareObjects;
+  // Path -> Entry, in access order
+  private final LinkedHashMap<String, Entry> entries;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+
+  public ZookeeperReadCache(int maxEntries, long expiryMs, Boolean shareObjects) {
+    this.maxEntries = maxEntries;
+    this.expiryMs = expiryMs;
+    this.shareObjects = shareObjects;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > ZookeeperReadCache.this.maxEntries;
+      }
+    };
+  }
+
+  // Get the cached object of the path only if it is cached with the same version and not expired,
+  // otherwise return null.
+  public <T> T get(String path, String version, Class<T> classRef) {
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(path);
+      if (entry == null ||
+          !entry.version.equals(version) ||
+          !classRef.isInstance(entry.obj) ||
+          System.currentTimeMillis() - entry.cachedTimestamp > expiryMs) {
+        if (entry != null) {
+          entries.remove(path);
+        }
+        missCount++;
+        return null;
+      }
+      hitCount++;
+    }
+
+    return toCaller(classRef.cast(entry.obj));
+  }
+
+  // Cache the object of the path with the version, and return the object which should be returned to the caller.
+  public <T> T put(String path, String version, T obj) {
+    if (obj == null) {
+      invalidate(path);
+      return null;
+    }
+
+    synchronized (this) {
+      entries.put(path, new Entry(version, obj, System.currentTimeMillis()));
+    }
+    return toCaller(obj);
+  }
+
+  public synchronized void invalidate(String path) {
+    entries.remove(path);
+  }
+
+  // Invalidate the path and all the paths under it
+  public synchronized void invalidateRecursively(String path) {
+    String childPathPrefix = ZookeeperStoreStructure.getNodePath(path, "");
+    Iterator<String> iterator = entries.keySet().iterator();
+    while (iterator.hasNext()) {
+      String cachedPath = iterator.next();
+      if (cachedPath.equals(path) || cachedPath.startsWith(childPathPrefix)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  private <T> T toCaller(T obj) {
+    if (shareObjects) {
+      return obj;
+    } else {
+      return ModelUtils.deepCopy(obj);
+    }
+  }
+}
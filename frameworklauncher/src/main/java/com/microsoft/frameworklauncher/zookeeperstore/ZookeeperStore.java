@@ -17,33 +17,206 @@
 
 package com.microsoft.frameworklauncher.zookeeperstore;
 
+import com.microsoft.frameworklauncher.common.exceptions.NonTransientException;
 import com.microsoft.frameworklauncher.common.log.DefaultLogger;
 import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 
-import java.util.HashMap;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class ZookeeperStore {
+public class ZookeeperStore implements LauncherStore {
   private static final DefaultLogger LOGGER = new DefaultLogger(ZookeeperStore.class);
 
   protected final ZooKeeperClient zkClient;
   protected final ZookeeperStoreStructure zkStruct;
+  // Number of threads to read the Frameworks concurrently when get the whole Launcher state tree,
+  // null or not greater than 1 means read them sequentially.
+  private final Integer recoveryParallelism;
+  // Cache of the objects read by this ZookeeperStore, null means no cache.
+  private final ZookeeperReadCache readCache;
+
+  public ZookeeperStore(
+      String connectString, String launcherRootPath,
+      Boolean compressionEnable, CompressionType compressionType, Integer compressionLevel,
+      SerializationType serializationType) throws Exception {
+    this(connectString, launcherRootPath, compressionEnable, compressionType, compressionLevel, serializationType, 1);
+  }
 
-  public ZookeeperStore(String connectString, String launcherRootPath, Boolean compressionEnable) throws Exception {
+  public ZookeeperStore(
+      String connectString, String launcherRootPath,
+      Boolean compressionEnable, CompressionType compressionType, Integer compressionLevel,
+      SerializationType serializationType, Integer recoveryParallelism) throws Exception {
     LOGGER.logInfo(
-        "Initializing ZookeeperStore: [ConnectString] = [%s], [LauncherRootPath] = [%s], [CompressionEnable] = [%s]",
-        connectString, launcherRootPath, compressionEnable);
-
-    zkClient = new ZooKeeperClient(connectString, compressionEnable);
+        "Initializing ZookeeperStore: [ConnectString] = [%s], [LauncherRootPath] = [%s], " +
+            "[CompressionEnable] = [%s], [CompressionType] = [%s], [CompressionLevel] = [%s], " +
+            "[SerializationType] = [%s], [RecoveryParallelism] = [%s]",
+        connectString, launcherRootPath, compressionEnable, compressionType, compressionLevel,
+        serializationType, recoveryParallelism);
+
+    zkClient = new ZooKeeperClient(
+        connectString, compressionEnable, compressionType, compressionLevel, serializationType);
     zkStruct = new ZookeeperStoreStructure(launcherRootPath);
+    this.recoveryParallelism = recoveryParallelism;
+    readCache = null;
 
     setupZKStructure();
   }
 
   // ONLY for testing
   protected ZookeeperStore(ZooKeeperClient zkClient, ZookeeperStoreStructure zkStruct) {
+    this(zkClient, zkStruct, 1);
+  }
+
+  // ONLY for testing
+  protected ZookeeperStore(ZooKeeperClient zkClient, ZookeeperStoreStructure zkStruct, Integer recoveryParallelism) {
     this.zkClient = zkClient;
     this.zkStruct = zkStruct;
+    this.recoveryParallelism = recoveryParallelism;
+    this.readCache = null;
+  }
+
+  private ZookeeperStore(ZookeeperStore zkStore, ZookeeperReadCache readCache) {
+    this.zkClient = zkStore.zkClient;
+    this.zkStruct = zkStore.zkStruct;
+    this.recoveryParallelism = zkStore.recoveryParallelism;
+    this.readCache = readCache;
+  }
+
+  // Return a view of this ZookeeperStore which shares the same ZK connection, but caches the
+  // objects it read, so that the unchanged nodes are not fetched and deserialized again.
+  // The view should be owned by a single reader, since its cache is only updated by itself.
+  // If shareObjects, the cached objects are directly returned to the reader, so the reader must
+  // not modify any returned object, otherwise, each returned object is a deep copy.
+  // Non-positive maxEntries means the cache is disabled, so this ZookeeperStore itself is returned.
+  @Override
+  public ZookeeperStore withReadCache(Integer maxEntries, Integer expirySec, Boolean shareObjects) {
+    if (maxEntries == null || maxEntries <= 0) {
+      return this;
+    }
+
+    LOGGER.logInfo(
+        "Initializing ZookeeperStore ReadCache: [MaxEntries] = [%s], [ExpirySec] = [%s], [ShareObjects] = [%s]",
+        maxEntries, expirySec, shareObjects);
+    return new ZookeeperStore(this, new ZookeeperReadCache(maxEntries, expirySec * 1000L, shareObjects));
+  }
+
+  private <T> T getSmallObject(String path, Class<T> classRef) throws Exception {
+    if (readCache == null) {
+      return zkClient.getSmallObject(path, classRef);
+    }
+
+    String version;
+    try {
+      version = zkClient.getSmallObjectVersion(path);
+    } catch (KeeperException.NoNodeException e) {
+      readCache.invalidate(path);
+      throw e;
+    }
+    if (version != null) {
+      T obj = readCache.get(path, version, classRef);
+      if (obj != null) {
+        return obj;
+      }
+    }
+
+    // Cache the object with the version it is read, since it may be changed after the version is got
+    Stat stat = new Stat();
+    T obj = zkClient.getSmallObject(path, classRef, stat);
+    String readVersion = zkClient.getSmallObjectVersion(stat);
+    if (readVersion == null) {
+      return obj;
+    }
+    return readCache.put(path, readVersion, obj);
+  }
+
+  private <T> T getLargeObject(String path, Class<T> classRef) throws Exception {
+    if (readCache == null) {
+      return zkClient.getLargeObject(path, classRef);
+    }
+
+    String version;
+    try {
+      version = zkClient.getLargeObjectVersion(path);
+    } catch (KeeperException.NoNodeException e) {
+      readCache.invalidate(path);
+      throw e;
+    }
+    if (version == null) {
+      return zkClient.getLargeObject(path, classRef);
+    }
+
+    T obj = readCache.get(path, version, classRef);
+    if (obj != null) {
+      return obj;
+    }
+
+    // The object read may be newer than the version, which only causes an unnecessary cache miss next time
+    return readCache.put(path, version, zkClient.getLargeObject(path, classRef));
+  }
+
+  private void invalidateReadCache(String path) {
+    if (readCache != null) {
+      readCache.invalidateRecursively(path);
+    }
+  }
+
+  private static ExecutorService newRecoveryExecutor(int threadCount) {
+    AtomicInteger threadIndex = new AtomicInteger();
+    return Executors.newFixedThreadPool(threadCount, runnable -> {
+      Thread thread = new Thread(runnable, "ZookeeperStore-Recovery-" + threadIndex.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private interface FrameworkReader {
+    void read(String frameworkName) throws Exception;
+  }
+
+  // Read each Framework by the frameworkReader, concurrently if recoveryParallelism is enabled, so the
+  // frameworkReader should be THREAD SAFE.
+  // The threads are only started for the read and stopped after it, since the reads are infrequent.
+  // Any exception thrown by the frameworkReader will be rethrown and the remaining reads are cancelled.
+  private void readFrameworks(Collection<String> frameworkNames, FrameworkReader frameworkReader) throws Exception {
+    if (recoveryParallelism == null || recoveryParallelism <= 1 || frameworkNames.size() <= 1) {
+      for (String frameworkName : frameworkNames) {
+        frameworkReader.read(frameworkName);
+      }
+      return;
+    }
+
+    ExecutorService recoveryExecutor = newRecoveryExecutor(Math.min(recoveryParallelism, frameworkNames.size()));
+    List<Future<Void>> futures = new ArrayList<>(frameworkNames.size());
+    for (String frameworkName : frameworkNames) {
+      futures.add(recoveryExecutor.submit(() -> {
+        frameworkReader.read(frameworkName);
+        return null;
+      }));
+    }
+
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      } else {
+        throw e;
+      }
+    } finally {
+      for (Future<Void> future : futures) {
+        future.cancel(false);
+      }
+      recoveryExecutor.shutdown();
+    }
   }
 
   // Setup Basic ZookeeperStoreStructure
@@ -54,21 +227,25 @@ private void setupZKStructure() throws Exception {
   }
 
   // Requests
+  @Override
   public LauncherRequest getLauncherRequest() throws Exception {
-    return zkClient.getSmallObject(
+    return getSmallObject(
         zkStruct.getLauncherRequestPath(), LauncherRequest.class);
   }
 
+  @Override
   public void setLauncherRequest(LauncherRequest launcherRequest) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getLauncherRequestPath(), launcherRequest);
   }
 
+  @Override
   public FrameworkRequest getFrameworkRequest(String frameworkName) throws Exception {
-    return zkClient.getSmallObject(
+    return getSmallObject(
         zkStruct.getFrameworkRequestPath(frameworkName), FrameworkRequest.class);
   }
 
+  @Override
   public void setFrameworkRequest(String frameworkName, FrameworkRequest frameworkRequest) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getFrameworkRequestPath(frameworkName), frameworkRequest);
@@ -78,92 +255,387 @@ public void setFrameworkRequest(String frameworkName, FrameworkRequest framework
         zkStruct.getMigrateTaskRequestsPath(frameworkName));
   }
 
+  @Override
+  public void setFrameworkRequests(Map<String, FrameworkRequest> frameworkRequests) throws Exception {
+    Map<String, FrameworkRequest> pathFrameworkRequests = new LinkedHashMap<>();
+    List<String> migrateTaskRequestsPaths = new ArrayList<>();
+    for (Map.Entry<String, FrameworkRequest> frameworkRequest : frameworkRequests.entrySet()) {
+      pathFrameworkRequests.put(
+          zkStruct.getFrameworkRequestPath(frameworkRequest.getKey()), frameworkRequest.getValue());
+      migrateTaskRequestsPaths.add(
+          zkStruct.getMigrateTaskRequestsPath(frameworkRequest.getKey()));
+    }
+    zkClient.setSmallObjects(pathFrameworkRequests);
+
+    // Also prepare the dummy request nodes for their future child nodes
+    zkClient.createPaths(migrateTaskRequestsPaths);
+  }
+
+  @Override
   public void deleteFrameworkRequest(String frameworkName) throws Exception {
     deleteFrameworkRequest(frameworkName, false);
   }
 
+  @Override
   public void deleteFrameworkRequest(String frameworkName, Boolean childrenOnly) throws Exception {
     zkClient.deleteRecursively(
         zkStruct.getFrameworkRequestPath(frameworkName), childrenOnly);
+    invalidateReadCache(zkStruct.getFrameworkRequestPath(frameworkName));
   }
 
+  @Override
+  public void deleteFrameworkRequests(Collection<String> frameworkNames) throws Exception {
+    List<String> paths = new ArrayList<>();
+    for (String frameworkName : frameworkNames) {
+      paths.add(zkStruct.getFrameworkRequestPath(frameworkName));
+    }
+    zkClient.deleteRecursively(paths);
+    for (String path : paths) {
+      invalidateReadCache(path);
+    }
+  }
+
+  @Override
   public OverrideApplicationProgressRequest getOverrideApplicationProgressRequest(String frameworkName) throws Exception {
-    return zkClient.getSmallObject(
+    return getSmallObject(
         zkStruct.getOverrideApplicationProgressRequestPath(frameworkName), OverrideApplicationProgressRequest.class);
   }
 
+  @Override
   public void setOverrideApplicationProgressRequest(String frameworkName, OverrideApplicationProgressRequest overrideApplicationProgressRequest) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getOverrideApplicationProgressRequestPath(frameworkName), overrideApplicationProgressRequest);
   }
 
+  @Override
   public MigrateTaskRequest getMigrateTaskRequest(String frameworkName, String containerId) throws Exception {
-    return zkClient.getSmallObject(
+    return getSmallObject(
         zkStruct.getMigrateTaskRequestPath(frameworkName, containerId), MigrateTaskRequest.class);
   }
 
+  @Override
   public void setMigrateTaskRequest(String frameworkName, String containerId, MigrateTaskRequest migrateTaskRequest) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getMigrateTaskRequestPath(frameworkName, containerId), migrateTaskRequest);
   }
 
+  @Override
   public void deleteMigrateTaskRequest(String frameworkName, String containerId) throws Exception {
     zkClient.deleteRecursively(
         zkStruct.getMigrateTaskRequestPath(frameworkName, containerId));
+    invalidateReadCache(zkStruct.getMigrateTaskRequestPath(frameworkName, containerId));
   }
 
   // Statuses
+  @Override
   public LauncherStatus getLauncherStatus() throws Exception {
-    return zkClient.getSmallObject(
+    return getSmallObject(
         zkStruct.getLauncherStatusPath(), LauncherStatus.class);
   }
 
+  @Override
   public void setLauncherStatus(LauncherStatus launcherStatus) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getLauncherStatusPath(), launcherStatus);
   }
 
+  @Override
   public FrameworkStatus getFrameworkStatus(String frameworkName) throws Exception {
-    return zkClient.getSmallObject(
+    return getSmallObject(
         zkStruct.getFrameworkStatusPath(frameworkName), FrameworkStatus.class);
   }
 
+  @Override
   public void setFrameworkStatus(String frameworkName, FrameworkStatus frameworkStatus) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getFrameworkStatusPath(frameworkName), frameworkStatus);
   }
 
+  @Override
+  public void setFrameworkStatuses(Map<String, FrameworkStatus> frameworkStatuses) throws Exception {
+    Map<String, FrameworkStatus> pathFrameworkStatuses = new LinkedHashMap<>();
+    for (Map.Entry<String, FrameworkStatus> frameworkStatus : frameworkStatuses.entrySet()) {
+      pathFrameworkStatuses.put(
+          zkStruct.getFrameworkStatusPath(frameworkStatus.getKey()), frameworkStatus.getValue());
+    }
+    zkClient.setSmallObjects(pathFrameworkStatuses);
+  }
+
+  @Override
   public void deleteFrameworkStatus(String frameworkName) throws Exception {
     deleteFrameworkStatus(frameworkName, false);
   }
 
+  @Override
   public void deleteFrameworkStatus(String frameworkName, Boolean childrenOnly) throws Exception {
     zkClient.deleteRecursively(
         zkStruct.getFrameworkStatusPath(frameworkName), childrenOnly);
+    invalidateReadCache(zkStruct.getFrameworkStatusPath(frameworkName));
   }
 
+  @Override
   public TaskRoleStatus getTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception {
-    return zkClient.getSmallObject(
+    return getSmallObject(
         zkStruct.getTaskRoleStatusPath(frameworkName, taskRoleName), TaskRoleStatus.class);
   }
 
+  @Override
   public void setTaskRoleStatus(String frameworkName, String taskRoleName, TaskRoleStatus taskRoleStatus) throws Exception {
     zkClient.setSmallObject(
         zkStruct.getTaskRoleStatusPath(frameworkName, taskRoleName), taskRoleStatus);
   }
 
+  // TaskStatuses is stored either as a whole LargeObject in TaskStatusesPath, or as TaskStatusesShards
+  // referenced by the TaskStatusesShardSet. If the TaskStatusesShardSet exists, it is the current one.
+  @Override
   public TaskStatuses getTaskStatuses(String frameworkName, String taskRoleName) throws Exception {
-    return zkClient.getLargeObject(
-        zkStruct.getTaskStatusesPath(frameworkName, taskRoleName), TaskStatuses.class);
+    String shardSetPath = zkStruct.getTaskStatusesShardSetPath(frameworkName, taskRoleName);
+    while (true) {
+      Stat stat = new Stat();
+      TaskStatusesShardSet shardSet;
+      try {
+        shardSet = zkClient.getSmallObject(shardSetPath, TaskStatusesShardSet.class, stat);
+      } catch (KeeperException.NoNodeException e) {
+        try {
+          return getLargeObject(
+              zkStruct.getTaskStatusesPath(frameworkName, taskRoleName), TaskStatuses.class);
+        } catch (KeeperException.NoNodeException ex) {
+          // The whole TaskStatuses may be deleted after switched to TaskStatusesShards
+          if (zkClient.exists(shardSetPath)) {
+            continue;
+          }
+          throw ex;
+        }
+      }
+
+      try {
+        return getTaskStatusesFromShards(frameworkName, taskRoleName, shardSet, stat);
+      } catch (KeeperException.NoNodeException e) {
+        // Check whether the TaskStatusesShardSet is changed during Get TaskStatusesShards.
+        // Only retry for the changes, and the changes can not always happen, so we can always retry like CAS.
+        Stat statAfterGet = new Stat();
+        try {
+          zkClient.getSmallObject(shardSetPath, TaskStatusesShardSet.class, statAfterGet);
+        } catch (KeeperException.NoNodeException ignored) {
+          statAfterGet.setVersion(stat.getVersion() + 1);
+        }
+
+        if (statAfterGet.getVersion() == stat.getVersion()) {
+          throw new NonTransientException(String.format(
+              "[%s][%s]: Got corrupt TaskStatusesShards, but TaskStatusesShardSet version %s is not changed " +
+                  "after Get TaskStatusesShards, it should be corrupt permanently.",
+              frameworkName, taskRoleName, stat.getVersion()), e);
+        }
+
+        LOGGER.logWarning(e,
+            "[%s][%s]: TaskStatusesShardSet version %s changed to %s after Get TaskStatusesShards, will retry again.",
+            frameworkName, taskRoleName, stat.getVersion(), statAfterGet.getVersion());
+      }
+    }
+  }
+
+  // The TaskStatusesShards are immutable, so the TaskStatuses assembled from them can be cached with
+  // the version of the TaskStatusesShardSet which references them.
+  private TaskStatuses getTaskStatusesFromShards(
+      String frameworkName, String taskRoleName, TaskStatusesShardSet shardSet, Stat shardSetStat) throws Exception {
+    String shardsPath = zkStruct.getTaskStatusesShardsPath(frameworkName, taskRoleName);
+    String shardSetVersion = (readCache == null ? null : zkClient.getSmallObjectVersion(shardSetStat));
+    if (shardSetVersion != null) {
+      TaskStatuses cachedTaskStatuses = readCache.get(shardsPath, shardSetVersion, TaskStatuses.class);
+      if (cachedTaskStatuses != null) {
+        return cachedTaskStatuses;
+      }
+    }
+
+    List<TaskStatus> taskStatusArray = new ArrayList<>(shardSet.getTaskNumber());
+    for (TaskStatusesShard shard : shardSet.getShards()) {
+      TaskStatuses shardTaskStatuses = zkClient.getPayloadParts(
+          shardsPath, shard.getPayloadPartNames(), TaskStatuses.class);
+      taskStatusArray.addAll(shardTaskStatuses.getTaskStatusArray());
+    }
+
+    if (taskStatusArray.size() != shardSet.getTaskNumber()) {
+      throw new NonTransientException(String.format(
+          "[%s][%s]: Got corrupt TaskStatusesShards with %s Tasks, but TaskStatusesShardSet has %s Tasks.",
+          frameworkName, taskRoleName, taskStatusArray.size(), shardSet.getTaskNumber()));
+    }
+
+    TaskStatuses taskStatuses = new TaskStatuses();
+    taskStatuses.setTaskRoleName(shardSet.getTaskRoleName());
+    taskStatuses.setFrameworkVersion(shardSet.getFrameworkVersion());
+    taskStatuses.setTaskStatusArray(taskStatusArray);
+    if (shardSetVersion != null) {
+      return readCache.put(shardsPath, shardSetVersion, taskStatuses);
+    }
+    return taskStatuses;
   }
 
+  // Set TaskStatuses as a whole
+  @Override
   public void setTaskStatuses(String frameworkName, String taskRoleName, TaskStatuses taskStatuses) throws Exception {
-    zkClient.setLargeObject(
-        zkStruct.getTaskStatusesPath(frameworkName, taskRoleName), taskStatuses);
+    setTaskStatuses(frameworkName, taskRoleName, taskStatuses, 0, null);
+  }
+
+  // Set TaskStatuses as TaskStatusesShards of shardSize Tasks, and only the shards which contain the
+  // changedTaskIndexes or whose TaskIndex range changed will be rewritten.
+  // Null changedTaskIndexes means all Tasks are changed, and non-positive shardSize means set as a whole.
+  @Override
+  public void setTaskStatuses(
+      String frameworkName, String taskRoleName, TaskStatuses taskStatuses,
+      Integer shardSize, Set<Integer> changedTaskIndexes) throws Exception {
+    String taskStatusesPath = zkStruct.getTaskStatusesPath(frameworkName, taskRoleName);
+    String shardSetPath = zkStruct.getTaskStatusesShardSetPath(frameworkName, taskRoleName);
+    String shardsPath = zkStruct.getTaskStatusesShardsPath(frameworkName, taskRoleName);
+
+    if (shardSize == null || shardSize <= 0) {
+      zkClient.setLargeObject(taskStatusesPath, taskStatuses);
+
+      // The TaskStatusesShardSet takes precedence, so delete it after the whole TaskStatuses is set
+      if (zkClient.exists(shardSetPath)) {
+        zkClient.deleteRecursively(shardSetPath);
+        zkClient.deleteRecursively(shardsPath);
+      }
+      return;
+    }
+
+    if (!zkClient.exists(shardsPath)) {
+      zkClient.createPath(shardsPath);
+    }
+
+    while (true) {
+      Stat stat = new Stat();
+      TaskStatusesShardSet oldShardSet = null;
+      int expectedVersion = ZooKeeperClient.NEW_NODE_VERSION;
+      try {
+        oldShardSet = zkClient.getSmallObject(shardSetPath, TaskStatusesShardSet.class, stat);
+        expectedVersion = stat.getVersion();
+      } catch (KeeperException.NoNodeException ignored) {
+      }
+
+      Boolean setAll = (changedTaskIndexes == null || oldShardSet == null ||
+          !shardSize.equals(oldShardSet.getShardSize()) ||
+          !taskStatuses.getTaskRoleName().equals(oldShardSet.getTaskRoleName()) ||
+          !taskStatuses.getFrameworkVersion().equals(oldShardSet.getFrameworkVersion()));
+      Set<Integer> changedShardIndexes = new HashSet<>();
+      if (!setAll) {
+        for (Integer taskIndex : changedTaskIndexes) {
+          changedShardIndexes.add(taskIndex / shardSize);
+        }
+      }
+
+      List<TaskStatus> taskStatusArray = taskStatuses.getTaskStatusArray();
+      List<TaskStatusesShard> shards = new ArrayList<>();
+      List<String> createdPartNames = new ArrayList<>();
+      int reusedShardCount = 0;
+      try {
+        for (int beginTaskIndex = 0; beginTaskIndex < taskStatusArray.size(); beginTaskIndex += shardSize) {
+          int endTaskIndex = Math.min(taskStatusArray.size(), beginTaskIndex + shardSize);
+          int shardIndex = beginTaskIndex / shardSize;
+
+          // Reuse the unchanged shard
+          if (!setAll && shardIndex < oldShardSet.getShards().size() &&
+              !changedShardIndexes.contains(shardIndex)) {
+            TaskStatusesShard oldShard = oldShardSet.getShards().get(shardIndex);
+            if (oldShard.getEndTaskIndex() == endTaskIndex) {
+              shards.add(oldShard);
+              reusedShardCount++;
+              continue;
+            }
+          }
+
+          TaskStatuses shardTaskStatuses = new TaskStatuses();
+          shardTaskStatuses.setTaskRoleName(taskStatuses.getTaskRoleName());
+          shardTaskStatuses.setFrameworkVersion(taskStatuses.getFrameworkVersion());
+          shardTaskStatuses.setTaskStatusArray(new ArrayList<>(taskStatusArray.subList(beginTaskIndex, endTaskIndex)));
+
+          TaskStatusesShard shard = new TaskStatusesShard();
+          shard.setBeginTaskIndex(beginTaskIndex);
+          shard.setEndTaskIndex(endTaskIndex);
+          shard.setPayloadPartNames(zkClient.createPayloadParts(shardsPath, shardTaskStatuses));
+          createdPartNames.addAll(shard.getPayloadPartNames());
+          shards.add(shard);
+        }
+      } catch (Exception e) {
+        zkClient.deletePayloadParts(shardsPath, createdPartNames);
+        throw e;
+      }
+
+      TaskStatusesShardSet shardSet = new TaskStatusesShardSet();
+      shardSet.setTaskRoleName(taskStatuses.getTaskRoleName());
+      shardSet.setFrameworkVersion(taskStatuses.getFrameworkVersion());
+      shardSet.setTaskNumber(taskStatusArray.size());
+      shardSet.setShardSize(shardSize);
+      shardSet.setShards(shards);
+
+      if (!zkClient.compareAndSetSmallObject(shardSetPath, shardSet, expectedVersion)) {
+        // Another writer changed the TaskStatusesShardSet concurrently, such as the previous AM,
+        // so override it as a whole, the same as the whole TaskStatuses.
+        LOGGER.logWarning(
+            "[%s][%s]: TaskStatusesShardSet changed during setTaskStatuses, will retry to set all shards.",
+            frameworkName, taskRoleName);
+        zkClient.deletePayloadParts(shardsPath, createdPartNames);
+        changedTaskIndexes = null;
+        continue;
+      }
+
+      LOGGER.logDebug(
+          "[%s][%s]: setTaskStatuses with %s of %s shards changed.",
+          frameworkName, taskRoleName,
+          shards.size() - reusedShardCount, shards.size());
+
+      gcTaskStatusesShards(shardsPath, shardSet, oldShardSet, setAll ? createdPartNames : null);
+
+      // The whole TaskStatuses is not current anymore
+      if (zkClient.exists(taskStatusesPath)) {
+        zkClient.deleteRecursively(taskStatusesPath);
+      }
+      return;
+    }
+  }
+
+  // Try best to GC the PayloadParts which are no longer referenced by the current TaskStatusesShardSet.
+  // If all shards are created by the current TaskStatusesShardSet, the leftover PayloadParts created
+  // before them are also GC, such as the leftover of a crashed writer.
+  private void gcTaskStatusesShards(
+      String shardsPath, TaskStatusesShardSet shardSet,
+      TaskStatusesShardSet oldShardSet, List<String> allCreatedPartNames) throws Exception {
+    Set<String> referencedPartNames = new HashSet<>();
+    for (TaskStatusesShard shard : shardSet.getShards()) {
+      referencedPartNames.addAll(shard.getPayloadPartNames());
+    }
+
+    List<String> unreferencedPartNames = new ArrayList<>();
+    if (oldShardSet != null) {
+      for (TaskStatusesShard shard : oldShardSet.getShards()) {
+        for (String partName : shard.getPayloadPartNames()) {
+          if (!referencedPartNames.contains(partName)) {
+            unreferencedPartNames.add(partName);
+          }
+        }
+      }
+    }
+
+    if (allCreatedPartNames != null && !allCreatedPartNames.isEmpty()) {
+      long minCreatedPartSequence = Long.MAX_VALUE;
+      for (String partName : allCreatedPartNames) {
+        minCreatedPartSequence = Math.min(minCreatedPartSequence, Long.parseLong(partName));
+      }
+      for (String partName : zkClient.getChildren(shardsPath)) {
+        try {
+          if (Long.parseLong(partName) < minCreatedPartSequence && !referencedPartNames.contains(partName)) {
+            unreferencedPartNames.add(partName);
+          }
+        } catch (NumberFormatException ignored) {
+        }
+      }
+    }
+
+    zkClient.deletePayloadParts(shardsPath, unreferencedPartNames);
   }
 
 
   // AggregatedRequests
+  @Override
   public AggregatedFrameworkRequest getAggregatedFrameworkRequest(String frameworkName) throws Exception {
     AggregatedFrameworkRequest aggregatedFrameworkRequest = new AggregatedFrameworkRequest();
 
@@ -190,34 +662,45 @@ public AggregatedFrameworkRequest getAggregatedFrameworkRequest(String framework
     return aggregatedFrameworkRequest;
   }
 
+  @Override
   public AggregatedLauncherRequest getAggregatedLauncherRequest() throws Exception {
+    long start = System.currentTimeMillis();
+
     AggregatedLauncherRequest aggregatedLauncherRequest = new AggregatedLauncherRequest();
 
     aggregatedLauncherRequest.setLauncherRequest(getLauncherRequest());
     aggregatedLauncherRequest.setAggregatedFrameworkRequests(new HashMap<>());
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherRequestPath())) {
+    Map<String, AggregatedFrameworkRequest> aggregatedFrameworkRequests =
+        Collections.synchronizedMap(aggregatedLauncherRequest.getAggregatedFrameworkRequests());
+    readFrameworks(zkClient.getChildren(zkStruct.getLauncherRequestPath()), frameworkName -> {
       try {
-        aggregatedLauncherRequest.getAggregatedFrameworkRequests().put(frameworkName, getAggregatedFrameworkRequest(frameworkName));
+        aggregatedFrameworkRequests.put(frameworkName, getAggregatedFrameworkRequest(frameworkName));
       } catch (KeeperException.NoNodeException ignored) {
       }
-    }
+    });
 
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("getAggregatedLauncherRequest with %s AggregatedFrameworkRequests in %sms.",
+        aggregatedLauncherRequest.getAggregatedFrameworkRequests().size(), end - start);
     return aggregatedLauncherRequest;
   }
 
   // Specialization for performance
+  @Override
   public HashMap<String, FrameworkRequest> getAllFrameworkRequests() throws Exception {
     HashMap<String, FrameworkRequest> allFrameworkRequests = new HashMap<>();
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherRequestPath())) {
+    Map<String, FrameworkRequest> synchronizedFrameworkRequests = Collections.synchronizedMap(allFrameworkRequests);
+    readFrameworks(zkClient.getChildren(zkStruct.getLauncherRequestPath()), frameworkName -> {
       try {
-        allFrameworkRequests.put(frameworkName, getFrameworkRequest(frameworkName));
+        synchronizedFrameworkRequests.put(frameworkName, getFrameworkRequest(frameworkName));
       } catch (KeeperException.NoNodeException ignored) {
       }
-    }
+    });
     return allFrameworkRequests;
   }
 
   // AggregatedStatuses
+  @Override
   public AggregatedTaskRoleStatus getAggregatedTaskRoleStatus(String frameworkName, String taskRoleName) throws Exception {
     AggregatedTaskRoleStatus aggregatedTaskRoleStatus = new AggregatedTaskRoleStatus();
     aggregatedTaskRoleStatus.setTaskRoleStatus(getTaskRoleStatus(frameworkName, taskRoleName));
@@ -225,6 +708,7 @@ public AggregatedTaskRoleStatus getAggregatedTaskRoleStatus(String frameworkName
     return aggregatedTaskRoleStatus;
   }
 
+  @Override
   public AggregatedFrameworkStatus getAggregatedFrameworkStatus(String frameworkName) throws Exception {
     AggregatedFrameworkStatus aggregatedFrameworkStatus = new AggregatedFrameworkStatus();
     aggregatedFrameworkStatus.setFrameworkStatus(getFrameworkStatus(frameworkName));
@@ -239,32 +723,55 @@ public AggregatedFrameworkStatus getAggregatedFrameworkStatus(String frameworkNa
     return aggregatedFrameworkStatus;
   }
 
+  @Override
   public AggregatedLauncherStatus getAggregatedLauncherStatus() throws Exception {
+    long start = System.currentTimeMillis();
+
     AggregatedLauncherStatus aggregatedLauncherStatus = new AggregatedLauncherStatus();
     aggregatedLauncherStatus.setLauncherStatus(getLauncherStatus());
     aggregatedLauncherStatus.setAggregatedFrameworkStatuses(new HashMap<>());
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherStatusPath())) {
+    getAggregatedFrameworkStatuses(
+        zkClient.getChildren(zkStruct.getLauncherStatusPath()),
+        aggregatedLauncherStatus.getAggregatedFrameworkStatuses());
+
+    long end = System.currentTimeMillis();
+    LOGGER.logDebug("getAggregatedLauncherStatus with %s AggregatedFrameworkStatuses in %sms.",
+        aggregatedLauncherStatus.getAggregatedFrameworkStatuses().size(), end - start);
+    return aggregatedLauncherStatus;
+  }
+
+  // Get the AggregatedFrameworkStatuses of the given Frameworks into the given map.
+  // The non-existent AggregatedFrameworkStatus is removed from the map, and the corrupted one is put as null.
+  @Override
+  public void getAggregatedFrameworkStatuses(
+      Collection<String> frameworkNames, Map<String, AggregatedFrameworkStatus> aggregatedFrameworkStatuses)
+      throws Exception {
+    Map<String, AggregatedFrameworkStatus> synchronizedFrameworkStatuses =
+        Collections.synchronizedMap(aggregatedFrameworkStatuses);
+    readFrameworks(frameworkNames, frameworkName -> {
       try {
-        aggregatedLauncherStatus.getAggregatedFrameworkStatuses().put(frameworkName, getAggregatedFrameworkStatus(frameworkName));
+        synchronizedFrameworkStatuses.put(frameworkName, getAggregatedFrameworkStatus(frameworkName));
       } catch (KeeperException.NoNodeException ignored) {
+        synchronizedFrameworkStatuses.remove(frameworkName);
       } catch (KeeperException e) {
         throw e;
       } catch (Exception e) {
         LOGGER.logWarning(e,
-            "[%s]: getAggregatedLauncherStatus: Got corrupted data",
+            "[%s]: getAggregatedFrameworkStatuses: Got corrupted data",
             frameworkName);
-        aggregatedLauncherStatus.getAggregatedFrameworkStatuses().put(frameworkName, null);
+        synchronizedFrameworkStatuses.put(frameworkName, null);
       }
-    }
-    return aggregatedLauncherStatus;
+    });
   }
 
   // Specialization for performance
+  @Override
   public HashMap<String, FrameworkStatus> getAllFrameworkStatuses() throws Exception {
     HashMap<String, FrameworkStatus> allFrameworkStatuses = new HashMap<>();
-    for (String frameworkName : zkClient.getChildren(zkStruct.getLauncherStatusPath())) {
+    Map<String, FrameworkStatus> synchronizedFrameworkStatuses = Collections.synchronizedMap(allFrameworkStatuses);
+    readFrameworks(zkClient.getChildren(zkStruct.getLauncherStatusPath()), frameworkName -> {
       try {
-        allFrameworkStatuses.put(frameworkName, getFrameworkStatus(frameworkName));
+        synchronizedFrameworkStatuses.put(frameworkName, getFrameworkStatus(frameworkName));
       } catch (KeeperException.NoNodeException ignored) {
       } catch (KeeperException e) {
         throw e;
@@ -272,9 +779,53 @@ public HashMap<String, FrameworkStatus> getAllFrameworkStatuses() throws Excepti
         LOGGER.logWarning(e,
             "[%s]: getAllFrameworkStatuses: Got corrupted data",
             frameworkName);
-        allFrameworkStatuses.put(frameworkName, null);
+        synchronizedFrameworkStatuses.put(frameworkName, null);
       }
-    }
+    });
     return allFrameworkStatuses;
   }
+
+  // ChangeNotifiers
+  @Override
+  public ZookeeperChangeNotifier newLauncherRequestChangeNotifier(Boolean watchEnable) throws Exception {
+    Map<String, Integer> rootPathDepths = new HashMap<>();
+    if (watchEnable) {
+      // Requests/{FrameworkName}
+      rootPathDepths.put(zkStruct.getLauncherRequestPath(), 1);
+    }
+    return new ZookeeperChangeNotifier(zkClient, rootPathDepths);
+  }
+
+  @Override
+  public ZookeeperChangeNotifier newAggregatedFrameworkRequestChangeNotifier(
+      String frameworkName, Boolean watchEnable) throws Exception {
+    Map<String, Integer> rootPathDepths = new HashMap<>();
+    if (watchEnable) {
+      rootPathDepths.put(zkStruct.getLauncherRequestPath(), 0);
+      rootPathDepths.put(zkStruct.getLauncherStatusPath(), 0);
+      // Requests/{FrameworkName}/MigrateTaskRequests/{ContainerId}
+      rootPathDepths.put(zkStruct.getFrameworkRequestPath(frameworkName), 2);
+    }
+    return new ZookeeperChangeNotifier(zkClient, rootPathDepths);
+  }
+
+  @Override
+  public ZookeeperChangeNotifier newAggregatedLauncherStatusChangeNotifier(Boolean watchEnable) throws Exception {
+    Map<String, Integer> rootPathDepths = new HashMap<>();
+    if (watchEnable) {
+      // Statuses/{FrameworkName}/{TaskRoleName}/TaskStatuses/ReadyPayloadVersions/{PayloadVersion}
+      rootPathDepths.put(zkStruct.getLauncherStatusPath(), 5);
+    }
+    return new ZookeeperChangeNotifier(zkClient, rootPathDepths, zkStruct::isLauncherStatusChangeWatched);
+  }
+
+  @Override
+  public Set<String> getChangedRequestFrameworkNames(Set<String> changedPaths) {
+    return ZookeeperStoreStructure.getChangedChildNames(zkStruct.getLauncherRequestPath(), changedPaths);
+  }
+
+  @Override
+  public Set<String> getChangedStatusFrameworkNames(Set<String> changedPaths) {
+    return ZookeeperStoreStructure.getChangedChildNames(zkStruct.getLauncherStatusPath(), changedPaths);
+  }
 }
@@ -19,8 +19,14 @@
 
 import org.apache.commons.lang.StringUtils;
 
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 public class ZookeeperStoreStructure {
   private static final String PATH_SEPARATOR = "/";
+  private static final String TASK_STATUSES_NODE_NAME = "TaskStatuses";
+  private static final String TASK_STATUSES_SHARD_SET_NODE_NAME = "TaskStatusesShardSet";
   private final String launcherRootPath;
   private final String launcherRequestPath;
   private final String launcherStatusPath;
@@ -45,6 +51,77 @@ public static String getNodeName(String path) {
     return path.substring(s, t + 1);
   }
 
+  // Get the names of the children of the parentPath whose subtrees contain the changedPaths,
+  // null means the parentPath itself is changed
+  public static Set<String> getChangedChildNames(String parentPath, Set<String> changedPaths) {
+    String parentPathPrefix = getNodePath(parentPath, "");
+    Set<String> changedChildNames = new HashSet<>();
+    for (String changedPath : changedPaths) {
+      if (changedPath.equals(parentPath)) {
+        return null;
+      }
+      if (changedPath.startsWith(parentPathPrefix)) {
+        changedChildNames.add(StringUtils.substringBefore(
+            changedPath.substring(parentPathPrefix.length()), "/"));
+      }
+    }
+    return changedChildNames;
+  }
+
+  // Return the max remaining depth among the watched subtrees, i.e. RootPath -> Max depth of the
+  // watched nodes under the RootPath, which contain the path,
+  // or null if the path is not under any watched subtree
+  public static Integer getRemainingDepth(Map<String, Integer> rootPathDepths, String path) {
+    Integer maxRemainingDepth = null;
+    for (Map.Entry<String, Integer> rootPathDepth : rootPathDepths.entrySet()) {
+      String rootPath = rootPathDepth.getKey();
+      String rootPathPrefix = getNodePath(rootPath, "");
+
+      Integer depth = null;
+      if (path.equals(rootPath)) {
+        depth = 0;
+      } else if (path.startsWith(rootPathPrefix)) {
+        depth = StringUtils.countMatches(path.substring(rootPathPrefix.length()), "/") + 1;
+      }
+
+      if (depth != null && depth <= rootPathDepth.getValue()) {
+        int remainingDepth = rootPathDepth.getValue() - depth;
+        if (maxRemainingDepth == null || remainingDepth > maxRemainingDepth) {
+          maxRemainingDepth = remainingDepth;
+        }
+      }
+    }
+    return maxRemainingDepth;
+  }
+
+  // Whether the node of the path under the LauncherStatusPath is watched for the Status changes.
+  // Only the nodes which are changed once per write are watched, i.e. the Framework and TaskRole Statuses,
+  // the TaskStatusesShardSet and the ReadyPayloadVersions of the TaskStatuses, instead of each PayloadVersion,
+  // PayloadPart and TaskStatusesShard referenced by them.
+  public Boolean isLauncherStatusChangeWatched(String path) {
+    String statusPathPrefix = getNodePath(launcherStatusPath, "");
+    if (path.equals(launcherStatusPath)) {
+      return true;
+    }
+    if (!path.startsWith(statusPathPrefix)) {
+      return false;
+    }
+
+    // {FrameworkName}/{TaskRoleName}/...
+    String[] names = path.substring(statusPathPrefix.length()).split(PATH_SEPARATOR);
+    if (names.length <= 2) {
+      return true;
+    } else if (names.length == 3) {
+      return names[2].equals(TASK_STATUSES_NODE_NAME) ||
+          names[2].equals(TASK_STATUSES_SHARD_SET_NODE_NAME);
+    } else if (names.length == 4) {
+      return names[2].equals(TASK_STATUSES_NODE_NAME) &&
+          names[3].equals(ZooKeeperClient.READY_PAYLOAD_VERSIONS_NODE_NAME);
+    } else {
+      return false;
+    }
+  }
+
   public String getLauncherRootPath() {
     return launcherRootPath;
   }
@@ -84,6 +161,14 @@ public String getTaskRoleStatusPath(String frameworkName, String taskRoleName) {
   }
 
   public String getTaskStatusesPath(String frameworkName, String taskRoleName) {
-    return getNodePath(getTaskRoleStatusPath(frameworkName, taskRoleName), "TaskStatuses");
+    return getNodePath(getTaskRoleStatusPath(frameworkName, taskRoleName), TASK_STATUSES_NODE_NAME);
+  }
+
+  public String getTaskStatusesShardSetPath(String frameworkName, String taskRoleName) {
+    return getNodePath(getTaskRoleStatusPath(frameworkName, taskRoleName), TASK_STATUSES_SHARD_SET_NODE_NAME);
+  }
+
+  public String getTaskStatusesShardsPath(String frameworkName, String taskRoleName) {
+    return getNodePath(getTaskRoleStatusPath(frameworkName, taskRoleName), "TaskStatusesShards");
   }
 }
@@ -18,21 +18,38 @@
 package com.microsoft.frameworklauncher.applicationmaster;
 
 import com.microsoft.frameworklauncher.common.GlobalConstants;
+import com.microsoft.frameworklauncher.common.model.CompressionType;
+import com.microsoft.frameworklauncher.common.model.LauncherStoreType;
 import com.microsoft.frameworklauncher.common.model.ResourceDescriptor;
+import com.microsoft.frameworklauncher.common.model.SerializationType;
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
 
 public class MockConfiguration extends Configuration {
   private String frameworkName;
   private Integer frameworkVersion;
   private Integer amVersion;
+  private LauncherStoreType launcherStoreType;
+  private String localStoreDir;
+  private Integer localStoreMaxLogMB;
+  private Boolean localStoreSyncEnable;
   private Boolean zkCompressionEnable;
+  private CompressionType zkCompressionType;
+  private Integer zkCompressionLevel;
+  private SerializationType zkSerializationType;
 
   @Override
   public void initializeNoDependenceConfig() throws Exception {
     frameworkName = CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_FRAMEWORK_NAME);
     frameworkVersion = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_FRAMEWORK_VERSION));
     amVersion = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_AM_VERSION));
+    launcherStoreType = LauncherStoreType.valueOf(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_LAUNCHER_STORE_TYPE));
+    localStoreDir = CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_LOCAL_STORE_DIR);
+    localStoreMaxLogMB = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_LOCAL_STORE_MAX_LOG_MB));
+    localStoreSyncEnable = Boolean.parseBoolean(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_LOCAL_STORE_SYNC_ENABLE));
     zkCompressionEnable = Boolean.parseBoolean(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_COMPRESSION_ENABLE));
+    zkCompressionType = CompressionType.valueOf(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_COMPRESSION_TYPE));
+    zkCompressionLevel = Integer.parseInt(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_COMPRESSION_LEVEL));
+    zkSerializationType = SerializationType.valueOf(CommonUtils.getEnvironmentVariable(GlobalConstants.ENV_VAR_ZK_SERIALIZATION_TYPE));
   }
 
   @Override
@@ -45,11 +62,46 @@ protected Integer getFrameworkVersion() {
     return frameworkVersion;
   }
 
+  @Override
+  public LauncherStoreType getLauncherStoreType() {
+    return launcherStoreType;
+  }
+
+  @Override
+  protected String getLocalStoreDir() {
+    return localStoreDir;
+  }
+
+  @Override
+  public Integer getLocalStoreMaxLogMB() {
+    return localStoreMaxLogMB;
+  }
+
+  @Override
+  public Boolean getLocalStoreSyncEnable() {
+    return localStoreSyncEnable;
+  }
+
   @Override
   public Boolean getZkCompressionEnable() {
     return zkCompressionEnable;
   }
 
+  @Override
+  public CompressionType getZkCompressionType() {
+    return zkCompressionType;
+  }
+
+  @Override
+  public Integer getZkCompressionLevel() {
+    return zkCompressionLevel;
+  }
+
+  @Override
+  public SerializationType getZkSerializationType() {
+    return zkSerializationType;
+  }
+
   @Override
   protected Integer getAmVersion() {
     return amVersion;
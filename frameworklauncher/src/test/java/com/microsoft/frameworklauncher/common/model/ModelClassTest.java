@@ -50,6 +50,33 @@ public void testObjectToYaml() throws Exception {
     }
   }
 
+  @Test
+  public void testDeepEqualsAndCopy() throws Exception {
+    Package p = ModelClassTest.class.getPackage();
+    String pName = p.getName();
+    String pPath = "src.main.java." + pName;
+    String fileName = pPath.replace(".", File.separator);
+    File file = new File(System.getProperty("user.dir") + File.separator + fileName);
+
+    // Get all class in common.model
+    for (String classFileName : file.list()) {
+      int idx = classFileName.indexOf(".java");
+      String className = classFileName.substring(0, idx);
+      Class<?> c = Class.forName(pName + "." + className);
+      if (c.isEnum())
+        continue;
+
+      LOGGER.logInfo("Test %s", className);
+      testDeepEqualsAndCopy(c);
+      LOGGER.logInfo("Test %s success", className);
+    }
+  }
+
+  private static <T> void testDeepEqualsAndCopy(Class<T> c) throws Exception {
+    YamlTestUtils.testDeepEqualsAndCopy(c.newInstance(), c);
+    YamlTestUtils.testDeepEqualsAndCopy(YamlTestUtils.newInstance(c), c);
+  }
+
   @Test
   public void testField() throws Exception {
     Package p = ModelClassTest.class.getPackage();
@@ -0,0 +1,138 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.AdmissionControllerMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public class AdmissionControllerTest {
+  private static final Predicate<String> ALWAYS_ADMISSIBLE = key -> true;
+
+  @Test
+  public void testQueueFairnessAndRank() {
+    AdmissionController controller = new AdmissionController("FairnessTestController", 0, 0, 0);
+    controller.enqueue("a1", "queueA", 0);
+    controller.enqueue("a2", "queueA", 0);
+    controller.enqueue("a3", "queueA", 0);
+    controller.enqueue("b1", "queueB", 1);
+    controller.enqueue("b2", "queueB", 0);
+    // Already waiting, so its place is kept
+    controller.enqueue("a1", "queueA", 0);
+
+    Assert.assertEquals(5, controller.getWaitingCount());
+    Assert.assertEquals("a1", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertEquals("b2", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertEquals("a2", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertEquals("b1", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertEquals("a3", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertNull(controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertEquals(5, (long) controller.getMetrics().getAdmittedCount());
+    controller.stop();
+  }
+
+  @Test
+  public void testInFlightLimit() {
+    AdmissionController controller = new AdmissionController("InFlightTestController", 0, 0, 2);
+    controller.enqueue("f1", "default", 0);
+    controller.enqueue("f2", "default", 0);
+    controller.enqueue("f3", "default", 0);
+    Assert.assertTrue(controller.remove("f3"));
+    Assert.assertFalse(controller.remove("f3"));
+
+    Assert.assertEquals("f1", controller.admit(1, ALWAYS_ADMISSIBLE));
+    Assert.assertNull(controller.admit(2, ALWAYS_ADMISSIBLE));
+    Assert.assertTrue(controller.getAdmitDelayMs() > 0);
+    Assert.assertEquals("f2", controller.admit(1, ALWAYS_ADMISSIBLE));
+
+    AdmissionControllerMetrics metrics = controller.getMetrics();
+    Assert.assertEquals(0, (int) metrics.getWaitingCount());
+    Assert.assertEquals(1, (long) metrics.getInFlightThrottledCount());
+    controller.stop();
+  }
+
+  @Test
+  public void testRateLimit() throws Exception {
+    AdmissionController controller = new AdmissionController("RateTestController", 10, 2, 0);
+    for (int i = 0; i < 4; i++) {
+      controller.enqueue("f" + i, "default", 0);
+    }
+
+    // The burst is admitted immediately, then the others are throttled
+    Assert.assertEquals("f0", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertEquals("f1", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertNull(controller.admit(0, ALWAYS_ADMISSIBLE));
+    long delayMs = controller.getAdmitDelayMs();
+    Assert.assertTrue(delayMs > 0 && delayMs <= 100);
+
+    Thread.sleep(delayMs + 50);
+    Assert.assertEquals("f2", controller.admit(0, ALWAYS_ADMISSIBLE));
+    Assert.assertEquals(1, controller.getWaitingCount());
+    Assert.assertTrue(controller.getMetrics().getRateThrottledCount() >= 1);
+    controller.stop();
+  }
+
+  @Test
+  public void testNotAdmissibleItems() {
+    AdmissionController controller = new AdmissionController("AdmissibleTestController", 1, 1, 0);
+    controller.enqueue("stale1", "queueA", 0);
+    controller.enqueue("a1", "queueA", 1);
+    controller.enqueue("stale2", "queueB", 0);
+    controller.enqueue("b1", "queueB", 1);
+    Set<String> staleKeys = new HashSet<>(Arrays.asList("stale1", "stale2"));
+
+    // The stale items are dropped without taking the only token
+    Assert.assertEquals("a1", controller.admit(0, key -> !staleKeys.contains(key)));
+    Assert.assertNull(controller.admit(0, key -> !staleKeys.contains(key)));
+    Assert.assertEquals(1, controller.getWaitingCount());
+    Assert.assertFalse(controller.remove("stale2"));
+
+    // All items are dropped even if it is throttled
+    Assert.assertNull(controller.admit(0, key -> false));
+    Assert.assertEquals(0, controller.getWaitingCount());
+    Assert.assertEquals(1, (long) controller.getMetrics().getAdmittedCount());
+    controller.stop();
+  }
+
+  @Test
+  public void testStop() {
+    AdmissionController controller = new AdmissionController("StopTestController", 0, 0, 0);
+    Assert.assertTrue(containsMetrics("StopTestController"));
+
+    // The stopped one does not unregister the newer one with the same name
+    AdmissionController newController = new AdmissionController("StopTestController", 0, 0, 0);
+    controller.stop();
+    Assert.assertTrue(containsMetrics("StopTestController"));
+    newController.stop();
+    Assert.assertFalse(containsMetrics("StopTestController"));
+  }
+
+  private static boolean containsMetrics(String controllerName) {
+    for (AdmissionControllerMetrics metrics : AdmissionController.getAllMetrics()) {
+      if (metrics.getControllerName().equals(controllerName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HashedWheelTimerTest {
+  private static final long TICK_MS = 10;
+  private static final int WHEEL_SIZE = 4;
+
+  @Test
+  public void testExpireInDeadlineOrder() throws Exception {
+    HashedWheelTimer timer = new HashedWheelTimer("TestTimer", TICK_MS, WHEEL_SIZE);
+    List<Long> results = Collections.synchronizedList(new ArrayList<>());
+    // The delays span several rounds of the wheel
+    long[] delaysMs = {250, 0, 130, 35, 90, 180};
+    CountDownLatch expired = new CountDownLatch(delaysMs.length);
+
+    long startNanos = System.nanoTime();
+    for (long delayMs : delaysMs) {
+      timer.newTimeout(() -> {
+        Assert.assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(delayMs));
+        results.add(delayMs);
+        expired.countDown();
+      }, delayMs);
+    }
+    Assert.assertEquals(delaysMs.length, timer.getPendingTimeoutCount());
+
+    Assert.assertTrue(expired.await(30, TimeUnit.SECONDS));
+    Assert.assertEquals(0, timer.getPendingTimeoutCount());
+    List<Long> expected = new ArrayList<>();
+    for (long delayMs : delaysMs) {
+      expected.add(delayMs);
+    }
+    Collections.sort(expected);
+    Assert.assertEquals(expected, results);
+  }
+
+  @Test
+  public void testCancel() throws Exception {
+    HashedWheelTimer timer = new HashedWheelTimer("TestTimer", TICK_MS, WHEEL_SIZE);
+    CountDownLatch expired = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+
+    HashedWheelTimer.Timeout timeout = timer.newTimeout(
+        () -> Assert.fail("Cancelled Timeout should not expire"), cancelled::countDown, 100);
+    // Cancel it after it is put into the wheel
+    Thread.sleep(3 * TICK_MS);
+    Assert.assertTrue(timeout.cancel());
+    Assert.assertTrue(timeout.isCancelled());
+    Assert.assertFalse(timeout.cancel());
+    Assert.assertTrue(cancelled.await(0, TimeUnit.SECONDS));
+
+    // Cancel it before it is put into the wheel
+    Assert.assertTrue(timer.newTimeout(() -> Assert.fail("Cancelled Timeout should not expire"), 0).cancel());
+
+    HashedWheelTimer.Timeout other = timer.newTimeout(expired::countDown, 200);
+    Assert.assertEquals(1, timer.getPendingTimeoutCount());
+    Assert.assertTrue(expired.await(30, TimeUnit.SECONDS));
+    Assert.assertTrue(other.isExpired());
+    Assert.assertFalse(other.cancel());
+    Assert.assertEquals(0, timer.getPendingTimeoutCount());
+  }
+}
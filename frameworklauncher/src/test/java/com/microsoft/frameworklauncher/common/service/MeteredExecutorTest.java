@@ -0,0 +1,72 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.model.MeteredExecutorMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MeteredExecutorTest {
+  private static final int PARALLELISM = 4;
+  private static final int TASK_NUMBER = 40;
+
+  @Test
+  public void testBoundedParallelism() throws Exception {
+    List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+    MeteredExecutor executor = new MeteredExecutor("ParallelismTestExecutor", exceptions::add, PARALLELISM);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch completed = new CountDownLatch(TASK_NUMBER);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < TASK_NUMBER; i++) {
+      int taskIndex = i;
+      executor.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(5);
+        running.decrementAndGet();
+        executor.recordLatency("Completed", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        completed.countDown();
+        if (taskIndex == 0) {
+          throw new Exception("Expected");
+        }
+      });
+    }
+
+    Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+    Thread.sleep(50);
+    Assert.assertTrue(maxRunning.get() <= PARALLELISM);
+    Assert.assertEquals(1, exceptions.size());
+
+    MeteredExecutorMetrics metrics = executor.getMetrics();
+    Assert.assertEquals(0, (int) metrics.getQueuedTaskCount());
+    Assert.assertEquals(0, (int) metrics.getRunningTaskCount());
+    Assert.assertEquals(TASK_NUMBER, (long) metrics.getCompletedTaskCount());
+    Assert.assertEquals(1, (long) metrics.getFailedTaskCount());
+    Assert.assertEquals(TASK_NUMBER, (long) metrics.getExecutionMetrics().getCount());
+    Assert.assertTrue(metrics.getQueueWaitMetrics().getMaxMs() >= 5);
+    Assert.assertEquals(TASK_NUMBER, (long) metrics.getLatencyMetrics().get("Completed").getCount());
+  }
+}
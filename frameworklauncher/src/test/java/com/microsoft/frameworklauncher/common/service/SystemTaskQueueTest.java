@@ -0,0 +1,246 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.service;
+
+import com.microsoft.frameworklauncher.common.exts.CommonExts;
+import com.microsoft.frameworklauncher.common.model.SystemTaskQueueMetrics;
+import com.microsoft.frameworklauncher.common.model.SystemTaskTypeMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SystemTaskQueueTest {
+  private static final int KEY_NUMBER = 4;
+  private static final int TASK_NUMBER_PER_KEY = 50;
+
+  @Test
+  public void testKeyedOrdering() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::failOnException, KEY_NUMBER);
+    List<List<Integer>> keyResults = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch completed = new CountDownLatch(KEY_NUMBER * TASK_NUMBER_PER_KEY);
+
+    for (int k = 0; k < KEY_NUMBER; k++) {
+      keyResults.add(Collections.synchronizedList(new ArrayList<>()));
+    }
+    for (int i = 0; i < TASK_NUMBER_PER_KEY; i++) {
+      for (int k = 0; k < KEY_NUMBER; k++) {
+        List<Integer> keyResult = keyResults.get(k);
+        int taskIndex = i;
+        queue.queueSystemTask("SystemTaskQueueTest.testKeyedOrdering", "Key" + k, () -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          Thread.sleep(1);
+          keyResult.add(taskIndex);
+          running.decrementAndGet();
+          completed.countDown();
+        });
+      }
+    }
+
+    // Nothing runs before start
+    Thread.sleep(50);
+    Assert.assertEquals(KEY_NUMBER * TASK_NUMBER_PER_KEY, completed.getCount());
+    queue.start();
+    Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+
+    // Same key in order, different keys in parallel
+    for (List<Integer> keyResult : keyResults) {
+      for (int i = 0; i < TASK_NUMBER_PER_KEY; i++) {
+        Assert.assertEquals(i, (int) keyResult.get(i));
+      }
+    }
+    Assert.assertTrue(maxRunning.get() > 1);
+    Assert.assertTrue(maxRunning.get() <= KEY_NUMBER);
+  }
+
+  @Test
+  public void testBarrier() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::failOnException, KEY_NUMBER);
+    List<String> results = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger running = new AtomicInteger();
+    CountDownLatch completed = new CountDownLatch(2 * KEY_NUMBER + 1);
+    queue.start();
+
+    for (int k = 0; k < KEY_NUMBER; k++) {
+      String key = "Key" + k;
+      queue.queueSystemTask("SystemTaskQueueTest.testBarrier", key, () -> {
+        running.incrementAndGet();
+        Thread.sleep(20);
+        results.add(key);
+        running.decrementAndGet();
+        completed.countDown();
+      });
+    }
+
+    // The Barrier sees all previous SystemTasks completed, and runs alone
+    queue.queueSystemTask("SystemTaskQueueTest.testBarrier", () -> {
+      Assert.assertEquals(0, running.get());
+      Assert.assertEquals(KEY_NUMBER, results.size());
+      results.add("Barrier");
+      completed.countDown();
+    });
+
+    for (int k = 0; k < KEY_NUMBER; k++) {
+      queue.queueSystemTask("SystemTaskQueueTest.testBarrier", "Key" + k, () -> {
+        results.add("After");
+        completed.countDown();
+      });
+    }
+
+    Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+    Assert.assertEquals("Barrier", results.get(KEY_NUMBER));
+  }
+
+  @Test
+  public void testDelayedTask() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TestQueue", this::failOnException, KEY_NUMBER);
+    List<String> results = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch completed = new CountDownLatch(2);
+    queue.start();
+
+    queue.queueSystemTaskDelayed("SystemTaskQueueTest.testDelayedTask", "Key", () -> {
+      results.add("Delayed");
+      completed.countDown();
+    }, 100);
+    queue.queueSystemTask("SystemTaskQueueTest.testDelayedTask", "Key", () -> {
+      results.add("Immediate");
+      completed.countDown();
+    });
+
+    Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+    Assert.assertEquals("Immediate", results.get(0));
+    Assert.assertEquals("Delayed", results.get(1));
+  }
+
+  @Test
+  public void testCancelDelayedTask() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("CancelTestQueue", this::failOnException);
+    CountDownLatch completed = new CountDownLatch(1);
+    queue.start();
+
+    String taskType = "SystemTaskQueueTest.testCancelDelayedTask";
+    HashedWheelTimer.Timeout cancelled = queue.queueSystemTaskDelayed(taskType, () -> {
+      throw new Exception("Cancelled SystemTask should not run");
+    }, 100);
+    HashedWheelTimer.Timeout expired = queue.queueSystemTaskDelayed(taskType, () -> completed.countDown(), 200);
+    Assert.assertEquals(2, queue.length());
+
+    Assert.assertTrue(cancelled.cancel());
+    Assert.assertFalse(cancelled.cancel());
+    Assert.assertEquals(1, queue.length());
+
+    Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+    Assert.assertTrue(expired.isExpired());
+    Assert.assertFalse(expired.cancel());
+    Thread.sleep(200);
+
+    SystemTaskQueueMetrics metrics = queue.getMetrics();
+    Assert.assertEquals(0, (int) metrics.getDelayedTaskCount());
+    SystemTaskTypeMetrics typeMetrics = metrics.getTaskTypeMetrics().get(taskType);
+    Assert.assertEquals(2, (long) typeMetrics.getQueuedCount());
+    Assert.assertEquals(1, (long) typeMetrics.getCancelledCount());
+    Assert.assertEquals(1, (long) typeMetrics.getCompletedCount());
+  }
+
+  @Test
+  public void testTaskTypes() throws Exception {
+    SystemTaskQueue queue = new SystemTaskQueue("TaskTypesTestQueue", this::failOnException);
+    CountDownLatch completed = new CountDownLatch(3);
+    CommonExts.VoidCallable task = completed::countDown;
+
+    // The same SystemTask queued by a helper is counted by the TaskType given by each caller
+    queueByHelper(queue, "SystemTaskQueueTest.CallerA", task);
+    queueByHelper(queue, "SystemTaskQueueTest.CallerA", task);
+    queueByHelper(queue, "SystemTaskQueueTest.CallerB", task);
+    queue.start();
+    Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+
+    Map<String, SystemTaskTypeMetrics> taskTypeMetrics = queue.getMetrics().getTaskTypeMetrics();
+    Assert.assertEquals(2, taskTypeMetrics.size());
+    Assert.assertEquals(2, (long) taskTypeMetrics.get("SystemTaskQueueTest.CallerA").getQueuedCount());
+    Assert.assertEquals(1, (long) taskTypeMetrics.get("SystemTaskQueueTest.CallerB").getQueuedCount());
+  }
+
+  private static void queueByHelper(SystemTaskQueue queue, String taskType, CommonExts.VoidCallable task) {
+    queue.queueSystemTask(taskType, task);
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+    SystemTaskQueue queue = new SystemTaskQueue("MetricsTestQueue", exceptions::add, 2);
+    CountDownLatch completed = new CountDownLatch(3);
+    CountDownLatch blocked = new CountDownLatch(1);
+
+    queue.queueSystemTask("SystemTaskQueueTest.testMetrics", "Key", () -> {
+      blocked.await();
+      completed.countDown();
+    });
+    queue.queueSystemTask("SystemTaskQueueTest.testMetrics", "Key", () -> {
+      completed.countDown();
+      throw new Exception("Expected");
+    });
+    queue.queueSystemTaskDelayed("SystemTaskQueueTest.testMetrics", () -> completed.countDown(), 60000);
+    queue.queueSystemTask("SystemTaskQueueTest.testMetrics", () -> completed.countDown());
+    Assert.assertEquals(4, queue.length());
+    queue.start();
+
+    // The blocked SystemTask is the longest running one
+    Thread.sleep(50);
+    SystemTaskQueueMetrics metrics = queue.getMetrics();
+    Assert.assertEquals(1, (int) metrics.getRunningTaskCount());
+    Assert.assertEquals(2, (int) metrics.getQueuedTaskCount());
+    Assert.assertEquals(1, (int) metrics.getDelayedTaskCount());
+    Assert.assertEquals("SystemTaskQueueTest.testMetrics", metrics.getLongestRunningTaskType());
+    Assert.assertTrue(metrics.getLongestRunningTaskElapsedMs() >= 0);
+
+    blocked.countDown();
+    while (completed.getCount() > 1) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(50);
+
+    metrics = queue.getMetrics();
+    Assert.assertEquals(1, queue.length());
+    Assert.assertEquals(0, (int) metrics.getRunningTaskCount());
+    Assert.assertNull(metrics.getLongestRunningTaskType());
+    SystemTaskTypeMetrics typeMetrics = metrics.getTaskTypeMetrics().get("SystemTaskQueueTest.testMetrics");
+    Assert.assertEquals(4, (long) typeMetrics.getQueuedCount());
+    Assert.assertEquals(3, (long) typeMetrics.getCompletedCount());
+    Assert.assertEquals(1, (long) typeMetrics.getFailedCount());
+    Assert.assertEquals(1, exceptions.size());
+    long histogramCount = 0;
+    for (Long bucketCount : typeMetrics.getExecutionMsHistogram()) {
+      histogramCount += bucketCount;
+    }
+    Assert.assertEquals(3, histogramCount);
+    Assert.assertTrue(typeMetrics.getMaxQueueWaitMs() >= 50);
+  }
+
+  private Boolean failOnException(Exception e) {
+    throw new AssertionError("Unexpected exception in SystemTask", e);
+  }
+}
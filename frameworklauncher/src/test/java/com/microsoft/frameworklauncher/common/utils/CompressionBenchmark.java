@@ -0,0 +1,90 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.CompressionType;
+import com.microsoft.frameworklauncher.common.model.SerializationType;
+import com.microsoft.frameworklauncher.common.model.TaskStatuses;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compare the CompressionTypes and levels on the serialized TaskStatuses of small and large TaskRoles.
+ * It is not a unit test, run it manually by:
+ *  mvn test-compile exec:java -Dexec.classpathScope=test
+ *    -Dexec.mainClass=com.microsoft.frameworklauncher.common.utils.CompressionBenchmark
+ */
+public class CompressionBenchmark {
+  private static final int[] TASK_NUMBERS = {1, 10, 1000, 100000};
+  private static final int[] LEVELS = {Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION};
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURE_ROUNDS = 50;
+
+  public static void main(String[] args) throws Exception {
+    System.out.println(String.format("%-8s %-8s %-20s %-6s %-12s %-12s %-14s %-14s",
+        "Tasks", "Type", "Compression", "Level", "Bytes", "Compressed", "CompressUs", "DecompressUs"));
+
+    for (int taskNumber : TASK_NUMBERS) {
+      TaskStatuses taskStatuses = SerializationBenchmark.newTaskStatuses(taskNumber);
+      for (SerializationType serializationType : SerializationType.values()) {
+        byte[] bytes = SerializationUtils.toBytes(taskStatuses, serializationType);
+        for (CompressionType compressionType : CompressionType.values()) {
+          if (compressionType == CompressionType.GZIP) {
+            benchmark(taskNumber, serializationType, bytes, compressionType, Deflater.DEFAULT_COMPRESSION);
+          } else {
+            for (int level : LEVELS) {
+              benchmark(taskNumber, serializationType, bytes, compressionType, level);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static void benchmark(
+      int taskNumber, SerializationType serializationType, byte[] bytes,
+      CompressionType compressionType, int level) throws Exception {
+    byte[] compressedBytes = null;
+    long minCompressNs = Long.MAX_VALUE;
+    long minDecompressNs = Long.MAX_VALUE;
+    // Large payloads are measured in less rounds
+    int divisor = Math.max(1, taskNumber / 1000);
+    int warmupRounds = Math.max(1, WARMUP_ROUNDS / divisor);
+    int measureRounds = Math.max(3, MEASURE_ROUNDS / divisor);
+
+    for (int round = 0; round < warmupRounds + measureRounds; round++) {
+      long start = System.nanoTime();
+      compressedBytes = CompressionUtils.compress(bytes, compressionType, level);
+      long compressed = System.nanoTime();
+      byte[] decompressedBytes = CompressionUtils.decompress(compressedBytes);
+      long decompressed = System.nanoTime();
+
+      if (decompressedBytes.length != bytes.length) {
+        throw new IllegalStateException("Decompressed bytes mismatch");
+      }
+      if (round >= warmupRounds) {
+        minCompressNs = Math.min(minCompressNs, compressed - start);
+        minDecompressNs = Math.min(minDecompressNs, decompressed - compressed);
+      }
+    }
+
+    System.out.println(String.format("%-8s %-8s %-20s %-6s %-12s %-12s %-14s %-14s",
+        taskNumber, serializationType, compressionType, level,
+        bytes.length, compressedBytes.length, minCompressNs / 1000, minDecompressNs / 1000));
+  }
+}
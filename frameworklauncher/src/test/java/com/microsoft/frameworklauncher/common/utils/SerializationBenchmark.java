@@ -0,0 +1,106 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare the SerializationTypes on the TaskStatuses of a large TaskRole.
+ * It is not a unit test, run it manually by:
+ *  mvn test-compile exec:java -Dexec.classpathScope=test
+ *    -Dexec.mainClass=com.microsoft.frameworklauncher.common.utils.SerializationBenchmark
+ */
+public class SerializationBenchmark {
+  private static final int[] TASK_NUMBERS = {1000, 10000, 100000};
+  private static final int WARMUP_ROUNDS = 2;
+  private static final int MEASURE_ROUNDS = 5;
+
+  public static void main(String[] args) throws Exception {
+    System.out.println(String.format("%-8s %-8s %-12s %-12s %-12s %-12s",
+        "Tasks", "Type", "Bytes", "GzipBytes", "ToBytesMs", "ToObjectMs"));
+
+    for (int taskNumber : TASK_NUMBERS) {
+      TaskStatuses taskStatuses = newTaskStatuses(taskNumber);
+      for (SerializationType serializationType : SerializationType.values()) {
+        benchmark(taskStatuses, serializationType);
+      }
+    }
+  }
+
+  private static void benchmark(TaskStatuses taskStatuses, SerializationType serializationType) throws Exception {
+    byte[] bytes = null;
+    long minToBytesMs = Long.MAX_VALUE;
+    long minToObjectMs = Long.MAX_VALUE;
+
+    for (int round = 0; round < WARMUP_ROUNDS + MEASURE_ROUNDS; round++) {
+      long start = System.nanoTime();
+      bytes = SerializationUtils.toBytes(taskStatuses, serializationType);
+      long serialized = System.nanoTime();
+      TaskStatuses result = SerializationUtils.toObject(bytes, TaskStatuses.class);
+      long deserialized = System.nanoTime();
+
+      if (result.getTaskStatusArray().size() != taskStatuses.getTaskStatusArray().size()) {
+        throw new IllegalStateException("Deserialized TaskStatuses mismatch");
+      }
+      if (round >= WARMUP_ROUNDS) {
+        minToBytesMs = Math.min(minToBytesMs, (serialized - start) / 1000000);
+        minToObjectMs = Math.min(minToObjectMs, (deserialized - serialized) / 1000000);
+      }
+    }
+
+    System.out.println(String.format("%-8s %-8s %-12s %-12s %-12s %-12s",
+        taskStatuses.getTaskStatusArray().size(), serializationType,
+        bytes.length, CompressionUtils.compress(bytes).length, minToBytesMs, minToObjectMs));
+  }
+
+  public static TaskStatuses newTaskStatuses(int taskNumber) {
+    String taskRoleName = "worker";
+    List<TaskStatus> taskStatusArray = new ArrayList<>(taskNumber);
+    long now = System.currentTimeMillis();
+
+    for (int taskIndex = 0; taskIndex < taskNumber; taskIndex++) {
+      TaskStatus taskStatus = new TaskStatus();
+      taskStatus.setTaskIndex(taskIndex);
+      taskStatus.setTaskRoleName(taskRoleName);
+      taskStatus.setTaskState(TaskState.CONTAINER_RUNNING);
+      taskStatus.setTaskRetryPolicyState(new RetryPolicyState());
+      taskStatus.setTaskCreatedTimestamp(now + taskIndex);
+      taskStatus.setTaskServiceStatus(new ServiceStatus());
+      taskStatus.getTaskServiceStatus().setServiceVersion(0);
+      taskStatus.setContainerId(String.format("container_e03_1495012002081_6517_01_%06d", taskIndex + 2));
+      taskStatus.setContainerHost(String.format("node%05d", taskIndex % 2000));
+      taskStatus.setContainerIp(String.format("10.0.%s.%s", (taskIndex / 250) % 250, taskIndex % 250));
+      taskStatus.setContainerGpus(0L);
+      taskStatus.setContainerLogHttpAddress(String.format(
+          "http://node%05d:8042/node/containerlogs/%s/hadoop/", taskIndex % 2000, taskStatus.getContainerId()));
+      taskStatus.setContainerConnectionLostCount(0);
+      taskStatus.setContainerIsDecommissioning(false);
+      taskStatus.setContainerLaunchedTimestamp(now + taskIndex);
+      taskStatusArray.add(taskStatus);
+    }
+
+    TaskStatuses taskStatuses = new TaskStatuses();
+    taskStatuses.setTaskRoleName(taskRoleName);
+    taskStatuses.setFrameworkVersion(0);
+    taskStatuses.setTaskStatusArray(taskStatusArray);
+    return taskStatuses;
+  }
+}
@@ -0,0 +1,219 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.CompressionType;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import com.microsoft.frameworklauncher.common.model.SerializationType;
+import com.microsoft.frameworklauncher.common.utils.YamlUtilsTest.YamlUtilsTestCompatibilityHelper;
+import com.microsoft.frameworklauncher.common.utils.YamlUtilsTest.YamlUtilsTestHelper;
+import com.microsoft.frameworklauncher.testutils.YamlTestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+public class SerializationUtilsTest {
+
+  @Test
+  public void testModelClasses() throws Exception {
+    String pName = LauncherConfiguration.class.getPackage().getName();
+    String fileName = ("src.main.java." + pName).replace(".", File.separator);
+    File file = new File(System.getProperty("user.dir") + File.separator + fileName);
+
+    // Get all class in common.model
+    for (String classFileName : file.list()) {
+      String className = classFileName.substring(0, classFileName.indexOf(".java"));
+      Class<?> c = Class.forName(pName + "." + className);
+      if (c.isEnum()) {
+        continue;
+      }
+
+      testSerialization(YamlTestUtils.newInstance(c), c);
+    }
+  }
+
+  @Test
+  public void testHelperClasses() throws Exception {
+    testSerialization(new YamlUtilsTestHelper(), YamlUtilsTestHelper.class);
+    testSerialization(YamlUtilsTestHelper.newInstance(
+        -1024, -3.14f, 3.14, false, "Binary Test"), YamlUtilsTestHelper.class);
+  }
+
+  @Test
+  public void testSerializationType() throws Exception {
+    YamlUtilsTestHelper object = new YamlUtilsTestHelper();
+    byte[] yamlBytes = SerializationUtils.toBytes(object, SerializationType.YAML);
+    byte[] binaryBytes = SerializationUtils.toBytes(object, SerializationType.BINARY);
+
+    Assert.assertEquals(SerializationType.YAML, SerializationUtils.getSerializationType(yamlBytes));
+    Assert.assertEquals(SerializationType.BINARY, SerializationUtils.getSerializationType(binaryBytes));
+    Assert.assertEquals(SerializationType.YAML, SerializationUtils.getSerializationType(new byte[0]));
+    Assert.assertFalse(CompressionUtils.isCompressed(binaryBytes));
+    Assert.assertTrue(binaryBytes.length < yamlBytes.length);
+
+    // Legacy YAML bytes written by YamlUtils directly
+    Assert.assertTrue(YamlUtils.deepEquals(object,
+        SerializationUtils.toObject(YamlUtils.toBytes(object), YamlUtilsTestHelper.class)));
+  }
+
+  @Test
+  public void testBinaryCompatibility() throws Exception {
+    YamlUtilsTestCompatibilityHelper object =
+        YamlUtilsTestCompatibilityHelper.newInstance(
+            1024, "String Test", new YamlUtilsTestCompatibilityHelper().getExtraField());
+
+    // Added properties keep their default values
+    YamlUtilsTestCompatibilityHelper resultObjectFromOldBytes =
+        BinaryUtils.toObject(BinaryUtils.toBytes(
+            YamlUtilsTestHelper.newInstance(object.getIntField(), 3.14f, 3.14, true, object.getStringField())),
+            YamlUtilsTestCompatibilityHelper.class);
+    Assert.assertTrue(
+        YamlUtils.deepEquals(object, resultObjectFromOldBytes));
+
+    // Removed properties are skipped
+    YamlUtilsTestHelper resultObjectFromNewBytes =
+        BinaryUtils.toObject(BinaryUtils.toBytes(object), YamlUtilsTestHelper.class);
+    Assert.assertEquals(object.getIntField(), resultObjectFromNewBytes.getIntField());
+    Assert.assertEquals(object.getStringField(), resultObjectFromNewBytes.getStringField());
+    Assert.assertEquals(new YamlUtilsTestHelper().getDoubleField(), resultObjectFromNewBytes.getDoubleField(), 0);
+  }
+
+  @Test
+  public void testCorruptBinary() throws Exception {
+    byte[] bytes = BinaryUtils.toBytes(new YamlUtilsTestHelper());
+
+    try {
+      BinaryUtils.toObject(CommonUtils.subArray(bytes, 0, bytes.length - 1), YamlUtilsTestHelper.class);
+      Assert.fail("Truncated bytes should not be deserialized");
+    } catch (IOException ignored) {
+    }
+
+    bytes[2] = BinaryUtils.FORMAT_VERSION + 1;
+    try {
+      BinaryUtils.toObject(bytes, YamlUtilsTestHelper.class);
+      Assert.fail("Unknown format version should not be deserialized");
+    } catch (IOException ignored) {
+    }
+  }
+
+  @Test
+  public void testCompressionType() throws Exception {
+    byte[] bytes = SerializationUtils.toBytes(new YamlUtilsTestHelper(), SerializationType.YAML);
+
+    for (CompressionType compressionType : CompressionType.values()) {
+      for (int level : new int[]{Deflater.DEFAULT_COMPRESSION, Deflater.NO_COMPRESSION, Deflater.BEST_COMPRESSION}) {
+        byte[] compressedBytes = CompressionUtils.compress(bytes, compressionType, level);
+        Assert.assertTrue(CompressionUtils.isCompressed(compressedBytes));
+        Assert.assertArrayEquals(bytes, CompressionUtils.decompress(compressedBytes));
+      }
+    }
+
+    // Empty bytes can also be compressed
+    for (CompressionType compressionType : CompressionType.values()) {
+      byte[] compressedBytes = CompressionUtils.compress(new byte[0], compressionType, Deflater.DEFAULT_COMPRESSION);
+      Assert.assertEquals(0, CompressionUtils.decompress(compressedBytes).length);
+    }
+
+    // The dictionary benefits the small payloads
+    Assert.assertTrue(
+        CompressionUtils.compress(bytes, CompressionType.DEFLATE_DICTIONARY, Deflater.DEFAULT_COMPRESSION).length <
+            CompressionUtils.compress(bytes, CompressionType.DEFLATE, Deflater.DEFAULT_COMPRESSION).length);
+  }
+
+  @Test
+  public void testCorruptDeflate() throws Exception {
+    byte[] bytes = SerializationUtils.toBytes(new YamlUtilsTestHelper(), SerializationType.YAML);
+
+    for (CompressionType compressionType : new CompressionType[]{
+        CompressionType.DEFLATE, CompressionType.DEFLATE_DICTIONARY}) {
+      byte[] compressedBytes = CompressionUtils.compress(bytes, compressionType, Deflater.DEFAULT_COMPRESSION);
+
+      try {
+        CompressionUtils.decompress(CommonUtils.subArray(compressedBytes, 0, compressedBytes.length - 1));
+        Assert.fail("Truncated bytes should not be decompressed");
+      } catch (IOException ignored) {
+      }
+
+      try (InputStream stream = CompressionUtils.decompress(toStream(
+          CommonUtils.subArray(compressedBytes, 0, compressedBytes.length - 1)))) {
+        IOUtils.toByteArray(stream);
+        Assert.fail("Truncated stream should not be decompressed");
+      } catch (IOException ignored) {
+      }
+
+      compressedBytes[2]++;
+      try {
+        CompressionUtils.decompress(compressedBytes);
+        Assert.fail("Unknown format version should not be decompressed");
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  // Split the bytes into tiny parts, so that each value spans the part boundaries
+  private static InputStream toStream(byte[] bytes) {
+    List<byte[]> parts = new ArrayList<>();
+    for (int offset = 0; offset < bytes.length; offset += 3) {
+      parts.add(CommonUtils.subArray(bytes, offset, Math.min(3, bytes.length - offset)));
+    }
+    return CommonUtils.concatArraysToStream(parts);
+  }
+
+  private static <T> void testSerialization(Object object, Class<T> classRef) throws Exception {
+    for (SerializationType serializationType : SerializationType.values()) {
+      byte[] bytes = SerializationUtils.toBytes(object, serializationType);
+      Assert.assertEquals(serializationType, SerializationUtils.getSerializationType(bytes));
+
+      T resultObject = SerializationUtils.toObject(bytes, classRef);
+      Assert.assertTrue(
+          String.format("%s: %s result and expect do not match!", classRef.getSimpleName(), serializationType),
+          YamlUtils.deepEquals(object, resultObject));
+
+      T resultObjectFromStream = SerializationUtils.toObject(
+          CompressionUtils.decompress(toStream(bytes)), classRef);
+      Assert.assertTrue(
+          String.format("%s: Streamed %s result and expect do not match!", classRef.getSimpleName(), serializationType),
+          YamlUtils.deepEquals(object, resultObjectFromStream));
+
+      for (CompressionType compressionType : CompressionType.values()) {
+        byte[] compressedBytes = CompressionUtils.compress(bytes, compressionType, Deflater.DEFAULT_COMPRESSION);
+        T resultObjectFromCompressed = SerializationUtils.toObject(
+            CompressionUtils.decompress(compressedBytes), classRef);
+        Assert.assertTrue(
+            String.format("%s: %s Compressed %s result and expect do not match!",
+                classRef.getSimpleName(), compressionType, serializationType),
+            YamlUtils.deepEquals(object, resultObjectFromCompressed));
+
+        try (InputStream stream = CompressionUtils.decompress(toStream(compressedBytes))) {
+          T resultObjectFromCompressedStream = SerializationUtils.toObject(stream, classRef);
+          Assert.assertTrue(
+              String.format("%s: %s Compressed and Streamed %s result and expect do not match!",
+                  classRef.getSimpleName(), compressionType, serializationType),
+              YamlUtils.deepEquals(object, resultObjectFromCompressedStream));
+        }
+      }
+    }
+  }
+}
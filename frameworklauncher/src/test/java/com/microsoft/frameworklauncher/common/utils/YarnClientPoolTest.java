@@ -0,0 +1,91 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.utils;
+
+import com.microsoft.frameworklauncher.common.model.YarnClientPoolMetrics;
+import org.apache.hadoop.service.Service;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.conf.YarnConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class YarnClientPoolTest {
+  @Test
+  public void testReuseAndInvalidate() throws Exception {
+    YarnClientPool pool = new YarnClientPool(new YarnConfiguration());
+
+    YarnClient userClient = pool.call("User", yarnClient -> yarnClient);
+    Assert.assertTrue(userClient.isInState(Service.STATE.STARTED));
+    Assert.assertSame(userClient, pool.call("User", yarnClient -> yarnClient));
+    YarnClient loginUserClient = pool.call(null, yarnClient -> yarnClient);
+    Assert.assertNotSame(userClient, loginUserClient);
+
+    YarnClientPoolMetrics metrics = pool.getMetrics();
+    Assert.assertEquals(2, (int) metrics.getPooledClientCount());
+    Assert.assertEquals(2, (long) metrics.getMissCount());
+    Assert.assertEquals(1, (long) metrics.getHitCount());
+    Assert.assertEquals(2, (long) metrics.getCreationMetrics().getCount());
+
+    // The YarnClient failed on RPC is discarded
+    try {
+      pool.call("User", yarnClient -> {
+        throw new IOException("Expected");
+      });
+      Assert.fail("IOException should be thrown");
+    } catch (IOException e) {
+    }
+    Assert.assertTrue(userClient.isInState(Service.STATE.STOPPED));
+    Assert.assertNotSame(userClient, pool.call("User", yarnClient -> yarnClient));
+
+    // The YarnClient which is not started is also discarded
+    loginUserClient.stop();
+    Assert.assertNotSame(loginUserClient, pool.call(null, yarnClient -> yarnClient));
+
+    metrics = pool.getMetrics();
+    Assert.assertEquals(2, (int) metrics.getPooledClientCount());
+    Assert.assertEquals(4, (long) metrics.getMissCount());
+    Assert.assertEquals(2, (long) metrics.getInvalidatedCount());
+  }
+
+  @Test
+  public void testEvictIdleClients() throws Exception {
+    YarnClientPool pool = new YarnClientPool(new YarnConfiguration(), 200, 0);
+
+    YarnClient idleClient = pool.call("IdleUser", yarnClient -> yarnClient);
+    YarnClient busyClient = pool.call("BusyUser", yarnClient -> yarnClient);
+    for (int i = 0; i < 5; i++) {
+      Thread.sleep(50);
+      Assert.assertSame(busyClient, pool.call("BusyUser", yarnClient -> yarnClient));
+    }
+
+    // Only the YarnClient idle for the IdleTimeout is evicted, and the one in use is kept started
+    YarnClientPoolMetrics metrics = pool.getMetrics();
+    Assert.assertTrue(idleClient.isInState(Service.STATE.STOPPED));
+    Assert.assertTrue(busyClient.isInState(Service.STATE.STARTED));
+    Assert.assertEquals(1, (int) metrics.getPooledClientCount());
+    Assert.assertEquals(1, (long) metrics.getEvictedCount());
+
+    YarnClient newIdleClient = pool.call("IdleUser", yarnClient -> {
+      Assert.assertTrue(yarnClient.isInState(Service.STATE.STARTED));
+      return yarnClient;
+    });
+    Assert.assertNotSame(idleClient, newIdleClient);
+  }
+}
@@ -0,0 +1,285 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.common.web;
+
+import com.microsoft.frameworklauncher.common.model.LaunchClientType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+public class WebClientTest {
+  private HttpServer server;
+  private String baseURI;
+  private WebClient webClient;
+
+  // Path -> ETag and Content, the null ETag means the Response has no ETag
+  private final Map<String, Map.Entry<String, byte[]>> responses = new HashMap<>();
+  // Whether the Response is GZIP compressed, otherwise its ContentLength is known
+  private boolean gzipEnabled = true;
+  // The If-None-Match and the StatusCode of each served Request
+  private final List<String> ifNoneMatches = new ArrayList<>();
+  private final List<Integer> statusCodes = new ArrayList<>();
+
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", this::serve);
+    server.start();
+    baseURI = "http://localhost:" + server.getAddress().getPort();
+    webClient = new WebClient(baseURI, LaunchClientType.UNKNOWN, "user");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.stop(0);
+  }
+
+  // Serve like the WebServer: Respond NotModified if the ETag matches, otherwise the GZIP compressed content
+  private synchronized void serve(HttpExchange exchange) throws IOException {
+    String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+    Map.Entry<String, byte[]> response = responses.get(exchange.getRequestURI().toString());
+    ifNoneMatches.add(ifNoneMatch);
+
+    int statusCode;
+    if (response == null) {
+      statusCode = HttpStatus.SC_NOT_FOUND;
+      exchange.sendResponseHeaders(statusCode, -1);
+    } else {
+      String eTag = response.getKey();
+      if (eTag != null) {
+        exchange.getResponseHeaders().set(HttpHeaders.ETAG, eTag);
+      }
+      if (eTag != null && eTag.equals(ifNoneMatch)) {
+        statusCode = HttpStatus.SC_NOT_MODIFIED;
+        exchange.sendResponseHeaders(statusCode, -1);
+      } else if (gzipEnabled) {
+        statusCode = HttpStatus.SC_OK;
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        exchange.sendResponseHeaders(statusCode, 0);
+        try (OutputStream outputStream = new GZIPOutputStream(exchange.getResponseBody())) {
+          outputStream.write(response.getValue());
+        }
+      } else {
+        statusCode = HttpStatus.SC_OK;
+        exchange.sendResponseHeaders(statusCode, response.getValue().length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+          outputStream.write(response.getValue());
+        }
+      }
+    }
+    statusCodes.add(statusCode);
+    exchange.close();
+  }
+
+  private void setResponse(String path, String eTag, String content) {
+    setResponse(path, eTag, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private synchronized void setResponse(String path, String eTag, byte[] contentBytes) {
+    responses.put(path, new AbstractMap.SimpleImmutableEntry<>(eTag, contentBytes));
+  }
+
+  private synchronized void setGzipEnabled(boolean gzipEnabled) {
+    this.gzipEnabled = gzipEnabled;
+  }
+
+  private synchronized void removeResponse(String path) {
+    responses.remove(path);
+  }
+
+  @Test
+  public void testGetRevalidation() throws Exception {
+    setResponse("/v1/Frameworks/A", "W/\"1\"", "A1");
+    setResponse("/v1/Frameworks/B", "W/\"1\"", "B1");
+    assertGet("/v1/Frameworks/A", "A1", null, HttpStatus.SC_OK);
+    assertGet("/v1/Frameworks/B", "B1", null, HttpStatus.SC_OK);
+
+    // The unchanged Response is revalidated and got from the cache
+    assertGet("/v1/Frameworks/A", "A1", "W/\"1\"", HttpStatus.SC_NOT_MODIFIED);
+    assertGet("/v1/Frameworks/A", "A1", "W/\"1\"", HttpStatus.SC_NOT_MODIFIED);
+
+    // The changed Response replaces the cached one
+    setResponse("/v1/Frameworks/A", "W/\"2\"", "A2");
+    assertGet("/v1/Frameworks/A", "A2", "W/\"1\"", HttpStatus.SC_OK);
+    assertGet("/v1/Frameworks/A", "A2", "W/\"2\"", HttpStatus.SC_NOT_MODIFIED);
+    assertGet("/v1/Frameworks/B", "B1", "W/\"1\"", HttpStatus.SC_NOT_MODIFIED);
+
+    // The Response without ETag removes the cached one
+    setResponse("/v1/Frameworks/A", null, "A3");
+    assertGet("/v1/Frameworks/A", "A3", "W/\"2\"", HttpStatus.SC_OK);
+    assertGet("/v1/Frameworks/A", "A3", null, HttpStatus.SC_OK);
+
+    // The failed Response is not got from the cache
+    removeResponse("/v1/Frameworks/B");
+    WebClientOutput output = webClient.get("/v1/Frameworks/B");
+    Assert.assertFalse(output.isSuccessStatusCode());
+    assertServed("W/\"1\"", HttpStatus.SC_NOT_FOUND);
+  }
+
+  @Test
+  public void testGetRevalidationWithParameters() throws Exception {
+    setResponse("/v1/Frameworks?User=user1", "W/\"1\"", "user1");
+    setResponse("/v1/Frameworks?User=user2", "W/\"2\"", "user2");
+    Map<String, String> parameters = new HashMap<>();
+    parameters.put("User", "user1");
+    assertGet("/v1/Frameworks", parameters, "user1", null, HttpStatus.SC_OK);
+    assertGet("/v1/Frameworks", parameters, "user1", "W/\"1\"", HttpStatus.SC_NOT_MODIFIED);
+
+    // Each URI is cached separately
+    parameters.put("User", "user2");
+    assertGet("/v1/Frameworks", parameters, "user2", null, HttpStatus.SC_OK);
+    assertGet("/v1/Frameworks", parameters, "user2", "W/\"2\"", HttpStatus.SC_NOT_MODIFIED);
+  }
+
+  @Test
+  public void testGetBytes() throws Exception {
+    byte[] contentBytes = new byte[100 * 1024];
+    new Random(0).nextBytes(contentBytes);
+
+    // The content is got as the same bytes, no matter whether its ContentLength is known
+    for (boolean gzipEnabled : new boolean[]{false, true}) {
+      setGzipEnabled(gzipEnabled);
+      setResponse("/v1/Frameworks/A/AggregatedFrameworkStatus", gzipEnabled ? "W/\"2\"" : "W/\"1\"", contentBytes);
+      WebClientOutput output = webClient.get("/v1/Frameworks/A/AggregatedFrameworkStatus");
+      Assert.assertArrayEquals(contentBytes, output.getContentBytes());
+      assertServed(gzipEnabled ? "W/\"1\"" : null, HttpStatus.SC_OK);
+
+      output = webClient.get("/v1/Frameworks/A/AggregatedFrameworkStatus");
+      Assert.assertArrayEquals(contentBytes, output.getContentBytes());
+      assertServed(gzipEnabled ? "W/\"2\"" : "W/\"1\"", HttpStatus.SC_NOT_MODIFIED);
+      assertCache(1, contentBytes.length);
+    }
+  }
+
+  @Test
+  public void testCacheEviction() throws Exception {
+    webClient = new WebClient(baseURI, LaunchClientType.UNKNOWN, "user", 10);
+    setResponse("/A", "W/\"A\"", "aaaa");
+    setResponse("/B", "W/\"B\"", "bbbb");
+    setResponse("/C", "W/\"C\"", "cccc");
+    assertGet("/A", "aaaa", null, HttpStatus.SC_OK);
+    assertGet("/B", "bbbb", null, HttpStatus.SC_OK);
+    assertCache(2, 8);
+
+    // The least recently used one is evicted, and the revalidation counts as used
+    assertGet("/A", "aaaa", "W/\"A\"", HttpStatus.SC_NOT_MODIFIED);
+    assertGet("/C", "cccc", null, HttpStatus.SC_OK);
+    assertCache(2, 8);
+    assertGet("/B", "bbbb", null, HttpStatus.SC_OK);
+    assertCache(2, 8);
+    assertGet("/C", "cccc", "W/\"C\"", HttpStatus.SC_NOT_MODIFIED);
+    assertGet("/A", "aaaa", null, HttpStatus.SC_OK);
+    assertCache(2, 8);
+
+    // The replaced one is accounted by its new size, which may evict others
+    setResponse("/C", "W/\"C2\"", "cc");
+    assertGet("/C", "cc", "W/\"C\"", HttpStatus.SC_OK);
+    assertCache(2, 6);
+    setResponse("/C", "W/\"C3\"", "cccccccc");
+    assertGet("/C", "cccccccc", "W/\"C2\"", HttpStatus.SC_OK);
+    assertCache(1, 8);
+    assertGet("/A", "aaaa", null, HttpStatus.SC_OK);
+    assertCache(1, 4);
+
+    // The one larger than the cache is not cached, and does not evict others
+    setResponse("/D", "W/\"D\"", "ddddddddddd");
+    assertGet("/D", "ddddddddddd", null, HttpStatus.SC_OK);
+    assertCache(1, 4);
+    assertGet("/D", "ddddddddddd", null, HttpStatus.SC_OK);
+    assertGet("/A", "aaaa", "W/\"A\"", HttpStatus.SC_NOT_MODIFIED);
+
+    // The one responded without ETag is removed
+    setResponse("/A", null, "aa");
+    assertGet("/A", "aa", "W/\"A\"", HttpStatus.SC_OK);
+    assertCache(0, 0);
+  }
+
+  @Test
+  public void testCacheEvictionByCount() throws Exception {
+    for (int i = 0; i <= 100; i++) {
+      setResponse("/" + i, "W/\"" + i + "\"", "x");
+      assertGet("/" + i, "x", null, HttpStatus.SC_OK);
+    }
+    assertCache(100, 100);
+    assertGet("/100", "x", "W/\"100\"", HttpStatus.SC_NOT_MODIFIED);
+    assertGet("/1", "x", "W/\"1\"", HttpStatus.SC_NOT_MODIFIED);
+    assertGet("/0", "x", null, HttpStatus.SC_OK);
+    assertCache(100, 100);
+  }
+
+  @Test
+  public void testGetNotCacheable() throws Exception {
+    setResponse("/A", "W/\"A\"", "aaaa");
+    assertGet("/A", "aaaa", null, HttpStatus.SC_OK);
+
+    // The one-shot GET neither revalidates nor changes the cache
+    for (int i = 0; i < 2; i++) {
+      WebClientOutput output = webClient.get("/A", null, false);
+      Assert.assertEquals("aaaa", output.getContent());
+      assertServed(null, HttpStatus.SC_OK);
+    }
+    setResponse("/B", "W/\"B\"", "bbbb");
+    webClient.get("/B", null, false);
+    assertCache(1, 4);
+    assertGet("/A", "aaaa", "W/\"A\"", HttpStatus.SC_NOT_MODIFIED);
+
+    // The cache can be disabled
+    webClient = new WebClient(baseURI, LaunchClientType.UNKNOWN, "user", 0);
+    assertGet("/A", "aaaa", null, HttpStatus.SC_OK);
+    assertGet("/A", "aaaa", null, HttpStatus.SC_OK);
+    assertCache(0, 0);
+  }
+
+  private void assertCache(int expectedCount, long expectedBytes) {
+    Assert.assertEquals(expectedCount, webClient.getCachedResponseCount());
+    Assert.assertEquals(expectedBytes, webClient.getCachedResponseBytes());
+  }
+
+  private void assertGet(
+      String relativeURI, String expectedContent,
+      String expectedIfNoneMatch, int expectedServedStatusCode) {
+    assertGet(relativeURI, null, expectedContent, expectedIfNoneMatch, expectedServedStatusCode);
+  }
+
+  private void assertGet(
+      String relativeURI, Map<String, String> parameters, String expectedContent,
+      String expectedIfNoneMatch, int expectedServedStatusCode) {
+    WebClientOutput output = webClient.get(relativeURI, parameters);
+    Assert.assertEquals(output.toString(), HttpStatus.SC_OK, output.getStatusCode());
+    Assert.assertTrue(output.isSuccessStatusCode());
+    Assert.assertEquals(expectedContent, output.getContent());
+    assertServed(expectedIfNoneMatch, expectedServedStatusCode);
+  }
+
+  private synchronized void assertServed(String expectedIfNoneMatch, int expectedStatusCode) {
+    Assert.assertEquals(expectedIfNoneMatch, ifNoneMatches.get(ifNoneMatches.size() - 1));
+    Assert.assertEquals(expectedStatusCode, (int) statusCodes.get(statusCodes.size() - 1));
+  }
+}
@@ -0,0 +1,131 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.localstore;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.store.LauncherStore;
+import com.microsoft.frameworklauncher.zookeeperstore.ZookeeperStore;
+import org.apache.commons.io.FileUtils;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+/**
+ * Compare the LocalStore with the ZookeeperStore backed by an embedded ZK server, on the
+ * write latency of the Statuses and the full read of the AggregatedLauncherStatus.
+ * It is not a unit test, run it manually by:
+ *  mvn test-compile exec:java -Dexec.classpathScope=test
+ *    -Dexec.mainClass=com.microsoft.frameworklauncher.localstore.LauncherStoreBenchmark
+ */
+public class LauncherStoreBenchmark {
+  private static final int ZK_PORT = 21810;
+  private static final int FRAMEWORK_NUMBER = 200;
+  private static final int TASK_NUMBER = 100;
+  private static final int READ_ROUNDS = 5;
+
+  public static void main(String[] args) throws Exception {
+    File baseDir = Files.createTempDirectory("LauncherStoreBenchmark").toFile();
+    File zkDir = new File(baseDir, "zk");
+    ServerCnxnFactory zkServerFactory = ServerCnxnFactory.createFactory(new InetSocketAddress(ZK_PORT), 100);
+    zkServerFactory.startup(new ZooKeeperServer(zkDir, zkDir, 2000));
+
+    try {
+      System.out.println(String.format("%-28s %-14s %-14s %-14s",
+          "Store", "WriteUs", "ReadAllMs", "OpenMs"));
+
+      String localStoreDir = new File(baseDir, "local").getAbsolutePath();
+      benchmark("LocalStore(Sync)",
+          () -> new LocalStore(localStoreDir, SerializationType.BINARY, 64, true));
+      FileUtils.deleteDirectory(new File(localStoreDir));
+      benchmark("LocalStore(NoSync)",
+          () -> new LocalStore(localStoreDir, SerializationType.BINARY, 64, false));
+      benchmark("ZookeeperStore",
+          () -> new ZookeeperStore("127.0.0.1:" + ZK_PORT, "/Launcher",
+              true, CompressionType.DEFLATE, -1, SerializationType.BINARY));
+    } finally {
+      zkServerFactory.shutdown();
+      FileUtils.deleteDirectory(baseDir);
+      // The ZK client threads are not daemon
+      System.exit(0);
+    }
+  }
+
+  private interface StoreFactory {
+    LauncherStore newStore() throws Exception;
+  }
+
+  private static void benchmark(String storeName, StoreFactory storeFactory) throws Exception {
+    LauncherStore store = storeFactory.newStore();
+    TaskStatuses taskStatuses = newTaskStatuses(TASK_NUMBER);
+
+    store.setLauncherStatus(new LauncherStatus());
+    long writeStart = System.nanoTime();
+    for (int i = 0; i < FRAMEWORK_NUMBER; i++) {
+      String frameworkName = "Framework" + i;
+      FrameworkStatus frameworkStatus = new FrameworkStatus();
+      frameworkStatus.setFrameworkName(frameworkName);
+      store.setFrameworkStatus(frameworkName, frameworkStatus);
+      store.setTaskRoleStatus(frameworkName, "worker", new TaskRoleStatus());
+      store.setTaskStatuses(frameworkName, "worker", taskStatuses);
+    }
+    long writeUs = (System.nanoTime() - writeStart) / 1000 / (FRAMEWORK_NUMBER * 3);
+
+    long minReadMs = Long.MAX_VALUE;
+    for (int round = 0; round < READ_ROUNDS; round++) {
+      long readStart = System.currentTimeMillis();
+      if (store.getAggregatedLauncherStatus().getAggregatedFrameworkStatuses().size() != FRAMEWORK_NUMBER) {
+        throw new IllegalStateException("AggregatedLauncherStatus mismatch");
+      }
+      minReadMs = Math.min(minReadMs, System.currentTimeMillis() - readStart);
+    }
+
+    // Time to recover a LocalStore from its files, or to connect a ZookeeperStore
+    long openStart = System.currentTimeMillis();
+    LauncherStore reopenedStore = storeFactory.newStore();
+    long openMs = System.currentTimeMillis() - openStart;
+    if (reopenedStore.getFrameworkStatus("Framework0") == null) {
+      throw new IllegalStateException("Reopened store mismatch");
+    }
+
+    System.out.println(String.format("%-28s %-14s %-14s %-14s",
+        storeName, writeUs, minReadMs, openMs));
+    if (store instanceof LocalStore) {
+      ((LocalStore) store).close();
+      ((LocalStore) reopenedStore).close();
+    }
+  }
+
+  private static TaskStatuses newTaskStatuses(int taskNumber) {
+    TaskStatuses taskStatuses = new TaskStatuses();
+    taskStatuses.setTaskRoleName("worker");
+    taskStatuses.setFrameworkVersion(1);
+    taskStatuses.setTaskStatusArray(new ArrayList<>());
+    for (int taskIndex = 0; taskIndex < taskNumber; taskIndex++) {
+      TaskStatus taskStatus = new TaskStatus();
+      taskStatus.setTaskIndex(taskIndex);
+      taskStatus.setTaskRoleName("worker");
+      taskStatus.setTaskState(TaskState.TASK_WAITING);
+      taskStatuses.getTaskStatusArray().add(taskStatus);
+    }
+    return taskStatuses;
+  }
+}
@@ -0,0 +1,275 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.localstore;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.store.ChangeNotifier;
+import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.zookeeper.KeeperException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class LocalStoreTest {
+  private static final String STORE_DIR =
+      TestUtils.RESOURCE_ROOT + File.separator + "localStoreTestDir";
+  private static final String FRAMEWORK_NAME = "Framework";
+  private static final String TASK_ROLE_NAME = "TaskRole";
+
+  @Before
+  public void cleanStoreDir() throws Exception {
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+  }
+
+  @Test
+  public void testPersistence() throws Exception {
+    LocalStore localStore = newLocalStore();
+    FrameworkStatus frameworkStatus = new FrameworkStatus();
+    frameworkStatus.setFrameworkName(FRAMEWORK_NAME);
+    TaskStatuses taskStatuses = newTaskStatuses(5);
+    localStore.setLauncherStatus(new LauncherStatus());
+    localStore.setLauncherRequest(new LauncherRequest());
+    localStore.setFrameworkRequest(FRAMEWORK_NAME, new FrameworkRequest());
+    localStore.setFrameworkStatus(FRAMEWORK_NAME, frameworkStatus);
+    localStore.setTaskRoleStatus(FRAMEWORK_NAME, TASK_ROLE_NAME, new TaskRoleStatus());
+    localStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 2, null);
+    AggregatedLauncherStatus expectStatus = localStore.getAggregatedLauncherStatus();
+    AggregatedLauncherRequest expectRequest = localStore.getAggregatedLauncherRequest();
+    Assert.assertEquals(1, expectStatus.getAggregatedFrameworkStatuses().size());
+    Assert.assertEquals(1, expectRequest.getAggregatedFrameworkRequests().size());
+    localStore.close();
+
+    // All objects are recovered after reopen
+    localStore = newLocalStore();
+    assertTaskStatuses(taskStatuses, localStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+    Assert.assertTrue("AggregatedLauncherStatus do not match!",
+        YamlUtils.deepEquals(expectStatus, localStore.getAggregatedLauncherStatus()));
+    Assert.assertTrue("AggregatedLauncherRequest do not match!",
+        YamlUtils.deepEquals(expectRequest, localStore.getAggregatedLauncherRequest()));
+
+    // Deleted objects are not recovered
+    localStore.deleteFrameworkStatus(FRAMEWORK_NAME, true);
+    localStore.close();
+    localStore = newLocalStore();
+    Assert.assertNotNull(localStore.getFrameworkStatus(FRAMEWORK_NAME));
+    try {
+      localStore.getTaskRoleStatus(FRAMEWORK_NAME, TASK_ROLE_NAME);
+      Assert.fail("NoNodeException should be thrown");
+    } catch (KeeperException.NoNodeException ignored) {
+    }
+    localStore.close();
+  }
+
+  @Test
+  public void testBatchSet() throws Exception {
+    LocalStore localStore = newLocalStore();
+    Map<String, FrameworkStatus> frameworkStatuses = new LinkedHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      FrameworkStatus frameworkStatus = new FrameworkStatus();
+      frameworkStatus.setFrameworkName(FRAMEWORK_NAME + i);
+      frameworkStatus.setFrameworkVersion(i);
+      frameworkStatuses.put(FRAMEWORK_NAME + i, frameworkStatus);
+    }
+    localStore.setFrameworkStatuses(frameworkStatuses);
+    frameworkStatuses.get(FRAMEWORK_NAME + 0).setFrameworkVersion(100);
+    localStore.setFrameworkStatuses(frameworkStatuses);
+    localStore.close();
+
+    localStore = newLocalStore();
+    Assert.assertTrue("FrameworkStatuses do not match!",
+        YamlUtils.deepEquals(new HashMap<>(frameworkStatuses), localStore.getAllFrameworkStatuses()));
+    localStore.close();
+  }
+
+  @Test
+  public void testBatchRequests() throws Exception {
+    LocalStore localStore = newLocalStore();
+    Map<String, FrameworkRequest> frameworkRequests = new LinkedHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      FrameworkRequest frameworkRequest = new FrameworkRequest();
+      frameworkRequest.setFrameworkName(FRAMEWORK_NAME + i);
+      frameworkRequests.put(FRAMEWORK_NAME + i, frameworkRequest);
+    }
+    localStore.setFrameworkRequests(frameworkRequests);
+    localStore.setMigrateTaskRequest(FRAMEWORK_NAME + 0, "Container", new MigrateTaskRequest());
+    localStore.close();
+
+    // The dummy request nodes are also prepared for their child nodes
+    localStore = newLocalStore();
+    Assert.assertTrue("FrameworkRequests do not match!",
+        YamlUtils.deepEquals(new HashMap<>(frameworkRequests), localStore.getAllFrameworkRequests()));
+    Assert.assertNotNull(localStore.getMigrateTaskRequest(FRAMEWORK_NAME + 0, "Container"));
+
+    // Deleted Requests and their descendants are not recovered, and not exist ones are ignored
+    localStore.deleteFrameworkRequests(Arrays.asList(
+        FRAMEWORK_NAME + 0, FRAMEWORK_NAME + 1, FRAMEWORK_NAME + 100));
+    localStore.close();
+    localStore = newLocalStore();
+    frameworkRequests.remove(FRAMEWORK_NAME + 0);
+    frameworkRequests.remove(FRAMEWORK_NAME + 1);
+    Assert.assertTrue("FrameworkRequests do not match!",
+        YamlUtils.deepEquals(new HashMap<>(frameworkRequests), localStore.getAllFrameworkRequests()));
+    try {
+      localStore.getMigrateTaskRequest(FRAMEWORK_NAME + 0, "Container");
+      Assert.fail("NoNodeException should be thrown");
+    } catch (KeeperException.NoNodeException ignored) {
+    }
+    localStore.close();
+  }
+
+  @Test
+  public void testTornRecord() throws Exception {
+    LocalStoreLog storeLog = new LocalStoreLog(STORE_DIR, 1024 * 1024, true);
+    storeLog.setData("/A", bytes("1"));
+    storeLog.close();
+
+    // Simulate the crash during appending a record
+    File logFile = new File(STORE_DIR, "log-1");
+    long logSize = logFile.length();
+    try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+      file.seek(logSize);
+      file.writeInt(100);
+      file.writeInt(0);
+      file.write(bytes("torn"));
+    }
+
+    // The torn record is ignored and truncated
+    storeLog = new LocalStoreLog(STORE_DIR, 1024 * 1024, true);
+    Assert.assertEquals("1", string(storeLog.getData("/A")));
+    Assert.assertEquals(logSize, logFile.length());
+    storeLog.setData("/A", bytes("2"));
+    storeLog.close();
+
+    storeLog = new LocalStoreLog(STORE_DIR, 1024 * 1024, true);
+    Assert.assertEquals("2", string(storeLog.getData("/A")));
+    storeLog.close();
+  }
+
+  @Test
+  public void testCompaction() throws Exception {
+    LocalStoreLog storeLog = new LocalStoreLog(STORE_DIR, 1024, false);
+    for (int i = 0; i < 100; i++) {
+      storeLog.setData("/A/B" + (i % 10), bytes(Integer.toString(i)));
+    }
+    storeLog.deleteRecursively("/A/B0", false);
+    storeLog.close();
+
+    // Only the files of the current generation are kept
+    File[] files = new File(STORE_DIR).listFiles((dir, name) -> name.startsWith("log-"));
+    Assert.assertEquals(1, files.length);
+    Assert.assertNotEquals("log-1", files[0].getName());
+
+    storeLog = new LocalStoreLog(STORE_DIR, 1024, false);
+    Assert.assertEquals(9, storeLog.getChildren("/A").size());
+    Assert.assertFalse(storeLog.exists("/A/B0"));
+    Assert.assertEquals("99", string(storeLog.getData("/A/B9")));
+    storeLog.close();
+  }
+
+  @Test
+  public void testSharedStore() throws Exception {
+    LocalStore writerStore = newLocalStore();
+    LocalStore readerStore = newLocalStore();
+    ChangeNotifier changeNotifier = readerStore.newLauncherRequestChangeNotifier(true);
+
+    // The reader sees and is notified the changes of the writer
+    writerStore.setFrameworkRequest(FRAMEWORK_NAME, new FrameworkRequest());
+    Assert.assertNotNull(readerStore.getFrameworkRequest(FRAMEWORK_NAME));
+    Set<String> changedPaths = changeNotifier.waitChanges(5000);
+    // Requests is also changed since Framework is created
+    Assert.assertNull(readerStore.getChangedRequestFrameworkNames(changedPaths));
+
+    // Changes are replayed by the notifier itself
+    writerStore.setFrameworkRequest(FRAMEWORK_NAME, new FrameworkRequest());
+    changedPaths = changeNotifier.waitChanges(5000);
+    Assert.assertEquals(new HashSet<>(Collections.singletonList(FRAMEWORK_NAME)),
+        readerStore.getChangedRequestFrameworkNames(changedPaths));
+
+    // The reader can also write, and the writer sees it
+    readerStore.deleteFrameworkRequest(FRAMEWORK_NAME);
+    Assert.assertEquals(0, writerStore.getAllFrameworkRequests().size());
+
+    writerStore.close();
+    readerStore.close();
+  }
+
+  @Test
+  public void testChangeNotifier() throws Exception {
+    LocalStoreLog storeLog = new LocalStoreLog(STORE_DIR, 1024 * 1024, false);
+    LocalChangeNotifier changeNotifier = new LocalChangeNotifier(storeLog,
+        Collections.singletonMap("/A", 1));
+
+    // Timeout without changes
+    Assert.assertNull(changeNotifier.waitChanges(10));
+
+    // The watched node and the parent of the created or deleted node are notified
+    storeLog.setData("/A/B/C", bytes("1"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("/A", "/A/B")), changeNotifier.waitChanges(0));
+    storeLog.setData("/A/B/C", bytes("2"));
+    storeLog.setData("/D", bytes("1"));
+    Assert.assertNull(changeNotifier.waitChanges(10));
+    storeLog.deleteRecursively("/A", true);
+    Assert.assertEquals(new HashSet<>(Arrays.asList("/A", "/A/B")), changeNotifier.waitChanges(0));
+    storeLog.close();
+  }
+
+  private static LocalStore newLocalStore() throws Exception {
+    return new LocalStore(STORE_DIR, SerializationType.YAML, 64, false);
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String string(byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static TaskStatuses newTaskStatuses(int taskNumber) {
+    TaskStatuses taskStatuses = new TaskStatuses();
+    taskStatuses.setTaskRoleName(TASK_ROLE_NAME);
+    taskStatuses.setFrameworkVersion(1);
+    taskStatuses.setTaskStatusArray(new ArrayList<>());
+    for (int taskIndex = 0; taskIndex < taskNumber; taskIndex++) {
+      TaskStatus taskStatus = new TaskStatus();
+      taskStatus.setTaskIndex(taskIndex);
+      taskStatus.setTaskRoleName(TASK_ROLE_NAME);
+      taskStatus.setTaskState(TaskState.TASK_WAITING);
+      taskStatuses.getTaskStatusArray().add(taskStatus);
+    }
+    return taskStatuses;
+  }
+
+  private static void assertTaskStatuses(TaskStatuses expect, TaskStatuses result) {
+    Assert.assertTrue("TaskStatuses do not match!", YamlUtils.deepEquals(expect, result));
+  }
+}
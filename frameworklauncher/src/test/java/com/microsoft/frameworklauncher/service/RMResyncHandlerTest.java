@@ -0,0 +1,204 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.applicationmaster.MockYarnClient;
+import com.microsoft.frameworklauncher.common.model.FrameworkState;
+import com.microsoft.frameworklauncher.common.model.LauncherConfiguration;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+import org.apache.hadoop.yarn.util.Records;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+public class RMResyncHandlerTest {
+  // The Applications in RM, and the RM is unavailable if it is null
+  private static class ResyncYarnClient extends MockYarnClient {
+    private Map<String, ApplicationReport> applicationReports = new HashMap<>();
+
+    public ResyncYarnClient() {
+      super(null);
+    }
+
+    @Override
+    public ApplicationReport getApplicationReport(ApplicationId appId) throws YarnException, IOException {
+      ApplicationReport report = getApplicationReports().get(appId.toString());
+      if (report == null) {
+        throw new ApplicationNotFoundException(appId + " not found");
+      }
+      return report;
+    }
+
+    @Override
+    public List<ApplicationReport> getApplications(Set<String> applicationTypes) throws YarnException, IOException {
+      return new ArrayList<>(getApplicationReports().values());
+    }
+
+    @Override
+    public List<ApplicationReport> getApplications(
+        Set<String> applicationTypes, EnumSet<YarnApplicationState> applicationStates)
+        throws YarnException, IOException {
+      List<ApplicationReport> reports = new ArrayList<>();
+      for (ApplicationReport report : getApplicationReports().values()) {
+        if (applicationStates.contains(report.getYarnApplicationState())) {
+          reports.add(report);
+        }
+      }
+      return reports;
+    }
+
+    private Map<String, ApplicationReport> getApplicationReports() throws YarnException {
+      if (applicationReports == null) {
+        throw new YarnException("RM is unavailable");
+      }
+      return applicationReports;
+    }
+  }
+
+  // Record the resync results instead of resyncing the Frameworks
+  private static class ResyncService extends Service {
+    private final List<String> liveAssociatedApplicationIds = new ArrayList<>();
+    private final List<Map<String, ApplicationReport>> liveApplicationReportsList = new ArrayList<>();
+    private final List<Boolean> fullResyncList = new ArrayList<>();
+    private int queuedResyncCount = 0;
+
+    @Override
+    public void queueResyncWithRM(int delaySec) {
+      queuedResyncCount++;
+    }
+
+    @Override
+    public void onLiveApplicationsUpdated(
+        HashMap<String, ApplicationReport> liveApplicationReports, boolean fullResync) {
+      liveApplicationReportsList.add(liveApplicationReports);
+      fullResyncList.add(fullResync);
+    }
+
+    @Override
+    public List<String> getLiveAssociatedApplicationIds() {
+      return liveAssociatedApplicationIds;
+    }
+  }
+
+  @Test
+  public void testResyncWithRM() throws Exception {
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setServiceRMFullResyncFrequency(3);
+    ResyncService service = new ResyncService();
+    ResyncYarnClient yarnClient = new ResyncYarnClient();
+    RMResyncHandler rmResyncHandler = new RMResyncHandler(service, conf, yarnClient);
+
+    ApplicationReport runningReport = newApplicationReport(
+        1, YarnApplicationState.RUNNING, FinalApplicationStatus.UNDEFINED);
+    ApplicationReport completedReport = newApplicationReport(
+        2, YarnApplicationState.FINISHED, FinalApplicationStatus.SUCCEEDED);
+    ApplicationReport notAssociatedCompletedReport = newApplicationReport(
+        3, YarnApplicationState.FAILED, FinalApplicationStatus.FAILED);
+    String lostApplicationId = ApplicationId.newInstance(0, 4).toString();
+    for (ApplicationReport report : Arrays.asList(runningReport, completedReport, notAssociatedCompletedReport)) {
+      yarnClient.applicationReports.put(report.getApplicationId().toString(), report);
+    }
+    service.liveAssociatedApplicationIds.addAll(Arrays.asList(
+        runningReport.getApplicationId().toString(),
+        completedReport.getApplicationId().toString(),
+        lostApplicationId));
+
+    // The full resync gets all Applications
+    rmResyncHandler.resyncWithRM();
+    assertLastResync(service, true, runningReport, completedReport, notAssociatedCompletedReport);
+
+    // The incremental resync gets the not completed Applications and the completed but live associated ones,
+    // and the not found one is excluded so that it will be completed as lost by the Service.
+    rmResyncHandler.resyncWithRM();
+    assertLastResync(service, false, runningReport, completedReport);
+    rmResyncHandler.resyncWithRM();
+    assertLastResync(service, false, runningReport, completedReport);
+
+    // The failed resync does not count, so the next one is still the full resync
+    yarnClient.applicationReports = null;
+    rmResyncHandler.resyncWithRM();
+    Assert.assertEquals(3, service.liveApplicationReportsList.size());
+    yarnClient.applicationReports = new HashMap<>();
+    yarnClient.applicationReports.put(runningReport.getApplicationId().toString(), runningReport);
+    rmResyncHandler.resyncWithRM();
+    assertLastResync(service, true, runningReport);
+
+    // The next resync is always queued
+    Assert.assertEquals(5, service.queuedResyncCount);
+  }
+
+  @Test
+  public void testIsApplicationReportResynced() {
+    ApplicationReport runningReport = newApplicationReport(
+        1, YarnApplicationState.RUNNING, FinalApplicationStatus.UNDEFINED);
+    ApplicationReport acceptedReport = newApplicationReport(
+        1, YarnApplicationState.ACCEPTED, FinalApplicationStatus.UNDEFINED);
+    ApplicationReport completedReport = newApplicationReport(
+        1, YarnApplicationState.FINISHED, FinalApplicationStatus.SUCCEEDED);
+
+    // Never resynced or changed
+    Assert.assertFalse(Service.isApplicationReportResynced(
+        null, runningReport, FrameworkState.APPLICATION_RUNNING));
+    Assert.assertFalse(Service.isApplicationReportResynced(
+        acceptedReport, runningReport, FrameworkState.APPLICATION_RUNNING));
+
+    // Unchanged and the Framework is already transitioned by it
+    Assert.assertTrue(Service.isApplicationReportResynced(
+        runningReport, runningReport, FrameworkState.APPLICATION_RUNNING));
+    Assert.assertTrue(Service.isApplicationReportResynced(
+        acceptedReport, acceptedReport, FrameworkState.APPLICATION_WAITING));
+
+    // Unchanged but the Framework is not transitioned by it, so it is resynced again
+    Assert.assertFalse(Service.isApplicationReportResynced(
+        runningReport, runningReport, FrameworkState.APPLICATION_LAUNCHED));
+    Assert.assertFalse(Service.isApplicationReportResynced(
+        acceptedReport, acceptedReport, FrameworkState.APPLICATION_RUNNING));
+    Assert.assertFalse(Service.isApplicationReportResynced(
+        completedReport, completedReport, FrameworkState.APPLICATION_RUNNING));
+  }
+
+  private static ApplicationReport newApplicationReport(
+      int id, YarnApplicationState applicationState, FinalApplicationStatus applicationFinalStatus) {
+    ApplicationReport report = Records.newRecord(ApplicationReport.class);
+    report.setApplicationId(ApplicationId.newInstance(0, id));
+    report.setYarnApplicationState(applicationState);
+    report.setFinalApplicationStatus(applicationFinalStatus);
+    report.setProgress(0.5f);
+    report.setTrackingUrl("http://localhost/" + id);
+    return report;
+  }
+
+  private static void assertLastResync(
+      ResyncService service, boolean expectedFullResync, ApplicationReport... expectedReports) {
+    Map<String, ApplicationReport> expectedLiveApplicationReports = new HashMap<>();
+    for (ApplicationReport report : expectedReports) {
+      expectedLiveApplicationReports.put(report.getApplicationId().toString(), report);
+    }
+
+    int lastIndex = service.liveApplicationReportsList.size() - 1;
+    Assert.assertEquals(expectedLiveApplicationReports, service.liveApplicationReportsList.get(lastIndex));
+    Assert.assertEquals(expectedFullResync, service.fullResyncList.get(lastIndex));
+  }
+}
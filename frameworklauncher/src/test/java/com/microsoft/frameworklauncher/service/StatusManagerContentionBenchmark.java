@@ -0,0 +1,134 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.localstore.LocalStore;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationSubmissionContext;
+import org.apache.hadoop.yarn.util.Records;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measure the read latency of the Service StatusManager while a writer keeps transitioning
+ * FrameworkStates, each of which writes through to a synced LocalStore while holding the lock.
+ * The max read latency should be far less than the writer's per transition latency, since the
+ * reads do not wait for the writes.
+ * It is not a unit test, run it manually by:
+ *  mvn test-compile exec:java -Dexec.classpathScope=test
+ *    -Dexec.mainClass=com.microsoft.frameworklauncher.service.StatusManagerContentionBenchmark
+ */
+public class StatusManagerContentionBenchmark {
+  private static final int FRAMEWORK_NUMBER = 500;
+  private static final int READER_NUMBER = 4;
+
+  public static void main(String[] args) throws Exception {
+    File storeDir = Files.createTempDirectory("StatusManagerContentionBenchmark").toFile();
+    LocalStore store = new LocalStore(storeDir.getAbsolutePath(), SerializationType.BINARY, 64, true);
+
+    try {
+      LauncherConfiguration conf = new LauncherConfiguration();
+      // Write through, so that each transition does the store I/O while holding the lock
+      conf.setServiceStatusGroupCommitIntervalMs(0);
+
+      StatusManager statusManager = new StatusManager(null, conf, store);
+      statusManager.initialize();
+      statusManager.recover();
+
+      Map<String, FrameworkRequest> frameworkRequests = new HashMap<>();
+      for (int i = 0; i < FRAMEWORK_NUMBER; i++) {
+        FrameworkRequest frameworkRequest = newFrameworkRequest("Framework" + i);
+        frameworkRequests.put(frameworkRequest.getFrameworkName(), frameworkRequest);
+      }
+
+      AtomicBoolean stopped = new AtomicBoolean(false);
+      AtomicLong readCount = new AtomicLong(0);
+      AtomicLong maxReadNanos = new AtomicLong(0);
+      List<Thread> readers = new ArrayList<>();
+      for (int i = 0; i < READER_NUMBER; i++) {
+        Thread reader = new Thread(() -> {
+          Random random = new Random();
+          Set<FrameworkState> waitingStates = Collections.singleton(FrameworkState.FRAMEWORK_WAITING);
+          while (!stopped.get()) {
+            String frameworkName = "Framework" + random.nextInt(FRAMEWORK_NUMBER);
+            long start = System.nanoTime();
+            if (statusManager.containsFramework(frameworkName)) {
+              statusManager.getFrameworkStatus(frameworkName);
+            }
+            statusManager.getLiveAssociatedApplicationIds();
+            if (random.nextInt(1000) == 0) {
+              statusManager.getFrameworkStatus(waitingStates);
+            }
+            long readNanos = System.nanoTime() - start;
+            maxReadNanos.accumulateAndGet(readNanos, Math::max);
+            readCount.incrementAndGet();
+          }
+        });
+        reader.start();
+        readers.add(reader);
+      }
+
+      long writeStart = System.nanoTime();
+      try {
+        statusManager.updateFrameworkRequests(frameworkRequests);
+        int applicationIndex = 0;
+        for (String frameworkName : frameworkRequests.keySet()) {
+          ApplicationSubmissionContext applicationContext = Records.newRecord(ApplicationSubmissionContext.class);
+          applicationContext.setApplicationId(ApplicationId.newInstance(writeStart, applicationIndex++));
+          statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_CREATED,
+              new FrameworkEvent().setApplicationContext(applicationContext));
+          statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_LAUNCHED);
+        }
+      } finally {
+        stopped.set(true);
+        for (Thread reader : readers) {
+          reader.join();
+        }
+      }
+      long writeNanos = System.nanoTime() - writeStart;
+
+      System.out.println(String.format("%-14s %-14s %-14s %-14s",
+          "WriteUs", "Reads", "ReadAvgUs", "ReadMaxUs"));
+      System.out.println(String.format("%-14s %-14s %-14s %-14s",
+          writeNanos / 1000 / (FRAMEWORK_NUMBER * 3),
+          readCount.get(),
+          writeNanos * READER_NUMBER / 1000 / Math.max(readCount.get(), 1),
+          maxReadNanos.get() / 1000));
+    } finally {
+      store.close();
+      FileUtils.deleteDirectory(storeDir);
+    }
+  }
+
+  private static FrameworkRequest newFrameworkRequest(String frameworkName) {
+    FrameworkDescriptor frameworkDescriptor = new FrameworkDescriptor();
+    frameworkDescriptor.setVersion(1);
+
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    frameworkRequest.setFirstRequestTimestamp(System.currentTimeMillis());
+    return frameworkRequest;
+  }
+}
@@ -0,0 +1,312 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.service;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.common.web.WebCommon;
+import com.microsoft.frameworklauncher.localstore.LocalStore;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationSubmissionContext;
+import org.apache.hadoop.yarn.util.Records;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class StatusManagerTest {
+  private static final String STORE_DIR =
+      TestUtils.RESOURCE_ROOT + File.separator + "statusManagerTestDir";
+
+  private final List<RecordingStore> stores = new ArrayList<>();
+
+  // Record the FrameworkStatuses Set by each store call, so that the group commit can be checked
+  private static class RecordingStore extends LocalStore {
+    private final List<Map<String, FrameworkStatus>> setFrameworkStatusesCalls = new ArrayList<>();
+
+    public RecordingStore() throws Exception {
+      super(STORE_DIR, SerializationType.YAML, 64, false);
+    }
+
+    @Override
+    public synchronized void setFrameworkStatus(String frameworkName, FrameworkStatus frameworkStatus) throws Exception {
+      setFrameworkStatusesCalls.add(Collections.singletonMap(frameworkName, frameworkStatus));
+      super.setFrameworkStatus(frameworkName, frameworkStatus);
+    }
+
+    @Override
+    public synchronized void setFrameworkStatuses(Map<String, FrameworkStatus> frameworkStatuses) throws Exception {
+      setFrameworkStatusesCalls.add(new LinkedHashMap<>(frameworkStatuses));
+      super.setFrameworkStatuses(frameworkStatuses);
+    }
+
+    public synchronized List<Map<String, FrameworkStatus>> getSetFrameworkStatusesCalls() {
+      return new ArrayList<>(setFrameworkStatusesCalls);
+    }
+
+    public synchronized void clearSetFrameworkStatusesCalls() {
+      setFrameworkStatusesCalls.clear();
+    }
+  }
+
+  @Before
+  public void cleanStoreDir() throws Exception {
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+  }
+
+  @After
+  public void closeStores() throws Exception {
+    for (RecordingStore store : stores) {
+      store.close();
+    }
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+  }
+
+  @Test
+  public void testGroupCommitCoalescesRepeatedWrites() throws Exception {
+    LauncherConfiguration conf = newConf(1000);
+    RecordingStore store = newStore();
+    StatusManager statusManager = newStatusManager(conf, store);
+
+    statusManager.updateFrameworkRequests(newFrameworkRequests("Framework0", "Framework1"));
+    statusManager.transitionFrameworkState("Framework0", FrameworkState.APPLICATION_CREATED,
+        newApplicationEvent(0));
+    statusManager.transitionFrameworkState("Framework0", FrameworkState.APPLICATION_LAUNCHED);
+    statusManager.transitionFrameworkState("Framework1", FrameworkState.APPLICATION_CREATED,
+        newApplicationEvent(1));
+    Assert.assertTrue(store.getSetFrameworkStatusesCalls().isEmpty());
+
+    // Each Framework is Set only once with its latest FrameworkStatus, in changed order
+    statusManager.commitFrameworkStatuses();
+    List<Map<String, FrameworkStatus>> calls = store.getSetFrameworkStatusesCalls();
+    Assert.assertEquals(1, calls.size());
+    Assert.assertEquals(Arrays.asList("Framework0", "Framework1"), new ArrayList<>(calls.get(0).keySet()));
+    Assert.assertEquals(FrameworkState.APPLICATION_LAUNCHED,
+        store.getFrameworkStatus("Framework0").getFrameworkState());
+    Assert.assertEquals(FrameworkState.APPLICATION_CREATED,
+        store.getFrameworkStatus("Framework1").getFrameworkState());
+
+    // Nothing is committed again if nothing changed
+    statusManager.commitFrameworkStatuses();
+    Assert.assertEquals(1, store.getSetFrameworkStatusesCalls().size());
+  }
+
+  @Test
+  public void testGroupCommitInlineAtMaxBatchSize() throws Exception {
+    LauncherConfiguration conf = newConf(2);
+    RecordingStore store = newStore();
+    StatusManager statusManager = newStatusManager(conf, store);
+
+    // The 2nd changed Framework fills the batch, so the batch is committed inline
+    statusManager.updateFrameworkRequests(newFrameworkRequests("Framework0", "Framework1", "Framework2"));
+    List<Map<String, FrameworkStatus>> calls = store.getSetFrameworkStatusesCalls();
+    Assert.assertEquals(1, calls.size());
+    Assert.assertEquals(2, calls.get(0).size());
+    Assert.assertFalse(calls.get(0).containsKey("Framework2"));
+
+    // Repeated writes to the uncommitted Framework do not fill the batch
+    store.clearSetFrameworkStatusesCalls();
+    statusManager.transitionFrameworkState("Framework2", FrameworkState.APPLICATION_CREATED,
+        newApplicationEvent(2));
+    Assert.assertTrue(store.getSetFrameworkStatusesCalls().isEmpty());
+
+    statusManager.transitionFrameworkState("Framework0", FrameworkState.APPLICATION_CREATED,
+        newApplicationEvent(0));
+    calls = store.getSetFrameworkStatusesCalls();
+    Assert.assertEquals(1, calls.size());
+    Assert.assertEquals(Arrays.asList("Framework2", "Framework0"), new ArrayList<>(calls.get(0).keySet()));
+  }
+
+  @Test
+  public void testGroupCommitDisabled() throws Exception {
+    LauncherConfiguration conf = newConf(1000);
+    conf.setServiceStatusGroupCommitIntervalMs(0);
+    RecordingStore store = newStore();
+    StatusManager statusManager = newStatusManager(conf, store);
+
+    statusManager.updateFrameworkRequests(newFrameworkRequests("Framework0"));
+    statusManager.transitionFrameworkState("Framework0", FrameworkState.APPLICATION_CREATED,
+        newApplicationEvent(0));
+    Assert.assertEquals(2, store.getSetFrameworkStatusesCalls().size());
+    Assert.assertEquals(FrameworkState.APPLICATION_CREATED,
+        store.getFrameworkStatus("Framework0").getFrameworkState());
+  }
+
+  // The Service launchApplication commits the FrameworkStatuses before it submits the Application,
+  // so that the Application is recognized as associated by the recovered Service after a crash.
+  @Test
+  public void testCommitBeforeSubmit() throws Exception {
+    LauncherConfiguration conf = newConf(1000);
+    RecordingStore store = newStore();
+    StatusManager statusManager = newStatusManager(conf, store);
+
+    statusManager.updateFrameworkRequests(newFrameworkRequests("Framework0"));
+    statusManager.commitFrameworkStatuses();
+    ApplicationSubmissionContext applicationContext = newApplicationContext(0);
+    String applicationId = applicationContext.getApplicationId().toString();
+    statusManager.transitionFrameworkState("Framework0", FrameworkState.APPLICATION_CREATED,
+        new FrameworkEvent().setApplicationContext(applicationContext));
+
+    // Crashed before commit: the association is lost, so the Application must not be submitted yet
+    Assert.assertNull(store.getFrameworkStatus("Framework0").getApplicationId());
+    Assert.assertFalse(newStatusManager(conf, store).isApplicationIdAssociated(applicationId));
+
+    // Crashed after commit: the association is recovered, so the submitted Application is not leaked
+    statusManager.commitFrameworkStatuses();
+    StatusManager recoveredStatusManager = newStatusManager(conf, store);
+    Assert.assertTrue(recoveredStatusManager.isApplicationIdAssociated(applicationId));
+    Assert.assertEquals(FrameworkState.APPLICATION_CREATED,
+        recoveredStatusManager.getFrameworkStatus("Framework0").getFrameworkState());
+  }
+
+  // The lock free readers never see a partially modified FrameworkStatus, a modified published
+  // FrameworkStatus, or a Framework missed or duplicated by the FrameworkState locators.
+  @Test
+  public void testConcurrentReadersAndWriter() throws Exception {
+    final int frameworkNumber = 20;
+    final int roundNumber = 20;
+    LauncherConfiguration conf = newConf(1000);
+    RecordingStore store = newStore();
+    StatusManager statusManager = newStatusManager(conf, store);
+
+    List<String> frameworkNames = new ArrayList<>();
+    for (int i = 0; i < frameworkNumber; i++) {
+      frameworkNames.add("Framework" + i);
+    }
+    statusManager.updateFrameworkRequests(newFrameworkRequests(frameworkNames.toArray(new String[0])));
+
+    Set<FrameworkState> allStates = EnumSet.allOf(FrameworkState.class);
+    AtomicBoolean stopped = new AtomicBoolean(false);
+    AtomicReference<String> readerError = new AtomicReference<>();
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread reader = new Thread(() -> {
+        Random random = new Random();
+        try {
+          while (!stopped.get() && readerError.get() == null) {
+            String frameworkName = frameworkNames.get(random.nextInt(frameworkNumber));
+            FrameworkStatus frameworkStatus = statusManager.getFrameworkStatus(frameworkName);
+            FrameworkStatus frameworkStatusCopy = YamlUtils.deepCopy(frameworkStatus, FrameworkStatus.class);
+            boolean associated = FrameworkStateDefinition.APPLICATION_ASSOCIATED_STATES.contains(
+                frameworkStatusCopy.getFrameworkState());
+            if (associated != (frameworkStatusCopy.getApplicationId() != null)) {
+              readerError.compareAndSet(null, "Partially modified FrameworkStatus: " +
+                  WebCommon.toJson(frameworkStatusCopy));
+            }
+
+            int frameworkCount = statusManager.getFrameworkStatus(allStates).size();
+            if (frameworkCount != frameworkNumber) {
+              readerError.compareAndSet(null, "Unexpected Framework count: " + frameworkCount);
+            }
+            if (statusManager.getFrameworkCount(allStates) < frameworkNumber) {
+              readerError.compareAndSet(null, "Framework missed by the FrameworkState locators");
+            }
+
+            if (!YamlUtils.deepEquals(frameworkStatusCopy, frameworkStatus)) {
+              readerError.compareAndSet(null, "Published FrameworkStatus is modified: " +
+                  WebCommon.toJson(frameworkStatusCopy));
+            }
+          }
+        } catch (Throwable e) {
+          readerError.compareAndSet(null, e.toString());
+        }
+      });
+      reader.start();
+      readers.add(reader);
+    }
+
+    try {
+      int applicationIndex = 0;
+      for (int round = 0; round < roundNumber && readerError.get() == null; round++) {
+        for (String frameworkName : frameworkNames) {
+          statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_CREATED,
+              newApplicationEvent(applicationIndex++));
+          statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_LAUNCHED);
+          statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_RUNNING);
+          statusManager.transitionFrameworkState(frameworkName, FrameworkState.APPLICATION_COMPLETED,
+              new FrameworkEvent().setApplicationExitCode(0).setApplicationExitDiagnostics(""));
+          statusManager.transitionFrameworkState(frameworkName, FrameworkState.FRAMEWORK_WAITING,
+              new FrameworkEvent().setNewRetryPolicyState(new RetryPolicyState()));
+        }
+      }
+    } finally {
+      stopped.set(true);
+      for (Thread reader : readers) {
+        reader.join();
+      }
+    }
+
+    Assert.assertNull(readerError.get(), readerError.get());
+    Assert.assertEquals(frameworkNumber, statusManager.getFrameworkCount(allStates));
+    Assert.assertTrue(statusManager.getAssociatedApplicationIds().isEmpty());
+  }
+
+  private RecordingStore newStore() throws Exception {
+    RecordingStore store = new RecordingStore();
+    stores.add(store);
+    return store;
+  }
+
+  private StatusManager newStatusManager(LauncherConfiguration conf, RecordingStore store) throws Exception {
+    // Not started, so that the group commit is only triggered by the test
+    StatusManager statusManager = new StatusManager(null, conf, store);
+    statusManager.initialize();
+    statusManager.recover();
+    store.clearSetFrameworkStatusesCalls();
+    return statusManager;
+  }
+
+  private static LauncherConfiguration newConf(int groupCommitMaxBatchSize) {
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setServiceStatusGroupCommitIntervalMs(1000);
+    conf.setServiceStatusGroupCommitMaxBatchSize(groupCommitMaxBatchSize);
+    return conf;
+  }
+
+  private static Map<String, FrameworkRequest> newFrameworkRequests(String... frameworkNames) {
+    Map<String, FrameworkRequest> frameworkRequests = new LinkedHashMap<>();
+    for (String frameworkName : frameworkNames) {
+      FrameworkDescriptor frameworkDescriptor = new FrameworkDescriptor();
+      frameworkDescriptor.setVersion(1);
+
+      FrameworkRequest frameworkRequest = new FrameworkRequest();
+      frameworkRequest.setFrameworkName(frameworkName);
+      frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+      frameworkRequest.setFirstRequestTimestamp(System.currentTimeMillis());
+      frameworkRequests.put(frameworkName, frameworkRequest);
+    }
+    return frameworkRequests;
+  }
+
+  private static ApplicationSubmissionContext newApplicationContext(int applicationIndex) {
+    ApplicationSubmissionContext applicationContext = Records.newRecord(ApplicationSubmissionContext.class);
+    applicationContext.setApplicationId(ApplicationId.newInstance(1, applicationIndex));
+    return applicationContext;
+  }
+
+  private static FrameworkEvent newApplicationEvent(int applicationIndex) {
+    return new FrameworkEvent().setApplicationContext(newApplicationContext(applicationIndex));
+  }
+}
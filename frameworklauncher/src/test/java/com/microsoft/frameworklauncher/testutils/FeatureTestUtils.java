@@ -59,9 +59,16 @@ public static void setEnvsVariables(
     localEnvs.put(GlobalConstants.ENV_VAR_FRAMEWORK_NAME, frameworkName);
     localEnvs.put(GlobalConstants.ENV_VAR_FRAMEWORK_VERSION, frameworkVersion.toString());
 
+    localEnvs.put(GlobalConstants.ENV_VAR_LAUNCHER_STORE_TYPE, config.getLauncherStoreType().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_DIR, config.getLocalStoreDir());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_MAX_LOG_MB, config.getLocalStoreMaxLogMB().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_LOCAL_STORE_SYNC_ENABLE, config.getLocalStoreSyncEnable().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_CONNECT_STRING, config.getZkConnectString());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_ROOT_DIR, config.getZkRootDir());
     localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_ENABLE, config.getZkCompressionEnable().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_TYPE, config.getZkCompressionType().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_COMPRESSION_LEVEL, config.getZkCompressionLevel().toString());
+    localEnvs.put(GlobalConstants.ENV_VAR_ZK_SERIALIZATION_TYPE, config.getZkSerializationType().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_AM_VERSION, config.getAmVersion().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_AM_RM_HEARTBEAT_INTERVAL_SEC, config.getAmRmHeartbeatIntervalSec().toString());
     localEnvs.put(GlobalConstants.ENV_VAR_CONTAINER_ID, "container_" + System.currentTimeMillis() + "_0001_000001_1");
@@ -18,6 +18,7 @@
 package com.microsoft.frameworklauncher.testutils;
 
 import com.microsoft.frameworklauncher.common.utils.CommonUtils;
+import com.microsoft.frameworklauncher.common.utils.ModelUtils;
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import org.junit.Assert;
 
@@ -77,6 +78,73 @@ public static <T> void testObjectToYaml(T object, String configFileName, Class<T
 
   }
 
+  // Check ModelUtils is consistent with the old YAML based deepEquals and deepCopy,
+  // i.e. comparing the serialized YAML bytes.
+  public static <T> void testDeepEqualsAndCopy(T object, Class<T> tClass)
+      throws Exception {
+    String className = tClass.getSimpleName();
+    T copiedObject = ModelUtils.deepCopy(object);
+    Assert.assertNotSame(String.format("%s: DeepCopy is not a copy!", className),
+        object, copiedObject);
+    Assert.assertTrue(String.format("%s: DeepCopy is not consistent with YAML!", className),
+        yamlEquals(YamlUtils.deepCopy(object, tClass), copiedObject));
+    Assert.assertTrue(String.format("%s: DeepEquals is not consistent with YAML!", className),
+        ModelUtils.deepEquals(object, copiedObject) && yamlEquals(object, copiedObject));
+    Assert.assertEquals(String.format("%s: DeepHashCode is not consistent with DeepEquals!", className),
+        ModelUtils.deepHashCode(object), ModelUtils.deepHashCode(copiedObject));
+
+    // Change each field of the copied object one by one
+    for (Field field : tClass.getDeclaredFields()) {
+      Class<?> c = field.getType();
+      if (Modifier.isStatic(field.getModifiers()) || c.isPrimitive()) {
+        continue;
+      }
+
+      Method getMethod = tClass.getMethod(methodName("get", field.getName()));
+      Method setMethod = tClass.getMethod(methodName("set", field.getName()), c);
+      Object value = getMethod.invoke(copiedObject);
+      if (!isImmutable(value)) {
+        Assert.assertNotSame(
+            String.format("%s.%s: DeepCopy shares the field!", className, field.getName()),
+            getMethod.invoke(object), value);
+      }
+
+      Object changedValue = (value == null ? newFieldValue(field) : null);
+      if (changedValue == null && value == null) {
+        continue;
+      }
+
+      setMethod.invoke(copiedObject, changedValue);
+      Assert.assertEquals(
+          String.format("%s.%s: DeepEquals is not consistent with YAML!", className, field.getName()),
+          yamlEquals(object, copiedObject), ModelUtils.deepEquals(object, copiedObject));
+      setMethod.invoke(copiedObject, value);
+    }
+  }
+
+  private static Object newFieldValue(Field field) throws Exception {
+    Class<?> c = field.getType();
+    if (c.isEnum()) {
+      return c.getEnumConstants()[0];
+    } else if (parameterizedTypeClass.contains(c.getName())) {
+      return parameterizedTypeClassInit((ParameterizedType) field.getGenericType(), c);
+    } else if (c.getName().startsWith("com.microsoft.frameworklauncher.common.model")
+        || basicTypeClass.contains(c.getName())) {
+      return newInstance(c);
+    } else {
+      return null;
+    }
+  }
+
+  private static <T> boolean yamlEquals(T object, T otherObject) {
+    return Arrays.equals(YamlUtils.toBytes(object), YamlUtils.toBytes(otherObject));
+  }
+
+  private static boolean isImmutable(Object value) {
+    return value == null || value instanceof String || value instanceof Number ||
+        value instanceof Boolean || value instanceof Enum;
+  }
+
   public static <T> void testField(String yamlFilePath, Class<T> tClass)
       throws Exception {
     // Read Expect: Yaml -> Object
@@ -94,6 +162,9 @@ public static <T> T newInstance(Class<T> tClass) throws Exception {
     if (basicTypeClass.contains(tClass.getName())) {
       return basicTypeInit(tClass);
     }
+    if (tClass.isEnum()) {
+      return tClass.getEnumConstants()[0];
+    }
 
     T t = tClass.newInstance();
     for (Field field : tClass.getDeclaredFields()) {
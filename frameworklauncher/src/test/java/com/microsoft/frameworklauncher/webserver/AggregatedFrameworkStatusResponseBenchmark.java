@@ -0,0 +1,149 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.utils.SerializationBenchmark;
+import com.microsoft.frameworklauncher.common.web.WebClient;
+import com.microsoft.frameworklauncher.common.web.WebClientOutput;
+import com.microsoft.frameworklauncher.common.web.WebCommon;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.yarn.webapp.WebApp;
+import org.apache.hadoop.yarn.webapp.WebApps;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measure the Response size, the Client latency and the Client allocated memory of getting
+ * the AggregatedFrameworkStatus of small and large Frameworks from the WebApp.
+ * It is not a unit test, run it manually by:
+ *  mvn test-compile exec:java -Dexec.classpathScope=test
+ *    -Dexec.mainClass=com.microsoft.frameworklauncher.webserver.AggregatedFrameworkStatusResponseBenchmark
+ */
+public class AggregatedFrameworkStatusResponseBenchmark {
+  private static final int[] TASK_NUMBERS = {1, 1000, 20000};
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURE_ROUNDS = 10;
+  private static final String STATUS_PATH = "ws/v1/benchmark";
+
+  private static volatile AggregatedFrameworkStatus aggFrameworkStatus;
+
+  @Path("/" + STATUS_PATH)
+  public static class BenchmarkModule {
+    @GET
+    @Produces({MediaType.APPLICATION_JSON})
+    public AggregatedFrameworkStatus getAggregatedFrameworkStatus() {
+      return aggFrameworkStatus;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    WebApp webApp = WebApps.$for("frameworklauncher", null, null, "ws")
+        .at("127.0.0.1:0")
+        .start(new WebApp() {
+          @Override
+          public void setup() {
+            bind(JacksonObjectMapperProvider.class);
+            bind(BenchmarkModule.class);
+          }
+        });
+    String baseURI = "http://127.0.0.1:" + webApp.port();
+
+    System.out.println(String.format("%-8s %-12s %-12s %-14s %-14s %-14s",
+        "Tasks", "Bytes", "GzipBytes", "GetMs", "GetAllocMB", "ToObjectMs"));
+    try {
+      for (int taskNumber : TASK_NUMBERS) {
+        aggFrameworkStatus = newAggregatedFrameworkStatus(taskNumber);
+        benchmark(baseURI, taskNumber);
+      }
+    } finally {
+      webApp.stop();
+    }
+  }
+
+  private static void benchmark(String baseURI, int taskNumber) throws Exception {
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    // The Response is not cached since it has no ETag
+    WebClient webClient = new WebClient(baseURI, LaunchClientType.UNKNOWN, "benchmark");
+    long minGetNs = Long.MAX_VALUE;
+    long minGetAllocatedBytes = Long.MAX_VALUE;
+    long minToObjectNs = Long.MAX_VALUE;
+
+    for (int round = 0; round < WARMUP_ROUNDS + MEASURE_ROUNDS; round++) {
+      long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      WebClientOutput output = webClient.get(STATUS_PATH);
+      long got = System.nanoTime();
+      allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+      if (!output.isSuccessStatusCode()) {
+        throw new IllegalStateException("Failed to get: " + output);
+      }
+      WebCommon.toObject(output.getContentBytes(), AggregatedFrameworkStatus.class);
+      long deserialized = System.nanoTime();
+
+      if (round >= WARMUP_ROUNDS) {
+        minGetNs = Math.min(minGetNs, got - start);
+        minGetAllocatedBytes = Math.min(minGetAllocatedBytes, allocatedBytes);
+        minToObjectNs = Math.min(minToObjectNs, deserialized - got);
+      }
+    }
+
+    System.out.println(String.format("%-8s %-12s %-12s %-14s %-14s %-14s",
+        taskNumber, getResponseBytes(baseURI, null), getResponseBytes(baseURI, "gzip"),
+        minGetNs / 1000000, minGetAllocatedBytes / 1024 / 1024, minToObjectNs / 1000000));
+  }
+
+  // Get the size of the Response body on the wire
+  private static long getResponseBytes(String baseURI, String acceptEncoding) throws Exception {
+    HttpURLConnection connection = (HttpURLConnection) new URL(
+        WebCommon.getURI(baseURI, STATUS_PATH)).openConnection();
+    if (acceptEncoding != null) {
+      connection.setRequestProperty("Accept-Encoding", acceptEncoding);
+    }
+    try (InputStream inputStream = connection.getInputStream()) {
+      return IOUtils.skip(inputStream, Long.MAX_VALUE);
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private static AggregatedFrameworkStatus newAggregatedFrameworkStatus(int taskNumber) {
+    TaskStatuses taskStatuses = SerializationBenchmark.newTaskStatuses(taskNumber);
+    AggregatedTaskRoleStatus aggTaskRoleStatus = new AggregatedTaskRoleStatus();
+    aggTaskRoleStatus.setTaskRoleStatus(new TaskRoleStatus());
+    aggTaskRoleStatus.setTaskStatuses(taskStatuses);
+
+    Map<String, AggregatedTaskRoleStatus> aggTaskRoleStatuses = new HashMap<>();
+    aggTaskRoleStatuses.put(taskStatuses.getTaskRoleName(), aggTaskRoleStatus);
+    AggregatedFrameworkStatus aggFrameworkStatus = new AggregatedFrameworkStatus();
+    aggFrameworkStatus.setFrameworkStatus(new FrameworkStatus());
+    aggFrameworkStatus.setAggregatedTaskRoleStatuses(aggTaskRoleStatuses);
+    return aggFrameworkStatus;
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+public class FrameworkChangeLogTest {
+  @Test
+  public void testChanges() {
+    FrameworkChangeLog changeLog = new FrameworkChangeLog(1);
+    long startVersion = changeLog.getResourceVersion();
+
+    // Without ResourceVersion, the full list is needed
+    Assert.assertNull(changeLog.getChanges(null).getFrameworkNames());
+    Assert.assertEquals(Collections.emptySet(), changeLog.getChanges(startVersion).getFrameworkNames());
+
+    changeLog.onFrameworksChanged(Arrays.asList("A", "B"));
+    changeLog.onFrameworksChanged(Collections.emptyList());
+    changeLog.onFrameworksChanged(Collections.singletonList("C"));
+    FrameworkChangeLog.Changes changes = changeLog.getChanges(startVersion);
+    Assert.assertEquals(startVersion + 2, changes.getResourceVersion());
+    Assert.assertEquals(new HashSet<>(Arrays.asList("A", "B", "C")), changes.getFrameworkNames());
+    Assert.assertEquals(Collections.singleton("C"), changeLog.getChanges(startVersion + 1).getFrameworkNames());
+
+    // The ResourceVersion from the future or the too old one needs the full list
+    Assert.assertNull(changeLog.getChanges(startVersion + 3).getFrameworkNames());
+    Assert.assertNull(changeLog.getChanges(startVersion - 1).getFrameworkNames());
+
+    Assert.assertTrue(changeLog.tryAcquireWatch());
+    Assert.assertFalse(changeLog.tryAcquireWatch());
+    changeLog.releaseWatch();
+    Assert.assertTrue(changeLog.tryAcquireWatch());
+  }
+
+  @Test
+  public void testWaitChanges() throws Exception {
+    FrameworkChangeLog changeLog = new FrameworkChangeLog(1);
+    long startVersion = changeLog.getResourceVersion();
+
+    // Timeout without changes
+    long start = System.currentTimeMillis();
+    changeLog.waitChanges(startVersion, 100);
+    Assert.assertTrue(System.currentTimeMillis() - start >= 100);
+
+    // Wake up by changes
+    new Thread(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException ignored) {
+      }
+      changeLog.onFrameworksChanged(Collections.singletonList("A"));
+    }).start();
+    start = System.currentTimeMillis();
+    changeLog.waitChanges(startVersion, 10000);
+    Assert.assertTrue(System.currentTimeMillis() - start < 10000);
+    Assert.assertEquals(Collections.singleton("A"), changeLog.getChanges(startVersion).getFrameworkNames());
+  }
+}
@@ -0,0 +1,304 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.exceptions.ThrottledRequestException;
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.utils.CommonUtils;
+import com.microsoft.frameworklauncher.common.web.WebCommon;
+import com.microsoft.frameworklauncher.localstore.LocalStore;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import com.microsoft.frameworklauncher.testutils.YamlTestUtils;
+import com.sun.jersey.core.header.InBoundHeaders;
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.spi.container.WebApplication;
+import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpStatus;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.*;
+
+public class LauncherModuleTest {
+  private static final String STORE_DIR =
+      TestUtils.RESOURCE_ROOT + File.separator + "launcherModuleTestDir";
+  private static final String ADMIN_USER = "admin";
+  // The TaskNumber of each Framework in the tests
+  private static final int TASK_NUMBER = 14;
+
+  private LocalStore store;
+  private RequestManager requestManager;
+  private LauncherModule launcherModule;
+
+  @Before
+  public void setUp() throws Exception {
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+    store = new LocalStore(STORE_DIR, SerializationType.YAML, 64, false);
+    LauncherStatus launcherStatus = new LauncherStatus();
+    launcherStatus.setLoggedInUser(UserDescriptor.newInstance(ADMIN_USER));
+    store.setLauncherStatus(launcherStatus);
+
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setWebServerAclEnable(true);
+    conf.setMaxTotalTaskNumber(3 * TASK_NUMBER);
+    WebServer webServer = new MockWebServer(conf, store);
+    requestManager = new RequestManager(webServer, conf, store);
+    requestManager.recover();
+    StatusManager statusManager = new StatusManager(webServer, conf, store);
+    statusManager.recover();
+    launcherModule = new LauncherModule(
+        conf, statusManager, requestManager, new FrameworkChangeLog(1), null);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    store.close();
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+  }
+
+  @Test
+  public void testPutFrameworks() throws Exception {
+    Map<String, FrameworkDescriptor> frameworkDescriptors = new LinkedHashMap<>();
+    frameworkDescriptors.put("user1~A", newFrameworkDescriptor("user1", null));
+    frameworkDescriptors.put("user2~B", newFrameworkDescriptor("user1", null));
+    frameworkDescriptors.put("user1~C", newFrameworkDescriptor("user2", null));
+    frameworkDescriptors.put("D", newFrameworkDescriptor("user1", null));
+    frameworkDescriptors.put("user1~ChildOfDeleted", newFrameworkDescriptor("user1", "user1~Deleted"));
+    frameworkDescriptors.put("user1~ChildOfA", newFrameworkDescriptor("user1", "user1~A"));
+
+    // Each Framework is validated, authorized and Set independently
+    Map<String, Integer> expectedStatusCodes = new LinkedHashMap<>();
+    expectedStatusCodes.put("user1~A", HttpStatus.SC_ACCEPTED);
+    expectedStatusCodes.put("user2~B", HttpStatus.SC_FORBIDDEN);
+    expectedStatusCodes.put("user1~C", HttpStatus.SC_BAD_REQUEST);
+    expectedStatusCodes.put("D", HttpStatus.SC_BAD_REQUEST);
+    expectedStatusCodes.put("user1~ChildOfDeleted", HttpStatus.SC_BAD_REQUEST);
+    expectedStatusCodes.put("user1~ChildOfA", HttpStatus.SC_ACCEPTED);
+    assertResults(expectedStatusCodes,
+        launcherModule.putFrameworks(newHttpServletRequest("user1"), newPutFrameworksRequest(frameworkDescriptors)));
+    assertFrameworks("user1~A", "user1~ChildOfA");
+
+    // The whole batch is rejected if it exceeds the Max Total TaskNumber
+    frameworkDescriptors.clear();
+    frameworkDescriptors.put("user1~E", newFrameworkDescriptor("user1", null));
+    frameworkDescriptors.put("user1~F", newFrameworkDescriptor("user1", null));
+    try {
+      launcherModule.putFrameworks(newHttpServletRequest("user1"), newPutFrameworksRequest(frameworkDescriptors));
+      Assert.fail("The batch exceeding the Max Total TaskNumber should be rejected");
+    } catch (ThrottledRequestException ignored) {
+    }
+    assertFrameworks("user1~A", "user1~ChildOfA");
+  }
+
+  @Test
+  public void testDeleteFrameworks() throws Exception {
+    Map<String, FrameworkDescriptor> frameworkDescriptors = new LinkedHashMap<>();
+    frameworkDescriptors.put("user1~A", newFrameworkDescriptor(ADMIN_USER, null));
+    frameworkDescriptors.put("user1~ChildOfA", newFrameworkDescriptor(ADMIN_USER, "user1~A"));
+    frameworkDescriptors.put("user2~B", newFrameworkDescriptor(ADMIN_USER, null));
+    launcherModule.putFrameworks(newHttpServletRequest(ADMIN_USER), newPutFrameworksRequest(frameworkDescriptors));
+    assertFrameworks("user1~A", "user1~ChildOfA", "user2~B");
+
+    // Each Framework is validated and authorized independently, and the not exist one is also accepted
+    Map<String, Integer> expectedStatusCodes = new LinkedHashMap<>();
+    expectedStatusCodes.put("user1~A", HttpStatus.SC_ACCEPTED);
+    expectedStatusCodes.put("user2~B", HttpStatus.SC_FORBIDDEN);
+    expectedStatusCodes.put("C", HttpStatus.SC_BAD_REQUEST);
+    expectedStatusCodes.put("user1~NotExist", HttpStatus.SC_ACCEPTED);
+    DeleteFrameworksRequest deleteFrameworksRequest = new DeleteFrameworksRequest();
+    deleteFrameworksRequest.setFrameworkNames(new ArrayList<>(expectedStatusCodes.keySet()));
+    assertResults(expectedStatusCodes,
+        launcherModule.deleteFrameworks(newHttpServletRequest("user1"), deleteFrameworksRequest));
+    assertFrameworks("user2~B");
+  }
+
+  @Test
+  public void testGetFrameworkConditionally() throws Exception {
+    Map<String, FrameworkDescriptor> frameworkDescriptors = new LinkedHashMap<>();
+    frameworkDescriptors.put("user1~A", newFrameworkDescriptor("user1", null));
+    frameworkDescriptors.put("user1~B", newFrameworkDescriptor("user1", null));
+    launcherModule.putFrameworks(newHttpServletRequest("user1"), newPutFrameworksRequest(frameworkDescriptors));
+
+    // The same weak ETag is responded for the GZIP and identity encodings
+    Response response = launcherModule.getAggregatedFrameworkRequest(newRequest(null), "user1~A");
+    EntityTag requestETag = assertOk(response);
+    Assert.assertEquals("user1~A",
+        ((AggregatedFrameworkRequest) response.getEntity()).getFrameworkRequest().getFrameworkName());
+    response = launcherModule.getAggregatedFrameworkRequest(newRequest("gzip"), "user1~A");
+    Assert.assertEquals(requestETag, assertOk(response));
+    Assert.assertEquals(requestETag, assertOk(launcherModule.getFrameworkRequest(newRequest(null), "user1~A")));
+
+    // The inferred Status has its own ETag
+    response = launcherModule.getAggregatedFrameworkStatus(newRequest(null), "user1~A");
+    EntityTag statusETag = assertOk(response);
+    Assert.assertNotEquals(requestETag, statusETag);
+    Assert.assertEquals(FrameworkState.FRAMEWORK_WAITING,
+        ((AggregatedFrameworkStatus) response.getEntity()).getFrameworkStatus().getFrameworkState());
+    Assert.assertEquals(statusETag, assertOk(launcherModule.getFrameworkStatus(newRequest(null), "user1~A")));
+
+    // NotModified if any of the If-None-Match matches, and weak and strong ones are compared weakly
+    assertNotModified(requestETag,
+        launcherModule.getAggregatedFrameworkRequest(newRequest(null, requestETag), "user1~A"));
+    assertNotModified(requestETag,
+        launcherModule.getFrameworkRequest(newRequest("gzip", requestETag), "user1~A"));
+    assertNotModified(requestETag, launcherModule.getAggregatedFrameworkRequest(
+        newRequest(null, statusETag, new EntityTag(requestETag.getValue())), "user1~A"));
+    assertNotModified(statusETag,
+        launcherModule.getAggregatedFrameworkStatus(newRequest(null, statusETag), "user1~A"));
+    assertNotModified(statusETag,
+        launcherModule.getFrameworkStatus(newRequest(null, statusETag), "user1~A"));
+    Assert.assertEquals(statusETag, assertOk(
+        launcherModule.getAggregatedFrameworkStatus(newRequest(null, requestETag), "user1~A")));
+
+    // Changing other Frameworks does not change the ETag
+    frameworkDescriptors.remove("user1~A");
+    launcherModule.putFrameworks(newHttpServletRequest("user1"), newPutFrameworksRequest(frameworkDescriptors));
+    assertNotModified(requestETag,
+        launcherModule.getAggregatedFrameworkRequest(newRequest(null, requestETag), "user1~A"));
+    assertNotModified(statusETag,
+        launcherModule.getAggregatedFrameworkStatus(newRequest(null, statusETag), "user1~A"));
+
+    // Changing the Framework changes the ETag, so the stale one is responded with the new entity
+    frameworkDescriptors.clear();
+    FrameworkDescriptor frameworkDescriptor = newFrameworkDescriptor("user1", null);
+    frameworkDescriptor.setVersion(frameworkDescriptor.getVersion() + 1);
+    frameworkDescriptors.put("user1~A", frameworkDescriptor);
+    launcherModule.putFrameworks(newHttpServletRequest("user1"), newPutFrameworksRequest(frameworkDescriptors));
+    EntityTag newRequestETag = assertOk(
+        launcherModule.getAggregatedFrameworkRequest(newRequest(null, requestETag), "user1~A"));
+    Assert.assertNotEquals(requestETag, newRequestETag);
+    assertNotModified(newRequestETag,
+        launcherModule.getAggregatedFrameworkRequest(newRequest(null, newRequestETag), "user1~A"));
+    Assert.assertNotEquals(statusETag, assertOk(
+        launcherModule.getAggregatedFrameworkStatus(newRequest(null, statusETag), "user1~A")));
+  }
+
+  private static FrameworkDescriptor newFrameworkDescriptor(
+      String userName, String parentFrameworkName) throws Exception {
+    FrameworkDescriptor frameworkDescriptor = WebCommon.toObject(
+        CommonUtils.readFile(YamlTestUtils.INPUTS_DIR + "FrameworkDescriptionMini.json"),
+        FrameworkDescriptor.class);
+    frameworkDescriptor.setUser(UserDescriptor.newInstance(userName));
+    if (parentFrameworkName != null) {
+      ParentFrameworkDescriptor parentFramework = new ParentFrameworkDescriptor();
+      parentFramework.setParentFrameworkName(parentFrameworkName);
+      parentFramework.setDeleteOnParentDeleted(true);
+      frameworkDescriptor.setParentFramework(parentFramework);
+    }
+    return frameworkDescriptor;
+  }
+
+  private static PutFrameworksRequest newPutFrameworksRequest(
+      Map<String, FrameworkDescriptor> frameworkDescriptors) {
+    PutFrameworksRequest putFrameworksRequest = new PutFrameworksRequest();
+    putFrameworksRequest.setFrameworkDescriptors(new LinkedHashMap<>(frameworkDescriptors));
+    return putFrameworksRequest;
+  }
+
+  // Only the headers and the client info used by LauncherModule are provided
+  private static HttpServletRequest newHttpServletRequest(String userName) {
+    return (HttpServletRequest) Proxy.newProxyInstance(
+        HttpServletRequest.class.getClassLoader(),
+        new Class<?>[]{HttpServletRequest.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getHeader":
+              return WebCommon.REQUEST_HEADER_USER_NAME.equals(args[0]) ? userName : null;
+            case "getRemoteHost":
+              return "localhost";
+            case "getRemoteUser":
+              return userName;
+            case "getRequestURL":
+              return new StringBuffer("http://localhost/v1/Frameworks");
+            default:
+              return null;
+          }
+        });
+  }
+
+  // Only the headers used by the precondition evaluation are provided
+  private static Request newRequest(String acceptEncoding, EntityTag... ifNoneMatches) {
+    InBoundHeaders headers = new InBoundHeaders();
+    if (acceptEncoding != null) {
+      headers.putSingle(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    if (ifNoneMatches.length > 0) {
+      StringBuilder ifNoneMatch = new StringBuilder();
+      for (EntityTag eTag : ifNoneMatches) {
+        ifNoneMatch.append(ifNoneMatch.length() == 0 ? "" : ", ").append(eTag);
+      }
+      headers.putSingle(HttpHeaders.IF_NONE_MATCH, ifNoneMatch.toString());
+    }
+
+    WebApplication webApplication = (WebApplication) Proxy.newProxyInstance(
+        WebApplication.class.getClassLoader(),
+        new Class<?>[]{WebApplication.class},
+        (proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+    return new ContainerRequest(webApplication, "GET",
+        URI.create("http://localhost/"), URI.create("http://localhost/v1/Frameworks"), headers, null);
+  }
+
+  private static EntityTag assertOk(Response response) {
+    Assert.assertEquals(HttpStatus.SC_OK, response.getStatus());
+    Assert.assertNotNull(response.getEntity());
+    Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getMetadata().getFirst(HttpHeaders.VARY));
+    EntityTag eTag = (EntityTag) response.getMetadata().getFirst(HttpHeaders.ETAG);
+    Assert.assertTrue(eTag.isWeak());
+    return eTag;
+  }
+
+  private static void assertNotModified(EntityTag expectedETag, Response response) {
+    Assert.assertEquals(HttpStatus.SC_NOT_MODIFIED, response.getStatus());
+    Assert.assertNull(response.getEntity());
+    Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getMetadata().getFirst(HttpHeaders.VARY));
+    Assert.assertEquals(expectedETag, response.getMetadata().getFirst(HttpHeaders.ETAG));
+  }
+
+  private static void assertResults(Map<String, Integer> expectedStatusCodes, Response response) {
+    Assert.assertEquals(HttpStatus.SC_ACCEPTED, response.getStatus());
+
+    Map<String, Integer> statusCodes = new LinkedHashMap<>();
+    for (FrameworkOperationResult result :
+        ((FrameworkOperationResults) response.getEntity()).getFrameworkOperationResults()) {
+      statusCodes.put(result.getFrameworkName(), result.getStatusCode());
+      // Only the rejected one has the message
+      Assert.assertEquals(result.getStatusCode() != HttpStatus.SC_ACCEPTED, result.getMessage() != null);
+    }
+    Assert.assertEquals(expectedStatusCodes, statusCodes);
+  }
+
+  private void assertFrameworks(String... frameworkNames) throws Exception {
+    Set<String> expectedFrameworkNames = new HashSet<>(Arrays.asList(frameworkNames));
+    Set<String> memFrameworkNames = new HashSet<>();
+    for (FrameworkRequest frameworkRequest : requestManager.getFrameworkRequests(null, null, null)) {
+      memFrameworkNames.add(frameworkRequest.getFrameworkName());
+    }
+    Assert.assertEquals(expectedFrameworkNames, memFrameworkNames);
+    Assert.assertEquals(expectedFrameworkNames, store.getAllFrameworkRequests().keySet());
+  }
+}
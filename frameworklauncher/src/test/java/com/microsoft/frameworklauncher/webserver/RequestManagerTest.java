@@ -0,0 +1,297 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.exceptions.BadRequestException;
+import com.microsoft.frameworklauncher.common.exceptions.NotFoundException;
+import com.microsoft.frameworklauncher.common.exceptions.ThrottledRequestException;
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.utils.CommonUtils;
+import com.microsoft.frameworklauncher.common.web.WebCommon;
+import com.microsoft.frameworklauncher.localstore.LocalStore;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import com.microsoft.frameworklauncher.testutils.YamlTestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public class RequestManagerTest {
+  private static final String STORE_DIR =
+      TestUtils.RESOURCE_ROOT + File.separator + "requestManagerTestDir";
+  // The TaskNumber of each Framework in the tests
+  private static final int TASK_NUMBER = 14;
+
+  private final List<FailingStore> stores = new ArrayList<>();
+  private MockWebServer webServer;
+
+  // Fail the batch Set after the given number of FrameworkRequests are Set, so that the batch is partially Set
+  private static class FailingStore extends LocalStore {
+    private int setFrameworkRequestsFailAfter = -1;
+
+    public FailingStore() throws Exception {
+      super(STORE_DIR, SerializationType.YAML, 64, false);
+    }
+
+    @Override
+    public synchronized void setFrameworkRequests(Map<String, FrameworkRequest> frameworkRequests) throws Exception {
+      if (setFrameworkRequestsFailAfter < 0) {
+        super.setFrameworkRequests(frameworkRequests);
+        return;
+      }
+
+      Map<String, FrameworkRequest> setFrameworkRequests = new LinkedHashMap<>();
+      for (Map.Entry<String, FrameworkRequest> frameworkRequest : frameworkRequests.entrySet()) {
+        if (setFrameworkRequests.size() >= setFrameworkRequestsFailAfter) {
+          break;
+        }
+        setFrameworkRequests.put(frameworkRequest.getKey(), frameworkRequest.getValue());
+      }
+      super.setFrameworkRequests(setFrameworkRequests);
+      throw new IOException("Failed to setFrameworkRequests after " + setFrameworkRequests.size());
+    }
+
+    public synchronized void setSetFrameworkRequestsFailAfter(int setFrameworkRequestsFailAfter) {
+      this.setFrameworkRequestsFailAfter = setFrameworkRequestsFailAfter;
+    }
+  }
+
+  @Before
+  public void cleanStoreDir() throws Exception {
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+  }
+
+  @After
+  public void closeStores() throws Exception {
+    for (FailingStore store : stores) {
+      store.close();
+    }
+    stores.clear();
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+  }
+
+  @Test
+  public void testSetFrameworkRequests() throws Exception {
+    FailingStore store = newStore();
+    RequestManager requestManager = newRequestManager(newConf(Integer.MAX_VALUE), store);
+
+    // Only the child Framework whose ParentFramework is Deleted is rejected,
+    // and the ParentFramework within the same batch is not considered as Deleted.
+    Map<String, Exception> rejectedFrameworks = requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("A", null),
+        newFrameworkRequest("ChildOfDeleted", "Deleted"),
+        newFrameworkRequest("B", null),
+        newFrameworkRequest("ChildOfA", "A")));
+    Assert.assertEquals(Collections.singleton("ChildOfDeleted"), rejectedFrameworks.keySet());
+    Assert.assertTrue(rejectedFrameworks.get("ChildOfDeleted") instanceof BadRequestException);
+    assertFrameworks(requestManager, store, "A", "B", "ChildOfA");
+
+    // The existing Framework keeps its FirstRequestTimestamp
+    Long firstRequestTimestamp = requestManager.getFrameworkRequest("A").getFirstRequestTimestamp();
+    Thread.sleep(10);
+    rejectedFrameworks = requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("A", null), newFrameworkRequest("C", null)));
+    Assert.assertTrue(rejectedFrameworks.isEmpty());
+    FrameworkRequest frameworkRequest = requestManager.getFrameworkRequest("A");
+    Assert.assertEquals(firstRequestTimestamp, frameworkRequest.getFirstRequestTimestamp());
+    Assert.assertTrue(frameworkRequest.getLastRequestTimestamp() > firstRequestTimestamp);
+    assertFrameworks(requestManager, store, "A", "B", "C", "ChildOfA");
+
+    // Empty
+    Assert.assertTrue(requestManager.setFrameworkRequests(new HashMap<>()).isEmpty());
+  }
+
+  @Test
+  public void testSetFrameworkRequestsOverMaxTotalTaskNumber() throws Exception {
+    FailingStore store = newStore();
+    RequestManager requestManager = newRequestManager(newConf(2 * TASK_NUMBER), store);
+    requestManager.setFrameworkRequests(newFrameworkRequests(newFrameworkRequest("A", null)));
+
+    // The whole batch is rejected, even if some of its Frameworks still fit
+    try {
+      requestManager.setFrameworkRequests(newFrameworkRequests(
+          newFrameworkRequest("B", null), newFrameworkRequest("C", null)));
+      Assert.fail("The batch exceeding the Max Total TaskNumber should be rejected");
+    } catch (ThrottledRequestException ignored) {
+    }
+    assertFrameworks(requestManager, store, "A");
+
+    // The existing Framework only adds its TaskNumber difference, and the rejected Framework adds nothing
+    Map<String, Exception> rejectedFrameworks = requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("A", null),
+        newFrameworkRequest("B", null),
+        newFrameworkRequest("ChildOfDeleted", "Deleted")));
+    Assert.assertEquals(Collections.singleton("ChildOfDeleted"), rejectedFrameworks.keySet());
+    assertFrameworks(requestManager, store, "A", "B");
+
+    try {
+      requestManager.setFrameworkRequests(newFrameworkRequests(newFrameworkRequest("C", null)));
+      Assert.fail("The batch exceeding the Max Total TaskNumber should be rejected");
+    } catch (ThrottledRequestException ignored) {
+    }
+    assertFrameworks(requestManager, store, "A", "B");
+  }
+
+  @Test
+  public void testSetFrameworkRequestsPartiallyFailed() throws Exception {
+    FailingStore store = newStore();
+    RequestManager requestManager = newRequestManager(newConf(3 * TASK_NUMBER), store);
+
+    // The partially Set batch is still CONSISTENT between ZK and Mem
+    store.setSetFrameworkRequestsFailAfter(1);
+    try {
+      requestManager.setFrameworkRequests(newFrameworkRequests(
+          newFrameworkRequest("A", null), newFrameworkRequest("B", null)));
+      Assert.fail("The store failure should be thrown");
+    } catch (IOException ignored) {
+    }
+    assertFrameworks(requestManager, store, "A");
+
+    // The retried batch converges, and the partially Set Framework is not counted twice
+    store.setSetFrameworkRequestsFailAfter(-1);
+    requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("A", null), newFrameworkRequest("B", null)));
+    requestManager.setFrameworkRequests(newFrameworkRequests(newFrameworkRequest("C", null)));
+    assertFrameworks(requestManager, store, "A", "B", "C");
+
+    try {
+      requestManager.setFrameworkRequests(newFrameworkRequests(newFrameworkRequest("D", null)));
+      Assert.fail("The batch exceeding the Max Total TaskNumber should be rejected");
+    } catch (ThrottledRequestException ignored) {
+    }
+    Assert.assertTrue(webServer.getOccurredExceptions().isEmpty());
+  }
+
+  @Test
+  public void testDeleteFrameworkRequests() throws Exception {
+    FailingStore store = newStore();
+    RequestManager requestManager = newRequestManager(newConf(4 * TASK_NUMBER), store);
+    requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("A", null),
+        newFrameworkRequest("ChildOfA", "A"),
+        newFrameworkRequest("B", null),
+        newFrameworkRequest("C", null)));
+
+    // The not exist Framework is ignored, and the child Framework is also Deleted with its ParentFramework
+    requestManager.deleteFrameworkRequests(Arrays.asList("A", "B", "NotExist"));
+    assertFrameworks(requestManager, store, "C");
+
+    // The TaskNumber of the Deleted Frameworks are released
+    requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("D", null), newFrameworkRequest("E", null), newFrameworkRequest("F", null)));
+    assertFrameworks(requestManager, store, "C", "D", "E", "F");
+
+    // Empty
+    requestManager.deleteFrameworkRequests(new ArrayList<>());
+    assertFrameworks(requestManager, store, "C", "D", "E", "F");
+  }
+
+  @Test
+  public void testGetAggregatedFrameworkRequestETag() throws Exception {
+    FailingStore store = newStore();
+    RequestManager requestManager = newRequestManager(newConf(Integer.MAX_VALUE), store);
+    requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("A", null), newFrameworkRequest("B", null)));
+    String eTagA = requestManager.getAggregatedFrameworkRequestETag("A");
+    String eTagB = requestManager.getAggregatedFrameworkRequestETag("B");
+    Assert.assertNotEquals(eTagA, eTagB);
+
+    // Changing other Frameworks does not change the ETag
+    requestManager.setFrameworkRequests(newFrameworkRequests(
+        newFrameworkRequest("B", null), newFrameworkRequest("C", null)));
+    requestManager.deleteFrameworkRequests(Collections.singletonList("C"));
+    Assert.assertEquals(eTagA, requestManager.getAggregatedFrameworkRequestETag("A"));
+    String newETagB = requestManager.getAggregatedFrameworkRequestETag("B");
+    Assert.assertNotEquals(eTagB, newETagB);
+
+    // The ETag is never reused, even if the Framework is Deleted and Set again
+    requestManager.deleteFrameworkRequests(Collections.singletonList("A"));
+    try {
+      requestManager.getAggregatedFrameworkRequestETag("A");
+      Assert.fail("The Deleted Framework should not have ETag");
+    } catch (NotFoundException ignored) {
+    }
+    requestManager.setFrameworkRequests(newFrameworkRequests(newFrameworkRequest("A", null)));
+    String newETagA = requestManager.getAggregatedFrameworkRequestETag("A");
+    Assert.assertNotEquals(eTagA, newETagA);
+    Assert.assertNotEquals(newETagB, newETagA);
+    Assert.assertEquals(newETagB, requestManager.getAggregatedFrameworkRequestETag("B"));
+  }
+
+  private FailingStore newStore() throws Exception {
+    FailingStore store = new FailingStore();
+    stores.add(store);
+    return store;
+  }
+
+  private RequestManager newRequestManager(LauncherConfiguration conf, FailingStore store) throws Exception {
+    webServer = new MockWebServer(conf, store);
+    RequestManager requestManager = new RequestManager(webServer, conf, store);
+    requestManager.recover();
+    return requestManager;
+  }
+
+  private static LauncherConfiguration newConf(int maxTotalTaskNumber) {
+    LauncherConfiguration conf = new LauncherConfiguration();
+    conf.setMaxTotalTaskNumber(maxTotalTaskNumber);
+    return conf;
+  }
+
+  private static FrameworkRequest newFrameworkRequest(
+      String frameworkName, String parentFrameworkName) throws Exception {
+    FrameworkDescriptor frameworkDescriptor = WebCommon.toObject(
+        CommonUtils.readFile(YamlTestUtils.INPUTS_DIR + "FrameworkDescriptionMini.json"),
+        FrameworkDescriptor.class);
+    if (parentFrameworkName != null) {
+      ParentFrameworkDescriptor parentFramework = new ParentFrameworkDescriptor();
+      parentFramework.setParentFrameworkName(parentFrameworkName);
+      parentFramework.setDeleteOnParentDeleted(true);
+      frameworkDescriptor.setParentFramework(parentFramework);
+    }
+
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(frameworkDescriptor);
+    return frameworkRequest;
+  }
+
+  private static Map<String, FrameworkRequest> newFrameworkRequests(FrameworkRequest... frameworkRequests) {
+    Map<String, FrameworkRequest> frameworkRequestMap = new LinkedHashMap<>();
+    for (FrameworkRequest frameworkRequest : frameworkRequests) {
+      frameworkRequestMap.put(frameworkRequest.getFrameworkName(), frameworkRequest);
+    }
+    return frameworkRequestMap;
+  }
+
+  // The Frameworks in Mem should be the same as the ones on ZK
+  private static void assertFrameworks(
+      RequestManager requestManager, LocalStore store, String... frameworkNames) throws Exception {
+    Set<String> expectedFrameworkNames = new HashSet<>(Arrays.asList(frameworkNames));
+    Set<String> memFrameworkNames = new HashSet<>();
+    for (FrameworkRequest frameworkRequest : requestManager.getFrameworkRequests(null, null, null)) {
+      memFrameworkNames.add(frameworkRequest.getFrameworkName());
+    }
+    Assert.assertEquals(expectedFrameworkNames, memFrameworkNames);
+    Assert.assertEquals(expectedFrameworkNames, store.getAllFrameworkRequests().keySet());
+  }
+}
@@ -0,0 +1,173 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.utils.CommonUtils;
+import com.microsoft.frameworklauncher.common.web.WebCommon;
+import com.microsoft.frameworklauncher.localstore.LocalStore;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import com.microsoft.frameworklauncher.testutils.YamlTestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+public class StatusManagerTest {
+  private static final String STORE_DIR =
+      TestUtils.RESOURCE_ROOT + File.separator + "statusManagerTestDir";
+
+  private SharingStore store;
+  private MockWebServer webServer;
+  private StatusManager statusManager;
+
+  // Share the FrameworkStatus objects unchanged on the store, like the read cache of ZookeeperStore
+  private static class SharingStore extends LocalStore {
+    private final Map<String, FrameworkStatus> frameworkStatuses = new HashMap<>();
+
+    public SharingStore() throws Exception {
+      super(STORE_DIR, SerializationType.YAML, 64, false);
+    }
+
+    @Override
+    public synchronized FrameworkStatus getFrameworkStatus(String frameworkName) throws Exception {
+      if (!frameworkStatuses.containsKey(frameworkName)) {
+        frameworkStatuses.put(frameworkName, super.getFrameworkStatus(frameworkName));
+      }
+      return frameworkStatuses.get(frameworkName);
+    }
+
+    @Override
+    public synchronized void setFrameworkStatus(String frameworkName, FrameworkStatus frameworkStatus) throws Exception {
+      super.setFrameworkStatus(frameworkName, frameworkStatus);
+      frameworkStatuses.remove(frameworkName);
+    }
+
+    @Override
+    public synchronized void deleteFrameworkStatus(String frameworkName) throws Exception {
+      super.deleteFrameworkStatus(frameworkName);
+      frameworkStatuses.remove(frameworkName);
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+    store = new SharingStore();
+    store.setLauncherStatus(new LauncherStatus());
+
+    LauncherConfiguration conf = new LauncherConfiguration();
+    webServer = new MockWebServer(conf, store);
+    statusManager = new StatusManager(webServer, conf, store);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    store.close();
+    FileUtils.deleteDirectory(new File(STORE_DIR));
+  }
+
+  @Test
+  public void testGetAggregatedFrameworkStatusETag() throws Exception {
+    FrameworkRequest frameworkRequestA = newFrameworkRequest("A", 1L);
+    FrameworkRequest frameworkRequestB = newFrameworkRequest("B", 2L);
+    store.setFrameworkStatus("A", newFrameworkStatus(frameworkRequestA, FrameworkState.APPLICATION_RUNNING));
+    store.setFrameworkStatus("B", newFrameworkStatus(frameworkRequestB, FrameworkState.APPLICATION_RUNNING));
+    statusManager.recover();
+    String eTagA = assertPulledETag(frameworkRequestA, FrameworkState.APPLICATION_RUNNING);
+    String eTagB = assertPulledETag(frameworkRequestB, FrameworkState.APPLICATION_RUNNING);
+
+    // The unchanged Status keeps its ETag across pulls
+    statusManager.pullStatus(null);
+    Assert.assertEquals(eTagA, assertPulledETag(frameworkRequestA, FrameworkState.APPLICATION_RUNNING));
+    Assert.assertEquals(eTagB, assertPulledETag(frameworkRequestB, FrameworkState.APPLICATION_RUNNING));
+
+    // The changed Status changes its ETag, and other Statuses keep their ETags
+    store.setFrameworkStatus("A", newFrameworkStatus(frameworkRequestA, FrameworkState.FRAMEWORK_COMPLETED));
+    statusManager.pullStatus(null);
+    String newETagA = assertPulledETag(frameworkRequestA, FrameworkState.FRAMEWORK_COMPLETED);
+    Assert.assertNotEquals(eTagA, newETagA);
+    Assert.assertEquals(eTagB, assertPulledETag(frameworkRequestB, FrameworkState.APPLICATION_RUNNING));
+
+    // The Status of another FrameworkVersion is not exposed, so the inferred Status has its own ETag
+    FrameworkRequest newFrameworkRequestA = newFrameworkRequest("A", 3L);
+    newFrameworkRequestA.getFrameworkDescriptor().setVersion(frameworkRequestA.getFrameworkDescriptor().getVersion() + 1);
+    String inferredETagA = assertInferredETag(newFrameworkRequestA);
+    Assert.assertEquals(inferredETagA, assertInferredETag(newFrameworkRequestA));
+    Assert.assertNotEquals(newETagA, inferredETagA);
+
+    // The Status which is not pulled also has the inferred ETag, which changes with the FrameworkRequest
+    store.deleteFrameworkStatus("A");
+    statusManager.pullStatus(null);
+    String deletedETagA = assertInferredETag(frameworkRequestA);
+    Assert.assertNotEquals(newETagA, deletedETagA);
+    Assert.assertNotEquals(inferredETagA, deletedETagA);
+    Assert.assertNotEquals(deletedETagA, assertInferredETag(newFrameworkRequest("A", 4L)));
+    Assert.assertEquals(eTagB, assertPulledETag(frameworkRequestB, FrameworkState.APPLICATION_RUNNING));
+    Assert.assertTrue(webServer.getOccurredExceptions().isEmpty());
+  }
+
+  @Test
+  public void testGetAggregatedFrameworkStatusETagOfRewrittenStatus() throws Exception {
+    FrameworkRequest frameworkRequest = newFrameworkRequest("A", 1L);
+    store.setFrameworkStatus("A", newFrameworkStatus(frameworkRequest, FrameworkState.APPLICATION_RUNNING));
+    statusManager.recover();
+    String eTag = assertPulledETag(frameworkRequest, FrameworkState.APPLICATION_RUNNING);
+
+    // The rewritten Status is pulled as a new object, so it is considered as changed even if it is equal
+    store.setFrameworkStatus("A", newFrameworkStatus(frameworkRequest, FrameworkState.APPLICATION_RUNNING));
+    statusManager.pullStatus(null);
+    Assert.assertNotEquals(eTag, assertPulledETag(frameworkRequest, FrameworkState.APPLICATION_RUNNING));
+  }
+
+  private String assertPulledETag(FrameworkRequest frameworkRequest, FrameworkState frameworkState) {
+    String eTag = statusManager.getAggregatedFrameworkStatusETag(frameworkRequest);
+    Assert.assertTrue(eTag, eTag.startsWith("S"));
+    Assert.assertEquals(frameworkState, statusManager.getFrameworkStatus(frameworkRequest).getFrameworkState());
+    return eTag;
+  }
+
+  private String assertInferredETag(FrameworkRequest frameworkRequest) {
+    String eTag = statusManager.getAggregatedFrameworkStatusETag(frameworkRequest);
+    Assert.assertTrue(eTag, eTag.startsWith("W"));
+    Assert.assertEquals(FrameworkState.FRAMEWORK_WAITING,
+        statusManager.getFrameworkStatus(frameworkRequest).getFrameworkState());
+    return eTag;
+  }
+
+  private static FrameworkRequest newFrameworkRequest(String frameworkName, Long firstRequestTimestamp) throws Exception {
+    FrameworkRequest frameworkRequest = new FrameworkRequest();
+    frameworkRequest.setFrameworkName(frameworkName);
+    frameworkRequest.setFrameworkDescriptor(WebCommon.toObject(
+        CommonUtils.readFile(YamlTestUtils.INPUTS_DIR + "FrameworkDescriptionMini.json"),
+        FrameworkDescriptor.class));
+    frameworkRequest.setFirstRequestTimestamp(firstRequestTimestamp);
+    return frameworkRequest;
+  }
+
+  private static FrameworkStatus newFrameworkStatus(FrameworkRequest frameworkRequest, FrameworkState frameworkState) {
+    FrameworkStatus frameworkStatus = FrameworkStatus.newInstance(frameworkRequest);
+    frameworkStatus.setFrameworkState(frameworkState);
+    return frameworkStatus;
+  }
+}
@@ -0,0 +1,65 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.model.GetFrameworksRequest;
+import com.microsoft.frameworklauncher.common.model.SummarizedFrameworkInfos;
+import com.microsoft.frameworklauncher.common.web.WebCommon;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class SummarizedFrameworkInfoCacheTest {
+  @Test
+  public void testResponses() throws Exception {
+    SummarizedFrameworkInfoCache cache = new SummarizedFrameworkInfoCache(null, null, null, 1);
+
+    GetFrameworksRequest query1 = new GetFrameworksRequest();
+    query1.setUserName("user1");
+    GetFrameworksRequest query2 = new GetFrameworksRequest();
+    query2.setUserName("user2");
+    String queryKey1 = SummarizedFrameworkInfoCache.getQueryKey(query1);
+    String queryKey2 = SummarizedFrameworkInfoCache.getQueryKey(query2);
+    Assert.assertNotEquals(queryKey1, queryKey2);
+
+    SummarizedFrameworkInfos response = new SummarizedFrameworkInfos();
+    response.setSummarizedFrameworkInfos(Collections.emptyList());
+    response.setContinuationToken("token");
+    byte[] body = cache.putResponse(queryKey1, 1, response);
+    SummarizedFrameworkInfos deserializedResponse = WebCommon.toObject(
+        new String(body, StandardCharsets.UTF_8), SummarizedFrameworkInfos.class);
+    Assert.assertEquals("token", deserializedResponse.getContinuationToken());
+
+    // Only the Response cached in the same ResourceVersion can be got
+    Assert.assertSame(body, cache.getResponse(queryKey1, 1));
+    Assert.assertNull(cache.getResponse(queryKey1, 2));
+    Assert.assertNull(cache.getResponse(queryKey2, 1));
+
+    // The older Response should not overwrite the newer one
+    byte[] newBody = cache.putResponse(queryKey1, 2, response);
+    cache.putResponse(queryKey1, 1, response);
+    Assert.assertSame(newBody, cache.getResponse(queryKey1, 2));
+
+    // The least recently used Response is evicted once exceeded the max Responses
+    cache.putResponse(queryKey2, 2, response);
+    Assert.assertNull(cache.getResponse(queryKey1, 2));
+    Assert.assertNotNull(cache.getResponse(queryKey2, 2));
+  }
+}
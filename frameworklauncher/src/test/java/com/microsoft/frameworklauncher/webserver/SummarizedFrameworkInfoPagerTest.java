@@ -0,0 +1,110 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.webserver;
+
+import com.microsoft.frameworklauncher.common.exceptions.BadRequestException;
+import com.microsoft.frameworklauncher.common.model.FrameworkSortKey;
+import com.microsoft.frameworklauncher.common.model.SummarizedFrameworkInfo;
+import com.microsoft.frameworklauncher.common.model.SummarizedFrameworkInfos;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SummarizedFrameworkInfoPagerTest {
+  private static SummarizedFrameworkInfo newSFrameworkInfo(String frameworkName, Long frameworkCompletedTimestamp) {
+    SummarizedFrameworkInfo sFrameworkInfo = new SummarizedFrameworkInfo();
+    sFrameworkInfo.setFrameworkName(frameworkName);
+    sFrameworkInfo.setFrameworkCompletedTimestamp(frameworkCompletedTimestamp);
+    return sFrameworkInfo;
+  }
+
+  private static List<String> getAllPages(
+      List<SummarizedFrameworkInfo> sFrameworkInfos, FrameworkSortKey sortBy,
+      boolean descending, int pageSize) throws Exception {
+    List<String> frameworkNames = new ArrayList<>();
+    String continuationToken = null;
+    do {
+      SummarizedFrameworkInfos page = SummarizedFrameworkInfoPager.getPage(
+          sFrameworkInfos, sortBy, descending, pageSize, continuationToken);
+      Assert.assertTrue(page.getSummarizedFrameworkInfos().size() <= pageSize);
+      for (SummarizedFrameworkInfo sFrameworkInfo : page.getSummarizedFrameworkInfos()) {
+        frameworkNames.add(sFrameworkInfo.getFrameworkName());
+      }
+      continuationToken = page.getContinuationToken();
+    } while (continuationToken != null);
+    return frameworkNames;
+  }
+
+  @Test
+  public void testGetPage() throws Exception {
+    List<SummarizedFrameworkInfo> sFrameworkInfos = Arrays.asList(
+        newSFrameworkInfo("D", 2L),
+        newSFrameworkInfo("A", null),
+        newSFrameworkInfo("C", 1L),
+        newSFrameworkInfo("B", 2L),
+        newSFrameworkInfo("E:1", null));
+
+    Assert.assertEquals(Arrays.asList("A", "B", "C", "D", "E:1"),
+        getAllPages(sFrameworkInfos, FrameworkSortKey.FRAMEWORK_NAME, false, 2));
+    Assert.assertEquals(Arrays.asList("E:1", "D", "C", "B", "A"),
+        getAllPages(sFrameworkInfos, FrameworkSortKey.FRAMEWORK_NAME, true, 3));
+    Assert.assertEquals(Arrays.asList("A", "E:1", "C", "B", "D"),
+        getAllPages(sFrameworkInfos, FrameworkSortKey.FRAMEWORK_COMPLETED_TIMESTAMP, false, 1));
+    Assert.assertEquals(Arrays.asList("D", "B", "C", "E:1", "A"),
+        getAllPages(sFrameworkInfos, FrameworkSortKey.FRAMEWORK_COMPLETED_TIMESTAMP, true, 5));
+
+    // The last page has no ContinuationToken
+    Assert.assertNull(SummarizedFrameworkInfoPager.getPage(
+        sFrameworkInfos, FrameworkSortKey.FRAMEWORK_NAME, false, 5, null).getContinuationToken());
+
+    // The next page continues after the last returned one, even if it is deleted
+    String continuationToken = SummarizedFrameworkInfoPager.getPage(
+        sFrameworkInfos, FrameworkSortKey.FRAMEWORK_NAME, false, 2, null).getContinuationToken();
+    SummarizedFrameworkInfos page = SummarizedFrameworkInfoPager.getPage(
+        sFrameworkInfos.subList(2, 5), FrameworkSortKey.FRAMEWORK_NAME, false, 2, continuationToken);
+    Assert.assertEquals("C", page.getSummarizedFrameworkInfos().get(0).getFrameworkName());
+  }
+
+  @Test
+  public void testInvalidContinuationToken() throws Exception {
+    List<SummarizedFrameworkInfo> sFrameworkInfos = Arrays.asList(
+        newSFrameworkInfo("A", null), newSFrameworkInfo("B", null));
+    String continuationToken = SummarizedFrameworkInfoPager.getPage(
+        sFrameworkInfos, FrameworkSortKey.FRAMEWORK_NAME, false, 1, null).getContinuationToken();
+
+    for (String invalidToken : Arrays.asList("!", "QQ", "RlJBTUVXT1JLX05BTUU6ZmFsc2U6eDpB")) {
+      try {
+        SummarizedFrameworkInfoPager.getPage(
+            sFrameworkInfos, FrameworkSortKey.FRAMEWORK_NAME, false, 1, invalidToken);
+        Assert.fail("Invalid ContinuationToken should be rejected: " + invalidToken);
+      } catch (BadRequestException ignored) {
+      }
+    }
+
+    // The ContinuationToken cannot be used for another sorting
+    try {
+      SummarizedFrameworkInfoPager.getPage(
+          sFrameworkInfos, FrameworkSortKey.FRAMEWORK_NAME, true, 1, continuationToken);
+      Assert.fail("ContinuationToken of another sorting should be rejected");
+    } catch (BadRequestException ignored) {
+    }
+  }
+}
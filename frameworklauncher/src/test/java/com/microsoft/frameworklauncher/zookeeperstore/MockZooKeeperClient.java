@@ -21,16 +21,23 @@
 import com.microsoft.frameworklauncher.common.utils.YamlUtils;
 import org.apache.log4j.Level;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.data.Stat;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class MockZooKeeperClient extends ZooKeeperClient {
   private static final DefaultLogger LOGGER = new DefaultLogger(MockZooKeeperClient.class);
+  private final AtomicLong nextPayloadPartSequence = new AtomicLong(0);
 
   @Override
   public <T> void setSmallObject(String path, T obj)
@@ -40,6 +47,13 @@ public <T> void setSmallObject(String path, T obj)
     YamlUtils.toFile(obj, yamlPath);
   }
 
+  @Override
+  public <T> void setSmallObjects(Map<String, T> pathObjs) throws Exception {
+    for (Map.Entry<String, T> pathObj : pathObjs.entrySet()) {
+      setSmallObject(pathObj.getKey(), pathObj.getValue());
+    }
+  }
+
   @Override
   public <T> T getSmallObject(String path, Class<T> classRef) throws Exception {
     try {
@@ -49,6 +63,43 @@ public <T> T getSmallObject(String path, Class<T> classRef) throws Exception {
     }
   }
 
+  @Override
+  public <T> T getSmallObject(String path, Class<T> classRef, Stat stat) throws Exception {
+    return getSmallObject(path, classRef);
+  }
+
+  // Version is not supported, so the objects are never cached
+  @Override
+  public String getSmallObjectVersion(String path) throws Exception {
+    if (!exists(path)) {
+      throw new KeeperException.NoNodeException();
+    }
+    return null;
+  }
+
+  @Override
+  public String getSmallObjectVersion(Stat stat) {
+    return null;
+  }
+
+  @Override
+  public <T> Boolean compareAndSetSmallObject(String path, T obj, int expectedVersion) throws Exception {
+    setSmallObject(path, obj);
+    return true;
+  }
+
+  @Override
+  public <T> List<String> createPayloadParts(String parentPath, T obj) throws Exception {
+    String partName = String.format("%010d", nextPayloadPartSequence.getAndIncrement());
+    setSmallObject(ZookeeperStoreStructure.getNodePath(parentPath, partName), obj);
+    return Collections.singletonList(partName);
+  }
+
+  @Override
+  public <T> T getPayloadParts(String parentPath, List<String> partNames, Class<T> classRef) throws Exception {
+    return getSmallObject(ZookeeperStoreStructure.getNodePath(parentPath, partNames.get(0)), classRef);
+  }
+
   @Override
   public <T> void setLargeObject(String path, T obj) throws Exception {
     setSmallObject(path, obj);
@@ -59,6 +110,11 @@ public <T> T getLargeObject(String path, Class<T> classRef) throws Exception {
     return getSmallObject(path, classRef);
   }
 
+  @Override
+  public String getLargeObjectVersion(String path) throws Exception {
+    return getSmallObjectVersion(path);
+  }
+
   @Override
   public void deleteRecursively(String path, Boolean childrenOnly) throws Exception {
     File file = new File(path);
@@ -71,6 +127,14 @@ public void deleteRecursively(String path, Boolean childrenOnly) throws Exceptio
 
     if (!childrenOnly) {
       file.delete();
+      new File(path + ".yml").delete();
+    }
+  }
+
+  @Override
+  public void deleteRecursively(Collection<String> paths) throws Exception {
+    for (String path : paths) {
+      deleteRecursively(path, false);
     }
   }
 
@@ -89,6 +153,17 @@ public List<String> getChildren(String path) throws Exception {
     return Arrays.asList(children);
   }
 
+  // Watch is not supported, so the watcher is never triggered
+  @Override
+  public Boolean exists(String path, Watcher watcher) throws Exception {
+    return exists(path);
+  }
+
+  @Override
+  public List<String> getChildren(String path, Watcher watcher) throws Exception {
+    return getChildren(path);
+  }
+
   public void createFile(String path) {
     File file = new File(path);
     if (!file.exists()) {
@@ -110,4 +185,11 @@ public void createPath(String path) {
     }
   }
 
+  @Override
+  public void createPaths(List<String> paths) {
+    for (String path : paths) {
+      createPath(path);
+    }
+  }
+
 }
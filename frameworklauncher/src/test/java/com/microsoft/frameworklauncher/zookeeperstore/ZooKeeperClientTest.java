@@ -0,0 +1,159 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.model.SerializationType;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+import org.junit.*;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.*;
+
+// Test the ZK multi batches of ZooKeeperClient against an embedded ZK server,
+// since MockZooKeeperClient does not support ZK multi.
+public class ZooKeeperClientTest {
+  private static final String ROOT_PATH = "/ZooKeeperClientTest";
+
+  private static File zkDir;
+  private static ServerCnxnFactory zkServerFactory;
+  private static ZooKeeperClient zkClient;
+
+  @BeforeClass
+  public static void startZooKeeper() throws Exception {
+    zkDir = Files.createTempDirectory("ZooKeeperClientTest").toFile();
+    zkServerFactory = ServerCnxnFactory.createFactory(new InetSocketAddress("127.0.0.1", 0), 100);
+    zkServerFactory.startup(new ZooKeeperServer(zkDir, zkDir, 2000));
+    zkClient = new ZooKeeperClient(
+        "127.0.0.1:" + zkServerFactory.getLocalPort(), false, SerializationType.BINARY);
+  }
+
+  @AfterClass
+  public static void stopZooKeeper() throws Exception {
+    zkClient.close();
+    zkServerFactory.shutdown();
+    FileUtils.deleteDirectory(zkDir);
+  }
+
+  @Before
+  public void cleanRootPath() throws Exception {
+    zkClient.deleteRecursively(ROOT_PATH);
+    zkClient.createPath(ROOT_PATH);
+  }
+
+  @Test
+  public void testSetSmallObjects() throws Exception {
+    // All exist, so they are Set by ZK multi
+    Map<String, String> pathObjs = newPathObjs(3, "v1", 1);
+    for (Map.Entry<String, String> pathObj : pathObjs.entrySet()) {
+      zkClient.setSmallObject(pathObj.getKey(), "v0");
+    }
+    zkClient.setSmallObjects(pathObjs);
+    assertSmallObjects(pathObjs);
+
+    // Partially exist, so the batch fallbacks to be created, and the exist ones are still Set
+    pathObjs = newPathObjs(5, "v2", 1);
+    zkClient.setSmallObjects(pathObjs);
+    assertSmallObjects(pathObjs);
+
+    // None exist
+    zkClient.deleteRecursively(ROOT_PATH, true);
+    zkClient.setSmallObjects(pathObjs);
+    assertSmallObjects(pathObjs);
+
+    // Empty
+    zkClient.setSmallObjects(new HashMap<String, String>());
+  }
+
+  @Test
+  public void testSetSmallObjectsInBatches() throws Exception {
+    // Each object is about 300KB, so only 2 objects fit in a batch
+    Map<String, String> pathObjs = newPathObjs(5, "v1", 300 * 1024);
+    zkClient.setSmallObjects(pathObjs);
+    assertSmallObjects(pathObjs);
+
+    // Only the node in the last batch does not exist, so the other batches are still Set by ZK multi
+    zkClient.deleteRecursively(ROOT_PATH + "/Node4");
+    pathObjs = newPathObjs(5, "v2", 300 * 1024);
+    zkClient.setSmallObjects(pathObjs);
+    assertSmallObjects(pathObjs);
+  }
+
+  @Test(expected = KeeperException.NoNodeException.class)
+  public void testSetSmallObjectsWithoutParent() throws Exception {
+    // The fallback creation does not create the parent node
+    zkClient.setSmallObjects(Collections.singletonMap(ROOT_PATH + "/NoParent/Node0", "v1"));
+  }
+
+  @Test
+  public void testDeleteRecursively() throws Exception {
+    zkClient.createPaths(Arrays.asList(
+        ROOT_PATH + "/A", ROOT_PATH + "/A/A1", ROOT_PATH + "/A/A1/A11", ROOT_PATH + "/A/A2",
+        ROOT_PATH + "/B", ROOT_PATH + "/C", ROOT_PATH + "/C/C1"));
+
+    // The whole subtrees are deleted by ZK multi, and the others are retained
+    zkClient.deleteRecursively(Arrays.asList(ROOT_PATH + "/A", ROOT_PATH + "/B"));
+    Assert.assertEquals(Collections.singletonList("C"), zkClient.getChildren(ROOT_PATH));
+    Assert.assertEquals(Collections.singletonList("C1"), zkClient.getChildren(ROOT_PATH + "/C"));
+
+    // The not exist path fails the ZK multi, so the batch fallbacks to be deleted one by one
+    zkClient.deleteRecursively(Arrays.asList(ROOT_PATH + "/NotExist", ROOT_PATH + "/C"));
+    Assert.assertEquals(Collections.emptyList(), zkClient.getChildren(ROOT_PATH));
+
+    // Empty
+    zkClient.deleteRecursively(new ArrayList<String>());
+  }
+
+  @Test
+  public void testDeleteRecursivelyInBatches() throws Exception {
+    // Each path is more than 200 bytes, so the 4000 nodes cannot be deleted in a single batch
+    List<String> paths = new ArrayList<>();
+    List<String> childPaths = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      String path = String.format("%s/%s%04d", ROOT_PATH, StringUtils.repeat("x", 200), i);
+      paths.add(path);
+      childPaths.add(path + "/Child");
+    }
+    zkClient.createPaths(paths);
+    zkClient.createPaths(childPaths);
+    zkClient.createPath(ROOT_PATH + "/Retained");
+
+    zkClient.deleteRecursively(paths);
+    Assert.assertEquals(Collections.singletonList("Retained"), zkClient.getChildren(ROOT_PATH));
+  }
+
+  private static Map<String, String> newPathObjs(int nodeCount, String value, int valueLength) {
+    Map<String, String> pathObjs = new LinkedHashMap<>();
+    for (int i = 0; i < nodeCount; i++) {
+      pathObjs.put(ROOT_PATH + "/Node" + i, value + StringUtils.repeat("x", valueLength - 1));
+    }
+    return pathObjs;
+  }
+
+  private static void assertSmallObjects(Map<String, String> pathObjs) throws Exception {
+    Assert.assertEquals(pathObjs.size(), zkClient.getChildren(ROOT_PATH).size());
+    for (Map.Entry<String, String> pathObj : pathObjs.entrySet()) {
+      Assert.assertEquals(pathObj.getValue(), zkClient.getSmallObject(pathObj.getKey(), String.class));
+    }
+  }
+}
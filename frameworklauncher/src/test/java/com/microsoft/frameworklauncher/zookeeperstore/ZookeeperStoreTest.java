@@ -0,0 +1,276 @@
+// Copyright (c) Microsoft Corporation
+// All rights reserved. 
+//
+// MIT License
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated 
+// documentation files (the "Software"), to deal in the Software without restriction, including without limitation 
+// the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and 
+// to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+// The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING 
+// BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. 
+
+package com.microsoft.frameworklauncher.zookeeperstore;
+
+import com.microsoft.frameworklauncher.common.model.*;
+import com.microsoft.frameworklauncher.common.utils.CommonUtils;
+import com.microsoft.frameworklauncher.common.utils.YamlUtils;
+import com.microsoft.frameworklauncher.testutils.TestUtils;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+
+public class ZookeeperStoreTest {
+  private static final String ZK_BASE_DIR =
+      TestUtils.RESOURCE_ROOT + File.separator + "zkStoreTestDir";
+  private static final String FRAMEWORK_NAME = "Framework";
+  private static final String TASK_ROLE_NAME = "TaskRole";
+
+  @Test
+  public void testShardedTaskStatuses() throws Exception {
+    MockZooKeeperClient zkClient = new MockZooKeeperClient();
+    zkClient.deleteRecursively(ZK_BASE_DIR);
+    ZookeeperStoreStructure zkStruct = new ZookeeperStoreStructure(ZK_BASE_DIR);
+    ZookeeperStore zkStore = new ZookeeperStore(zkClient, zkStruct);
+    String shardsPath = zkStruct.getTaskStatusesShardsPath(FRAMEWORK_NAME, TASK_ROLE_NAME);
+
+    // Set all shards
+    TaskStatuses taskStatuses = newTaskStatuses(5);
+    zkStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 2, null);
+    assertTaskStatuses(taskStatuses, zkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+    Assert.assertEquals(3, zkClient.getChildren(shardsPath).size());
+
+    // Only the changed shard is rewritten, and the replaced one is GC
+    List<String> oldPartNames = new ArrayList<>(zkClient.getChildren(shardsPath));
+    taskStatuses.getTaskStatusArray().get(3).setTaskState(TaskState.TASK_COMPLETED);
+    zkStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 2,
+        new HashSet<>(Collections.singletonList(3)));
+    assertTaskStatuses(taskStatuses, zkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+    List<String> newPartNames = new ArrayList<>(zkClient.getChildren(shardsPath));
+    Assert.assertEquals(3, newPartNames.size());
+    newPartNames.retainAll(oldPartNames);
+    Assert.assertEquals(2, newPartNames.size());
+
+    // TaskIndex range changed shard is rewritten even if no Task changed
+    taskStatuses.getTaskStatusArray().remove(4);
+    zkStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 2, new HashSet<>());
+    assertTaskStatuses(taskStatuses, zkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+    Assert.assertEquals(2, zkClient.getChildren(shardsPath).size());
+
+    // Switch between whole and sharded TaskStatuses
+    taskStatuses.getTaskStatusArray().get(0).setTaskState(TaskState.TASK_COMPLETED);
+    zkStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses);
+    assertTaskStatuses(taskStatuses, zkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+    Assert.assertFalse(zkClient.exists(zkStruct.getTaskStatusesShardSetPath(FRAMEWORK_NAME, TASK_ROLE_NAME)));
+
+    taskStatuses.getTaskStatusArray().get(1).setTaskState(TaskState.TASK_COMPLETED);
+    zkStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 3, new HashSet<>());
+    assertTaskStatuses(taskStatuses, zkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+    Assert.assertFalse(zkClient.exists(zkStruct.getTaskStatusesPath(FRAMEWORK_NAME, TASK_ROLE_NAME)));
+  }
+
+  @Test
+  public void testParallelRecovery() throws Exception {
+    MockZooKeeperClient zkClient = new MockZooKeeperClient();
+    zkClient.deleteRecursively(ZK_BASE_DIR);
+    ZookeeperStoreStructure zkStruct = new ZookeeperStoreStructure(ZK_BASE_DIR);
+    ZookeeperStore sequentialZkStore = new ZookeeperStore(zkClient, zkStruct);
+    ZookeeperStore parallelZkStore = new ZookeeperStore(zkClient, zkStruct, 4);
+
+    sequentialZkStore.setLauncherStatus(new LauncherStatus());
+    sequentialZkStore.setLauncherRequest(new LauncherRequest());
+    for (int i = 0; i < 20; i++) {
+      String frameworkName = FRAMEWORK_NAME + i;
+      FrameworkStatus frameworkStatus = new FrameworkStatus();
+      frameworkStatus.setFrameworkName(frameworkName);
+      sequentialZkStore.setFrameworkStatus(frameworkName, frameworkStatus);
+      sequentialZkStore.setTaskRoleStatus(frameworkName, TASK_ROLE_NAME, new TaskRoleStatus());
+      sequentialZkStore.setTaskStatuses(frameworkName, TASK_ROLE_NAME, newTaskStatuses(i));
+      sequentialZkStore.setFrameworkRequest(frameworkName, new FrameworkRequest());
+    }
+
+    // Corrupted AggregatedFrameworkStatus is got as null
+    String corruptedFrameworkName = FRAMEWORK_NAME + 7;
+    CommonUtils.writeFile(zkStruct.getTaskRoleStatusPath(corruptedFrameworkName, TASK_ROLE_NAME) + ".yml", "[");
+
+    AggregatedLauncherStatus expectStatus = sequentialZkStore.getAggregatedLauncherStatus();
+    AggregatedLauncherStatus resultStatus = parallelZkStore.getAggregatedLauncherStatus();
+    Assert.assertEquals(20, resultStatus.getAggregatedFrameworkStatuses().size());
+    Assert.assertNull(resultStatus.getAggregatedFrameworkStatuses().get(corruptedFrameworkName));
+    Assert.assertTrue("AggregatedLauncherStatus do not match!", YamlUtils.deepEquals(expectStatus, resultStatus));
+
+    AggregatedLauncherRequest expectRequest = sequentialZkStore.getAggregatedLauncherRequest();
+    AggregatedLauncherRequest resultRequest = parallelZkStore.getAggregatedLauncherRequest();
+    Assert.assertEquals(20, resultRequest.getAggregatedFrameworkRequests().size());
+    Assert.assertTrue("AggregatedLauncherRequest do not match!", YamlUtils.deepEquals(expectRequest, resultRequest));
+    Assert.assertTrue("AllFrameworkRequests do not match!", YamlUtils.deepEquals(
+        sequentialZkStore.getAllFrameworkRequests(), parallelZkStore.getAllFrameworkRequests()));
+
+    // The recovery threads are stopped after the reads
+    long deadline = System.currentTimeMillis() + 10000;
+    while (getRecoveryThreadCount() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(0, getRecoveryThreadCount());
+  }
+
+  private static long getRecoveryThreadCount() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().startsWith("ZookeeperStore-Recovery-"))
+        .count();
+  }
+
+  @Test
+  public void testReadCache() throws Exception {
+    ZookeeperReadCache sharedCache = new ZookeeperReadCache(2, 60000, true);
+    TaskStatuses taskStatuses = newTaskStatuses(3);
+
+    // Only hit with the same version
+    Assert.assertSame(taskStatuses, sharedCache.put("/A", "1", taskStatuses));
+    Assert.assertSame(taskStatuses, sharedCache.get("/A", "1", TaskStatuses.class));
+    Assert.assertNull(sharedCache.get("/A", "2", TaskStatuses.class));
+    Assert.assertNull(sharedCache.get("/A", "1", TaskStatuses.class));
+    Assert.assertEquals(1, sharedCache.getHitCount());
+    Assert.assertEquals(2, sharedCache.getMissCount());
+
+    // Evict in LRU order
+    sharedCache.put("/A", "1", taskStatuses);
+    sharedCache.put("/B", "1", taskStatuses);
+    sharedCache.get("/A", "1", TaskStatuses.class);
+    sharedCache.put("/C", "1", taskStatuses);
+    Assert.assertEquals(2, sharedCache.size());
+    Assert.assertNotNull(sharedCache.get("/A", "1", TaskStatuses.class));
+    Assert.assertNull(sharedCache.get("/B", "1", TaskStatuses.class));
+
+    // Invalidate the subtree
+    sharedCache.put("/A/B", "1", taskStatuses);
+    sharedCache.invalidateRecursively("/A");
+    Assert.assertEquals(0, sharedCache.size());
+
+    // Expire
+    ZookeeperReadCache expiredCache = new ZookeeperReadCache(2, -1, true);
+    expiredCache.put("/A", "1", taskStatuses);
+    Assert.assertNull(expiredCache.get("/A", "1", TaskStatuses.class));
+
+    // Copy on put and get
+    ZookeeperReadCache copiedCache = new ZookeeperReadCache(2, 60000, false);
+    TaskStatuses putTaskStatuses = copiedCache.put("/A", "1", taskStatuses);
+    Assert.assertNotSame(taskStatuses, putTaskStatuses);
+    putTaskStatuses.getTaskStatusArray().get(0).setTaskState(TaskState.TASK_COMPLETED);
+    TaskStatuses gotTaskStatuses = copiedCache.get("/A", "1", TaskStatuses.class);
+    Assert.assertNotSame(taskStatuses, gotTaskStatuses);
+    assertTaskStatuses(taskStatuses, gotTaskStatuses);
+  }
+
+  @Test
+  public void testReadCacheView() throws Exception {
+    MockZooKeeperClient zkClient = new MockZooKeeperClient();
+    zkClient.deleteRecursively(ZK_BASE_DIR);
+    ZookeeperStoreStructure zkStruct = new ZookeeperStoreStructure(ZK_BASE_DIR);
+    ZookeeperStore zkStore = new ZookeeperStore(zkClient, zkStruct);
+    Assert.assertSame(zkStore, zkStore.withReadCache(0, 60, true));
+
+    // The view always reads the latest objects, even if their versions are not supported
+    ZookeeperStore cachedZkStore = zkStore.withReadCache(10, 60, true);
+    TaskStatuses taskStatuses = newTaskStatuses(5);
+    zkStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 2, null);
+    assertTaskStatuses(taskStatuses, cachedZkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+    taskStatuses.getTaskStatusArray().get(3).setTaskState(TaskState.TASK_COMPLETED);
+    zkStore.setTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME, taskStatuses, 2,
+        new HashSet<>(Collections.singletonList(3)));
+    assertTaskStatuses(taskStatuses, cachedZkStore.getTaskStatuses(FRAMEWORK_NAME, TASK_ROLE_NAME));
+
+    zkStore.deleteFrameworkStatus(FRAMEWORK_NAME);
+    try {
+      cachedZkStore.getTaskRoleStatus(FRAMEWORK_NAME, TASK_ROLE_NAME);
+      Assert.fail("NoNodeException should be thrown");
+    } catch (KeeperException.NoNodeException ignored) {
+    }
+  }
+
+  @Test
+  public void testLauncherStatusChangeWatches() throws Exception {
+    ZookeeperStoreStructure zkStruct = new ZookeeperStoreStructure("/Launcher");
+    String taskStatusesPath = zkStruct.getTaskStatusesPath(FRAMEWORK_NAME, TASK_ROLE_NAME);
+    String readyPayloadVersionsPath = taskStatusesPath + "/ReadyPayloadVersions";
+    String shardsPath = zkStruct.getTaskStatusesShardsPath(FRAMEWORK_NAME, TASK_ROLE_NAME);
+
+    // Node Path -> Children, and the watched Paths
+    Map<String, List<String>> nodes = new HashMap<>();
+    nodes.put(zkStruct.getLauncherStatusPath(), Collections.singletonList(FRAMEWORK_NAME));
+    nodes.put(zkStruct.getFrameworkStatusPath(FRAMEWORK_NAME), Collections.singletonList(TASK_ROLE_NAME));
+    nodes.put(zkStruct.getTaskRoleStatusPath(FRAMEWORK_NAME, TASK_ROLE_NAME),
+        Arrays.asList("TaskStatuses", "TaskStatusesShardSet", "TaskStatusesShards"));
+    nodes.put(taskStatusesPath, Arrays.asList("ReadyPayloadVersions", "0000000001"));
+    nodes.put(readyPayloadVersionsPath, Collections.singletonList("0000000001"));
+    nodes.put(readyPayloadVersionsPath + "/0000000001", Collections.emptyList());
+    nodes.put(taskStatusesPath + "/0000000001", Arrays.asList("0", "1"));
+    nodes.put(taskStatusesPath + "/0000000001/0", Collections.emptyList());
+    nodes.put(taskStatusesPath + "/0000000001/1", Collections.emptyList());
+    nodes.put(zkStruct.getTaskStatusesShardSetPath(FRAMEWORK_NAME, TASK_ROLE_NAME), Collections.emptyList());
+    nodes.put(shardsPath, Arrays.asList("0000000002", "0000000003"));
+    nodes.put(shardsPath + "/0000000002", Collections.emptyList());
+    nodes.put(shardsPath + "/0000000003", Collections.emptyList());
+    Set<String> existsWatchedPaths = new HashSet<>();
+    Set<String> childrenWatchedPaths = new HashSet<>();
+
+    ZooKeeperClient zkClient = new ZooKeeperClient() {
+      @Override
+      public Boolean exists(String path, Watcher watcher) {
+        existsWatchedPaths.add(path);
+        return nodes.containsKey(path);
+      }
+
+      @Override
+      public List<String> getChildren(String path, Watcher watcher) {
+        childrenWatchedPaths.add(path);
+        return nodes.get(path);
+      }
+    };
+    new ZookeeperStore(zkClient, zkStruct).newAggregatedLauncherStatusChangeNotifier(true);
+
+    // Only the nodes changed once per write are watched, instead of each PayloadPart and shard
+    Assert.assertEquals(new HashSet<>(Arrays.asList(
+        zkStruct.getLauncherStatusPath(),
+        zkStruct.getFrameworkStatusPath(FRAMEWORK_NAME),
+        zkStruct.getTaskRoleStatusPath(FRAMEWORK_NAME, TASK_ROLE_NAME),
+        taskStatusesPath,
+        readyPayloadVersionsPath,
+        zkStruct.getTaskStatusesShardSetPath(FRAMEWORK_NAME, TASK_ROLE_NAME))), existsWatchedPaths);
+    Assert.assertEquals(new HashSet<>(Arrays.asList(
+        zkStruct.getLauncherStatusPath(),
+        zkStruct.getFrameworkStatusPath(FRAMEWORK_NAME),
+        zkStruct.getTaskRoleStatusPath(FRAMEWORK_NAME, TASK_ROLE_NAME),
+        taskStatusesPath,
+        readyPayloadVersionsPath,
+        zkStruct.getTaskStatusesShardSetPath(FRAMEWORK_NAME, TASK_ROLE_NAME))), childrenWatchedPaths);
+  }
+
+  private static TaskStatuses newTaskStatuses(int taskNumber) {
+    TaskStatuses taskStatuses = new TaskStatuses();
+    taskStatuses.setTaskRoleName(TASK_ROLE_NAME);
+    taskStatuses.setFrameworkVersion(1);
+    taskStatuses.setTaskStatusArray(new ArrayList<>());
+    for (int taskIndex = 0; taskIndex < taskNumber; taskIndex++) {
+      TaskStatus taskStatus = new TaskStatus();
+      taskStatus.setTaskIndex(taskIndex);
+      taskStatus.setTaskRoleName(TASK_ROLE_NAME);
+      taskStatus.setTaskState(TaskState.TASK_WAITING);
+      taskStatuses.getTaskStatusArray().add(taskStatus);
+    }
+    return taskStatuses;
+  }
+
+  private static void assertTaskStatuses(TaskStatuses expect, TaskStatuses result) {
+    Assert.assertTrue("TaskStatuses do not match!", YamlUtils.deepEquals(expect, result));
+  }
+}